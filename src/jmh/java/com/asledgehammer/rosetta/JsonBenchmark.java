@@ -0,0 +1,74 @@
+package com.asledgehammer.rosetta;
+
+import com.asledgehammer.rosetta.java.*;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Compares saving & loading the same collection as YAML & as JSON. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+  private RosettaCollection collection;
+  private JavaSerializeSettings settings;
+  private String yaml;
+  private String json;
+
+  @Setup
+  public void setup() throws IOException {
+    JavaLanguage language = new JavaLanguage();
+    JavaDiscoverySettings discoverySettings = new JavaDiscoverySettings();
+    for (Class<?> clazz :
+        List.of(ArrayList.class, HashMap.class, TreeMap.class, ConcurrentHashMap.class)) {
+      language.of(discoverySettings, clazz);
+    }
+    collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+    settings = new JavaSerializeSettings().setTypeMode(TypeDictionaryMode.LIST);
+
+    yaml = saveYaml();
+    json = saveJson();
+  }
+
+  @Benchmark
+  public String saveYaml() throws IOException {
+    StringWriter writer = new StringWriter();
+    collection.save(
+        "bench",
+        (id, app, w) -> w.value(Map.of()),
+        (id, lang, w) -> ((JavaLanguage) lang).onSave(settings, id, w),
+        writer);
+    return writer.toString();
+  }
+
+  @Benchmark
+  public String saveJson() throws IOException {
+    StringWriter writer = new StringWriter();
+    collection.saveJson(
+        "bench",
+        (id, app, w) -> w.value(Map.of()),
+        (id, lang, w) -> ((JavaLanguage) lang).onSave(settings, id, w),
+        writer,
+        true);
+    return writer.toString();
+  }
+
+  @Benchmark
+  public Object loadYaml() {
+    return Rosetta.getYamlReader().loadFromReader(new StringReader(yaml));
+  }
+
+  @Benchmark
+  public Object loadJson() throws IOException {
+    return new JsonStreamReader(new StringReader(json)).readValue();
+  }
+}
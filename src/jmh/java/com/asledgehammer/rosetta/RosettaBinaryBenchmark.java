@@ -0,0 +1,48 @@
+package com.asledgehammer.rosetta;
+
+import com.asledgehammer.rosetta.java.*;
+import java.io.StringReader;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Compares loading the same collection from YAML & from {@link RosettaBinary}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RosettaBinaryBenchmark {
+
+  private String yaml;
+  private byte[] binary;
+
+  @Setup
+  public void setup() {
+    JavaLanguage language = new JavaLanguage();
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    for (Class<?> clazz :
+        List.of(ArrayList.class, HashMap.class, TreeMap.class, ConcurrentHashMap.class)) {
+      language.of(settings, clazz);
+    }
+    JavaSerializeSettings serializeSettings =
+        new JavaSerializeSettings().setTypeMode(TypeDictionaryMode.LIST);
+    Map<String, Object> raw =
+        Map.of("languages", Map.of("java", language.onSave(serializeSettings, "bench")));
+
+    yaml = Rosetta.getYamlWriter().dumpToString(raw);
+    binary = RosettaBinary.write(raw);
+  }
+
+  @Benchmark
+  public Object loadYaml() {
+    return Rosetta.getYamlReader().loadFromReader(new StringReader(yaml));
+  }
+
+  @Benchmark
+  public Object loadBinary() {
+    return RosettaBinary.read(binary);
+  }
+}
@@ -0,0 +1,160 @@
+package com.asledgehammer.rosetta.java;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import javax.tools.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Discovers a synthetic workload of 10,000 classes into a new language, over a range of worker
+ * threads. The classes are generated & compiled in memory once, spread over 100 packages. Each has
+ * generic fields, constructors & methods referencing classes of its own & other packages, so
+ * discovery resolves types as it would for a real library. The reference caches are warm after the
+ * first invocation, so this measures the discovery itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JavaDiscoveryBenchmark {
+
+  static final int PACKAGES = 100;
+  static final int CLASSES_PER_PACKAGE = 100;
+
+  @Param({"1", "2", "4", "8"})
+  public int threads;
+
+  private List<Class<?>> classes;
+  private JavaDiscoverySettings settings;
+
+  @Setup
+  public void setup() throws ClassNotFoundException {
+    classes = classes();
+    settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+  }
+
+  @Benchmark
+  public Object discover() {
+    return new JavaLanguage().discoverAll(classes, settings, threads);
+  }
+
+  /** Generates, compiles & loads the classes. (In the order of their names) */
+  static List<Class<?>> classes() throws ClassNotFoundException {
+    final List<JavaFileObject> sources = new ArrayList<>();
+    final List<String> names = new ArrayList<>();
+    for (int p = 0; p < PACKAGES; p++) {
+      for (int c = 0; c < CLASSES_PER_PACKAGE; c++) {
+        final String name = "bench.p%02d.C%02d".formatted(p, c);
+        sources.add(new Source(name, source(p, c)));
+        names.add(name);
+      }
+    }
+
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) throw new IllegalStateException("A JDK is required to compile classes.");
+    final Map<String, ByteArrayOutputStream> compiled = new HashMap<>();
+    final JavaFileManager files =
+        new ForwardingJavaFileManager<>(compiler.getStandardFileManager(null, null, null)) {
+          @Override
+          public JavaFileObject getJavaFileForOutput(
+              Location location, String name, JavaFileObject.Kind kind, FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("mem:///" + name + ".class"), kind) {
+              @Override
+              public OutputStream openOutputStream() {
+                return compiled.computeIfAbsent(name, k -> new ByteArrayOutputStream());
+              }
+            };
+          }
+        };
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    final List<String> options = List.of("-g:none", "-proc:none");
+    if (!compiler.getTask(null, files, diagnostics, options, null, sources).call()) {
+      throw new IllegalStateException(diagnostics.getDiagnostics().toString());
+    }
+
+    final ClassLoader loader =
+        new ClassLoader(JavaDiscoveryBenchmark.class.getClassLoader()) {
+          @Override
+          protected Class<?> findClass(String name) throws ClassNotFoundException {
+            final ByteArrayOutputStream bytes = compiled.get(name);
+            if (bytes == null) throw new ClassNotFoundException(name);
+            return defineClass(name, bytes.toByteArray(), 0, bytes.size());
+          }
+        };
+    final List<Class<?>> classes = new ArrayList<>(names.size());
+    for (String name : names) classes.add(Class.forName(name, false, loader));
+    return classes;
+  }
+
+  /** The source of class <code>c</code> in package <code>p</code>. */
+  private static String source(int p, int c) {
+    // (A class of the same & of the next package)
+    final String same = "bench.p%02d.C%02d".formatted(p, (c + 1) % CLASSES_PER_PACKAGE);
+    final String other = "bench.p%02d.C%02d".formatted((p + 1) % PACKAGES, c);
+    return """
+           package bench.p%02d;
+
+           import java.util.*;
+           import java.util.function.*;
+
+           public class C%02d<T extends Comparable<? super T>> implements Comparable<C%02d<T>> {
+
+             public static final int ID = %d;
+             public T value;
+             public List<%s<String>> siblings = new ArrayList<>();
+             protected Map<String, ? extends %s<Integer>> others;
+
+             public C%02d() {}
+
+             public C%02d(T value, List<%s<String>> siblings) {
+               this.value = value;
+               this.siblings = siblings;
+             }
+
+             public T getValue() { return value; }
+
+             public void setValue(T value) { this.value = value; }
+
+             public <R> R map(Function<? super T, ? extends R> function) {
+               return function.apply(value);
+             }
+
+             public %s<String> sibling(int index) { return siblings.get(index); }
+
+             public Optional<%s<Integer>> other(String key) {
+               return Optional.ofNullable(others != null ? others.get(key) : null);
+             }
+
+             public static <E extends Number> double sum(Collection<E> values, double[] weights) {
+               return 0;
+             }
+
+             @Override
+             public int compareTo(C%02d<T> o) { return value.compareTo(o.value); }
+           }
+           """
+        .formatted(p, c, c, p * CLASSES_PER_PACKAGE + c, same, other, c, c, same, same, other, c);
+  }
+
+  /** The source of a generated class, in memory. */
+  private static final class Source extends SimpleJavaFileObject {
+
+    private final String code;
+
+    Source(String name, String code) {
+      super(URI.create("mem:///" + name.replace('.', '/') + ".java"), Kind.SOURCE);
+      this.code = code;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return code;
+    }
+  }
+}
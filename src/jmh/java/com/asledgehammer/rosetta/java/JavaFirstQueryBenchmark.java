@@ -0,0 +1,110 @@
+package com.asledgehammer.rosetta.java;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import java.io.StringReader;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Loads the YAML documentation of a few dozen JDK classes and queries one class, from the parsed
+ * document or from its parse events, eagerly or lazily. (Time to first query. Run with <code>
+ * -prof gc</code> for the allocations of each)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JavaFirstQueryBenchmark {
+
+  static final List<Class<?>> CLASSES =
+      List.of(
+          ArrayList.class,
+          LinkedList.class,
+          HashMap.class,
+          TreeMap.class,
+          LinkedHashMap.class,
+          HashSet.class,
+          TreeSet.class,
+          ArrayDeque.class,
+          PriorityQueue.class,
+          Collections.class,
+          Arrays.class,
+          Objects.class,
+          Optional.class,
+          Scanner.class,
+          BitSet.class,
+          ConcurrentHashMap.class,
+          ConcurrentLinkedQueue.class,
+          CopyOnWriteArrayList.class,
+          CompletableFuture.class,
+          Executors.class,
+          ThreadPoolExecutor.class,
+          ForkJoinPool.class,
+          Function.class,
+          Stream.class,
+          String.class,
+          StringBuilder.class,
+          Math.class,
+          Thread.class);
+
+  @Param({"false", "true"})
+  public boolean stream;
+
+  @Param({"false", "true"})
+  public boolean lazy;
+
+  private String yaml;
+  private JavaDeserializeSettings settings;
+
+  @Setup
+  public void setup() {
+    yaml = save(collection());
+    settings = new JavaDeserializeSettings().setLazy(lazy).build();
+  }
+
+  @Benchmark
+  public Object loadAndQuery() {
+    JavaLanguage language = (JavaLanguage) load(settings, stream, yaml).getLanguage("java");
+    return language.getPackage("java.util").getClazz("ArrayList").getMethods();
+  }
+
+  static RosettaCollection collection() {
+    JavaDiscoverySettings discoverySettings = new JavaDiscoverySettings();
+    discoverySettings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+    JavaLanguage language = new JavaLanguage();
+    for (Class<?> clazz : CLASSES) language.of(discoverySettings, clazz);
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+    return collection;
+  }
+
+  static String save(RosettaCollection collection) {
+    JavaSerializeSettings serializeSettings = new JavaSerializeSettings();
+    return collection.save(
+        "bench",
+        (id, app) -> Map.of(),
+        (id, lang) -> ((JavaLanguage) lang).onSave(serializeSettings, id));
+  }
+
+  static RosettaCollection load(JavaDeserializeSettings settings, boolean stream, String yaml) {
+    RosettaCollection collection = Rosetta.createCollection();
+    if (stream) {
+      collection.loadStream(
+          (id, app, raw) -> {},
+          (id, lang, reader) -> ((JavaLanguage) lang).onLoad(settings, id, reader),
+          new StringReader(yaml));
+    } else {
+      collection.load(
+          (id, app, raw) -> {},
+          (id, lang, raw) -> ((JavaLanguage) lang).onLoad(settings, id, raw),
+          yaml);
+    }
+    return collection;
+  }
+}
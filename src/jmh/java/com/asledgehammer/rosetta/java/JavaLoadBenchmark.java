@@ -0,0 +1,62 @@
+package com.asledgehammer.rosetta.java;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Loads the documentation of a few collection classes, saved with each type-dictionary mode & index
+ * order, from parsed YAML.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaLoadBenchmark {
+
+  @Param({"NONE", "LIST"})
+  public TypeDictionaryMode mode;
+
+  /** Ignored without a type-dictionary. */
+  @Param({"false", "true"})
+  public boolean sortTypesByUsage;
+
+  private Map<String, Object> raw;
+  private JavaDeserializeSettings settings;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    JavaDiscoverySettings discoverySettings = new JavaDiscoverySettings();
+    JavaLanguage language = new JavaLanguage();
+    for (Class<?> clazz :
+        List.of(ArrayList.class, HashMap.class, TreeMap.class, ConcurrentHashMap.class)) {
+      language.of(discoverySettings, clazz);
+    }
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+
+    JavaSerializeSettings serializeSettings =
+        new JavaSerializeSettings().setTypeMode(mode).setSortTypesByUsage(sortTypesByUsage);
+    String yaml =
+        collection.save(
+            "bench",
+            (id, app) -> Map.of(),
+            (id, lang) -> ((JavaLanguage) lang).onSave(serializeSettings, id));
+    Map<String, Object> root = (Map<String, Object>) Rosetta.getYamlReader().loadFromString(yaml);
+    raw = (Map<String, Object>) ((Map<String, Object>) root.get("languages")).get("java");
+    settings = new JavaDeserializeSettings().build();
+  }
+
+  @Benchmark
+  public Object load() {
+    JavaLanguage language = new JavaLanguage();
+    language.onLoad(settings, "bench", raw);
+    return language;
+  }
+}
@@ -0,0 +1,82 @@
+package com.asledgehammer.rosetta.java;
+
+import com.asledgehammer.rosetta.java.reference.ClassReference;
+import com.asledgehammer.rosetta.java.reference.TypeReference;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Registers one million type usages, taken from the methods of a few collection classes, in a new
+ * {@link JavaTypeDictionary}. Almost every registration is a hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaTypeDictionaryBenchmark {
+
+  private static final int USAGES = 1_000_000;
+
+  private final List<TypeReference> types = new ArrayList<>();
+  private final List<ClassReference> references = new ArrayList<>();
+  private final List<Class<?>> deCls = new ArrayList<>();
+  private JavaSerializeSettings settings;
+
+  @Setup
+  public void setup() {
+    JavaLanguage language = new JavaLanguage();
+    JavaDiscoverySettings discoverySettings = new JavaDiscoverySettings();
+    for (Class<?> clazz :
+        List.of(ArrayList.class, HashMap.class, TreeMap.class, ConcurrentHashMap.class)) {
+      JavaClass javaClass = language.of(discoverySettings, clazz);
+      ClassReference reference = ClassReference.of(clazz);
+      for (JavaExecutableCollection<JavaMethod> methods : javaClass.getMethods().values()) {
+        for (JavaMethod method : methods.getExecutables()) {
+          Method target = method.getReflectionTarget();
+          Class<?> deCl = target != null ? target.getDeclaringClass() : null;
+          for (JavaParameter parameter : method.getParameters()) {
+            types.add(parameter.getType());
+            references.add(reference);
+            deCls.add(deCl);
+          }
+          if (method.getReturns() != null) {
+            types.add(method.getReturns().getType());
+            references.add(reference);
+            deCls.add(deCl);
+          }
+        }
+      }
+    }
+    settings = new JavaSerializeSettings().setTypeMode(TypeDictionaryMode.LIST);
+  }
+
+  @Benchmark
+  public Object register() {
+    JavaSerializeInstance serialize = new JavaSerializeInstance(settings, "bench");
+    JavaTypeDictionary dictionary = serialize.getTypeDictionary();
+    int count = types.size();
+    String last = null;
+    for (int i = 0; i < USAGES; i++) {
+      int j = i % count;
+      last = dictionary.register(serialize, types.get(j), references.get(j), deCls.get(j));
+    }
+    return last;
+  }
+
+  @Benchmark
+  public Object registerAndRender() {
+    JavaSerializeInstance serialize = new JavaSerializeInstance(settings, "bench");
+    JavaTypeDictionary dictionary = serialize.getTypeDictionary();
+    int count = types.size();
+    for (int i = 0; i < USAGES; i++) {
+      int j = i % count;
+      dictionary.register(serialize, types.get(j), references.get(j), deCls.get(j));
+    }
+    return dictionary.render();
+  }
+}
@@ -0,0 +1,153 @@
+package com.asledgehammer.rosetta.java.reference;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * LegacyTypeParser is the substring & split based parser that {@link TypeParser} replaced, kept as
+ * the baseline of {@link TypeParserBenchmark}. Its strings are taken apart as before, but the
+ * references are built through the same factories as {@link TypeParser}, so both do the same
+ * interning & class resolution. (Only bounded wildcards differ: The old parser dropped their
+ * bounds)
+ */
+final class LegacyTypeParser {
+
+  private LegacyTypeParser() {}
+
+  @NotNull
+  static TypeReference parse(@NotNull String rawType) {
+
+    final int firstIndexOfSpace = rawType.indexOf(" ");
+    final int firstIndexOfSubTypes = rawType.indexOf("<");
+    final int firstIndexOfExtends = rawType.indexOf(" extends ");
+    final int firstIndexOfSuper = rawType.indexOf(" super ");
+
+    boolean isSimpleType = firstIndexOfSpace == -1 && firstIndexOfSubTypes == -1;
+    if (isSimpleType) {
+      return parseSimple(rawType);
+    }
+
+    boolean spaceBeforeSubType =
+        firstIndexOfSpace != -1
+            && (firstIndexOfSubTypes == -1 || firstIndexOfSpace < firstIndexOfSubTypes);
+
+    // If we don't have subTypes, don't mess with parse-checking them.
+    if (!spaceBeforeSubType || (firstIndexOfExtends == -1 && firstIndexOfSuper == -1)) {
+      return parseSimple(rawType);
+    }
+
+    final boolean extendsOrSuper = firstIndexOfExtends != -1;
+    final String base;
+    final String sub;
+    if (extendsOrSuper) {
+      base = rawType.substring(0, firstIndexOfExtends).trim();
+      sub = rawType.substring(firstIndexOfExtends + " extends ".length());
+    } else {
+      base = rawType.substring(0, firstIndexOfSuper).trim();
+      sub = rawType.substring(firstIndexOfSuper + " super ".length());
+    }
+
+    final List<String> list = getStrings(sub);
+    final TypeReference[] bounds = new TypeReference[list.size()];
+    for (int i = 0; i < bounds.length; i++) {
+      bounds[i] = parse(list.get(i));
+    }
+
+    if (base.equals("?")) {
+      return TypeReference.ofWildcard(extendsOrSuper, bounds);
+    }
+    return TypeReference.ofBounded(base, extendsOrSuper, bounds, isGeneric(base));
+  }
+
+  /** The parsing of the removed <code>SimpleTypeReference(String)</code> constructor. */
+  @NotNull
+  private static TypeReference parseSimple(@NotNull String raw) {
+    raw = raw.trim();
+
+    // If the type is an array, parse out the syntax and calculate its depth.
+    int arrayDepth = 0;
+    while (raw.endsWith("[]")) {
+      arrayDepth++;
+      raw = raw.substring(0, raw.length() - 2);
+    }
+
+    final String base;
+    List<TypeReference> subTypes = null;
+    if (raw.indexOf('<') != -1) {
+      base = raw.substring(0, raw.indexOf('<'));
+      final List<String> subTypesStr = getGenericTypes(raw);
+      subTypes = new ArrayList<>(subTypesStr.size());
+      for (String subTypeStr : subTypesStr) {
+        subTypes.add(parse(subTypeStr));
+      }
+    } else {
+      base = raw.trim();
+    }
+
+    final boolean wildcard = base.equals("?");
+    return TypeReference.ofSimple(base, subTypes, arrayDepth, wildcard || isGeneric(base));
+  }
+
+  @NotNull
+  private static List<String> getGenericTypes(@NotNull String raw) {
+    int level = 0;
+    final List<String> vars = new ArrayList<>();
+    StringBuilder var = new StringBuilder();
+    for (int x = 0; x < raw.length(); x++) {
+      char curr = raw.charAt(x);
+      if (curr == '<') {
+        level++;
+        if (level > 1) {
+          var.append(curr);
+        }
+      } else if (curr == '>') {
+        level--;
+        if (level > 0) {
+          var.append(curr);
+        } else {
+          break;
+        }
+      } else if (curr == ',' && level == 1) {
+        vars.add(var.toString().trim());
+        var = new StringBuilder();
+      } else if (level != 0) {
+        var.append(curr);
+      }
+    }
+
+    if (!var.isEmpty()) {
+      vars.add(var.toString().trim());
+    }
+
+    return vars;
+  }
+
+  @NotNull
+  private static List<String> getStrings(@NotNull String sub) {
+    List<String> list = new ArrayList<>();
+    int level = 0;
+    StringBuilder current = new StringBuilder();
+    for (int index = 0; index < sub.length(); index++) {
+      char curr = sub.charAt(index);
+      if (curr == '<') {
+        level++;
+      } else if (curr == '>') {
+        level--;
+      } else if (curr == '&' && level == 0) {
+        list.add(current.toString().trim());
+        current = new StringBuilder();
+        continue;
+      }
+      current.append(curr);
+    }
+    if (!current.isEmpty()) {
+      list.add(current.toString().trim());
+    }
+    return list;
+  }
+
+  private static boolean isGeneric(@NotNull String name) {
+    return !TypeReference.PRIMITIVE_TYPES.contains(name) && !TypeReference.isResolvable(name);
+  }
+}
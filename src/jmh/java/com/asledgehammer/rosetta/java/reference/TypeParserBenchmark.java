@@ -0,0 +1,49 @@
+package com.asledgehammer.rosetta.java.reference;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures parsing type strings without the string cache, against the parser it replaced. (See
+ * {@link LegacyTypeParser}) Run with the GC profiler to compare the allocations per parse. (<code>
+ * gc.alloc.rate.norm</code>)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeParserBenchmark {
+
+  @Param({
+    "java.lang.String",
+    "java.util.Map<K, java.util.List<? extends java.lang.Comparable<? super T>>>",
+    "java.util.Map<java.lang.String, java.util.Map<java.lang.String, java.util.List<java.util.Map"
+        + "<K, java.util.List<? extends java.lang.Comparable<? super T>>>>>>[]"
+  })
+  public String type;
+
+  @Setup
+  public void setup() {
+    // Both parsers must build the same type, or the comparison is meaningless.
+    if (LegacyTypeParser.parse(type) != TypeParser.parse(type)) {
+      throw new IllegalStateException("The parsers disagree on: " + type);
+    }
+  }
+
+  @Benchmark
+  public TypeReference parse() {
+    return TypeParser.parse(type);
+  }
+
+  @Benchmark
+  public TypeReference parseLegacy() {
+    return LegacyTypeParser.parse(type);
+  }
+
+  @Benchmark
+  public TypeReference parseCached() {
+    return TypeReference.of(type);
+  }
+}
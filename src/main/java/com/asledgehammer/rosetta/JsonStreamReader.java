@@ -0,0 +1,555 @@
+package com.asledgehammer.rosetta;
+
+import com.asledgehammer.rosetta.exception.RosettaException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * JsonStreamReader reads a single JSON document token by token. Containers are entered and left
+ * explicitly, so a document never has to be held in memory as a whole. Complete values are read
+ * with {@link #readValue()}.
+ *
+ * <p>Values are read as the YAML loader reads them: Objects as {@link LinkedHashMap}s, arrays as
+ * {@link ArrayList}s and integers as the smallest of {@link Integer}, {@link Long} & {@link
+ * BigInteger}.
+ *
+ * <p>Malformed documents throw {@link RosettaException}s with the line & column of the error.
+ *
+ * <p>See {@link #asStreamReader()} to load languages from the document as it is read.
+ */
+public class JsonStreamReader implements Closeable {
+
+  private static final Pattern NUMBER =
+      Pattern.compile("-?(?:0|[1-9][0-9]*)(?:\\.[0-9]+)?(?:[eE][+-]?[0-9]+)?");
+
+  /** The tokens of a JSON document. */
+  public enum Token {
+    BEGIN_OBJECT,
+    END_OBJECT,
+    BEGIN_ARRAY,
+    END_ARRAY,
+    NAME,
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL,
+    END_DOCUMENT
+  }
+
+  private static final int EMPTY_DOCUMENT = 0;
+  private static final int NONEMPTY_DOCUMENT = 1;
+  private static final int EMPTY_OBJECT = 2;
+  private static final int NONEMPTY_OBJECT = 3;
+  private static final int DANGLING_NAME = 4;
+  private static final int EMPTY_ARRAY = 5;
+  private static final int NONEMPTY_ARRAY = 6;
+
+  private final Reader reader;
+  private final char[] buffer = new char[8192];
+  private int position = 0;
+  private int limit = 0;
+  private int line = 1;
+  private int column = 0;
+
+  private int[] stack = new int[32];
+  private int depth = 1;
+
+  @Nullable private Token peeked = null;
+  @Nullable private String peekedString = null;
+  private final StringBuilder builder = new StringBuilder();
+
+  /** True while skipping a value. (Strings are read past without being built) */
+  private boolean skipping = false;
+
+  /** The text of the value being deferred, up to the start of the buffer. (If any) */
+  @Nullable private StringBuilder capture = null;
+
+  private int captureStart = 0;
+
+  /**
+   * @param reader The reader of the document.
+   */
+  public JsonStreamReader(@NotNull Reader reader) {
+    this.reader = reader;
+    this.stack[0] = EMPTY_DOCUMENT;
+  }
+
+  /**
+   * @return The next token, without consuming it.
+   * @throws IOException If the reader fails to read.
+   */
+  @NotNull
+  public Token peek() throws IOException {
+    if (peeked != null) return peeked;
+
+    final int top = stack[depth - 1];
+    switch (top) {
+      case EMPTY_ARRAY, NONEMPTY_ARRAY -> {
+        stack[depth - 1] = NONEMPTY_ARRAY;
+        final int c = nextNonWhitespace();
+        if (c == ']') return setPeeked(Token.END_ARRAY, null);
+        if (top == NONEMPTY_ARRAY) {
+          if (c != ',') throw error("Expected ',' or ']'");
+        } else if (c == -1) {
+          throw error("Unexpected end of the document");
+        } else {
+          // Not the end of the array. Unread the first character of the value.
+          position--;
+          column--;
+        }
+      }
+      case EMPTY_OBJECT, NONEMPTY_OBJECT -> {
+        int c = nextNonWhitespace();
+        if (c == '}') return setPeeked(Token.END_OBJECT, null);
+        if (top == NONEMPTY_OBJECT) {
+          if (c != ',') throw error("Expected ',' or '}'");
+          c = nextNonWhitespace();
+        }
+        if (c != '"') throw error("Expected a name");
+        stack[depth - 1] = DANGLING_NAME;
+        return setPeeked(Token.NAME, readString());
+      }
+      case DANGLING_NAME -> {
+        stack[depth - 1] = NONEMPTY_OBJECT;
+        if (nextNonWhitespace() != ':') throw error("Expected ':'");
+      }
+      case EMPTY_DOCUMENT -> stack[depth - 1] = NONEMPTY_DOCUMENT;
+      default -> {
+        if (nextNonWhitespace() != -1) throw error("Expected the end of the document");
+        return setPeeked(Token.END_DOCUMENT, null);
+      }
+    }
+
+    final int c = nextNonWhitespace();
+    return switch (c) {
+      case '{' -> setPeeked(Token.BEGIN_OBJECT, null);
+      case '[' -> setPeeked(Token.BEGIN_ARRAY, null);
+      case '"' -> setPeeked(Token.STRING, readString());
+      case 't' -> {
+        readLiteral("rue");
+        yield setPeeked(Token.BOOLEAN, "true");
+      }
+      case 'f' -> {
+        readLiteral("alse");
+        yield setPeeked(Token.BOOLEAN, "false");
+      }
+      case 'n' -> {
+        readLiteral("ull");
+        yield setPeeked(Token.NULL, null);
+      }
+      case -1 -> throw error("Unexpected end of the document");
+      default -> {
+        if (c != '-' && (c < '0' || c > '9'))
+          throw error("Unexpected character '" + (char) c + "'");
+        yield setPeeked(Token.NUMBER, readNumber((char) c));
+      }
+    };
+  }
+
+  /**
+   * @return True if the current object or array has another element.
+   */
+  public boolean hasNext() throws IOException {
+    final Token token = peek();
+    return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+  }
+
+  public void beginObject() throws IOException {
+    expect(Token.BEGIN_OBJECT);
+    push(EMPTY_OBJECT);
+  }
+
+  public void endObject() throws IOException {
+    expect(Token.END_OBJECT);
+    depth--;
+  }
+
+  public void beginArray() throws IOException {
+    expect(Token.BEGIN_ARRAY);
+    push(EMPTY_ARRAY);
+  }
+
+  public void endArray() throws IOException {
+    expect(Token.END_ARRAY);
+    depth--;
+  }
+
+  /**
+   * @return The name of the next entry of the current object.
+   */
+  @NotNull
+  public String nextName() throws IOException {
+    expect(Token.NAME);
+    return Objects.requireNonNull(peekedString);
+  }
+
+  /**
+   * Reads the next complete value. (An object, array or scalar)
+   *
+   * @return The value read.
+   */
+  @Nullable
+  public Object readValue() throws IOException {
+    final Token token = peek();
+    switch (token) {
+      case BEGIN_OBJECT -> {
+        beginObject();
+        final Map<String, Object> map = new LinkedHashMap<>();
+        while (hasNext()) {
+          final String name = nextName();
+          map.put(name, readValue());
+        }
+        endObject();
+        return map;
+      }
+      case BEGIN_ARRAY -> {
+        beginArray();
+        final List<Object> list = new ArrayList<>();
+        while (hasNext()) {
+          list.add(readValue());
+        }
+        endArray();
+        return list;
+      }
+      case STRING -> {
+        expect(Token.STRING);
+        return peekedString;
+      }
+      case BOOLEAN -> {
+        expect(Token.BOOLEAN);
+        return "true".equals(peekedString);
+      }
+      case NULL -> {
+        expect(Token.NULL);
+        return null;
+      }
+      case NUMBER -> {
+        expect(Token.NUMBER);
+        return toNumber(Objects.requireNonNull(peekedString));
+      }
+      default -> throw error("Expected a value but was " + token);
+    }
+  }
+
+  /** Skips the next complete value, without constructing it. */
+  public void skipValue() throws IOException {
+    final Token token = peek();
+    if (token == Token.NAME || token == Token.END_OBJECT || token == Token.END_ARRAY) {
+      throw error("Expected a value but was " + token);
+    } else if (token == Token.END_DOCUMENT) {
+      throw error("Unexpected end of the document");
+    }
+
+    skipping = true;
+    try {
+      int open = 0;
+      do {
+        switch (peek()) {
+          case BEGIN_OBJECT -> {
+            beginObject();
+            open++;
+          }
+          case BEGIN_ARRAY -> {
+            beginArray();
+            open++;
+          }
+          case END_OBJECT -> {
+            endObject();
+            open--;
+          }
+          case END_ARRAY -> {
+            endArray();
+            open--;
+          }
+          case END_DOCUMENT -> throw error("Unexpected end of the document");
+          default -> peeked = null;
+        }
+      } while (open > 0);
+    } finally {
+      skipping = false;
+    }
+  }
+
+  /**
+   * Reads the next complete value without constructing it yet. Objects & arrays are held as their
+   * JSON text until the value is needed.
+   *
+   * @return The value. (Each call constructs it again. Safe to call from any thread)
+   * @throws IOException If the reader fails to read.
+   */
+  @NotNull
+  public Supplier<Object> readDeferred() throws IOException {
+    final Token token = peek();
+    if (token != Token.BEGIN_OBJECT && token != Token.BEGIN_ARRAY) {
+      final Object value = readValue();
+      return () -> value;
+    }
+
+    // (The opening bracket is already read)
+    final String text;
+    capture = new StringBuilder().append(token == Token.BEGIN_OBJECT ? '{' : '[');
+    captureStart = position;
+    try {
+      skipValue();
+      text = capture.append(buffer, captureStart, position - captureStart).toString();
+    } finally {
+      capture = null;
+    }
+    return () -> {
+      try {
+        return new JsonStreamReader(new StringReader(text)).readValue();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    };
+  }
+
+  /**
+   * @return The document as a {@link RosettaStreamReader}. Failures to read are thrown as {@link
+   *     UncheckedIOException}s.
+   */
+  @NotNull
+  public RosettaStreamReader asStreamReader() {
+    return new StreamReader();
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  @NotNull
+  private static Object toNumber(@NotNull String text) {
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if (c == '.' || c == 'e' || c == 'E') return Double.parseDouble(text);
+    }
+    final BigInteger value = new BigInteger(text);
+    if (value.bitLength() < 32) return value.intValue();
+    if (value.bitLength() < 64) return value.longValue();
+    return value;
+  }
+
+  private void expect(@NotNull Token token) throws IOException {
+    final Token actual = peek();
+    if (actual != token) {
+      throw error("Expected " + token + " but was " + actual);
+    }
+    peeked = null;
+  }
+
+  @NotNull
+  private Token setPeeked(@NotNull Token token, @Nullable String string) {
+    this.peeked = token;
+    this.peekedString = string;
+    return token;
+  }
+
+  private void push(int state) {
+    if (depth == stack.length) {
+      stack = Arrays.copyOf(stack, depth * 2);
+    }
+    stack[depth++] = state;
+  }
+
+  private void readLiteral(@NotNull String rest) throws IOException {
+    for (int i = 0; i < rest.length(); i++) {
+      if (read() != rest.charAt(i)) throw error("Invalid literal");
+    }
+  }
+
+  @NotNull
+  private String readNumber(char first) throws IOException {
+    builder.setLength(0);
+    builder.append(first);
+    while (fill()) {
+      final char c = buffer[position];
+      if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+        builder.append(c);
+        position++;
+        column++;
+      } else {
+        break;
+      }
+    }
+    final String text = builder.toString();
+    if (!NUMBER.matcher(text).matches()) throw error("Invalid number \"" + text + "\"");
+    return text;
+  }
+
+  @NotNull
+  private String readString() throws IOException {
+    builder.setLength(0);
+    while (true) {
+      if (!fill()) throw error("Unterminated string");
+
+      // Copy runs of plain characters at once.
+      final int start = position;
+      while (position < limit) {
+        final char c = buffer[position];
+        if (c == '"' || c == '\\' || c < 0x20) break;
+        position++;
+      }
+      if (!skipping) builder.append(buffer, start, position - start);
+      column += position - start;
+      if (position == limit) continue;
+
+      final char c = buffer[position++];
+      column++;
+      if (c == '"') return skipping ? "" : builder.toString();
+      if (c != '\\') throw error("Unescaped control character in string");
+      final char escaped = readEscape();
+      if (!skipping) builder.append(escaped);
+    }
+  }
+
+  private char readEscape() throws IOException {
+    final int c = read();
+    return switch (c) {
+      case '"' -> '"';
+      case '\\' -> '\\';
+      case '/' -> '/';
+      case 'b' -> '\b';
+      case 'f' -> '\f';
+      case 'n' -> '\n';
+      case 'r' -> '\r';
+      case 't' -> '\t';
+      case 'u' -> {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+          final int digit = Character.digit(read(), 16);
+          if (digit == -1) throw error("Invalid unicode escape");
+          value = (value << 4) | digit;
+        }
+        yield (char) value;
+      }
+      default -> throw error("Invalid escape");
+    };
+  }
+
+  private int nextNonWhitespace() throws IOException {
+    while (true) {
+      final int c = read();
+      if (c != ' ' && c != '\t' && c != '\n' && c != '\r') return c;
+    }
+  }
+
+  /**
+   * @return The next character. (-1 at the end of the document)
+   */
+  private int read() throws IOException {
+    if (!fill()) return -1;
+    final char c = buffer[position++];
+    if (c == '\n') {
+      line++;
+      column = 0;
+    } else {
+      column++;
+    }
+    return c;
+  }
+
+  /**
+   * @return True if a character is available.
+   */
+  private boolean fill() throws IOException {
+    if (position < limit) return true;
+    if (capture != null) {
+      capture.append(buffer, captureStart, limit - captureStart);
+      captureStart = 0;
+    }
+    limit = reader.read(buffer, 0, buffer.length);
+    position = 0;
+    if (limit <= 0) {
+      limit = 0;
+      return false;
+    }
+    return true;
+  }
+
+  @NotNull
+  private RosettaException error(@NotNull String message) {
+    return new RosettaException(message + ". (line: " + line + ", column: " + column + ")");
+  }
+
+  /** Reads the document of the reader as a {@link RosettaStreamReader}. */
+  private final class StreamReader implements RosettaStreamReader {
+
+    @Override
+    public boolean isMapping() {
+      return unchecked(() -> peek() == Token.BEGIN_OBJECT);
+    }
+
+    @Override
+    public void beginMapping() {
+      unchecked(
+          () -> {
+            beginObject();
+            return null;
+          });
+    }
+
+    @Override
+    public void endMapping() {
+      unchecked(
+          () -> {
+            endObject();
+            return null;
+          });
+    }
+
+    @Override
+    public boolean hasNext() {
+      return unchecked(JsonStreamReader.this::hasNext);
+    }
+
+    @Override
+    @NotNull
+    public String nextKey() {
+      return unchecked(JsonStreamReader.this::nextName);
+    }
+
+    @Override
+    @Nullable
+    public Object readValue() {
+      return unchecked(JsonStreamReader.this::readValue);
+    }
+
+    @Override
+    public void skipValue() {
+      unchecked(
+          () -> {
+            JsonStreamReader.this.skipValue();
+            return null;
+          });
+    }
+
+    @Override
+    @NotNull
+    public Supplier<Object> readDeferred() {
+      return unchecked(JsonStreamReader.this::readDeferred);
+    }
+  }
+
+  private static <T> T unchecked(@NotNull IOSupplier<T> supplier) {
+    try {
+      return supplier.get();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface IOSupplier<T> {
+    T get() throws IOException;
+  }
+}
@@ -0,0 +1,271 @@
+package com.asledgehammer.rosetta;
+
+import com.asledgehammer.rosetta.exception.RosettaException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * JsonStreamWriter writes a single JSON document while it is written. Pretty & compact output share
+ * the same emitter, differing only by whitespace.
+ *
+ * <p>NOTE: I/O errors are thrown as {@link UncheckedIOException}.
+ */
+public class JsonStreamWriter implements RosettaStreamWriter, Closeable {
+
+  private static final String[] ESCAPES = new String[128];
+
+  static {
+    for (int c = 0; c < 0x20; c++) {
+      ESCAPES[c] = String.format("\\u%04x", c);
+    }
+    ESCAPES['"'] = "\\\"";
+    ESCAPES['\\'] = "\\\\";
+    ESCAPES['\b'] = "\\b";
+    ESCAPES['\f'] = "\\f";
+    ESCAPES['\n'] = "\\n";
+    ESCAPES['\r'] = "\\r";
+    ESCAPES['\t'] = "\\t";
+  }
+
+  private final Writer writer;
+  private final boolean pretty;
+
+  /** The open containers. (True for mappings) */
+  private boolean[] mappings = new boolean[32];
+
+  /** Whether each open container has elements. */
+  private boolean[] nonEmpty = new boolean[32];
+
+  private int depth = 0;
+  private boolean expectingValue = false;
+  private boolean rootWritten = false;
+  private boolean finished = false;
+
+  /**
+   * @param writer The writer to write the document.
+   * @param pretty True to indent the document. (Two spaces per level)
+   */
+  public JsonStreamWriter(@NotNull Writer writer, boolean pretty) {
+    this.writer = writer;
+    this.pretty = pretty;
+  }
+
+  @Override
+  public void beginMapping() {
+    open(true);
+    write('{');
+  }
+
+  @Override
+  public void endMapping() {
+    close(true, '}');
+  }
+
+  @Override
+  public void beginSequence() {
+    open(false);
+    write('[');
+  }
+
+  @Override
+  public void endSequence() {
+    close(false, ']');
+  }
+
+  @Override
+  public void key(@NotNull String key) {
+    checkFinished();
+    if (depth == 0 || !mappings[depth - 1] || expectingValue) {
+      throw new IllegalStateException("A key can only be written in a mapping, before its value.");
+    }
+    separate();
+    writeString(key);
+    write(pretty ? ": " : ":");
+    expectingValue = true;
+  }
+
+  @Override
+  public void value(@Nullable Object value) {
+    if (value instanceof Map<?, ?> map) {
+      beginMapping();
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        key(String.valueOf(entry.getKey()));
+        value(entry.getValue());
+      }
+      endMapping();
+    } else if (value instanceof List<?> list) {
+      beginSequence();
+      for (Object element : list) {
+        value(element);
+      }
+      endSequence();
+    } else {
+      beginValue();
+      writeScalar(value);
+    }
+  }
+
+  /**
+   * Flushes the writer. The writer itself is left open.
+   *
+   * @throws IllegalStateException If a mapping or sequence is still open.
+   */
+  public void finish() {
+    if (finished) return;
+    if (depth != 0) {
+      throw new IllegalStateException("The document has " + depth + " unclosed container(s).");
+    }
+    if (pretty) write('\n');
+    finished = true;
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Finishes the document and closes the writer. */
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      writer.close();
+    }
+  }
+
+  private void open(boolean mapping) {
+    beginValue();
+    if (depth == mappings.length) {
+      mappings = Arrays.copyOf(mappings, depth * 2);
+      nonEmpty = Arrays.copyOf(nonEmpty, depth * 2);
+    }
+    mappings[depth] = mapping;
+    nonEmpty[depth] = false;
+    depth++;
+  }
+
+  private void close(boolean mapping, char c) {
+    checkFinished();
+    if (depth == 0 || mappings[depth - 1] != mapping || expectingValue) {
+      throw new IllegalStateException(
+          "No " + (mapping ? "mapping" : "sequence") + " is open to close.");
+    }
+    depth--;
+    if (pretty && nonEmpty[depth]) {
+      newLine();
+    }
+    write(c);
+  }
+
+  /** Prepares the writing of a value at the current position. */
+  private void beginValue() {
+    checkFinished();
+    if (depth == 0) {
+      if (rootWritten) {
+        throw new IllegalStateException("The document already has a root value.");
+      }
+      rootWritten = true;
+    } else if (mappings[depth - 1]) {
+      if (!expectingValue) {
+        throw new IllegalStateException("A value in a mapping must follow its key.");
+      }
+      expectingValue = false;
+    } else {
+      separate();
+    }
+  }
+
+  /** Writes the separator before an element of the current container. */
+  private void separate() {
+    if (nonEmpty[depth - 1]) write(',');
+    nonEmpty[depth - 1] = true;
+    if (pretty) newLine();
+  }
+
+  private void newLine() {
+    write('\n');
+    for (int i = 0; i < depth; i++) {
+      write("  ");
+    }
+  }
+
+  private void writeScalar(@Nullable Object value) {
+    if (value == null) {
+      write("null");
+    } else if (value instanceof String string) {
+      writeString(string);
+    } else if (value instanceof Boolean
+        || value instanceof Integer
+        || value instanceof Long
+        || value instanceof Short
+        || value instanceof Byte
+        || value instanceof BigInteger) {
+      write(value.toString());
+    } else if (value instanceof Double || value instanceof Float) {
+      final double d = ((Number) value).doubleValue();
+      if (Double.isNaN(d) || Double.isInfinite(d)) {
+        throw new RosettaException("JSON can't represent the number: " + d);
+      }
+      write(Double.toString(d));
+    } else {
+      throw new RosettaException("Unsupported JSON value type: " + value.getClass().getName());
+    }
+  }
+
+  private void writeString(@NotNull String string) {
+    write('"');
+    int start = 0;
+    final int length = string.length();
+    for (int i = 0; i < length; i++) {
+      final char c = string.charAt(i);
+      final String escape = c < 128 ? ESCAPES[c] : null;
+      if (escape == null) continue;
+      if (start < i) write(string, start, i - start);
+      write(escape);
+      start = i + 1;
+    }
+    if (start < length) write(string, start, length - start);
+    write('"');
+  }
+
+  private void write(char c) {
+    try {
+      writer.write(c);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void write(@NotNull String string) {
+    try {
+      writer.write(string);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void write(@NotNull String string, int offset, int length) {
+    try {
+      writer.write(string, offset, length);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void checkFinished() {
+    if (finished) {
+      throw new IllegalStateException("The document is already finished.");
+    }
+  }
+}
@@ -20,17 +20,19 @@ import org.snakeyaml.engine.v2.common.FlowStyle;
 /** Rosetta houses all general root-level operations for the Rosetta-Docs-Java framework. */
 public class Rosetta {
 
+  private static final LoadSettings DEFAULT_LOAD_SETTINGS;
   private static final Load DEFAULT_LOAD;
+  private static final DumpSettings DEFAULT_DUMP_SETTINGS;
   private static final Dump DEFAULT_DUMP;
 
   private static final Map<String, Class<? extends RosettaApplication>> APPLICATIONS;
   private static final Map<String, Class<? extends RosettaLanguage<?, ?>>> LANGUAGES;
 
   static {
-    LoadSettings loadSettings = LoadSettings.builder().build();
-    DEFAULT_LOAD = new Load(loadSettings);
-    DumpSettings dumpSettings = DumpSettings.builder().setDefaultFlowStyle(FlowStyle.BLOCK).build();
-    DEFAULT_DUMP = new Dump(dumpSettings);
+    DEFAULT_LOAD_SETTINGS = LoadSettings.builder().build();
+    DEFAULT_LOAD = new Load(DEFAULT_LOAD_SETTINGS);
+    DEFAULT_DUMP_SETTINGS = DumpSettings.builder().setDefaultFlowStyle(FlowStyle.BLOCK).build();
+    DEFAULT_DUMP = new Dump(DEFAULT_DUMP_SETTINGS);
 
     LANGUAGES = new HashMap<>();
     APPLICATIONS = new HashMap<>();
@@ -198,8 +200,24 @@ public class Rosetta {
     return DEFAULT_DUMP;
   }
 
+  /**
+   * @return The settings of {@link #getYamlWriter()}. (Used by {@link YamlStreamWriter})
+   */
+  @NotNull
+  public static DumpSettings getYamlDumpSettings() {
+    return DEFAULT_DUMP_SETTINGS;
+  }
+
   @NotNull
   public static Load getYamlReader() {
     return DEFAULT_LOAD;
   }
+
+  /**
+   * @return The settings of {@link #getYamlReader()}. (Used by {@link YamlStreamReader})
+   */
+  @NotNull
+  public static LoadSettings getYamlLoadSettings() {
+    return DEFAULT_LOAD_SETTINGS;
+  }
 }
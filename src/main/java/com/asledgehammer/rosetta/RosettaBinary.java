@@ -0,0 +1,375 @@
+package com.asledgehammer.rosetta;
+
+import com.asledgehammer.rosetta.exception.RosettaException;
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * RosettaBinary encodes the serialized Rosetta schema (Maps, Lists & scalars) as compact binary.
+ * Decoding is much cheaper than parsing the same data as YAML.
+ *
+ * <p>Layout:
+ *
+ * <ul>
+ *   <li>Header: The magic <code>RBIN</code> & a varint version.
+ *   <li>String table: A varint count, then each unique string as a varint length & UTF-8 bytes.
+ *   <li>Root value: A tag byte followed by its payload. Strings, keys & type-dictionary references
+ *       (<code>$id:n</code>) are stored as varint indices.
+ * </ul>
+ *
+ * <p>Decoding produces the same values as loading the YAML of the encoded data, in the same order.
+ */
+public final class RosettaBinary {
+
+  /** The version of the format written. */
+  public static final int VERSION = 1;
+
+  private static final byte[] MAGIC = {'R', 'B', 'I', 'N'};
+
+  private static final int TAG_NULL = 0;
+  private static final int TAG_FALSE = 1;
+  private static final int TAG_TRUE = 2;
+  private static final int TAG_INT = 3;
+  private static final int TAG_LONG = 4;
+  private static final int TAG_BIG_INTEGER = 5;
+  private static final int TAG_DOUBLE = 6;
+  private static final int TAG_STRING = 7;
+  private static final int TAG_REFERENCE = 8;
+  private static final int TAG_LIST = 9;
+  private static final int TAG_MAP = 10;
+
+  /**
+   * The deepest nesting of Lists & Maps read. Serialized schemas stay far below this, so deeper
+   * documents are malformed or hostile & would otherwise overflow the stack.
+   */
+  public static final int MAX_DEPTH = 512;
+
+  private RosettaBinary() {}
+
+  /**
+   * @param value The value to encode. (A Map, List, String, Number, Boolean or null)
+   * @param stream The stream to write. (Not closed)
+   * @throws IOException If the stream fails to write.
+   * @throws RosettaException If the value contains an unsupported type.
+   */
+  public static void write(@Nullable Object value, @NotNull OutputStream stream)
+      throws IOException {
+    final Map<String, Integer> strings = new LinkedHashMap<>();
+    collectStrings(value, strings);
+
+    final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+    out.write(MAGIC);
+    writeVarInt(out, VERSION);
+
+    writeVarInt(out, strings.size());
+    for (String string : strings.keySet()) {
+      final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(out, bytes.length);
+      out.write(bytes);
+    }
+
+    writeValue(out, value, strings);
+    out.flush();
+  }
+
+  /**
+   * @param value The value to encode. (A Map, List, String, Number, Boolean or null)
+   * @return The encoded bytes.
+   * @throws RosettaException If the value contains an unsupported type.
+   */
+  public static byte @NotNull [] write(@Nullable Object value) {
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    try {
+      write(value, stream);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return stream.toByteArray();
+  }
+
+  /**
+   * @param stream The stream to read. (Read fully, not closed)
+   * @return The decoded value.
+   * @throws IOException If the stream fails to read.
+   * @throws RosettaException If the data is malformed, of an unknown version or nested deeper than
+   *     {@link #MAX_DEPTH}.
+   */
+  @Nullable
+  public static Object read(@NotNull InputStream stream) throws IOException {
+    return read(stream.readAllBytes());
+  }
+
+  /**
+   * @param bytes The encoded bytes.
+   * @return The decoded value.
+   * @throws RosettaException If the data is malformed, of an unknown version or nested deeper than
+   *     {@link #MAX_DEPTH}.
+   */
+  @Nullable
+  public static Object read(byte @NotNull [] bytes) {
+    return new Reader(bytes).readDocument();
+  }
+
+  private static void collectStrings(
+      @Nullable Object value, @NotNull Map<String, Integer> strings) {
+    if (value instanceof String string) {
+      final int colon = getReferenceColon(string);
+      intern(colon != -1 ? string.substring(1, colon) : string, strings);
+    } else if (value instanceof BigInteger bigInteger) {
+      intern(bigInteger.toString(), strings);
+    } else if (value instanceof Map<?, ?> map) {
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        collectStrings(entry.getKey(), strings);
+        collectStrings(entry.getValue(), strings);
+      }
+    } else if (value instanceof List<?> list) {
+      for (Object element : list) {
+        collectStrings(element, strings);
+      }
+    }
+  }
+
+  private static void intern(@NotNull String string, @NotNull Map<String, Integer> strings) {
+    if (!strings.containsKey(string)) {
+      strings.put(string, strings.size());
+    }
+  }
+
+  private static void writeValue(
+      @NotNull DataOutputStream out, @Nullable Object value, @NotNull Map<String, Integer> strings)
+      throws IOException {
+    if (value == null) {
+      out.writeByte(TAG_NULL);
+    } else if (value instanceof Boolean bool) {
+      out.writeByte(bool ? TAG_TRUE : TAG_FALSE);
+    } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      out.writeByte(TAG_INT);
+      writeVarLong(out, zigZag(((Number) value).intValue()));
+    } else if (value instanceof Long longValue) {
+      out.writeByte(TAG_LONG);
+      writeVarLong(out, zigZag(longValue));
+    } else if (value instanceof BigInteger bigInteger) {
+      out.writeByte(TAG_BIG_INTEGER);
+      writeVarInt(out, strings.get(bigInteger.toString()));
+    } else if (value instanceof Double || value instanceof Float) {
+      out.writeByte(TAG_DOUBLE);
+      out.writeDouble(((Number) value).doubleValue());
+    } else if (value instanceof String string) {
+      final int colon = getReferenceColon(string);
+      if (colon != -1) {
+        out.writeByte(TAG_REFERENCE);
+        writeVarInt(out, strings.get(string.substring(1, colon)));
+        writeVarInt(out, Integer.parseInt(string, colon + 1, string.length(), 10));
+      } else {
+        out.writeByte(TAG_STRING);
+        writeVarInt(out, strings.get(string));
+      }
+    } else if (value instanceof List<?> list) {
+      out.writeByte(TAG_LIST);
+      writeVarInt(out, list.size());
+      for (Object element : list) {
+        writeValue(out, element, strings);
+      }
+    } else if (value instanceof Map<?, ?> map) {
+      out.writeByte(TAG_MAP);
+      writeVarInt(out, map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        writeValue(out, entry.getKey(), strings);
+        writeValue(out, entry.getValue(), strings);
+      }
+    } else {
+      throw new RosettaException("Unsupported binary value type: " + value.getClass().getName());
+    }
+  }
+
+  /**
+   * @param string The string to test.
+   * @return The index of the colon if the string is a type-dictionary reference. (<code>$id:n
+   *     </code>, -1 if not)
+   */
+  private static int getReferenceColon(@NotNull String string) {
+    if (string.length() < 4 || string.charAt(0) != '$') return -1;
+    final int colon = string.lastIndexOf(':');
+    final int digits = string.length() - colon - 1;
+    if (colon < 2 || digits > 9) return -1;
+
+    // Leading zeros wouldn't survive the round-trip.
+    if (digits > 1 && string.charAt(colon + 1) == '0') return -1;
+    for (int i = colon + 1; i < string.length(); i++) {
+      final char c = string.charAt(i);
+      if (c < '0' || c > '9') return -1;
+    }
+    return colon;
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static void writeVarInt(@NotNull DataOutputStream out, int value) throws IOException {
+    writeVarLong(out, value & 0xFFFFFFFFL);
+  }
+
+  private static void writeVarLong(@NotNull DataOutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  /** Decodes a document from a byte array. */
+  private static class Reader {
+
+    private final byte[] bytes;
+    private int position = 0;
+    private int depth = 0;
+    private String[] strings;
+
+    Reader(byte @NotNull [] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Nullable
+    Object readDocument() {
+      if (bytes.length < MAGIC.length
+          || !Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+        throw new RosettaException("Not a Rosetta binary document. (Bad magic)");
+      }
+      position = MAGIC.length;
+
+      final int version = readVarInt();
+      if (version != VERSION) {
+        throw new RosettaException("Unknown Rosetta binary version: " + version);
+      }
+
+      strings = new String[readLength()];
+      for (int i = 0; i < strings.length; i++) {
+        final int length = readLength();
+        checkAvailable(length);
+        strings[i] = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+      }
+
+      final Object value = readValue();
+      if (position != bytes.length) {
+        throw new RosettaException(
+            "Trailing bytes after the Rosetta binary document. (offset: " + position + ")");
+      }
+      return value;
+    }
+
+    @Nullable
+    private Object readValue() {
+      checkAvailable(1);
+      final int tag = bytes[position++];
+      return switch (tag) {
+        case TAG_NULL -> null;
+        case TAG_FALSE -> false;
+        case TAG_TRUE -> true;
+        case TAG_INT -> (int) unZigZag(readVarLong());
+        case TAG_LONG -> unZigZag(readVarLong());
+        case TAG_BIG_INTEGER -> new BigInteger(readString());
+        case TAG_DOUBLE -> {
+          checkAvailable(8);
+          long bits = 0;
+          for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (bytes[position++] & 0xFF);
+          }
+          yield Double.longBitsToDouble(bits);
+        }
+        case TAG_STRING -> readString();
+        case TAG_REFERENCE -> "$" + readString() + ":" + readVarInt();
+        case TAG_LIST -> {
+          enter();
+          final int size = readLength();
+          final List<Object> list = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            list.add(readValue());
+          }
+          depth--;
+          yield list;
+        }
+        case TAG_MAP -> {
+          enter();
+          final int size = readLength();
+          final Map<Object, Object> map = new LinkedHashMap<>((int) (size / 0.75f) + 1);
+          for (int i = 0; i < size; i++) {
+            final Object key = readValue();
+            map.put(key, readValue());
+          }
+          depth--;
+          yield map;
+        }
+        default ->
+            throw new RosettaException(
+                "Unknown Rosetta binary tag: " + tag + " (offset: " + (position - 1) + ")");
+      };
+    }
+
+    private void enter() {
+      if (++depth > MAX_DEPTH) {
+        throw new RosettaException(
+            "Rosetta binary document nested deeper than "
+                + MAX_DEPTH
+                + " levels. (offset: "
+                + (position - 1)
+                + ")");
+      }
+    }
+
+    @NotNull
+    private String readString() {
+      final int index = readVarInt();
+      if (index < 0 || index >= strings.length) {
+        throw new RosettaException(
+            "Invalid Rosetta binary string index: " + index + " (offset: " + position + ")");
+      }
+      return strings[index];
+    }
+
+    /** Reads a count, which can never exceed the remaining bytes. */
+    private int readLength() {
+      final int length = readVarInt();
+      if (length < 0 || length > bytes.length - position) {
+        throw new RosettaException(
+            "Invalid Rosetta binary length: " + length + " (offset: " + position + ")");
+      }
+      return length;
+    }
+
+    private int readVarInt() {
+      final long value = readVarLong();
+      if (value > 0xFFFFFFFFL) {
+        throw new RosettaException("Rosetta binary varint overflow. (offset: " + position + ")");
+      }
+      return (int) value;
+    }
+
+    private long readVarLong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        checkAvailable(1);
+        final byte b = bytes[position++];
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) return value;
+      }
+      throw new RosettaException("Rosetta binary varint overflow. (offset: " + position + ")");
+    }
+
+    private static long unZigZag(long value) {
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    private void checkAvailable(int count) {
+      if (bytes.length - position < count) {
+        throw new RosettaException(
+            "Unexpected end of the Rosetta binary document. (offset: " + position + ")");
+      }
+    }
+  }
+}
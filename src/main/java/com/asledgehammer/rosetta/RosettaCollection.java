@@ -1,11 +1,21 @@
 package com.asledgehammer.rosetta;
 
+import com.asledgehammer.rosetta.exception.ClassConflictException;
 import com.asledgehammer.rosetta.exception.RosettaException;
 import com.asledgehammer.rosetta.exception.ValueTypeException;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.snakeyaml.engine.v2.api.Dump;
 import org.snakeyaml.engine.v2.api.Load;
 
@@ -44,7 +54,10 @@ public class RosettaCollection {
       @NotNull File file)
       throws IOException {
     Load reader = Rosetta.getYamlReader();
-    Object raw = reader.loadAllFromReader(new FileReader(file));
+    Object raw;
+    try (FileReader fr = new FileReader(file)) {
+      raw = reader.loadFromReader(fr);
+    }
     if (!(raw instanceof Map)) {
       throw new RosettaException(
           "Invalid YAML root type: " + raw.getClass().getName() + " (Must be dictionary/Map)");
@@ -64,7 +77,7 @@ public class RosettaCollection {
       @NotNull TriConsumer<String, RosettaLanguage<?, ?>, Map<String, Object>> languageCallback,
       @NotNull Reader reader) {
     Load load = Rosetta.getYamlReader();
-    Object raw = load.loadAllFromReader(reader);
+    Object raw = load.loadFromReader(reader);
     if (!(raw instanceof Map)) {
       throw new RosettaException(
           "Invalid YAML root type: " + raw.getClass().getName() + " (Must be dictionary/Map)");
@@ -109,7 +122,7 @@ public class RosettaCollection {
     }
 
     Load reader = Rosetta.getYamlReader();
-    Iterable<Object> oRaw = reader.loadAllFromString(yaml);
+    Object oRaw = reader.loadFromString(yaml);
 
     if (!(oRaw instanceof Map)) {
       throw new RuntimeException("Improperly formatted Rosetta YAML:\n" + yaml);
@@ -118,6 +131,441 @@ public class RosettaCollection {
     onLoad(applicationCallback, languageCallback, (Map<String, Object>) oRaw);
   }
 
+  /**
+   * Loads rosetta data from YAML, driven by parse events. Each language reads its own events, so
+   * the document is never held in memory as a whole. (Unless the ID follows the languages &
+   * applications) The version is checked after the document is read.
+   *
+   * @param languageCallback Reads one value for each language. (See {@link
+   *     RosettaLanguage#onLoad(RosettaDeserializeSettings, String, RosettaStreamReader)})
+   * @param reader The reader transmitting the YAML encoded data. (Not closed)
+   * @throws RosettaException If the YAML is malformed.
+   */
+  public void loadStream(
+      @NotNull TriConsumer<String, RosettaApplication, Map<String, Object>> applicationCallback,
+      @NotNull TriConsumer<String, RosettaLanguage<?, ?>, RosettaStreamReader> languageCallback,
+      @NotNull Reader reader) {
+    final YamlStreamReader yaml = new YamlStreamReader(reader);
+    if (!yaml.isMapping()) {
+      final Object raw = yaml.readValue();
+      throw new RosettaException(
+          "Invalid YAML root type: "
+              + (raw != null ? raw.getClass().getName() : "null")
+              + " (Must be dictionary/Map)");
+    }
+    onLoadStream(applicationCallback, languageCallback, yaml, yaml::endDocument);
+  }
+
+  /**
+   * Loads rosetta data from JSON. Each language reads its own tokens, so the document is never held
+   * in memory as a whole. (Unless the ID follows the languages & applications) The version is
+   * checked after the document is read.
+   *
+   * @param languageCallback Reads one value for each language. (See {@link
+   *     RosettaLanguage#onLoad(RosettaDeserializeSettings, String, RosettaStreamReader)})
+   * @param reader The reader transmitting the JSON data. (Not closed)
+   * @throws IOException If the reader fails to read.
+   * @throws RosettaException If the JSON is malformed.
+   */
+  public void loadJson(
+      @NotNull TriConsumer<String, RosettaApplication, Map<String, Object>> applicationCallback,
+      @NotNull TriConsumer<String, RosettaLanguage<?, ?>, RosettaStreamReader> languageCallback,
+      @NotNull Reader reader)
+      throws IOException {
+    final JsonStreamReader json = new JsonStreamReader(reader);
+    if (json.peek() != JsonStreamReader.Token.BEGIN_OBJECT) {
+      throw new RosettaException("Invalid JSON root type: " + json.peek() + " (Must be object)");
+    }
+    try {
+      onLoadStream(
+          applicationCallback,
+          languageCallback,
+          json.asStreamReader(),
+          () -> {
+            try {
+              json.peek();
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Loads the root mapping of a streamed document. Languages & applications are loaded in the order
+   * of the document, as they are read. (See {@link #loadStream(TriConsumer, TriConsumer, Reader)} &
+   * {@link #loadJson(TriConsumer, TriConsumer, Reader)})
+   *
+   * @param endDocument Checks that nothing follows the root mapping.
+   */
+  @SuppressWarnings({"unchecked"})
+  private void onLoadStream(
+      @NotNull TriConsumer<String, RosettaApplication, Map<String, Object>> applicationCallback,
+      @NotNull TriConsumer<String, RosettaLanguage<?, ?>, RosettaStreamReader> languageCallback,
+      @NotNull RosettaStreamReader reader,
+      @NotNull Runnable endDocument) {
+    final Map<String, Object> header = new HashMap<>();
+    final Map<String, Object> deferred = new LinkedHashMap<>();
+    String id = null;
+
+    reader.beginMapping();
+    while (reader.hasNext()) {
+      final String key = reader.nextKey();
+      if (!key.equals("languages") && !key.equals("applications")) {
+        header.put(key, reader.readValue());
+        continue;
+      }
+
+      // (Saved YAML stores the version after the languages)
+      if (id == null && header.get("id") != null) {
+        id = header.get("id").toString().trim();
+      }
+
+      // Without the ID, the entries can't be loaded yet.
+      if (id == null || !reader.isMapping()) {
+        deferred.put(key, reader.readValue());
+        continue;
+      }
+
+      reader.beginMapping();
+      while (reader.hasNext()) {
+        final String name = reader.nextKey();
+        if (!reader.isMapping()) {
+          throw new RosettaException(
+              "The property \"" + key + "." + name + "\" is not a dictionary.");
+        }
+        if (key.equals("languages")) {
+          languageCallback.accept(id, getOrCreateLanguage(name), reader);
+        } else {
+          onLoadApplication(
+              id, applicationCallback, name, (Map<String, Object>) reader.readValue());
+        }
+      }
+      reader.endMapping();
+    }
+    reader.endMapping();
+    endDocument.run();
+
+    onLoadDeferred(
+        applicationCallback,
+        (i, language, raw) -> languageCallback.accept(i, language, new ValueStreamReader(raw)),
+        id,
+        header,
+        deferred);
+  }
+
+  /** Loads root properties & entries that couldn't be streamed. (See {@link #onLoadStream}) */
+  private void onLoadDeferred(
+      @NotNull TriConsumer<String, RosettaApplication, Map<String, Object>> applicationCallback,
+      @NotNull TriConsumer<String, RosettaLanguage<?, ?>, Map<String, Object>> languageCallback,
+      @Nullable String id,
+      @NotNull Map<String, Object> header,
+      @NotNull Map<String, Object> deferred) {
+    if (id == null) {
+      header.putAll(deferred);
+      onLoad(applicationCallback, languageCallback, header);
+    } else {
+      // Apply root properties following the streamed entries.
+      onLoadHeader(header);
+      if (!deferred.isEmpty()) {
+        // (Only entries that aren't dictionaries are deferred here. Report them the same way)
+        header.putAll(deferred);
+        onLoad(applicationCallback, languageCallback, header);
+      }
+    }
+  }
+
+  /**
+   * Loads rosetta data encoded by {@link #saveBinary(String, BiFunction, BiFunction,
+   * OutputStream)}. The callbacks receive the same data as loading the YAML of the collection.
+   *
+   * @param stream The stream transmitting the binary data. (Read fully, not closed)
+   * @throws IOException If the stream fails to read.
+   * @throws RosettaException If the data is malformed.
+   */
+  @SuppressWarnings({"unchecked"})
+  public void loadBinary(
+      @NotNull TriConsumer<String, RosettaApplication, Map<String, Object>> applicationCallback,
+      @NotNull TriConsumer<String, RosettaLanguage<?, ?>, Map<String, Object>> languageCallback,
+      @NotNull InputStream stream)
+      throws IOException {
+    Object raw = RosettaBinary.read(stream);
+    if (!(raw instanceof Map)) {
+      throw new RosettaException(
+          "Invalid binary root type: "
+              + (raw != null ? raw.getClass().getName() : "null")
+              + " (Must be dictionary/Map)");
+    }
+    onLoad(applicationCallback, languageCallback, (Map<String, Object>) raw);
+  }
+
+  /**
+   * Loads every rosetta file in a directory tree into the collection. (YAML: <code>.yml</code> &
+   * <code>.yaml</code>, JSON: <code>.json</code> & binary: <code>.rbin</code>)
+   *
+   * <p>Files are loaded in the order of their relative paths, so the collection, and the first
+   * failure or conflict thrown, never depend on scheduling. Files are read twice on the executor, a
+   * few files ahead of the file being handled:
+   *
+   * <ul>
+   *   <li>First, each file is only scanned for its definitions & locale, without building its data.
+   *       (See {@link RosettaLanguage#getDefinitions(RosettaStreamReader)}) A file that fails to
+   *       parse, defines something again or has another locale than the first file leaves the
+   *       collection unchanged. (E.G: Classes defined by more than one file, or already in the
+   *       collection)
+   *   <li>Then each file is parsed & merged as soon as the files before it are merged.
+   * </ul>
+   *
+   * <p>NOTE: Malformed data is only reported when its file is merged, after the files before it.
+   *
+   * @param directory The directory to load.
+   * @param executor The executor to read & parse files.
+   * @throws IOException If the directory or a file fails to read.
+   * @throws RosettaException If a file fails to load. (Its cause is the failure of the file)
+   */
+  @SuppressWarnings({"unchecked"})
+  public void loadDirectory(
+      @NotNull TriConsumer<String, RosettaApplication, Map<String, Object>> applicationCallback,
+      @NotNull TriConsumer<String, RosettaLanguage<?, ?>, Map<String, Object>> languageCallback,
+      @NotNull Path directory,
+      @NotNull Executor executor)
+      throws IOException {
+
+    final List<String> files;
+    try (Stream<Path> walk = Files.walk(directory)) {
+      files =
+          walk.filter(Files::isRegularFile)
+              .map(file -> directory.relativize(file).toString().replace(File.separatorChar, '/'))
+              .filter(RosettaCollection::isLoadable)
+              .sorted()
+              .toList();
+    }
+
+    // Check every file before merging any.
+    final Map<String, Set<String>> defined = new HashMap<>();
+    // (The first file & its locale)
+    final String[] first = new String[2];
+    forEachFile(
+        files,
+        file -> scan(directory.resolve(file)),
+        executor,
+        (file, scan) -> {
+          if (first[0] == null) {
+            first[0] = file;
+            first[1] = scan.locale;
+          } else if (!first[1].equals(scan.locale)) {
+            throw new RosettaException(
+                "The locale \""
+                    + scan.locale
+                    + "\" doesn't match the locale \""
+                    + first[1]
+                    + "\" of \""
+                    + first[0]
+                    + "\".");
+          }
+          for (Map.Entry<String, Collection<String>> entry : scan.definitions.entrySet()) {
+            final RosettaLanguage<?, ?> language = this.languages.get(entry.getKey());
+            final Set<String> definitions =
+                defined.computeIfAbsent(entry.getKey(), k -> new HashSet<>());
+            for (String path : entry.getValue()) {
+              if ((language != null && language.isDefined(path)) || !definitions.add(path)) {
+                throw new ClassConflictException(path);
+              }
+            }
+          }
+        });
+
+    forEachFile(
+        files,
+        file -> parse(directory.resolve(file)),
+        executor,
+        (file, raw) -> {
+          if (!(raw instanceof Map)) throw invalidRoot(raw);
+          onLoad(applicationCallback, languageCallback, (Map<String, Object>) raw);
+        });
+  }
+
+  /**
+   * Reads files on the executor, a window of files ahead of the file being handled, & handles them
+   * in order. (See {@link #loadDirectory(TriConsumer, TriConsumer, Path, Executor)})
+   *
+   * @param read Reads a file, by its relative path.
+   * @param action Handles each file read, in order.
+   * @throws IOException If a file fails to read.
+   * @throws RosettaException If a file fails to read or to be handled. (Its cause is the failure)
+   */
+  private static <T> void forEachFile(
+      @NotNull List<String> files,
+      @NotNull Function<String, T> read,
+      @NotNull Executor executor,
+      @NotNull BiConsumer<String, T> action)
+      throws IOException {
+    final int window = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    final Deque<CompletableFuture<T>> pending = new ArrayDeque<>();
+    int next = 0;
+    try {
+      for (String file : files) {
+        while (next < files.size() && pending.size() < window) {
+          final String path = files.get(next++);
+          pending.add(CompletableFuture.supplyAsync(() -> read.apply(path), executor));
+        }
+
+        final T value;
+        try {
+          value = pending.removeFirst().join();
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof UncheckedIOException cause) throw cause.getCause();
+          throw new RosettaException("Failed to load \"" + file + "\".", e.getCause());
+        }
+
+        try {
+          action.accept(file, value);
+        } catch (RuntimeException e) {
+          throw new RosettaException("Failed to load \"" + file + "\".", e);
+        }
+      }
+    } finally {
+      pending.forEach(future -> future.cancel(false));
+    }
+  }
+
+  /** The definitions & locale of a file. (See {@link #scan(Path)}) */
+  private static class Scan {
+
+    /** (Default is `EN_US`, as when loaded) */
+    private String locale = "EN_US";
+
+    /** The definitions of each language, by key. */
+    private final Map<String, Collection<String>> definitions = new HashMap<>();
+  }
+
+  /**
+   * Reads the definitions & locale of a file without building its data. (See {@link
+   * RosettaLanguage#getDefinitions(RosettaStreamReader)})
+   *
+   * @param file The file to scan.
+   * @return The definitions & locale of the file.
+   * @throws UncheckedIOException If the file fails to read.
+   */
+  @NotNull
+  private Scan scan(@NotNull Path file) {
+    final String name = file.getFileName().toString();
+    try {
+      if (name.endsWith(".rbin")) {
+        // (Binary data is only read whole)
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(file))) {
+          final Object raw = RosettaBinary.read(stream);
+          if (!(raw instanceof Map)) throw invalidRoot(raw);
+          return scan(new ValueStreamReader(raw), () -> {});
+        }
+      }
+      try (Reader reader = Files.newBufferedReader(file)) {
+        if (name.endsWith(".json")) {
+          final JsonStreamReader json = new JsonStreamReader(reader);
+          if (json.peek() != JsonStreamReader.Token.BEGIN_OBJECT) {
+            throw invalidRoot(json.asStreamReader().readValue());
+          }
+          return scan(
+              json.asStreamReader(),
+              () -> {
+                try {
+                  json.peek();
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+        }
+        final YamlStreamReader yaml = new YamlStreamReader(reader);
+        if (!yaml.isMapping()) throw invalidRoot(yaml.readValue());
+        return scan(yaml, yaml::endDocument);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @param reader The reader, before the root mapping.
+   * @param endDocument Checks that nothing follows the root mapping.
+   */
+  @NotNull
+  private Scan scan(@NotNull RosettaStreamReader reader, @NotNull Runnable endDocument) {
+    final Scan scan = new Scan();
+    reader.beginMapping();
+    while (reader.hasNext()) {
+      final String key = reader.nextKey();
+      if (key.equals("locale")) {
+        // (Invalid locales are reported when loaded)
+        if (reader.readValue() instanceof String locale) scan.locale = locale;
+      } else if (key.equals("languages") && reader.isMapping()) {
+        reader.beginMapping();
+        while (reader.hasNext()) {
+          final String id = reader.nextKey().toLowerCase().trim();
+          if (!reader.isMapping()) {
+            reader.skipValue();
+            continue;
+          }
+          // (Languages not yet in the collection are probed, & define nothing yet)
+          RosettaLanguage<?, ?> language = this.languages.get(id);
+          if (language == null) language = Rosetta.createLanguage(id);
+          scan.definitions
+              .computeIfAbsent(id, k -> new ArrayList<>())
+              .addAll(language.getDefinitions(reader));
+        }
+        reader.endMapping();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endMapping();
+    endDocument.run();
+    return scan;
+  }
+
+  @NotNull
+  private static RosettaException invalidRoot(@Nullable Object raw) {
+    return new RosettaException(
+        "Invalid root type: "
+            + (raw != null ? raw.getClass().getName() : "null")
+            + " (Must be dictionary/Map)");
+  }
+
+  private static boolean isLoadable(@NotNull String file) {
+    return file.endsWith(".yml")
+        || file.endsWith(".yaml")
+        || file.endsWith(".json")
+        || file.endsWith(".rbin");
+  }
+
+  /**
+   * @param file The file to read & parse. (See {@link #loadDirectory(TriConsumer, TriConsumer,
+   *     Path, Executor)})
+   * @return The parsed data of the file.
+   * @throws UncheckedIOException If the file fails to read.
+   */
+  @Nullable
+  private static Object parse(@NotNull Path file) {
+    final String name = file.getFileName().toString();
+    try {
+      if (name.endsWith(".rbin")) {
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(file))) {
+          return RosettaBinary.read(stream);
+        }
+      }
+      try (Reader reader = Files.newBufferedReader(file)) {
+        if (name.endsWith(".json")) {
+          return new JsonStreamReader(reader).readValue();
+        }
+        // (The shared reader of Rosetta isn't safe to use concurrently)
+        return new Load(Rosetta.getYamlLoadSettings()).loadFromReader(reader);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   /**
    * @param data The serialized map of rosetta data to process.
    * @throws NullPointerException If the raw map is null.
@@ -128,6 +576,34 @@ public class RosettaCollection {
       @NotNull TriConsumer<String, RosettaLanguage<?, ?>, Map<String, Object>> languageCallback,
       @NotNull Map<String, Object> data) {
 
+    final String id = onLoadHeader(data);
+
+    if (data.containsKey("languages")) {
+      final Object oLanguages = data.get("languages");
+      if (!(oLanguages instanceof Map)) {
+        throw new ValueTypeException("<ROOT>", "languages", oLanguages.getClass(), Map.class);
+      }
+      onLoadLanguages(id, languageCallback, (Map<String, Object>) oLanguages);
+    }
+
+    if (data.containsKey("applications")) {
+      final Object oApplications = data.get("applications");
+      if (!(oApplications instanceof Map)) {
+        throw new ValueTypeException("<ROOT>", "applications", oApplications.getClass(), Map.class);
+      }
+      onLoadApplications(id, applicationCallback, (Map<String, Object>) oApplications);
+    }
+  }
+
+  /**
+   * Loads the root properties. (<code>id</code>, <code>version</code> & <code>locale</code>)
+   *
+   * @param data The serialized map of rosetta data to process.
+   * @return The ID of the collection.
+   */
+  @NotNull
+  private String onLoadHeader(@NotNull Map<String, Object> data) {
+
     if (!data.containsKey("id")) {
       throw new RosettaException("Missing \"id\" property at root of Rosetta YAML file.");
     }
@@ -157,21 +633,7 @@ public class RosettaCollection {
       this.locale = "EN_US";
     }
 
-    if (data.containsKey("languages")) {
-      final Object oLanguages = data.get("languages");
-      if (!(oLanguages instanceof Map)) {
-        throw new ValueTypeException("<ROOT>", "languages", oLanguages.getClass(), Map.class);
-      }
-      onLoadLanguages(id, languageCallback, (Map<String, Object>) oLanguages);
-    }
-
-    if (data.containsKey("applications")) {
-      final Object oApplications = data.get("applications");
-      if (!(oApplications instanceof Map)) {
-        throw new ValueTypeException("<ROOT>", "applications", oApplications.getClass(), Map.class);
-      }
-      onLoadApplications(id, applicationCallback, (Map<String, Object>) oApplications);
-    }
+    return id;
   }
 
   /**
@@ -183,23 +645,38 @@ public class RosettaCollection {
       @NotNull String id,
       @NotNull TriConsumer<String, RosettaLanguage<?, ?>, Map<String, Object>> languageCallback,
       @NotNull Map<String, Object> languages) {
-    final List<String> keys = new ArrayList<>(languages.keySet());
-    keys.sort(Comparator.naturalOrder());
-
-    for (String key : keys) {
-      String keyLower = key.toLowerCase().trim();
-      RosettaLanguage<?, ?> language;
-      if (!hasLanguage(keyLower)) {
-        language = Rosetta.createLanguage(keyLower);
-        this.languages.put(keyLower, language);
-      } else {
-        language = this.languages.get(keyLower);
-      }
-      /* language.onLoad((Map<String, Object>) languages.get(key)); */
-      languageCallback.accept(id, language, (Map<String, Object>) languages.get(key));
+    // (In the order of the document, like streamed documents)
+    for (Map.Entry<String, Object> entry : languages.entrySet()) {
+      onLoadLanguage(id, languageCallback, entry.getKey(), (Map<String, Object>) entry.getValue());
     }
   }
 
+  private void onLoadLanguage(
+      @NotNull String id,
+      @NotNull TriConsumer<String, RosettaLanguage<?, ?>, Map<String, Object>> languageCallback,
+      @NotNull String key,
+      @NotNull Map<String, Object> raw) {
+    /* language.onLoad(raw); */
+    languageCallback.accept(id, getOrCreateLanguage(key), raw);
+  }
+
+  /**
+   * @param key The key of the language in the loaded data.
+   * @return The language of the collection, registered first if missing.
+   */
+  @NotNull
+  private RosettaLanguage<?, ?> getOrCreateLanguage(@NotNull String key) {
+    String keyLower = key.toLowerCase().trim();
+    RosettaLanguage<?, ?> language;
+    if (!hasLanguage(keyLower)) {
+      language = Rosetta.createLanguage(keyLower);
+      this.languages.put(keyLower, language);
+    } else {
+      language = this.languages.get(keyLower);
+    }
+    return language;
+  }
+
   /**
    * @param applications The serialized map of application data to process.
    * @throws NullPointerException If the applications map is null.
@@ -209,21 +686,28 @@ public class RosettaCollection {
       @NotNull String id,
       @NotNull TriConsumer<String, RosettaApplication, Map<String, Object>> applicationCallback,
       @NotNull Map<String, Object> applications) {
-    final List<String> keys = new ArrayList<>(applications.keySet());
-    keys.sort(Comparator.naturalOrder());
-
-    for (String key : keys) {
-      String keyLower = key.toLowerCase().trim();
-      RosettaApplication application;
-      if (!hasLanguage(keyLower)) {
-        application = Rosetta.createApplication(keyLower);
-        this.applications.put(keyLower, application);
-      } else {
-        application = this.applications.get(keyLower);
-      }
-      /* application.onLoad((Map<String, Object>) applications.get(key)); */
-      applicationCallback.accept(id, application, (Map<String, Object>) applications.get(key));
+    // (In the order of the document, like streamed documents)
+    for (Map.Entry<String, Object> entry : applications.entrySet()) {
+      onLoadApplication(
+          id, applicationCallback, entry.getKey(), (Map<String, Object>) entry.getValue());
+    }
+  }
+
+  private void onLoadApplication(
+      @NotNull String id,
+      @NotNull TriConsumer<String, RosettaApplication, Map<String, Object>> applicationCallback,
+      @NotNull String key,
+      @NotNull Map<String, Object> raw) {
+    String keyLower = key.toLowerCase().trim();
+    RosettaApplication application;
+    if (!hasApplication(keyLower)) {
+      application = Rosetta.createApplication(keyLower);
+      this.applications.put(keyLower, application);
+    } else {
+      application = this.applications.get(keyLower);
     }
+    /* application.onLoad(raw); */
+    applicationCallback.accept(id, application, raw);
   }
 
   /**
@@ -235,8 +719,8 @@ public class RosettaCollection {
       @NotNull BiFunction<String, RosettaApplication, Map<String, Object>> applicationCallback,
       @NotNull BiFunction<String, RosettaLanguage<?, ?>, Map<String, Object>> languageCallback,
       @NotNull File file) {
-    try (FileWriter fw = new FileWriter(file)) {
-      fw.write(save(id, applicationCallback, languageCallback));
+    try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+      save(id, applicationCallback, languageCallback, bw);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -253,7 +737,38 @@ public class RosettaCollection {
       @NotNull BiFunction<String, RosettaLanguage<?, ?>, Map<String, Object>> languageCallback,
       @NotNull BufferedWriter writer)
       throws IOException {
-    writer.write(save(id, applicationCallback, languageCallback));
+    save(
+        id,
+        (i, application, w) -> w.value(applicationCallback.apply(i, application)),
+        (i, language, w) -> w.value(languageCallback.apply(i, language)),
+        (Writer) writer);
+  }
+
+  /**
+   * Streams the collection as YAML. Unlike the other save methods, the collection is never held as
+   * one Map or String. The output is identical to {@link #save(String, BiFunction, BiFunction)}
+   * when the callbacks write the same data.
+   *
+   * @param applicationCallback Writes one value for each application.
+   * @param languageCallback Writes one value for each language. (See {@link
+   *     RosettaLanguage#onSave(RosettaSerializeSettings, String, RosettaStreamWriter)})
+   * @param writer The writer to write. (Flushed, not closed)
+   * @throws NullPointerException If the writer is null.
+   * @throws IOException If something happens during the writing of contents.
+   */
+  public void save(
+      @NotNull String id,
+      @NotNull TriConsumer<String, RosettaApplication, RosettaStreamWriter> applicationCallback,
+      @NotNull TriConsumer<String, RosettaLanguage<?, ?>, RosettaStreamWriter> languageCallback,
+      @NotNull Writer writer)
+      throws IOException {
+    try {
+      final YamlStreamWriter yaml = new YamlStreamWriter(writer);
+      onSave(id, applicationCallback, languageCallback, yaml);
+      yaml.finish();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
   }
 
   /**
@@ -270,6 +785,68 @@ public class RosettaCollection {
     stream.writeUTF(save(id, applicationCallback, languageCallback));
   }
 
+  /**
+   * Streams the collection as JSON. The document mirrors the YAML schema, with the root properties
+   * written first so that {@link #loadJson(TriConsumer, TriConsumer, Reader)} can stream the
+   * languages & applications.
+   *
+   * @param applicationCallback Writes one value for each application.
+   * @param languageCallback Writes one value for each language.
+   * @param writer The writer to write. (Flushed, not closed)
+   * @param pretty True to indent the document.
+   * @throws IOException If something happens during the writing of contents.
+   */
+  public void saveJson(
+      @NotNull String id,
+      @NotNull TriConsumer<String, RosettaApplication, RosettaStreamWriter> applicationCallback,
+      @NotNull TriConsumer<String, RosettaLanguage<?, ?>, RosettaStreamWriter> languageCallback,
+      @NotNull Writer writer,
+      boolean pretty)
+      throws IOException {
+    try {
+      final JsonStreamWriter json = new JsonStreamWriter(writer, pretty);
+      onSave(id, applicationCallback, languageCallback, json, true);
+      json.finish();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * @param writer The writer to write. (Flushed, not closed)
+   * @param pretty True to indent the document.
+   * @throws IOException If something happens during the writing of contents.
+   */
+  public void saveJson(
+      @NotNull String id,
+      @NotNull BiFunction<String, RosettaApplication, Map<String, Object>> applicationCallback,
+      @NotNull BiFunction<String, RosettaLanguage<?, ?>, Map<String, Object>> languageCallback,
+      @NotNull Writer writer,
+      boolean pretty)
+      throws IOException {
+    saveJson(
+        id,
+        (i, application, w) -> w.value(applicationCallback.apply(i, application)),
+        (i, language, w) -> w.value(languageCallback.apply(i, language)),
+        writer,
+        pretty);
+  }
+
+  /**
+   * Saves the collection as {@link RosettaBinary}, which loads much faster than YAML.
+   *
+   * @param stream The stream to write. (Flushed, not closed)
+   * @throws IOException If something happens during the writing of contents.
+   */
+  public void saveBinary(
+      @NotNull String id,
+      @NotNull BiFunction<String, RosettaApplication, Map<String, Object>> applicationCallback,
+      @NotNull BiFunction<String, RosettaLanguage<?, ?>, Map<String, Object>> languageCallback,
+      @NotNull OutputStream stream)
+      throws IOException {
+    RosettaBinary.write(onSave(id, applicationCallback, languageCallback), stream);
+  }
+
   /**
    * @return A YAML-Serialized string.
    */
@@ -336,6 +913,73 @@ public class RosettaCollection {
     return raw;
   }
 
+  /**
+   * Writes the same document as {@link #onSave(String, BiFunction, BiFunction)}, with the root keys
+   * in the same (alphanumeric) order.
+   */
+  public void onSave(
+      @NotNull String id,
+      @NotNull TriConsumer<String, RosettaApplication, RosettaStreamWriter> applicationCallback,
+      @NotNull TriConsumer<String, RosettaLanguage<?, ?>, RosettaStreamWriter> languageCallback,
+      @NotNull RosettaStreamWriter writer) {
+    onSave(id, applicationCallback, languageCallback, writer, false);
+  }
+
+  /**
+   * @param headerFirst True to write the root properties before the languages & applications, so
+   *     that streaming loaders know the ID first.
+   */
+  private void onSave(
+      @NotNull String id,
+      @NotNull TriConsumer<String, RosettaApplication, RosettaStreamWriter> applicationCallback,
+      @NotNull TriConsumer<String, RosettaLanguage<?, ?>, RosettaStreamWriter> languageCallback,
+      @NotNull RosettaStreamWriter writer,
+      boolean headerFirst) {
+
+    writer.beginMapping();
+
+    if (headerFirst) {
+      writer.entry("id", id);
+      writer.entry("locale", locale);
+      writer.entry("version", version);
+    }
+
+    if (hasApplications()) {
+      writer.key("applications");
+      writer.beginMapping();
+      List<String> keys = new ArrayList<>(this.applications.keySet());
+      keys.sort(Comparator.naturalOrder());
+      for (String key : keys) {
+        writer.key(key);
+        applicationCallback.accept(id, this.applications.get(key), writer);
+      }
+      writer.endMapping();
+    }
+
+    if (!headerFirst) {
+      writer.entry("id", id);
+    }
+
+    if (hasLanguages()) {
+      writer.key("languages");
+      writer.beginMapping();
+      List<String> keys = new ArrayList<>(this.languages.keySet());
+      keys.sort(Comparator.naturalOrder());
+      for (String key : keys) {
+        writer.key(key);
+        languageCallback.accept(id, this.languages.get(key), writer);
+      }
+      writer.endMapping();
+    }
+
+    if (!headerFirst) {
+      writer.entry("locale", locale);
+      writer.entry("version", version);
+    }
+
+    writer.endMapping();
+  }
+
   private boolean hasLanguages() {
     return !this.languages.isEmpty();
   }
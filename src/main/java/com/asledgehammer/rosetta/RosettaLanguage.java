@@ -1,5 +1,8 @@
 package com.asledgehammer.rosetta;
 
+import com.asledgehammer.rosetta.exception.RosettaException;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import org.jetbrains.annotations.NotNull;
 
@@ -22,12 +25,81 @@ public interface RosettaLanguage<
       @NotNull String id,
       @NotNull Map<String, Object> language);
 
+  /**
+   * Loads the dictionary of the language as it is read. Implementations should override this to
+   * load their entries as they're read instead of reading the whole dictionary first.
+   *
+   * @param reader The reader, before the dictionary storing the language data. (It must be read
+   *     completely)
+   */
+  @SuppressWarnings({"unchecked"})
+  default void onLoad(
+      @NotNull DeserializeSettings settings,
+      @NotNull String id,
+      @NotNull RosettaStreamReader reader) {
+    final Object language = reader.readValue();
+    if (!(language instanceof Map)) {
+      throw new RosettaException("The language \"" + getID() + "\" is not a dictionary.");
+    }
+    onLoad(settings, id, (Map<String, Object>) language);
+  }
+
+  /**
+   * Lists the definitions that loading the dictionary would add, without loading it. Loads that
+   * merge several dictionaries use this to find conflicts before changing the language. (See {@link
+   * RosettaCollection#loadDirectory(TriConsumer, TriConsumer, java.nio.file.Path,
+   * java.util.concurrent.Executor)})
+   *
+   * @param language The YAML dictionary storing the language data.
+   * @return The paths of the definitions. E.G: <code>java.util.ArrayList</code>
+   */
+  @NotNull
+  default Collection<String> getDefinitions(@NotNull Map<String, Object> language) {
+    return List.of();
+  }
+
+  /**
+   * Lists the definitions that loading the dictionary would add, as it is read. Implementations
+   * should override this to skip what defines nothing instead of reading the whole dictionary. (See
+   * {@link #getDefinitions(Map)})
+   *
+   * @param reader The reader, before the dictionary storing the language data. (It must be read
+   *     completely)
+   * @return The paths of the definitions. (Safe to call from any thread: The language is unchanged)
+   */
+  @NotNull
+  @SuppressWarnings({"unchecked"})
+  default Collection<String> getDefinitions(@NotNull RosettaStreamReader reader) {
+    return getDefinitions((Map<String, Object>) reader.readValue());
+  }
+
+  /**
+   * @param path The path of a definition. (See {@link #getDefinitions(Map)})
+   * @return True if the language already has the definition.
+   */
+  default boolean isDefined(@NotNull String path) {
+    return false;
+  }
+
   /**
    * @return The serialized dictionary of all Rosetta entries for the language.
    */
   @NotNull
   Map<String, Object> onSave(@NotNull SerializeSettings settings, @NotNull String id);
 
+  /**
+   * Writes the serialized dictionary of all Rosetta entries for the language. Implementations
+   * should override this to stream their entries instead of building the whole dictionary first.
+   *
+   * @param writer The writer to write the dictionary.
+   */
+  default void onSave(
+      @NotNull SerializeSettings settings,
+      @NotNull String id,
+      @NotNull RosettaStreamWriter writer) {
+    writer.value(onSave(settings, id));
+  }
+
   /**
    * @return The YAML language name. E.G: `java`, `lua`, etc..
    */
@@ -3,18 +3,56 @@ package com.asledgehammer.rosetta;
 import com.asledgehammer.rosetta.exception.MissingKeyException;
 import com.asledgehammer.rosetta.exception.TypeException;
 import com.asledgehammer.rosetta.exception.ValueTypeException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.lang.invoke.MethodType;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /** RosettaObject is a common super-class for dictionary objects. */
 public abstract class RosettaObject {
 
+  private static final AtomicLongFieldUpdater<RosettaObject> REVISION =
+      AtomicLongFieldUpdater.newUpdater(RosettaObject.class, "revision");
+
+  private volatile long revision;
+
   /** Generic creation constructor. No arguments are passed. */
   protected RosettaObject() {}
 
+  /**
+   * @return The revision of the object. The revision only increases, once for every modification of
+   *     the object. (Revisions of different objects aren't comparable)
+   */
+  public long getRevision() {
+    return this.revision;
+  }
+
+  /**
+   * Increases the revision of the object. Call this whenever the saved state of the object changes.
+   */
+  protected void onModified() {
+    REVISION.incrementAndGet(this);
+  }
+
+  /**
+   * @param map The map to track.
+   * @return A view of the map that calls {@link #onModified()} on every write.
+   */
+  @NotNull
+  protected <K, V> Map<K, V> track(@NotNull Map<K, V> map) {
+    return new TrackedMap<>(map);
+  }
+
+  /**
+   * @param list The list to track.
+   * @return A view of the list that calls {@link #onModified()} on every write.
+   */
+  @NotNull
+  protected <E> List<E> track(@NotNull List<E> list) {
+    return new TrackedList<>(list);
+  }
+
   @Nullable
   @SuppressWarnings("unchecked")
   protected <E> E getOptionalValue(
@@ -29,7 +67,7 @@ public abstract class RosettaObject {
 
     Object oValue = raw.get(key);
     Class<?> oClazz = oValue.getClass();
-    if (!oValue.equals(type) && !type.isAssignableFrom(oClazz)) {
+    if (!isOfType(oClazz, type)) {
       throw new ValueTypeException(label, key, oValue.getClass(), type);
     }
 
@@ -134,7 +172,7 @@ public abstract class RosettaObject {
 
     @NotNull Object oValue = raw.get(key);
     Class<?> oClazz = oValue.getClass();
-    if (!oValue.equals(type) && !type.isAssignableFrom(oClazz)) {
+    if (!isOfType(oClazz, type)) {
       throw new ValueTypeException(label, key, oValue.getClass(), type);
     }
 
@@ -156,7 +194,7 @@ public abstract class RosettaObject {
     Class<?> oClazz = oValue.getClass();
 
     for (Class<?> type : types) {
-      if (oValue.equals(type) || type.isAssignableFrom(oClazz)) {
+      if (isOfType(oClazz, type)) {
         return oValue;
       }
     }
@@ -185,7 +223,7 @@ public abstract class RosettaObject {
 
     Object oValue = raw.get(key);
     Class<?> oClazz = oValue.getClass();
-    if (!oValue.equals(type) && !type.isAssignableFrom(oClazz)) {
+    if (!isOfType(oClazz, type)) {
       throw new ValueTypeException(label, key, oValue.getClass(), type);
     }
 
@@ -207,11 +245,160 @@ public abstract class RosettaObject {
     Class<?> oClazz = oValue.getClass();
 
     for (Class<?> type : types) {
-      if (oValue.equals(type) || type.isAssignableFrom(oClazz)) {
+      if (isOfType(oClazz, type)) {
         return oValue;
       }
     }
 
     throw new ValueTypeException(label, key, oClazz, types);
   }
+
+  /**
+   * @param clazz The class of the value.
+   * @param type The type expected. (Primitive types accept their boxed values)
+   * @return True if the value is of the type.
+   */
+  private static boolean isOfType(@NotNull Class<?> clazz, @NotNull Class<?> type) {
+    if (type.isPrimitive()) {
+      return MethodType.methodType(type).wrap().returnType() == clazz;
+    }
+    return type.isAssignableFrom(clazz);
+  }
+
+  /** TrackedMap writes through to its map, modifying its owner. */
+  private final class TrackedMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, V> map;
+    private final Set<Map.Entry<K, V>> entrySet;
+
+    private TrackedMap(@NotNull Map<K, V> map) {
+      this.map = map;
+      this.entrySet = new EntrySet();
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return map.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+      return map.get(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+      final V previous = map.put(key, value);
+      onModified();
+      return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+      if (!map.containsKey(key)) return null;
+      final V previous = map.remove(key);
+      onModified();
+      return previous;
+    }
+
+    @Override
+    public void clear() {
+      if (map.isEmpty()) return;
+      map.clear();
+      onModified();
+    }
+
+    @NotNull
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+      return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+      @Override
+      public int size() {
+        return map.size();
+      }
+
+      @NotNull
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator() {
+        final Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+        return new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          @Override
+          public Map.Entry<K, V> next() {
+            final Map.Entry<K, V> entry = iterator.next();
+            return new SimpleEntry<>(entry) {
+              @Override
+              public V setValue(V value) {
+                super.setValue(value);
+                final V previous = entry.setValue(value);
+                onModified();
+                return previous;
+              }
+            };
+          }
+
+          @Override
+          public void remove() {
+            iterator.remove();
+            onModified();
+          }
+        };
+      }
+    }
+  }
+
+  /** TrackedList writes through to its list, modifying its owner. */
+  private final class TrackedList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final List<E> list;
+
+    private TrackedList(@NotNull List<E> list) {
+      this.list = list;
+    }
+
+    @Override
+    public int size() {
+      return list.size();
+    }
+
+    @Override
+    public E get(int index) {
+      return list.get(index);
+    }
+
+    @Override
+    public E set(int index, E element) {
+      final E previous = list.set(index, element);
+      onModified();
+      return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+      list.add(index, element);
+      modCount++;
+      onModified();
+    }
+
+    @Override
+    public E remove(int index) {
+      final E previous = list.remove(index);
+      modCount++;
+      onModified();
+      return previous;
+    }
+  }
 }
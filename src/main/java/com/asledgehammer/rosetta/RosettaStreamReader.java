@@ -0,0 +1,70 @@
+package com.asledgehammer.rosetta;
+
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * RosettaStreamReader reads Rosetta data incrementally, so that a document never has to be held in
+ * memory as one nested {@link java.util.Map} tree. (See {@link RosettaStreamWriter})
+ *
+ * <p>Mappings are entered and left explicitly. Every value of an entered mapping must be read,
+ * entered or skipped, in the order of the document.
+ */
+public interface RosettaStreamReader {
+
+  /**
+   * @return True if the next value is a mapping.
+   */
+  boolean isMapping();
+
+  /** Enters the next value, a mapping. */
+  void beginMapping();
+
+  /** Leaves the current mapping, after its last entry. */
+  void endMapping();
+
+  /**
+   * @return True if the current mapping has more entries.
+   */
+  boolean hasNext();
+
+  /**
+   * @return The key of the next entry in the current mapping.
+   */
+  @NotNull
+  String nextKey();
+
+  /**
+   * @return The next complete value. (A Map, List, String, Number, Boolean or null)
+   */
+  @Nullable
+  Object readValue();
+
+  /** Reads past the next value without constructing it. */
+  void skipValue();
+
+  /**
+   * Reads the next value without constructing it yet. Readers should override this to hold the
+   * value in a compact form until it is needed.
+   *
+   * @return The value. (Each call may construct it again. Safe to call from any thread)
+   */
+  @NotNull
+  default Supplier<Object> readDeferred() {
+    final Object value = readValue();
+    return () -> value;
+  }
+
+  /**
+   * Reads past the next value, keeping only what is needed to read it again. (E.G: Its text)
+   * Cheaper to read & hold than {@link #readDeferred()}, but the value is parsed again when built.
+   * Readers should override this if they can read values again.
+   *
+   * @return The value. (Each call may construct it again. Safe to call from any thread)
+   */
+  @NotNull
+  default Supplier<Object> skimValue() {
+    return readDeferred();
+  }
+}
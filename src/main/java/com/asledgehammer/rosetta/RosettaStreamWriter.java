@@ -0,0 +1,48 @@
+package com.asledgehammer.rosetta;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * RosettaStreamWriter writes Rosetta data incrementally, so that a collection never has to be held
+ * in memory as one nested {@link java.util.Map} tree.
+ *
+ * <p>Containers are opened and closed explicitly. Complete values (Maps, Lists & scalars) are
+ * written with {@link #value(Object)}. Keys of a mapping must be written in the order they should
+ * appear.
+ */
+public interface RosettaStreamWriter {
+
+  /** Opens a mapping. (As a value, or as the root of the document) */
+  void beginMapping();
+
+  /** Closes the current mapping. */
+  void endMapping();
+
+  /** Opens a sequence. (As a value) */
+  void beginSequence();
+
+  /** Closes the current sequence. */
+  void endSequence();
+
+  /**
+   * @param key The key of the next value in the current mapping.
+   */
+  void key(@NotNull String key);
+
+  /**
+   * @param value A complete value. (A Map, List, String, Number, Boolean or null)
+   */
+  void value(@Nullable Object value);
+
+  /**
+   * Writes a key and its complete value.
+   *
+   * @param key The key of the value in the current mapping.
+   * @param value A complete value. (A Map, List, String, Number, Boolean or null)
+   */
+  default void entry(@NotNull String key, @Nullable Object value) {
+    key(key);
+    value(value);
+  }
+}
@@ -0,0 +1,90 @@
+package com.asledgehammer.rosetta;
+
+import com.asledgehammer.rosetta.exception.RosettaException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * ValueStreamReader reads a value already held in memory. (E.G: A language read before the ID of
+ * its collection, which can't be streamed)
+ */
+class ValueStreamReader implements RosettaStreamReader {
+
+  /** Marks that the next value of the current mapping was read. */
+  private static final Object READ = new Object();
+
+  private final Deque<Iterator<? extends Map.Entry<?, ?>>> mappings = new ArrayDeque<>();
+  @Nullable private Object next;
+
+  /**
+   * @param value The value to read. (A Map, List, String, Number, Boolean or null)
+   */
+  ValueStreamReader(@Nullable Object value) {
+    this.next = value;
+  }
+
+  @Override
+  public boolean isMapping() {
+    return next instanceof Map;
+  }
+
+  @Override
+  public void beginMapping() {
+    if (!(next instanceof Map<?, ?> map)) {
+      throw new RosettaException("Expected a mapping but found " + describe(next));
+    }
+    mappings.push(map.entrySet().iterator());
+    next = READ;
+  }
+
+  @Override
+  public void endMapping() {
+    if (mappings.isEmpty() || hasNext()) {
+      throw new RosettaException("Expected the end of a mapping.");
+    }
+    mappings.pop();
+  }
+
+  @Override
+  public boolean hasNext() {
+    final Iterator<? extends Map.Entry<?, ?>> entries = mappings.peek();
+    return entries != null && entries.hasNext();
+  }
+
+  @Override
+  @NotNull
+  public String nextKey() {
+    if (!hasNext()) {
+      throw new RosettaException("Expected a key but found the end of a mapping.");
+    }
+    final Map.Entry<?, ?> entry = mappings.peek().next();
+    next = entry.getValue();
+    return String.valueOf(entry.getKey());
+  }
+
+  @Override
+  @Nullable
+  public Object readValue() {
+    if (next == READ) {
+      throw new RosettaException("Expected a value but found a key or the end of a mapping.");
+    }
+    final Object value = next;
+    next = READ;
+    return value;
+  }
+
+  @Override
+  public void skipValue() {
+    readValue();
+  }
+
+  @NotNull
+  private static String describe(@Nullable Object value) {
+    if (value == READ) return "a key or the end of a mapping";
+    return value != null ? value.getClass().getName() : "null";
+  }
+}
@@ -0,0 +1,648 @@
+package com.asledgehammer.rosetta;
+
+import com.asledgehammer.rosetta.exception.RosettaException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.snakeyaml.engine.v2.api.ConstructNode;
+import org.snakeyaml.engine.v2.api.Load;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.common.Anchor;
+import org.snakeyaml.engine.v2.composer.Composer;
+import org.snakeyaml.engine.v2.constructor.StandardConstructor;
+import org.snakeyaml.engine.v2.events.*;
+import org.snakeyaml.engine.v2.exceptions.Mark;
+import org.snakeyaml.engine.v2.nodes.Node;
+import org.snakeyaml.engine.v2.nodes.ScalarNode;
+import org.snakeyaml.engine.v2.nodes.Tag;
+import org.snakeyaml.engine.v2.parser.Parser;
+import org.snakeyaml.engine.v2.parser.ParserImpl;
+import org.snakeyaml.engine.v2.scanner.StreamReader;
+
+/**
+ * YamlStreamReader reads a single YAML document as snakeyaml-engine parse events. Mappings are
+ * entered and left explicitly, so a document never has to be held in memory as a whole. Complete
+ * values are composed & constructed the same way {@link org.snakeyaml.engine.v2.api.Load} does, so
+ * a value read is identical to the same value of the loaded document.
+ *
+ * <p>NOTE: Anchors are only resolved inside the value that defines them.
+ */
+public class YamlStreamReader implements RosettaStreamReader, Closeable {
+
+  private final LoadSettings settings;
+  private final Source source;
+  private final Parser parser;
+  private final Composer composer;
+  private final ValueParser valueParser;
+  private final ScalarConstructor scalarConstructor;
+
+  /** The tag directives of the document, to parse deferred values with. */
+  private final String directives;
+
+  /** True while {@link #readDeferred()} reads a value, whose text must stay in the window. */
+  private boolean deferring = false;
+
+  /**
+   * @param reader The reader transmitting the document.
+   */
+  public YamlStreamReader(@NotNull Reader reader) {
+    this(reader, Rosetta.getYamlLoadSettings());
+  }
+
+  /**
+   * @param reader The reader transmitting the document.
+   * @param settings The settings to parse & construct the document.
+   */
+  public YamlStreamReader(@NotNull Reader reader, @NotNull LoadSettings settings) {
+    this.settings = settings;
+    this.source = new Source(reader);
+    this.parser = new ParserImpl(settings, new StreamReader(settings, source));
+    this.valueParser = new ValueParser();
+    this.composer = new Composer(settings, valueParser);
+    this.scalarConstructor = new ScalarConstructor(settings);
+
+    expect(Event.ID.StreamStart);
+    if (parser.checkEvent(Event.ID.StreamEnd)) {
+      throw error("The YAML document is empty.");
+    }
+    final DocumentStartEvent start = (DocumentStartEvent) expect(Event.ID.DocumentStart);
+    final StringBuilder directives = new StringBuilder();
+    for (Map.Entry<String, String> tag : start.getTags().entrySet()) {
+      directives.append("%TAG ").append(tag.getKey()).append(' ').append(tag.getValue());
+      directives.append('\n');
+    }
+    if (!directives.isEmpty()) directives.append("---\n");
+    this.directives = directives.toString();
+  }
+
+  @Override
+  public boolean isMapping() {
+    return parser.checkEvent(Event.ID.MappingStart);
+  }
+
+  @Override
+  public void beginMapping() {
+    expect(Event.ID.MappingStart);
+  }
+
+  @Override
+  public void endMapping() {
+    expect(Event.ID.MappingEnd);
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !parser.checkEvent(Event.ID.MappingEnd);
+  }
+
+  /**
+   * @throws RosettaException If the key isn't a scalar.
+   */
+  @Override
+  @NotNull
+  public String nextKey() {
+    final Event event = next();
+    if (!(event instanceof ScalarEvent scalar)) {
+      throw error("Expected a scalar key but found " + event.getEventId(), event);
+    }
+    return scalar.getValue();
+  }
+
+  @Override
+  @Nullable
+  public Object readValue() {
+    valueParser.reset();
+    final Node node = composer.next();
+    return new StandardConstructor(settings).constructSingleDocument(Optional.of(node));
+  }
+
+  /** Reads past the events of the next value, without composing them. */
+  @Override
+  public void skipValue() {
+    int depth = 0;
+    while (true) {
+      final Event event = next();
+      switch (event.getEventId()) {
+        case MappingStart, SequenceStart -> depth++;
+        case MappingEnd, SequenceEnd -> depth--;
+        case Scalar, Alias -> {}
+        case Comment -> {
+          continue;
+        }
+        default -> throw error("Unexpected " + event.getEventId(), event);
+      }
+      if (depth == 0) return;
+    }
+  }
+
+  /**
+   * Reads the next value as a {@link Slice}: The scalars of the value are constructed as they are
+   * read, but its mappings & sequences are only built when the slice is.
+   */
+  @Override
+  @NotNull
+  public Supplier<Object> readDeferred() {
+    final Slice slice = new Slice(settings);
+
+    // The token index, child count & anchor of each open mapping or sequence.
+    int[] open = new int[8];
+    int[] children = new int[8];
+    String[] openAnchors = new String[8];
+    int depth = 0;
+
+    // (Anchors are registered once their node is complete)
+    Map<String, Integer> anchors = null;
+    int aliases = 0;
+
+    while (true) {
+      final Event event = next();
+      switch (event.getEventId()) {
+        case Scalar -> {
+          final ScalarEvent scalar = (ScalarEvent) event;
+          final Optional<Anchor> anchor = scalar.getAnchor();
+          if (anchor.isPresent()) {
+            if (anchors == null) anchors = new HashMap<>();
+            anchors.put(anchor.get().getValue(), slice.size);
+          }
+          slice.add(constructScalar(scalar));
+        }
+        case Alias -> {
+          final String name = ((AliasEvent) event).getAlias().getValue();
+          final Integer start = anchors != null ? anchors.get(name) : null;
+          if (start == null) {
+            throw error(
+                "Unknown anchor: "
+                    + name
+                    + " (Anchors are only resolved inside the value that defines them)",
+                event);
+          }
+          if (++aliases > settings.getMaxAliasesForCollections()) {
+            throw error("Too many aliases: " + aliases, event);
+          }
+          slice.copy(start);
+        }
+        case MappingStart, SequenceStart -> {
+          final CollectionStartEvent collection = (CollectionStartEvent) event;
+          final Optional<String> tag = collection.getTag();
+          if (tag.isPresent() && !tag.get().equals("!")) {
+            throw error("Tagged values can't be deferred: " + tag.get(), event);
+          }
+          if (depth == open.length) {
+            open = Arrays.copyOf(open, depth * 2);
+            children = Arrays.copyOf(children, depth * 2);
+            openAnchors = Arrays.copyOf(openAnchors, depth * 2);
+          }
+          open[depth] = slice.size;
+          children[depth] = 0;
+          openAnchors[depth] = collection.getAnchor().map(Anchor::getValue).orElse(null);
+          depth++;
+          slice.add(event.getEventId() == Event.ID.MappingStart ? Slice.MAPPING : Slice.SEQUENCE);
+          // (The number of entries or items, set when the container ends)
+          slice.add(null);
+        }
+        case MappingEnd, SequenceEnd -> {
+          depth--;
+          final int start = open[depth];
+          final int count = children[depth];
+          slice.tokens[start + 1] = event.getEventId() == Event.ID.MappingEnd ? count / 2 : count;
+          if (openAnchors[depth] != null) {
+            if (anchors == null) anchors = new HashMap<>();
+            anchors.put(openAnchors[depth], start);
+          }
+        }
+        case Comment -> {
+          continue;
+        }
+        default -> throw error("Unexpected " + event.getEventId(), event);
+      }
+
+      // Every event handled above leaves a complete node, or opens one.
+      final Event.ID id = event.getEventId();
+      if (id == Event.ID.MappingStart || id == Event.ID.SequenceStart) continue;
+      if (depth == 0) return slice.trim();
+      children[depth - 1]++;
+    }
+  }
+
+  /**
+   * Skims the next value: The events of a mapping or sequence are read without composing or
+   * constructing them, and only the text of the value is kept. The value is parsed from its text
+   * when built. (Scalars are read right away. Without marks, see {@link
+   * LoadSettings#getUseMarks()}, the value is deferred)
+   */
+  @Override
+  @NotNull
+  public Supplier<Object> skimValue() {
+    final Event first = parser.peekEvent();
+    final Optional<Mark> start = first.getStartMark();
+    if (!(first instanceof CollectionStartEvent)) {
+      final Object value = readValue();
+      return () -> value;
+    }
+    if (start.isEmpty()) return readDeferred();
+
+    // (Anchors are checked here, so that the text of the value parses on its own)
+    Set<String> anchors = null;
+    int aliases = 0;
+    int depth = 0;
+    Event event;
+    deferring = true;
+    try {
+      do {
+        event = next();
+        switch (event.getEventId()) {
+          case MappingStart, SequenceStart, Scalar -> {
+            if (event.getEventId() != Event.ID.Scalar) depth++;
+            final Optional<Anchor> anchor = ((NodeEvent) event).getAnchor();
+            if (anchor.isPresent()) {
+              if (anchors == null) anchors = new HashSet<>();
+              anchors.add(anchor.get().getValue());
+            }
+          }
+          case MappingEnd, SequenceEnd -> depth--;
+          case Alias -> {
+            final String name = ((AliasEvent) event).getAlias().getValue();
+            if (anchors == null || !anchors.contains(name)) {
+              throw error(
+                  "Unknown anchor: "
+                      + name
+                      + " (Anchors are only resolved inside the value that defines them)",
+                  event);
+            }
+            if (++aliases > settings.getMaxAliasesForCollections()) {
+              throw error("Too many aliases: " + aliases, event);
+            }
+          }
+          case Comment -> {}
+          default -> throw error("Unexpected " + event.getEventId(), event);
+        }
+      } while (depth > 0);
+    } finally {
+      deferring = false;
+    }
+
+    final Mark mark = start.get();
+    final int end = event.getEndMark().orElseThrow().getIndex();
+    final String text = directives + dedent(mark.getColumn(), source.getText(mark.getIndex(), end));
+    return () -> new Load(settings).loadFromString(text);
+  }
+
+  /**
+   * Removes the indentation that the lines of a value share, so that its text is held compactly.
+   * Every line holding content is shifted by the same amount, so the value parses the same.
+   *
+   * @param column The column that the value starts at.
+   * @param text The text of the value.
+   * @return The text of the value, starting at its first line.
+   */
+  @NotNull
+  static String dedent(int column, @NotNull String text) {
+    // (Only plain line breaks are handled. Other texts are kept as they are)
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if ((c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))
+          || c == '\u0085'
+          || c == '\u2028'
+          || c == '\u2029') {
+        return " ".repeat(column) + text;
+      }
+    }
+
+    // The least indentation of the lines after the first, ignoring blank lines & comments.
+    int indent = column;
+    int index = text.indexOf('\n');
+    while (index != -1 && indent > 0) {
+      final int lineStart = index + 1;
+      int content = lineStart;
+      while (content < text.length() && text.charAt(content) == ' ') content++;
+      if (content < text.length()) {
+        final char c = text.charAt(content);
+        if (c != '\n' && c != '\r' && c != '#') indent = Math.min(indent, content - lineStart);
+      }
+      index = text.indexOf('\n', lineStart);
+    }
+
+    final StringBuilder builder = new StringBuilder(text.length());
+    builder.repeat(' ', column - indent);
+    index = text.indexOf('\n');
+    if (index == -1) return builder.append(text).toString();
+    builder.append(text, 0, index + 1);
+    while (index != -1) {
+      final int lineStart = index + 1;
+      int content = lineStart;
+      while (content < text.length()
+          && content - lineStart < indent
+          && text.charAt(content) == ' ') {
+        content++;
+      }
+      index = text.indexOf('\n', lineStart);
+      builder.append(text, content, index != -1 ? index + 1 : text.length());
+    }
+    return builder.toString();
+  }
+
+  /** Constructs a scalar the same way composing & constructing its node does. */
+  @Nullable
+  private Object constructScalar(@NotNull ScalarEvent event) {
+    final Optional<String> tag = event.getTag();
+    final Tag nodeTag;
+    final boolean resolved;
+    if (tag.isEmpty() || tag.get().equals("!")) {
+      nodeTag =
+          settings
+              .getSchema()
+              .getScalarResolver()
+              .resolve(event.getValue(), event.getImplicit().canOmitTagInPlainScalar());
+      resolved = true;
+    } else {
+      nodeTag = new Tag(tag.get());
+      resolved = false;
+    }
+    return scalarConstructor.constructValue(
+        new ScalarNode(
+            nodeTag,
+            resolved,
+            event.getValue(),
+            event.getScalarStyle(),
+            event.getStartMark(),
+            event.getEndMark()));
+  }
+
+  /** Reads the end of the document. Only a single document is read. */
+  public void endDocument() {
+    expect(Event.ID.DocumentEnd);
+    if (!parser.checkEvent(Event.ID.StreamEnd)) {
+      throw error("Only a single YAML document is supported.");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    source.close();
+  }
+
+  @NotNull
+  private Event expect(@NotNull Event.ID id) {
+    final Event event = next();
+    if (event.getEventId() != id) {
+      throw error("Expected " + id + " but found " + event.getEventId(), event);
+    }
+    return event;
+  }
+
+  /**
+   * @return The next event. The text before it is dropped from the window, unless a value is being
+   *     deferred.
+   */
+  @NotNull
+  private Event next() {
+    final Event event = parser.next();
+    if (!deferring) {
+      final Optional<Mark> mark = event.getStartMark();
+      if (mark.isPresent()) source.keepFrom(mark.get().getIndex());
+    }
+    return event;
+  }
+
+  @NotNull
+  private RosettaException error(@NotNull String message) {
+    return error(message, parser.peekEvent());
+  }
+
+  @NotNull
+  private static RosettaException error(@NotNull String message, @NotNull Event event) {
+    final Optional<Mark> mark = event.getStartMark();
+    if (mark.isEmpty()) return new RosettaException(message);
+    return new RosettaException(
+        message
+            + " (Line "
+            + (mark.get().getLine() + 1)
+            + ", column "
+            + (mark.get().getColumn() + 1)
+            + ")");
+  }
+
+  /**
+   * Slice holds a value read by {@link #readDeferred()} as tokens: A scalar is its constructed
+   * value. A mapping or sequence is a marker & its number of entries or items, followed by them.
+   */
+  private static final class Slice implements Supplier<Object> {
+
+    private static final Object MAPPING = new Object();
+    private static final Object SEQUENCE = new Object();
+
+    private final LoadSettings settings;
+    private Object[] tokens = new Object[16];
+    private int size = 0;
+
+    private Slice(@NotNull LoadSettings settings) {
+      this.settings = settings;
+    }
+
+    private void add(@Nullable Object token) {
+      if (size == tokens.length) tokens = Arrays.copyOf(tokens, size * 2);
+      tokens[size++] = token;
+    }
+
+    /** Appends the tokens of a complete node again. (For aliases) */
+    private void copy(int start) {
+      final int end = skip(start);
+      for (int index = start; index < end; index++) add(tokens[index]);
+    }
+
+    /**
+     * @return The token index following the node at the index.
+     */
+    private int skip(int index) {
+      final Object token = tokens[index];
+      if (token != MAPPING && token != SEQUENCE) return index + 1;
+      final int count = (Integer) tokens[index + 1] * (token == MAPPING ? 2 : 1);
+      index += 2;
+      for (int i = 0; i < count; i++) index = skip(index);
+      return index;
+    }
+
+    @NotNull
+    private Slice trim() {
+      tokens = Arrays.copyOf(tokens, size);
+      return this;
+    }
+
+    @Override
+    @Nullable
+    public Object get() {
+      return build(new int[1]);
+    }
+
+    @Nullable
+    private Object build(int @NotNull [] cursor) {
+      final Object token = tokens[cursor[0]++];
+      if (token == MAPPING) {
+        final int count = (Integer) tokens[cursor[0]++];
+        final Map<Object, Object> map = settings.getDefaultMap().apply(count);
+        for (int i = 0; i < count; i++) {
+          final Object key = build(cursor);
+          final Object value = build(cursor);
+          if (!settings.getAllowDuplicateKeys() && map.containsKey(key)) {
+            throw new RosettaException("Found duplicate key " + key);
+          }
+          map.put(key, value);
+        }
+        return map;
+      } else if (token == SEQUENCE) {
+        final int count = (Integer) tokens[cursor[0]++];
+        final List<Object> list = settings.getDefaultList().apply(count);
+        for (int i = 0; i < count; i++) list.add(build(cursor));
+        return list;
+      }
+      return token;
+    }
+  }
+
+  /**
+   * Source keeps a window of the text read, from the start of the last event read. (Or of the value
+   * being deferred) Marks count code points, so the window is indexed by code points.
+   */
+  private static final class Source extends Reader {
+
+    private final Reader reader;
+    private final StringBuilder window = new StringBuilder();
+
+    /** The code point index of the start of the window. */
+    private int windowIndex = 0;
+
+    /** The code point index that the window must keep text from. */
+    private int keepFrom = 0;
+
+    private Source(@NotNull Reader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    public int read(char @NotNull [] buffer, int offset, int length) throws IOException {
+      final int read = reader.read(buffer, offset, length);
+      if (read > 0) {
+        if (keepFrom > windowIndex) {
+          window.delete(0, window.offsetByCodePoints(0, keepFrom - windowIndex));
+          windowIndex = keepFrom;
+        }
+        window.append(buffer, offset, read);
+      }
+      return read;
+    }
+
+    private void keepFrom(int index) {
+      keepFrom = index;
+    }
+
+    /**
+     * @param start The code point index of the start of the text. (Inclusive)
+     * @param end The code point index of the end of the text. (Exclusive)
+     * @return The text read between the indices.
+     */
+    @NotNull
+    private String getText(int start, int end) {
+      final int startOffset = window.offsetByCodePoints(0, start - windowIndex);
+      return window.substring(startOffset, window.offsetByCodePoints(startOffset, end - start));
+    }
+
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+  }
+
+  /** Constructs single scalars with the constructors of the settings & schema. */
+  private static final class ScalarConstructor extends StandardConstructor {
+
+    private ScalarConstructor(@NotNull LoadSettings settings) {
+      super(settings);
+    }
+
+    @Nullable
+    private Object constructValue(@NotNull ScalarNode node) {
+      final Optional<ConstructNode> constructor = findConstructorFor(node);
+      if (constructor.isEmpty()) {
+        // (Throws the same exception as constructing the document)
+        return constructSingleDocument(Optional.of(node));
+      }
+      return constructor.get().construct(node);
+    }
+  }
+
+  /**
+   * Presents the next value of the document to the {@link Composer} as a document of its own: The
+   * events of the value are framed by synthetic document events.
+   */
+  private final class ValueParser implements Parser {
+
+    private static final int START = 0;
+    private static final int VALUE = 1;
+    private static final int END = 2;
+    private static final int DONE = 3;
+
+    private int state = DONE;
+    private int depth = 0;
+    @Nullable private Event peeked = null;
+
+    private void reset() {
+      state = START;
+      depth = 0;
+      peeked = null;
+    }
+
+    @Override
+    public boolean checkEvent(@NotNull Event.ID id) {
+      return hasNext() && peekEvent().getEventId() == id;
+    }
+
+    @Override
+    public Event peekEvent() {
+      if (peeked == null) peeked = produce();
+      return peeked;
+    }
+
+    @Override
+    public Event next() {
+      final Event event = peekEvent();
+      peeked = null;
+      return event;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return state != DONE || peeked != null;
+    }
+
+    @NotNull
+    private Event produce() {
+      switch (state) {
+        case START -> {
+          state = VALUE;
+          return new DocumentStartEvent(false, Optional.empty(), Map.of());
+        }
+        case VALUE -> {
+          final Event event = YamlStreamReader.this.next();
+          switch (event.getEventId()) {
+            case MappingStart, SequenceStart -> depth++;
+            case MappingEnd, SequenceEnd -> depth--;
+            case StreamEnd, DocumentEnd, DocumentStart ->
+                throw error("Unexpected " + event.getEventId(), event);
+            default -> {}
+          }
+          if (depth == 0 && event.getEventId() != Event.ID.Comment) state = END;
+          return event;
+        }
+        case END -> {
+          state = DONE;
+          return new DocumentEndEvent(false);
+        }
+        default -> throw new NoSuchElementException();
+      }
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package com.asledgehammer.rosetta;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Optional;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.snakeyaml.engine.v2.api.DumpSettings;
+import org.snakeyaml.engine.v2.api.StreamDataWriter;
+import org.snakeyaml.engine.v2.common.FlowStyle;
+import org.snakeyaml.engine.v2.emitter.Emitter;
+import org.snakeyaml.engine.v2.events.*;
+import org.snakeyaml.engine.v2.nodes.Tag;
+import org.snakeyaml.engine.v2.representer.StandardRepresenter;
+import org.snakeyaml.engine.v2.serializer.Serializer;
+
+/**
+ * YamlStreamWriter emits a single YAML document as snakeyaml-engine events while it is written.
+ * Complete values are represented and serialized the same way {@link
+ * org.snakeyaml.engine.v2.api.Dump} does, so a streamed document is identical to dumping the same
+ * data as one Map.
+ *
+ * <p>NOTE: I/O errors are thrown as {@link UncheckedIOException}.
+ */
+public class YamlStreamWriter implements RosettaStreamWriter, Closeable {
+
+  private final DumpSettings settings;
+  private final Writer writer;
+  private final Emitter emitter;
+  private final Serializer serializer;
+  private final StandardRepresenter representer;
+  private final FlowStyle flowStyle;
+  private int depth = 0;
+  private boolean finished = false;
+
+  /**
+   * @param writer The writer to write the document.
+   */
+  public YamlStreamWriter(@NotNull Writer writer) {
+    this(writer, Rosetta.getYamlDumpSettings());
+  }
+
+  /**
+   * @param writer The writer to write the document.
+   * @param settings The settings to emit the document.
+   */
+  public YamlStreamWriter(@NotNull Writer writer, @NotNull DumpSettings settings) {
+    this.settings = settings;
+    this.writer = writer;
+    this.emitter = new Emitter(settings, new WriterAdapter(writer));
+    this.representer = new StandardRepresenter(settings);
+    this.flowStyle =
+        settings.getDefaultFlowStyle() == FlowStyle.AUTO
+            ? FlowStyle.BLOCK
+            : settings.getDefaultFlowStyle();
+
+    // Values are serialized as documents of their own. Only their contents are forwarded.
+    this.serializer =
+        new Serializer(
+            settings,
+            event -> {
+              if (!(event instanceof DocumentStartEvent) && !(event instanceof DocumentEndEvent)) {
+                emitter.emit(event);
+              }
+            });
+
+    emitter.emit(new StreamStartEvent());
+    emitter.emit(
+        new DocumentStartEvent(
+            settings.isExplicitStart(), settings.getYamlDirective(), settings.getTagDirective()));
+  }
+
+  @Override
+  public void beginMapping() {
+    checkFinished();
+    depth++;
+    emitter.emit(
+        new MappingStartEvent(Optional.empty(), Optional.of(Tag.MAP.getValue()), true, flowStyle));
+  }
+
+  @Override
+  public void endMapping() {
+    checkOpen();
+    depth--;
+    emitter.emit(new MappingEndEvent());
+  }
+
+  @Override
+  public void beginSequence() {
+    checkFinished();
+    depth++;
+    emitter.emit(
+        new SequenceStartEvent(Optional.empty(), Optional.of(Tag.SEQ.getValue()), true, flowStyle));
+  }
+
+  @Override
+  public void endSequence() {
+    checkOpen();
+    depth--;
+    emitter.emit(new SequenceEndEvent());
+  }
+
+  @Override
+  public void key(@NotNull String key) {
+    checkOpen();
+    serializer.serializeDocument(representer.represent(key));
+  }
+
+  @Override
+  public void value(@Nullable Object value) {
+    checkFinished();
+    serializer.serializeDocument(representer.represent(value));
+  }
+
+  /**
+   * Ends the document and flushes the writer. The writer itself is left open.
+   *
+   * @throws IllegalStateException If a mapping or sequence is still open.
+   */
+  public void finish() {
+    if (finished) return;
+    if (depth != 0) {
+      throw new IllegalStateException("The document has " + depth + " unclosed container(s).");
+    }
+    emitter.emit(new DocumentEndEvent(settings.isExplicitEnd()));
+    emitter.emit(new StreamEndEvent());
+    finished = true;
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Finishes the document and closes the writer. */
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      writer.close();
+    }
+  }
+
+  private void checkOpen() {
+    checkFinished();
+    if (depth == 0) {
+      throw new IllegalStateException("No mapping or sequence is open.");
+    }
+  }
+
+  private void checkFinished() {
+    if (finished) {
+      throw new IllegalStateException("The document is already finished.");
+    }
+  }
+
+  /** Forwards emitted text to a {@link Writer}. */
+  private static class WriterAdapter implements StreamDataWriter {
+
+    private final Writer writer;
+
+    WriterAdapter(@NotNull Writer writer) {
+      this.writer = writer;
+    }
+
+    @Override
+    public void write(String str) {
+      try {
+        writer.write(str);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+      try {
+        writer.write(str, off, len);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public void flush() {
+      try {
+        writer.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.asledgehammer.rosetta.exception;
+
+import org.jetbrains.annotations.NotNull;
+
+/** Thrown when loading a class definition that is already defined. (E.G: By another file) */
+public class ClassConflictException extends RosettaException {
+  private final String path;
+
+  /**
+   * @param path The path of the class. E.G: <code>java.util.ArrayList</code>
+   */
+  public ClassConflictException(@NotNull String path) {
+    super("The class is already defined: " + path);
+    this.path = path;
+  }
+
+  @NotNull
+  public String getPath() {
+    return path;
+  }
+}
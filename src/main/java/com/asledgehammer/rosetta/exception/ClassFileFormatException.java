@@ -0,0 +1,14 @@
+package com.asledgehammer.rosetta.exception;
+
+import org.jetbrains.annotations.NotNull;
+
+/** Thrown when a class-file or one of its signatures is malformed or unsupported. */
+public class ClassFileFormatException extends RosettaException {
+  public ClassFileFormatException(@NotNull String message) {
+    super(message);
+  }
+
+  public ClassFileFormatException(@NotNull String message, @NotNull Throwable cause) {
+    super(message, cause);
+  }
+}
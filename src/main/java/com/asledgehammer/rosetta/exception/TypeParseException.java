@@ -0,0 +1,36 @@
+package com.asledgehammer.rosetta.exception;
+
+import org.jetbrains.annotations.NotNull;
+
+/** Thrown when a type string is malformed. */
+public class TypeParseException extends RosettaException {
+
+  private final String source;
+  private final int index;
+
+  /**
+   * @param message The detail message.
+   * @param source The type string parsed.
+   * @param index The index of the character in the type string where parsing failed.
+   */
+  public TypeParseException(@NotNull String message, @NotNull String source, int index) {
+    super(message + " (index: " + index + ", type: \"" + source + "\")");
+    this.source = source;
+    this.index = index;
+  }
+
+  /**
+   * @return The type string parsed.
+   */
+  @NotNull
+  public String getSource() {
+    return source;
+  }
+
+  /**
+   * @return The index of the character in the type string where parsing failed.
+   */
+  public int getIndex() {
+    return index;
+  }
+}
@@ -5,6 +5,11 @@ import com.asledgehammer.rosetta.Notable;
 import com.asledgehammer.rosetta.RosettaObject;
 import com.asledgehammer.rosetta.Taggable;
 import com.asledgehammer.rosetta.exception.ClassAlreadyDiscoveredException;
+import com.asledgehammer.rosetta.java.classfile.ClassFile;
+import com.asledgehammer.rosetta.java.classfile.ClassFileField;
+import com.asledgehammer.rosetta.java.classfile.ClassFileLibrary;
+import com.asledgehammer.rosetta.java.classfile.ClassFileMethod;
+import com.asledgehammer.rosetta.java.classfile.SignatureReader;
 import com.asledgehammer.rosetta.java.reference.ClassReference;
 import com.asledgehammer.rosetta.java.reference.TypeReference;
 import java.lang.reflect.*;
@@ -15,10 +20,10 @@ import org.jetbrains.annotations.Nullable;
 public class JavaClass extends RosettaObject
     implements NamedEntity, Notable, Reflected<Class<?>>, Taggable {
 
-  private final Map<String, JavaClass> classes = new HashMap<>();
-  private final Map<String, JavaField> fields = new HashMap<>();
-  private final Map<String, JavaExecutableCollection<JavaMethod>> methods = new HashMap<>();
-  private final List<JavaTypeParameter> typeParameters = new ArrayList<>();
+  private final Map<String, JavaClass> classes = track(new HashMap<>());
+  private final Map<String, JavaField> fields = track(new HashMap<>());
+  private final Map<String, JavaExecutableCollection<JavaMethod>> methods = track(new HashMap<>());
+  private final List<JavaTypeParameter> typeParameters = track(new ArrayList<>());
   private List<String> tags = new ArrayList<>();
   private final JavaExecutableCollection<JavaConstructor> constructors;
   private ClassReference targetReference;
@@ -47,6 +52,14 @@ public class JavaClass extends RosettaObject
     this.constructors = new JavaExecutableCollection<>(this.name);
   }
 
+  JavaClass(@NotNull JavaPackage pkg, @NotNull ClassFile classFile) {
+    super();
+
+    this.pkg = pkg;
+    this.name = classFile.getSimpleName();
+    this.constructors = new JavaExecutableCollection<>(this.name);
+  }
+
   JavaClass(
       @NotNull JavaPackage pkg,
       @NotNull JavaDeserializeInstance deserialize,
@@ -74,6 +87,33 @@ public class JavaClass extends RosettaObject
       @NotNull Class<?> clazz,
       @NotNull JavaLanguage language) {
 
+    discover(settings, clazz);
+
+    // If the exposure-policy of the settings passed are to expose any related classes.
+    if (settings.getSuperPolicy() == JavaDiscoverySettings.SuperPolicy.EXPOSE) {
+      // Ignore Object.class super-class being self-referencing.
+      Class<?> clazzSuper = clazz.getSuperclass();
+      if (clazzSuper != null && clazz.getSuperclass() != clazz) {
+        language.of(settings, clazzSuper);
+      }
+      for (Class<?> interfaze : clazz.getInterfaces()) {
+        language.of(settings, interfaze);
+      }
+    }
+  }
+
+  /**
+   * Discovers the class's own definition and members without exposing any related classes.
+   *
+   * <p>NOTE: This only touches the state of this class definition and is safe to invoke
+   * concurrently for different classes. (See {@link JavaLanguage#discoverAll(Collection,
+   * JavaDiscoverySettings, int)})
+   *
+   * @param settings The discovery settings to apply.
+   * @param clazz The reflection-target to discover.
+   */
+  void discover(@NotNull JavaDiscoverySettings settings, @NotNull Class<?> clazz) {
+
     if (isDiscovered()) {
       throw new ClassAlreadyDiscoveredException(this);
     }
@@ -129,22 +169,180 @@ public class JavaClass extends RosettaObject
       discoverMethods(clazz);
     }
 
+    // Lock discovery to prevent post-discovery mutations.
+    this.isDiscovered = true;
+  }
+
+  void discover(
+      @NotNull JavaDiscoverySettings settings,
+      @NotNull ClassFileLibrary library,
+      @NotNull ClassFile classFile,
+      @NotNull JavaLanguage language) {
+
+    discover(settings, classFile);
+
     // If the exposure-policy of the settings passed are to expose any related classes.
     if (settings.getSuperPolicy() == JavaDiscoverySettings.SuperPolicy.EXPOSE) {
-      // Ignore Object.class super-class being self-referencing.
-      Class<?> clazzSuper = clazz.getSuperclass();
-      if (clazzSuper != null && clazz.getSuperclass() != clazz) {
-        language.of(settings, clazzSuper);
+      // Related classes outside the library are left undiscovered.
+      final String superName = classFile.getSuperName();
+      if (superName != null && library.contains(superName)) {
+        language.of(settings, library, superName);
       }
-      for (Class<?> interfaze : clazz.getInterfaces()) {
-        language.of(settings, interfaze);
+      for (String interfaceName : classFile.getInterfaceNames()) {
+        if (library.contains(interfaceName)) {
+          language.of(settings, library, interfaceName);
+        }
+      }
+    }
+  }
+
+  /**
+   * Discovers the class's own definition and members from its class-file. No class is loaded or
+   * initialized and the result matches {@link JavaClass#discover(JavaDiscoverySettings, Class)}.
+   *
+   * @param settings The discovery settings to apply.
+   * @param classFile The class-file to discover.
+   */
+  void discover(@NotNull JavaDiscoverySettings settings, @NotNull ClassFile classFile) {
+
+    if (isDiscovered()) {
+      throw new ClassAlreadyDiscoveredException(this);
+    }
+
+    final int modifiers = classFile.getAccessFlags();
+
+    // Figure out the modifiers for the class.
+    this.scope = JavaLanguage.getScope(modifiers);
+    this.isStatic = JavaLanguage.isStatic(modifiers);
+    this.isFinal = JavaLanguage.isFinal(modifiers);
+
+    // Grab the super types. (Interfaces don't have a super-class)
+    final String signature = classFile.getSignature();
+    final TypeReference superClass;
+    final List<TypeReference> superInterfaces;
+    if (signature != null) {
+      final SignatureReader.ClassSignature classSignature =
+          SignatureReader.readClassSignature(signature);
+      superClass = classSignature.getSuperClass();
+      superInterfaces = classSignature.getInterfaces();
+    } else {
+      final String superName = classFile.getSuperName();
+      superClass = superName != null ? TypeReference.ofSimple(superName, null, 0, false) : null;
+      superInterfaces = new ArrayList<>();
+      for (String interfaceName : classFile.getInterfaceNames()) {
+        superInterfaces.add(TypeReference.ofSimple(interfaceName, null, 0, false));
       }
     }
 
+    if (superClass != null && !classFile.isInterface()) {
+      this.extendz = superClass;
+    }
+
+    if (!superInterfaces.isEmpty()) {
+      implementz = new ArrayList<>(superInterfaces);
+    }
+
+    // Discover fields.
+    if (settings.exposeFields()) {
+      discoverFields(classFile);
+    }
+
+    // Discover constructors & methods.
+    if (settings.exposeConstructors() || settings.exposeMethods()) {
+      discoverExecutables(settings, classFile);
+    }
+
     // Lock discovery to prevent post-discovery mutations.
     this.isDiscovered = true;
   }
 
+  private void discoverFields(@NotNull ClassFile classFile) {
+    for (ClassFileField field : classFile.getFields()) {
+      final String signature = field.getSignature();
+      final TypeReference type =
+          SignatureReader.readFieldType(signature != null ? signature : field.getDescriptor());
+      fields.put(field.getName(), new JavaField(field.getName(), type, field.getAccessFlags()));
+    }
+  }
+
+  private void discoverExecutables(
+      @NotNull JavaDiscoverySettings settings, @NotNull ClassFile classFile) {
+    for (ClassFileMethod method : classFile.getMethods()) {
+      if (method.isStaticInitializer()) continue;
+
+      final boolean isConstructor = method.isConstructor();
+      if (isConstructor ? !settings.exposeConstructors() : !settings.exposeMethods()) continue;
+
+      final SignatureReader.MethodSignature descriptor =
+          SignatureReader.readMethodSignature(method.getDescriptor());
+      SignatureReader.MethodSignature signature = descriptor;
+      if (method.getSignature() != null) {
+        signature = SignatureReader.readMethodSignature(method.getSignature());
+      }
+
+      final List<TypeReference> parameterTypes = getParameterTypes(method, descriptor, signature);
+
+      List<String> parameterNames = method.getParameterNames();
+      if (parameterNames != null && parameterNames.size() != parameterTypes.size()) {
+        parameterNames = null;
+      }
+
+      final List<JavaParameter> parameters = new ArrayList<>(parameterTypes.size());
+      for (int i = 0; i < parameterTypes.size(); i++) {
+        final String parameterName = parameterNames != null ? parameterNames.get(i) : "arg" + i;
+        parameters.add(new JavaParameter(parameterName, parameterTypes.get(i)));
+      }
+
+      final int modifiers = method.getAccessFlags();
+      if (isConstructor) {
+        // Constructors are named after the binary name of the class. (Like reflection)
+        constructors.addExecutable(
+            new JavaConstructor(
+                classFile.getName(), modifiers, signature.getTypeParameters(), parameters));
+      } else {
+        final String name = method.getName();
+        final JavaMethod javaMethod =
+            new JavaMethod(
+                name,
+                modifiers,
+                signature.getTypeParameters(),
+                parameters,
+                signature.getReturnType());
+        methods.computeIfAbsent(name, JavaExecutableCollection::new).addExecutable(javaMethod);
+      }
+    }
+  }
+
+  /**
+   * Synthetic & mandated parameters (E.G: The outer instance of an inner class's constructor) are
+   * only present in the descriptor. This matches {@link Parameter#getParameterizedType()}.
+   */
+  @NotNull
+  private static List<TypeReference> getParameterTypes(
+      @NotNull ClassFileMethod method,
+      @NotNull SignatureReader.MethodSignature descriptor,
+      @NotNull SignatureReader.MethodSignature signature) {
+
+    final List<TypeReference> erased = descriptor.getParameters();
+    final List<TypeReference> generic = signature.getParameters();
+    if (signature == descriptor) return erased;
+
+    if (!method.hasParameterData()) {
+      return generic.size() == erased.size() ? generic : erased;
+    }
+
+    final List<TypeReference> types = new ArrayList<>(erased.size());
+    int genericIndex = 0;
+    for (int i = 0; i < erased.size(); i++) {
+      if (method.isParameterImplicit(i) || genericIndex >= generic.size()) {
+        types.add(erased.get(i));
+      } else {
+        types.add(generic.get(genericIndex++));
+      }
+    }
+    return types;
+  }
+
   private void discoverFields(@NotNull Class<?> clazz) {
     for (Field field : clazz.getDeclaredFields()) {
       fields.put(field.getName(), new JavaField(field));
@@ -177,7 +375,10 @@ public class JavaClass extends RosettaObject
     this.notes = getOptionalValue(raw, label, "notes", String.class);
 
     // Load tags. (If defined)
-    this.tags = getOptionalStringList(raw, label, "tags");
+    final List<String> tags = getOptionalStringList(raw, label, "tags");
+    if (tags != null) {
+      this.tags.addAll(tags);
+    }
 
     // Load the scope. (If defined. DEFAULT: "package")
     final String sScope = getOptionalValue(raw, label, "scope", "package", String.class);
@@ -189,16 +390,15 @@ public class JavaClass extends RosettaObject
     this.isFinal = getOptionalValue(raw, label, "final", false, boolean.class);
 
     // Load the super-class type. (If defined)
-    String oExtends = getOptionalValue(raw, label, "extends", String.class);
-    // TODO: Implement Deserialize instance.
-    this.extendz = oExtends != null ? JavaLanguage.resolveType(oExtends) : null;
+    Object oExtends = getOptionalValue(raw, label, "extends", String.class, Map.class);
+    this.extendz = oExtends != null ? deserialize.resolveType(oExtends) : null;
 
     // Load any super-interface types. (If defined)
     List<?> list = getOptionalList(raw, label, "implements", Map.class, String.class);
     if (list != null) {
+      this.implementz = new ArrayList<>();
       for (Object oImplement : list) {
-        // TODO: Implement Deserialize instance.
-        implementz.add(JavaLanguage.resolveType(oImplement));
+        implementz.add(deserialize.resolveType(oImplement));
       }
     }
 
@@ -217,9 +417,13 @@ public class JavaClass extends RosettaObject
         getOptionalDictionaryList(raw, label, "type_parameters");
     if (listTypeParameters != null && !listTypeParameters.isEmpty()) {
       for (final Map<String, Object> oTypeParameter : listTypeParameters) {
-        // TODO: Implement Deserialize instance.
+        final String labelTypeParameter = label + ".type_parameters";
+        final Object oType =
+            getExpectedValue(oTypeParameter, labelTypeParameter, "type", Map.class, String.class);
         final JavaTypeParameter javaTypeParameter =
-            new JavaTypeParameter(JavaLanguage.resolveType(oTypeParameter));
+            new JavaTypeParameter(deserialize.resolveType(oType));
+        javaTypeParameter.setNotes(
+            getOptionalValue(oTypeParameter, labelTypeParameter, "notes", String.class));
         this.typeParameters.add(javaTypeParameter);
       }
     }
@@ -239,7 +443,8 @@ public class JavaClass extends RosettaObject
     if (oFields != null && !oFields.isEmpty()) {
       for (String key : oFields.keySet()) {
         final String labelField = label + ".fields[\"" + key + "\"]";
-        oFields.put(key, new JavaField(key, getExpectedDictionary(oFields, labelField, key)));
+        this.fields.put(
+            key, new JavaField(deserialize, key, getExpectedDictionary(oFields, labelField, key)));
       }
     }
 
@@ -248,7 +453,7 @@ public class JavaClass extends RosettaObject
         getOptionalDictionaryList(raw, label, "constructors");
     if (oConstructors != null && !oConstructors.isEmpty()) {
       for (Map<String, Object> oConstructor : oConstructors) {
-        constructors.addExecutable(new JavaConstructor(this.name, oConstructor));
+        constructors.addExecutable(new JavaConstructor(deserialize, this.name, oConstructor));
       }
     }
 
@@ -261,13 +466,23 @@ public class JavaClass extends RosettaObject
         final String name = getExpectedValue(oMethod, labelMethod, "name", String.class);
         final JavaExecutableCollection<JavaMethod> methods =
             this.methods.computeIfAbsent(name, JavaExecutableCollection::new);
-        methods.addExecutable(new JavaMethod(name, raw));
+        methods.addExecutable(new JavaMethod(deserialize, name, oMethod));
       }
     }
   }
 
   @NotNull
   protected Map<String, Object> onSave(@NotNull JavaSerializeInstance serialize) {
+    final JavaFragmentCache fragmentCache = serialize.getSettings().getFragmentCache();
+    if (fragmentCache != null) {
+      return fragmentCache.get(this, serialize);
+    }
+    return render(serialize);
+  }
+
+  /** Serializes the class, bypassing any fragment cache. (Nested classes are rendered inline) */
+  @NotNull
+  Map<String, Object> render(@NotNull JavaSerializeInstance serialize) {
 
     final Map<String, Object> raw = new HashMap<>();
 
@@ -350,7 +565,7 @@ public class JavaClass extends RosettaObject
       keys.sort(Comparator.naturalOrder());
       for (String key : keys) {
         JavaClass javaClass = this.classes.get(key);
-        classes.put(key, javaClass.onSave(serialize));
+        classes.put(key, javaClass.render(serialize));
       }
       raw.put("classes", classes);
     }
@@ -404,6 +619,71 @@ public class JavaClass extends RosettaObject
     return raw;
   }
 
+  /** Adds the revisions of the class & everything serialized with it. */
+  void stamp(@NotNull JavaFragmentCache.Stamp stamp) {
+    stamp.add(this);
+    for (JavaTypeParameter typeParameter : typeParameters) stamp.add(typeParameter);
+    for (JavaClass javaClass : classes.values()) javaClass.stamp(stamp);
+    for (JavaField javaField : fields.values()) stamp.add(javaField);
+    constructors.stamp(stamp);
+    for (JavaExecutableCollection<JavaMethod> methodGroup : methods.values()) {
+      methodGroup.stamp(stamp);
+    }
+  }
+
+  /**
+   * Hashes the content of the class in the order {@link #render(JavaSerializeInstance)} reads it.
+   */
+  void digest(@NotNull JavaFragmentCache.Digest digest) {
+    digest.add(name);
+    digest.add(scope.getID());
+    digest.add(isStatic);
+    digest.add(isFinal);
+
+    digest.add(typeParameters.size());
+    for (JavaTypeParameter typeParameter : typeParameters) {
+      typeParameter.digest(digest, targetReference, target);
+    }
+
+    digest.add(extendz != null);
+    if (extendz != null) digest.add(extendz, targetReference, target);
+
+    final List<TypeReference> implementz = this.implementz != null ? this.implementz : List.of();
+    digest.add(implementz.size());
+    for (TypeReference implement : implementz) digest.add(implement, targetReference, target);
+
+    digest.add(deprecated);
+    digest.add(notes);
+    digest.add(tags);
+
+    digest.add(classes.size());
+    for (String key : new TreeSet<>(classes.keySet())) {
+      digest.add(key);
+      classes.get(key).digest(digest);
+    }
+
+    digest.add(fields.size());
+    for (String key : new TreeSet<>(fields.keySet())) {
+      digest.add(key);
+      fields.get(key).digest(digest, targetReference);
+    }
+
+    final List<JavaConstructor> javaConstructors = new ArrayList<>(constructors.getExecutables());
+    javaConstructors.sort(Comparator.comparing(JavaExecutable::getSignature));
+    digest.add(javaConstructors.size());
+    for (JavaConstructor constructor : javaConstructors) {
+      constructor.digest(digest, targetReference);
+    }
+
+    digest.add(methods.size());
+    for (String key : new TreeSet<>(methods.keySet())) {
+      final List<JavaMethod> javaMethods = new ArrayList<>(methods.get(key).getExecutables());
+      javaMethods.sort(Comparator.comparing(JavaExecutable::getSignature));
+      digest.add(javaMethods.size());
+      for (JavaMethod method : javaMethods) method.digest(digest, targetReference);
+    }
+  }
+
   @Override
   public String toString() {
     return "JavaClass \"" + getPackage().getPath() + "." + getName() + "\"";
@@ -431,6 +711,7 @@ public class JavaClass extends RosettaObject
           "A class definition is already registered for the name: " + key);
     }
     this.classes.put(javaClass.getName(), javaClass);
+    onModified();
   }
 
   public void removeClass(@NotNull JavaClass javaClass) {
@@ -440,6 +721,7 @@ public class JavaClass extends RosettaObject
           "A class definition is NOT registered with the name: " + key);
     }
     this.classes.remove(javaClass.getName());
+    onModified();
   }
 
   @NotNull
@@ -448,7 +730,9 @@ public class JavaClass extends RosettaObject
       throw new IllegalArgumentException(
           "A class definition is NOT registered with the name: " + clazzName);
     }
-    return this.classes.remove(clazzName);
+    final JavaClass javaClass = this.classes.remove(clazzName);
+    onModified();
+    return javaClass;
   }
 
   @NotNull
@@ -498,6 +782,7 @@ public class JavaClass extends RosettaObject
 
   void setReflectedObject(@Nullable Class<?> target) {
     this.target = target;
+    onModified();
   }
 
   @NotNull
@@ -522,6 +807,7 @@ public class JavaClass extends RosettaObject
   @Override
   public void setNotes(@Nullable String notes) {
     this.notes = notes == null || notes.isEmpty() ? null : notes;
+    onModified();
   }
 
   @Override
@@ -552,6 +838,7 @@ public class JavaClass extends RosettaObject
       throw new IllegalArgumentException("The tag is already applied: " + tag);
     }
     this.tags.add(tag);
+    onModified();
   }
 
   @Override
@@ -563,6 +850,7 @@ public class JavaClass extends RosettaObject
       throw new IllegalArgumentException("The tag is not applied: " + tag);
     }
     tags.remove(tag);
+    onModified();
   }
 
   @NotNull
@@ -573,6 +861,7 @@ public class JavaClass extends RosettaObject
     }
     List<String> tagsRemoved = Collections.unmodifiableList(tags);
     tags.clear();
+    onModified();
     return tagsRemoved;
   }
 
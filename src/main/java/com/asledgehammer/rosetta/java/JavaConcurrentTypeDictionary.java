@@ -0,0 +1,149 @@
+package com.asledgehammer.rosetta.java;
+
+import com.asledgehammer.rosetta.java.reference.ClassReference;
+import com.asledgehammer.rosetta.java.reference.TypeReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * JavaConcurrentTypeDictionary is a type-dictionary shared by threads serializing classes of the
+ * same save. (See {@link JavaSerializeSettings#setShareTypeDictionary(boolean)})
+ *
+ * <p>Registering assigns a provisional index to each compiled type. The thread that assigns it
+ * renders the type, so every type is rendered exactly once. Provisional indices depend on thread
+ * scheduling, so once every class is serialized, {@link #renumber()} assigns the final indices: in
+ * compiled type order, with the sub-types of each type first. The references of the serialized
+ * classes are then remapped to them. The dictionary acts like a {@link JavaTypeDictionary} from
+ * then on.
+ */
+final class JavaConcurrentTypeDictionary extends JavaTypeDictionary {
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicInteger next = new AtomicInteger();
+  private volatile boolean renumbered = false;
+
+  JavaConcurrentTypeDictionary(@NotNull TypeDictionaryMode mode, @NotNull String id) {
+    super(mode, id);
+  }
+
+  @Override
+  public String register(
+      @NotNull JavaSerializeInstance serialize,
+      @NotNull TypeReference type,
+      @Nullable ClassReference classReference,
+      @Nullable Class<?> deCl) {
+    if (renumbered) return super.register(serialize, type, classReference, deCl);
+
+    final Entry entry = getEntry(type.compile(classReference, deCl));
+    if (entry.claim()) {
+      entry.rendered = JavaLanguage.serializeType(serialize, type, classReference, deCl);
+    }
+    return entry.reference;
+  }
+
+  @Override
+  int @NotNull [] merge(@NotNull JavaTypeDictionary other) {
+    if (renumbered) return super.merge(other);
+
+    final String[] keys = other.getKeys();
+    final int[] indices = new int[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      final Entry entry = getEntry(keys[i]);
+      indices[i] = entry.index;
+      if (entry.claim()) {
+        entry.rendered = remap(copy(other.getRendered(i)), indices);
+      }
+    }
+    return indices;
+  }
+
+  @NotNull
+  private Entry getEntry(@NotNull String key) {
+    // The index is taken inside the atomic computation, so indices have no gaps.
+    return entries.computeIfAbsent(key, k -> new Entry(k, next.getAndIncrement(), getId()));
+  }
+
+  /**
+   * Assigns the final indices. Call once every thread finished registering.
+   *
+   * @return The final indices, by the provisional indices. (See {@link #remap(Object, int[])})
+   */
+  int @NotNull [] renumber() {
+    if (renumbered) {
+      throw new IllegalStateException("The dictionary is already renumbered.");
+    }
+    renumbered = true;
+
+    final Entry[] byIndex = new Entry[next.get()];
+    for (Entry entry : entries.values()) byIndex[entry.index] = entry;
+
+    final List<String> keys = new ArrayList<>(entries.keySet());
+    keys.sort(Comparator.naturalOrder());
+
+    final int[] indices = new int[byIndex.length];
+    Arrays.fill(indices, -1);
+    final List<Entry> order = new ArrayList<>(byIndex.length);
+    for (String key : keys) visit(entries.get(key), byIndex, indices, order);
+
+    for (Entry entry : order) add(entry.key, remap(entry.rendered, indices));
+    entries.clear();
+    return indices;
+  }
+
+  /** Orders the sub-types of the entry before it, as registering serially does. */
+  private void visit(
+      @NotNull Entry entry,
+      @NotNull Entry[] byIndex,
+      int @NotNull [] indices,
+      @NotNull List<Entry> order) {
+    if (indices[entry.index] != -1) return;
+    // Mark the entry as visited. (Types can't contain themselves, but guard anyway)
+    indices[entry.index] = -2;
+    forEachReference(
+        entry.rendered,
+        index -> {
+          if (index < byIndex.length) visit(byIndex[index], byIndex, indices, order);
+        });
+    indices[entry.index] = order.size();
+    order.add(entry);
+  }
+
+  @Override
+  public int size() {
+    return renumbered ? super.size() : next.get();
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    entries.clear();
+    next.set(0);
+    renumbered = false;
+  }
+
+  private static final class Entry {
+
+    private final String key;
+    private final int index;
+    private final String reference;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private volatile Object rendered;
+
+    private Entry(@NotNull String key, int index, @NotNull String id) {
+      this.key = key;
+      this.index = index;
+      this.reference = "$" + id + ":" + index;
+    }
+
+    /**
+     * @return True for the first caller only, which renders the entry.
+     */
+    private boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package com.asledgehammer.rosetta.java;
 
+import com.asledgehammer.rosetta.java.reference.TypeReference;
 import java.lang.reflect.Constructor;
+import java.util.List;
 import java.util.Map;
 import org.jetbrains.annotations.NotNull;
 
@@ -10,8 +12,19 @@ public class JavaConstructor extends JavaExecutable<Constructor<?>> {
     super(constructor);
   }
 
-  JavaConstructor(@NotNull String name, @NotNull Map<String, Object> raw) {
-    super(name, raw);
+  JavaConstructor(
+      @NotNull String name,
+      int modifiers,
+      @NotNull List<TypeReference> typeParameters,
+      @NotNull List<JavaParameter> parameters) {
+    super(name, modifiers, typeParameters, parameters);
+  }
+
+  JavaConstructor(
+      @NotNull JavaDeserializeInstance deserialize,
+      @NotNull String name,
+      @NotNull Map<String, Object> raw) {
+    super(deserialize, name, raw);
   }
 
   @Override
@@ -1,11 +1,32 @@
 package com.asledgehammer.rosetta.java;
 
+import com.asledgehammer.rosetta.exception.RosettaException;
+import com.asledgehammer.rosetta.exception.TypeException;
+import com.asledgehammer.rosetta.java.reference.TypeReference;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class JavaDeserializeInstance {
 
+  private static final TypeReference[] NO_TYPES = new TypeReference[0];
+
   private final JavaDeserializeSettings settings;
 
+  /** The types of the type-dictionary of the loaded data, by index. */
+  private TypeReference[] types = NO_TYPES;
+
+  /** The prefix of references to the type-dictionary. E.G: <code>$id:</code> */
+  @Nullable private String prefix = null;
+
+  private final Function<Object, TypeReference> references =
+      oType -> {
+        final int reference = toReference(oType);
+        return reference != -1 ? types[reference] : null;
+      };
+
   public JavaDeserializeInstance(@NotNull JavaDeserializeSettings settings) {
     this.settings = settings;
   }
@@ -14,4 +35,108 @@ public class JavaDeserializeInstance {
   public JavaDeserializeSettings getSettings() {
     return settings;
   }
+
+  /**
+   * Builds every type of a type-dictionary once, before the types are referenced. (See {@link
+   * JavaTypeDictionary#render()})
+   *
+   * @param id The ID of the container file referenced.
+   * @param oTypes The rendered type-dictionary. (A List, or a Map by index)
+   * @param format The ID of the {@link TypeDictionaryMode}. (Null to infer from the dictionary)
+   */
+  void onLoadTypes(@NotNull String id, @NotNull Object oTypes, @Nullable String format) {
+    final Object[] raws;
+    if (oTypes instanceof List<?> list) {
+      if (format != null && TypeDictionaryMode.of(format) != TypeDictionaryMode.LIST) {
+        throw new RosettaException("The type-dictionary is not a " + format + ".");
+      }
+      raws = list.toArray();
+    } else if (oTypes instanceof Map<?, ?> map) {
+      if (format != null && TypeDictionaryMode.of(format) != TypeDictionaryMode.DICTIONARY) {
+        throw new RosettaException("The type-dictionary is not a " + format + ".");
+      }
+      raws = new Object[map.size()];
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        final int index = toIndex(String.valueOf(entry.getKey()), 0);
+        if (index < 0 || index >= raws.length || raws[index] != null) {
+          throw new RosettaException("Invalid type-dictionary index: " + entry.getKey());
+        }
+        raws[index] = entry.getValue();
+      }
+    } else {
+      throw new TypeException("types", oTypes.getClass(), List.class, Map.class);
+    }
+
+    this.prefix = "$" + id + ":";
+    this.types = new TypeReference[raws.length];
+    final boolean[] building = new boolean[raws.length];
+    for (int i = 0; i < raws.length; i++) build(raws, building, i);
+  }
+
+  /** Builds a type after the types it references. (Usage-sorted types can reference any index) */
+  @NotNull
+  private TypeReference build(Object @NotNull [] raws, boolean @NotNull [] building, int index) {
+    TypeReference type = types[index];
+    if (type != null) return type;
+    if (building[index]) {
+      throw new RosettaException("The type-dictionary entry references itself: " + index);
+    }
+    building[index] = true;
+
+    final Object raw = raws[index];
+    if (raw == null) {
+      throw new RosettaException("The type-dictionary entry is missing: " + index);
+    }
+    type =
+        JavaLanguage.resolveType(
+            raw,
+            oType -> {
+              final int reference = toReference(oType);
+              return reference != -1 ? build(raws, building, reference) : null;
+            });
+    types[index] = type;
+    return type;
+  }
+
+  /**
+   * Resolves a serialized type. References to the type-dictionary resolve to the same instance.
+   *
+   * @param oType The serialized type. (A String, a Map or a <code>$id:n</code> reference)
+   * @return The type.
+   */
+  @NotNull
+  public TypeReference resolveType(@NotNull Object oType) {
+    return JavaLanguage.resolveType(oType, references);
+  }
+
+  /**
+   * @return The index of a type-dictionary reference. (-1 if the value isn't a reference)
+   * @throws RosettaException If the reference is out of the type-dictionary's range.
+   */
+  private int toReference(@NotNull Object oType) {
+    if (prefix == null || !(oType instanceof String string) || !string.startsWith(prefix)) {
+      return -1;
+    }
+    final int index = toIndex(string, prefix.length());
+    if (index < 0 || index >= types.length) {
+      throw new RosettaException("Unknown type-dictionary reference: " + string);
+    }
+    return index;
+  }
+
+  /**
+   * @param start The index of the number in the string.
+   * @return The non-negative decimal number. (-1 if the rest of the string isn't one)
+   */
+  private static int toIndex(@NotNull String string, int start) {
+    final int length = string.length() - start;
+    if (length <= 0 || length > 9) return -1;
+    int index = 0;
+    for (int i = start; i < string.length(); i++) {
+      final char c = string.charAt(i);
+      if (c < '0' || c > '9') return -1;
+      index = index * 10 + (c - '0');
+    }
+    return index;
+  }
 }
@@ -1,5 +1,76 @@
 package com.asledgehammer.rosetta.java;
 
 import com.asledgehammer.rosetta.RosettaDeserializeSettings;
+import com.asledgehammer.rosetta.exception.ReadOnlyException;
+import java.util.concurrent.Executor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-public final class JavaDeserializeSettings implements RosettaDeserializeSettings {}
+public final class JavaDeserializeSettings implements RosettaDeserializeSettings {
+
+  private boolean readOnly = false;
+
+  private boolean lazy = false;
+
+  @Nullable private Executor executor = null;
+
+  public boolean isLazy() {
+    return lazy;
+  }
+
+  /**
+   * Defers building the classes of each package loaded from a stream until they are first accessed.
+   * Loading only skims the text of each class. A class is parsed & built (and its reflection target
+   * resolved) on the first call accessing it. (E.G: {@link JavaPackage#getClazz(String)}, or {@link
+   * JavaPackage#getClasses()} for every class of the package)
+   *
+   * <p>NOTE: Loading a parsed dictionary is never lazy: Holding its classes costs more memory than
+   * building them. Errors in the definition of classes are thrown by the first call accessing them.
+   * (See JavaFirstQueryBenchmark)
+   *
+   * @param flag True to load classes lazily.
+   */
+  @NotNull
+  public JavaDeserializeSettings setLazy(boolean flag) {
+    checkReadOnlyStatus();
+    this.lazy = flag;
+    return this;
+  }
+
+  /**
+   * @return The executor to load packages concurrently. (Null if loaded serially)
+   */
+  @Nullable
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Loads packages concurrently on the executor. Packages are linked serially, in the order of
+   * their paths, then the contents of each package listed by the language are loaded as a task of
+   * their own. The loaded model is identical to loading serially.
+   *
+   * @param executor The executor to load packages. (Null to load serially)
+   */
+  @NotNull
+  public JavaDeserializeSettings setExecutor(@Nullable Executor executor) {
+    checkReadOnlyStatus();
+    this.executor = executor;
+    return this;
+  }
+
+  public JavaDeserializeSettings build() {
+    this.readOnly = true;
+    return this;
+  }
+
+  private void checkReadOnlyStatus() {
+    if (this.isReadOnly()) {
+      throw new ReadOnlyException("The JavaDeserializeSettings is read-only.");
+    }
+  }
+
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+}
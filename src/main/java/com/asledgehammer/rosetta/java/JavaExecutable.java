@@ -24,8 +24,8 @@ public abstract class JavaExecutable<E extends Executable> extends RosettaObject
   /** Used to prevent wasteful empty list instantiations in heap memory. */
   private static final List<JavaParameter> DEFAULT_EMPTY_LIST = List.of();
 
-  private final List<JavaParameter> parameters = new ArrayList<>();
-  private final List<JavaTypeParameter> typeParameters = new ArrayList<>();
+  private final List<JavaParameter> parameters = track(new ArrayList<>());
+  private final List<JavaTypeParameter> typeParameters = track(new ArrayList<>());
 
   private final String signature;
   protected final String name;
@@ -67,16 +67,50 @@ public abstract class JavaExecutable<E extends Executable> extends RosettaObject
     }
   }
 
-  protected JavaExecutable(@NotNull String name, @NotNull Map<String, Object> raw) {
+  /**
+   * Discovery constructor for executables read without reflection. (See {@link
+   * com.asledgehammer.rosetta.java.classfile.ClassFileReader})
+   *
+   * <p>NOTE: They must populate their properties in the sub-constructor calling this one.
+   *
+   * @param name The name of the executable.
+   * @param modifiers The access flags of the executable.
+   * @param typeParameters The type variables declared by the executable.
+   * @param parameters The parameters of the executable.
+   */
+  protected JavaExecutable(
+      @NotNull String name,
+      int modifiers,
+      @NotNull List<TypeReference> typeParameters,
+      @NotNull List<JavaParameter> parameters) {
+    super();
+
+    this.target = null;
+    this.name = name;
+    this.signature = createSignature(this);
+
+    this.scope = JavaLanguage.getScope(modifiers);
+
+    for (TypeReference typeParameter : typeParameters) {
+      this.typeParameters.add(new JavaTypeParameter(typeParameter));
+    }
+    this.parameters.addAll(parameters);
+  }
+
+  protected JavaExecutable(
+      @NotNull JavaDeserializeInstance deserialize,
+      @NotNull String name,
+      @NotNull Map<String, Object> raw) {
     super();
 
     this.name = name;
     this.target = null;
-    onLoad(raw);
+    onLoad(deserialize, raw);
     this.signature = createSignature(this);
   }
 
-  protected void onLoad(@NotNull Map<String, Object> raw) {
+  protected void onLoad(
+      @NotNull JavaDeserializeInstance deserialize, @NotNull Map<String, Object> raw) {
 
     final String label = name;
 
@@ -84,7 +118,7 @@ public abstract class JavaExecutable<E extends Executable> extends RosettaObject
     List<Map<String, Object>> oParameters = getOptionalDictionaryList(raw, label, "parameters");
     if (oParameters != null) {
       for (Map<String, Object> oParameter : oParameters) {
-        parameters.add(new JavaParameter(oParameter));
+        parameters.add(new JavaParameter(deserialize, oParameter));
       }
     }
 
@@ -108,10 +142,11 @@ public abstract class JavaExecutable<E extends Executable> extends RosettaObject
 
   @NotNull
   protected Map<String, Object> onSave(
-      @NotNull JavaSerializeInstance serialize, @NotNull ClassReference reference) {
+      @NotNull JavaSerializeInstance serialize, @Nullable ClassReference reference) {
     Map<String, Object> raw = new HashMap<>();
 
-    final Class<?> deCl = getReflectionTarget().getDeclaringClass();
+    final E target = getReflectionTarget();
+    final Class<?> deCl = target != null ? target.getDeclaringClass() : null;
 
     if (scope != JavaScope.PACKAGE) {
       raw.put("scope", scope.getID());
@@ -144,6 +179,33 @@ public abstract class JavaExecutable<E extends Executable> extends RosettaObject
     return raw;
   }
 
+  /** Adds the revisions of the executable & its parameters. */
+  void stamp(@NotNull JavaFragmentCache.Stamp stamp) {
+    stamp.add(this);
+    for (JavaTypeParameter typeParameter : typeParameters) stamp.add(typeParameter);
+    for (JavaParameter parameter : parameters) stamp.add(parameter);
+  }
+
+  /** Hashes the content of the executable. (See {@link JavaClass#digest}) */
+  void digest(@NotNull JavaFragmentCache.Digest digest, @Nullable ClassReference reference) {
+    final E target = getReflectionTarget();
+    final Class<?> deCl = target != null ? target.getDeclaringClass() : null;
+
+    digest.add(name);
+    digest.add(signature);
+    digest.add(scope.getID());
+    digest.add(notes);
+    digest.add(deprecated);
+
+    digest.add(typeParameters.size());
+    for (JavaTypeParameter typeParameter : typeParameters) {
+      typeParameter.digest(digest, reference, deCl);
+    }
+
+    digest.add(parameters.size());
+    for (JavaParameter parameter : parameters) parameter.digest(digest, reference, deCl);
+  }
+
   /**
    * @return True if the executable has no parameter definitions.
    */
@@ -174,7 +236,7 @@ public abstract class JavaExecutable<E extends Executable> extends RosettaObject
     return this.name;
   }
 
-  @NotNull
+  @Nullable
   @Override
   public E getReflectionTarget() {
     return this.target;
@@ -197,6 +259,7 @@ public abstract class JavaExecutable<E extends Executable> extends RosettaObject
   @Override
   public void setNotes(@Nullable String notes) {
     this.notes = notes == null || notes.isEmpty() ? null : notes;
+    onModified();
   }
 
   /**
@@ -231,6 +294,7 @@ public abstract class JavaExecutable<E extends Executable> extends RosettaObject
       return;
     }
     this.deprecated = deprecated;
+    onModified();
   }
 
   /**
@@ -242,6 +306,7 @@ public abstract class JavaExecutable<E extends Executable> extends RosettaObject
       return;
     }
     this.deprecated = message;
+    onModified();
   }
 
   /**
@@ -1,13 +1,15 @@
 package com.asledgehammer.rosetta.java;
 
 import com.asledgehammer.rosetta.NamedEntity;
+import com.asledgehammer.rosetta.RosettaObject;
 import java.lang.reflect.Executable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
 
-public class JavaExecutableCollection<E extends JavaExecutable<?>> implements NamedEntity {
+public class JavaExecutableCollection<E extends JavaExecutable<?>> extends RosettaObject
+    implements NamedEntity {
 
   private final List<E> executables = new ArrayList<>();
   private final String name;
@@ -40,6 +42,7 @@ public class JavaExecutableCollection<E extends JavaExecutable<?>> implements Na
               + executable.getSignature());
     }
     executables.add(executable);
+    onModified();
   }
 
   /**
@@ -54,6 +57,7 @@ public class JavaExecutableCollection<E extends JavaExecutable<?>> implements Na
               + executable.getSignature());
     }
     executables.remove(executable);
+    onModified();
   }
 
   /**
@@ -64,6 +68,12 @@ public class JavaExecutableCollection<E extends JavaExecutable<?>> implements Na
     return Collections.unmodifiableList(this.executables);
   }
 
+  /** Adds the revisions of the list & its executables. */
+  void stamp(@NotNull JavaFragmentCache.Stamp stamp) {
+    stamp.add(this);
+    for (E executable : executables) executable.stamp(stamp);
+  }
+
   @Override
   public @NotNull String getName() {
     return this.name;
@@ -77,7 +87,7 @@ public class JavaExecutableCollection<E extends JavaExecutable<?>> implements Na
     }
 
     for (E e : executables) {
-      if (e.getReflectionTarget().equals(executable)) {
+      if (executable.equals(e.getReflectionTarget())) {
         return e;
       }
     }
@@ -50,22 +50,50 @@ public class JavaField extends RosettaObject
     this.isNative = JavaLanguage.isNative(modifiers);
   }
 
-  JavaField(@NotNull String name, @NotNull Map<String, Object> raw) {
+  /**
+   * Discovery constructor for fields read without reflection. (See {@link
+   * com.asledgehammer.rosetta.java.classfile.ClassFileReader})
+   *
+   * @param name The name of the field.
+   * @param type The type of the field.
+   * @param modifiers The access flags of the field.
+   */
+  JavaField(@NotNull String name, @NotNull TypeReference type, int modifiers) {
+    super();
+
+    this.name = name;
+    this.reflectedObject = null;
+    this.type = type;
+
+    this.scope = JavaLanguage.getScope(modifiers);
+    this.isNullable = !this.type.isPrimitive();
+    this.isVolatile = JavaLanguage.isVolatile(modifiers);
+    this.isTransient = JavaLanguage.isTransient(modifiers);
+    this.isStatic = JavaLanguage.isStatic(modifiers);
+    this.isFinal = JavaLanguage.isFinal(modifiers);
+    this.isNative = JavaLanguage.isNative(modifiers);
+  }
+
+  JavaField(
+      @NotNull JavaDeserializeInstance deserialize,
+      @NotNull String name,
+      @NotNull Map<String, Object> raw) {
     super();
 
     this.name = name;
     this.reflectedObject = null;
 
-    onLoad(raw);
+    onLoad(deserialize, raw);
   }
 
-  protected void onLoad(@NotNull Map<String, Object> raw) {
+  protected void onLoad(
+      @NotNull JavaDeserializeInstance deserialize, @NotNull Map<String, Object> raw) {
 
     final String label = "fields[\"" + name + "\"]";
 
     // Load the type.
     Object oType = getExpectedValue(raw, label, "type", Map.class, String.class);
-    this.type = JavaLanguage.resolveType(oType);
+    this.type = deserialize.resolveType(oType);
 
     // Load the scope. (If defined. Default is 'package')
     final String sScope = getOptionalValue(raw, label, "scope", "package", String.class);
@@ -82,10 +110,10 @@ public class JavaField extends RosettaObject
 
   @NotNull
   protected Map<String, Object> onSave(
-      @NotNull JavaSerializeInstance serialize, @NotNull ClassReference reference) {
+      @NotNull JavaSerializeInstance serialize, @Nullable ClassReference reference) {
     final Map<String, Object> raw = new HashMap<>();
 
-    Class<?> deCl = reflectedObject.getDeclaringClass();
+    Class<?> deCl = reflectedObject != null ? reflectedObject.getDeclaringClass() : null;
     if (serialize.hasTypeDictionary()) {
       raw.put("type", serialize.getTypeDictionary().register(serialize, type, reference, deCl));
     } else {
@@ -106,6 +134,22 @@ public class JavaField extends RosettaObject
     return raw;
   }
 
+  /** Hashes the content of the field. (See {@link JavaClass#digest}) */
+  void digest(@NotNull JavaFragmentCache.Digest digest, @Nullable ClassReference reference) {
+    final Class<?> deCl = reflectedObject != null ? reflectedObject.getDeclaringClass() : null;
+    digest.add(type, reference, deCl);
+    digest.add(scope.getID());
+    digest.add(isNullable);
+    digest.add(isVolatile);
+    digest.add(isTransient);
+    digest.add(isNative);
+    digest.add(isFinal);
+    digest.add(isStatic);
+    digest.add(notes);
+    digest.add(deprecated);
+    digest.add(tags);
+  }
+
   @NotNull
   @Override
   public TypeReference getType() {
@@ -115,6 +159,7 @@ public class JavaField extends RosettaObject
   @Override
   public void setType(@NotNull TypeReference type) {
     this.type = type;
+    onModified();
   }
 
   @Nullable
@@ -146,6 +191,7 @@ public class JavaField extends RosettaObject
   @Override
   public void setNotes(@Nullable String notes) {
     this.notes = notes == null || notes.isEmpty() ? null : notes;
+    onModified();
   }
 
   /**
@@ -180,6 +226,7 @@ public class JavaField extends RosettaObject
       return;
     }
     this.deprecated = deprecated;
+    onModified();
   }
 
   /**
@@ -191,6 +238,7 @@ public class JavaField extends RosettaObject
       return;
     }
     this.deprecated = message;
+    onModified();
   }
 
   @Override
@@ -226,6 +274,7 @@ public class JavaField extends RosettaObject
       throw new IllegalArgumentException("The tag is already applied: " + tag);
     }
     this.tags.add(tag);
+    onModified();
   }
 
   @Override
@@ -237,6 +286,7 @@ public class JavaField extends RosettaObject
       throw new IllegalArgumentException("The tag is not applied: " + tag);
     }
     tags.remove(tag);
+    onModified();
   }
 
   @NotNull
@@ -247,6 +297,7 @@ public class JavaField extends RosettaObject
     }
     List<String> toReturn = new ArrayList<>(tags);
     tags.clear();
+    onModified();
     return toReturn;
   }
 
@@ -257,6 +308,7 @@ public class JavaField extends RosettaObject
   public void setFinal(boolean flag) {
     if (flag == isFinal) return;
     isFinal = flag;
+    onModified();
   }
 
   public boolean isNative() {
@@ -266,6 +318,7 @@ public class JavaField extends RosettaObject
   public void setNative(boolean flag) {
     if (flag == isNative) return;
     isNative = flag;
+    onModified();
   }
 
   public boolean isStatic() {
@@ -275,6 +328,7 @@ public class JavaField extends RosettaObject
   public void setStatic(boolean flag) {
     if (flag == isStatic) return;
     isStatic = flag;
+    onModified();
   }
 
   public boolean isTransient() {
@@ -284,6 +338,7 @@ public class JavaField extends RosettaObject
   public void setTransient(boolean flag) {
     if (flag == isTransient) return;
     isTransient = flag;
+    onModified();
   }
 
   public boolean isVolatile() {
@@ -293,6 +348,7 @@ public class JavaField extends RosettaObject
   public void setVolatile(boolean flag) {
     if (flag == isVolatile) return;
     isVolatile = flag;
+    onModified();
   }
 
   public boolean isNullable() {
@@ -302,5 +358,6 @@ public class JavaField extends RosettaObject
   public void setNullable(boolean flag) {
     if (flag == isNullable) return;
     this.isNullable = flag;
+    onModified();
   }
 }
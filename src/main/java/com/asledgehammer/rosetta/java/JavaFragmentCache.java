@@ -0,0 +1,337 @@
+package com.asledgehammer.rosetta.java;
+
+import com.asledgehammer.rosetta.RosettaBinary;
+import com.asledgehammer.rosetta.RosettaObject;
+import com.asledgehammer.rosetta.exception.RosettaException;
+import com.asledgehammer.rosetta.java.reference.ClassReference;
+import com.asledgehammer.rosetta.java.reference.TypeReference;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * JavaFragmentCache memoizes the serialized form of classes, so re-saving only re-serializes the
+ * classes modified since the last save. (See {@link JavaSerializeSettings#setFragmentCache})
+ *
+ * <p>A fragment is valid while the revisions of its class & the class's members are unchanged. (See
+ * {@link RosettaObject#getRevision()}) Fragments are rendered with their own type-dictionary, which
+ * is merged into the dictionary of the save when the fragment is used. Types are merged in the
+ * order the fragment registered them, so cached & uncached saves assign the same indices.
+ *
+ * <p>If a directory is given, fragments are also stored there, named by the SHA-256 hash of the
+ * content of their class & the serialize settings. Unchanged classes then only cost a lookup in
+ * later processes too.
+ *
+ * <p>NOTE: Changes made through the setters of definitions & the lists and maps returned by their
+ * getters are detected.
+ */
+public class JavaFragmentCache {
+
+  /** Bump when the content hashed or the layout of stored fragments changes. */
+  private static final int FORMAT = 1;
+
+  /** (Distinct from collection files, so directories of fragments are never loaded as such) */
+  private static final String EXTENSION = ".rfrag";
+
+  private final Map<JavaClass, Fragment> fragments =
+      Collections.synchronizedMap(new WeakHashMap<>());
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  @Nullable private final Path directory;
+
+  /** Creates a cache kept in memory only. */
+  public JavaFragmentCache() {
+    this.directory = null;
+  }
+
+  /**
+   * @param directory The directory to store fragments. (Created when first written)
+   */
+  public JavaFragmentCache(@NotNull Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * @param javaClass The class to serialize.
+   * @param serialize The instance of the save.
+   * @return The serialized class, with its types registered in the save's dictionary. (If used)
+   */
+  @NotNull
+  Map<String, Object> get(@NotNull JavaClass javaClass, @NotNull JavaSerializeInstance serialize) {
+    final String settings = toSettingsKey(serialize);
+    final Stamp stamp = new Stamp();
+    javaClass.stamp(stamp);
+
+    Fragment fragment = fragments.get(javaClass);
+    if (fragment != null && fragment.matches(settings, stamp)) {
+      hits.increment();
+      return fragment.apply(serialize);
+    }
+
+    fragment = null;
+    String hash = null;
+    if (directory != null) {
+      hash = hash(javaClass, settings);
+      fragment = read(hash, serialize, settings, stamp);
+    }
+
+    if (fragment != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+      final JavaSerializeInstance local =
+          new JavaSerializeInstance(serialize.getSettings(), serialize.getId());
+      fragment =
+          new Fragment(
+              settings,
+              stamp,
+              javaClass.render(local),
+              local.hasTypeDictionary() ? local.getTypeDictionary() : null);
+      if (hash != null) write(hash, fragment);
+    }
+
+    fragments.put(javaClass, fragment);
+    return fragment.apply(serialize);
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private Fragment read(
+      @NotNull String hash,
+      @NotNull JavaSerializeInstance serialize,
+      @NotNull String settings,
+      @NotNull Stamp stamp) {
+    final Path file = directory.resolve(hash + EXTENSION);
+    if (!Files.isRegularFile(file)) return null;
+
+    try {
+      final Map<String, Object> data =
+          (Map<String, Object>) RosettaBinary.read(Files.readAllBytes(file));
+      final Map<String, Object> raw = (Map<String, Object>) data.get("raw");
+      final List<String> keys = (List<String>) data.get("keys");
+      final List<Object> types = (List<Object>) data.get("types");
+      if (raw == null || keys == null || types == null || keys.size() != types.size()) {
+        return null;
+      }
+
+      JavaTypeDictionary dictionary = null;
+      if (serialize.hasTypeDictionary()) {
+        dictionary = new JavaTypeDictionary(serialize.getTypeMode(), serialize.getId());
+        for (int i = 0; i < keys.size(); i++) {
+          dictionary.add(keys.get(i), types.get(i));
+        }
+      }
+      return new Fragment(settings, stamp, raw, dictionary);
+    } catch (RosettaException | ClassCastException e) {
+      // Damaged fragments are rendered again & replaced.
+      return null;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void write(@NotNull String hash, @NotNull Fragment fragment) {
+    final Map<String, Object> data = new LinkedHashMap<>();
+    data.put("raw", fragment.raw);
+    final List<String> keys = new ArrayList<>();
+    final List<Object> types = new ArrayList<>();
+    if (fragment.dictionary != null) {
+      keys.addAll(Arrays.asList(fragment.dictionary.getKeys()));
+      for (int i = 0; i < keys.size(); i++) {
+        types.add(fragment.dictionary.getRendered(i));
+      }
+    }
+    data.put("keys", keys);
+    data.put("types", types);
+
+    try {
+      Files.createDirectories(directory);
+      // Written aside & moved, so concurrent saves never read a partial fragment.
+      final Path temp = Files.createTempFile(directory, hash, ".tmp");
+      Files.write(temp, RosettaBinary.write(data));
+      Files.move(
+          temp,
+          directory.resolve(hash + EXTENSION),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @NotNull
+  private static String hash(@NotNull JavaClass javaClass, @NotNull String settings) {
+    final Digest digest = new Digest();
+    digest.add(settings);
+    javaClass.digest(digest);
+    return digest.finish();
+  }
+
+  @NotNull
+  private static String toSettingsKey(@NotNull JavaSerializeInstance serialize) {
+    return FORMAT
+        + ":"
+        + serialize.getId()
+        + ":"
+        + serialize.getTypeMode()
+        + ":"
+        + serialize.isWriteFullType();
+  }
+
+  /**
+   * Forgets the fragment of a class kept in memory.
+   *
+   * @param javaClass The class to forget.
+   */
+  public void invalidate(@NotNull JavaClass javaClass) {
+    fragments.remove(javaClass);
+  }
+
+  /** Forgets all fragments kept in memory. Stored fragments are kept. */
+  public void clear() {
+    fragments.clear();
+    hits.reset();
+    misses.reset();
+  }
+
+  /**
+   * @return The amount of fragments kept in memory.
+   */
+  public int size() {
+    return fragments.size();
+  }
+
+  /**
+   * @return The amount of classes served from the cache. (Including fragments read from the
+   *     directory)
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return The amount of classes serialized.
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return The directory fragments are stored in. (Null if kept in memory only)
+   */
+  @Nullable
+  public Path getDirectory() {
+    return directory;
+  }
+
+  private static final class Fragment {
+
+    private final String settings;
+    private final long[] revisions;
+    private final Map<String, Object> raw;
+    @Nullable private final JavaTypeDictionary dictionary;
+
+    private Fragment(
+        @NotNull String settings,
+        @NotNull Stamp stamp,
+        @NotNull Map<String, Object> raw,
+        @Nullable JavaTypeDictionary dictionary) {
+      this.settings = settings;
+      this.revisions = Arrays.copyOf(stamp.revisions, stamp.count);
+      this.raw = raw;
+      this.dictionary = dictionary;
+    }
+
+    private boolean matches(@NotNull String settings, @NotNull Stamp stamp) {
+      return Arrays.equals(revisions, 0, revisions.length, stamp.revisions, 0, stamp.count)
+          && this.settings.equals(settings);
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> apply(@NotNull JavaSerializeInstance serialize) {
+      // The fragment is shared, so only copies are remapped & handed out.
+      final Map<String, Object> copy = (Map<String, Object>) JavaTypeDictionary.copy(raw);
+      if (dictionary == null) return copy;
+      final JavaTypeDictionary target = serialize.getTypeDictionary();
+      return (Map<String, Object>) target.remap(copy, target.merge(dictionary));
+    }
+  }
+
+  /**
+   * Stamp collects the revisions of a class & its definitions, in the order they are visited.
+   * Adding, removing or replacing a definition modifies the definition holding it, so equal stamps
+   * of a class always visit the same definitions.
+   */
+  static final class Stamp {
+
+    private long[] revisions = new long[64];
+    private int count;
+
+    void add(@NotNull RosettaObject object) {
+      if (count == revisions.length) revisions = Arrays.copyOf(revisions, count * 2);
+      revisions[count++] = object.getRevision();
+    }
+  }
+
+  /** Digest hashes the content of definitions that affects their serialized form. */
+  static final class Digest {
+
+    private final MessageDigest digest;
+    private final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+
+    Digest() {
+      try {
+        this.digest = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        // Every Java platform is required to support SHA-256.
+        throw new IllegalStateException(e);
+      }
+    }
+
+    void add(int value) {
+      digest.update(buffer.clear().putInt(value).array());
+    }
+
+    void add(boolean value) {
+      digest.update((byte) (value ? 1 : 0));
+    }
+
+    /** Strings are length-prefixed, so adjacent strings never hash alike. (Null is -1) */
+    void add(@Nullable String value) {
+      if (value == null) {
+        add(-1);
+        return;
+      }
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      add(bytes.length);
+      digest.update(bytes);
+    }
+
+    void add(@NotNull List<String> values) {
+      add(values.size());
+      for (String value : values) add(value);
+    }
+
+    /** Types are hashed by the same compiled form the type-dictionary keys them by. */
+    void add(
+        @NotNull TypeReference type, @Nullable ClassReference reference, @Nullable Class<?> deCl) {
+      add(type.compile(reference, deCl));
+    }
+
+    @NotNull
+    String finish() {
+      return HexFormat.of().formatHex(digest.digest());
+    }
+  }
+}
@@ -0,0 +1,349 @@
+package com.asledgehammer.rosetta.java;
+
+import com.asledgehammer.rosetta.RosettaBinary;
+import com.asledgehammer.rosetta.exception.RosettaException;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * JavaIndex is a read-only, memory-mapped index of the classes & members of a {@link JavaLanguage}.
+ * A single class or member is looked up in O(1) without reading anything else in the file. Opening
+ * an index only maps the file, so resident memory comes from the page cache rather than the heap.
+ *
+ * <p>Keys:
+ *
+ * <ul>
+ *   <li>Classes: The binary name. E.G: <code>java.util.Map$Entry</code>
+ *   <li>Members: The class key, <code>#</code> & the member name. E.G: <code>
+ *       java.util.ArrayList#add</code> (Constructors are named <code>&lt;init&gt;</code>)
+ * </ul>
+ *
+ * <p>Class records are the serialized class. Member records are dictionaries of the field (<code>
+ * field</code>), the overloaded methods (<code>methods</code>) or constructors (<code>constructors
+ * </code>) of the name.
+ *
+ * <p>Layout: A header (<code>RIDX</code>, version, count & slot count), an open-addressed hash
+ * table of slots (hash, key offset, record offset & record length) and the keys & records. Records
+ * are encoded with {@link RosettaBinary}.
+ *
+ * <p>NOTE: Indices larger than 2GB & keys longer than 65535 bytes are not supported.
+ */
+public class JavaIndex implements Closeable {
+
+  /** The version of the format written. */
+  public static final int VERSION = 1;
+
+  /** The member name of constructors. */
+  public static final String CONSTRUCTOR = "<init>";
+
+  private static final int MAGIC = 0x52494458; // "RIDX"
+  private static final int HEADER_SIZE = 16;
+  private static final int SLOT_SIZE = 16;
+
+  /** Keys are prefixed with their length in 2 bytes. */
+  private static final int MAX_KEY_LENGTH = 0xFFFF;
+
+  private final Path path;
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int count;
+  private final int slotCount;
+
+  private JavaIndex(@NotNull Path path) throws IOException {
+    this.path = path;
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      final long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new RosettaException("Indices larger than 2GB are not supported: " + path);
+      }
+      if (size < HEADER_SIZE) {
+        throw new RosettaException("Not a Rosetta index. (Too small): " + path);
+      }
+      this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (buffer.getInt(0) != MAGIC) {
+        throw new RosettaException("Not a Rosetta index. (Bad magic): " + path);
+      }
+      final int version = buffer.getInt(4);
+      if (version != VERSION) {
+        throw new RosettaException("Unknown Rosetta index version: " + version + " (" + path + ")");
+      }
+      this.count = buffer.getInt(8);
+      this.slotCount = buffer.getInt(12);
+      if (Integer.bitCount(slotCount) != 1
+          || count >= slotCount
+          || HEADER_SIZE + (long) slotCount * SLOT_SIZE > size) {
+        throw new RosettaException("Malformed Rosetta index header: " + path);
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @param path The index file.
+   * @return The opened index.
+   * @throws IOException If the file fails to open.
+   * @throws RosettaException If the file isn't an index of a known version.
+   */
+  @NotNull
+  public static JavaIndex open(@NotNull Path path) throws IOException {
+    return new JavaIndex(path);
+  }
+
+  /**
+   * Writes the index of every class in the language & its members.
+   *
+   * @param language The language to index.
+   * @param settings The settings to serialize the classes. (Type-dictionaries aren't supported, as
+   *     each record must stand alone)
+   * @param path The index file to write.
+   * @throws IOException If the file fails to write.
+   * @throws IllegalArgumentException If the settings use a type-dictionary.
+   * @throws RosettaException If a key is longer than 65535 bytes in UTF-8.
+   */
+  public static void write(
+      @NotNull JavaLanguage language, @NotNull JavaSerializeSettings settings, @NotNull Path path)
+      throws IOException {
+    if (settings.getTypeMode() != TypeDictionaryMode.NONE) {
+      throw new IllegalArgumentException(
+          "Indices can't use a type-dictionary. (Given: " + settings.getTypeMode() + ")");
+    }
+
+    final JavaSerializeInstance serialize = new JavaSerializeInstance(settings, "index");
+    final Map<String, byte[]> records = new LinkedHashMap<>();
+    final List<String> paths = new ArrayList<>(language.getPackages().keySet());
+    paths.sort(Comparator.naturalOrder());
+    for (String packagePath : paths) {
+      final Map<String, JavaClass> classes = language.getPackages().get(packagePath).getClasses();
+      final List<String> keys = new ArrayList<>(classes.keySet());
+      keys.sort(Comparator.naturalOrder());
+      for (String key : keys) {
+        final Map<String, Object> raw = classes.get(key).onSave(serialize);
+        addClass(records, packagePath + "." + key, raw);
+      }
+    }
+
+    writeTable(records, path);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void addClass(
+      @NotNull Map<String, byte[]> records, @NotNull String key, @NotNull Map<String, Object> raw) {
+    records.put(key, RosettaBinary.write(raw));
+
+    // Group the members by name.
+    final Map<String, Map<String, Object>> members = new TreeMap<>();
+    if (raw.get("fields") instanceof Map<?, ?> fields) {
+      for (Map.Entry<?, ?> entry : fields.entrySet()) {
+        members
+            .computeIfAbsent(entry.getKey().toString(), k -> new TreeMap<>())
+            .put("field", entry.getValue());
+      }
+    }
+    if (raw.get("methods") instanceof List<?> methods) {
+      for (Object oMethod : methods) {
+        final Map<String, Object> method = (Map<String, Object>) oMethod;
+        ((List<Object>)
+                members
+                    .computeIfAbsent(method.get("name").toString(), k -> new TreeMap<>())
+                    .computeIfAbsent("methods", k -> new ArrayList<>()))
+            .add(method);
+      }
+    }
+    if (raw.get("constructors") instanceof List<?> constructors) {
+      members.computeIfAbsent(CONSTRUCTOR, k -> new TreeMap<>()).put("constructors", constructors);
+    }
+    for (Map.Entry<String, Map<String, Object>> entry : members.entrySet()) {
+      records.put(key + "#" + entry.getKey(), RosettaBinary.write(entry.getValue()));
+    }
+
+    // Nested classes are indexed by their binary names.
+    if (raw.get("classes") instanceof Map<?, ?> classes) {
+      for (Map.Entry<?, ?> entry : classes.entrySet()) {
+        addClass(records, key + "$" + entry.getKey(), (Map<String, Object>) entry.getValue());
+      }
+    }
+  }
+
+  private static void writeTable(@NotNull Map<String, byte[]> records, @NotNull Path path)
+      throws IOException {
+
+    // Keep the table at most half full for short probes.
+    final int slotCount = Math.max(2, Integer.highestOneBit(Math.max(1, records.size())) << 2);
+    final ByteBuffer slots = ByteBuffer.allocate(slotCount * SLOT_SIZE);
+    final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    final int dataOffset = HEADER_SIZE + slotCount * SLOT_SIZE;
+
+    for (Map.Entry<String, byte[]> entry : records.entrySet()) {
+      final byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+      if (key.length > MAX_KEY_LENGTH) {
+        throw new RosettaException(
+            "Index keys are limited to "
+                + MAX_KEY_LENGTH
+                + " bytes. (Given: "
+                + key.length
+                + " for the key starting with: "
+                + entry.getKey().substring(0, 64)
+                + ")");
+      }
+      final byte[] record = entry.getValue();
+      final int hash = hash(key, key.length);
+
+      final int keyOffset = dataOffset + data.size();
+      data.write(key.length >>> 8);
+      data.write(key.length);
+      data.write(key);
+      final int recordOffset = dataOffset + data.size();
+      data.write(record);
+      if (dataOffset + (long) data.size() > Integer.MAX_VALUE) {
+        throw new RosettaException("Indices larger than 2GB are not supported: " + path);
+      }
+
+      int slot = hash & (slotCount - 1);
+      while (slots.getInt(slot * SLOT_SIZE + 4) != 0) {
+        slot = (slot + 1) & (slotCount - 1);
+      }
+      slots.putInt(slot * SLOT_SIZE, hash);
+      slots.putInt(slot * SLOT_SIZE + 4, keyOffset);
+      slots.putInt(slot * SLOT_SIZE + 8, recordOffset);
+      slots.putInt(slot * SLOT_SIZE + 12, record.length);
+    }
+
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(records.size());
+      out.writeInt(slotCount);
+      out.write(slots.array());
+      data.writeTo(out);
+    }
+  }
+
+  /** FNV-1a. */
+  private static int hash(byte @NotNull [] bytes, int length) {
+    int hash = 0x811C9DC5;
+    for (int i = 0; i < length; i++) {
+      hash ^= bytes[i] & 0xFF;
+      hash *= 0x01000193;
+    }
+    return hash;
+  }
+
+  /**
+   * @param key The key of a class or member. E.G: <code>java.util.ArrayList#add</code>
+   * @return The decoded record. (Null if not indexed)
+   * @throws RosettaException If the record or the table is malformed.
+   */
+  @Nullable
+  public Map<String, Object> get(@NotNull String key) {
+    final int slot = find(key);
+    if (slot == -1) return null;
+    final int recordOffset = buffer.getInt(slot + 8);
+    final int recordLength = buffer.getInt(slot + 12);
+    checkRange(recordOffset, recordLength);
+    final byte[] record = new byte[recordLength];
+    buffer.get(recordOffset, record);
+    return asMap(RosettaBinary.read(record));
+  }
+
+  /**
+   * @param className The binary name of the class. E.G: <code>java.util.Map$Entry</code>
+   * @return The serialized class. (Null if not indexed)
+   */
+  @Nullable
+  public Map<String, Object> getClassRecord(@NotNull String className) {
+    return get(className);
+  }
+
+  /**
+   * @param className The binary name of the class. E.G: <code>java.util.Map$Entry</code>
+   * @param name The name of the member. (See {@link #CONSTRUCTOR})
+   * @return The members of the name. (Null if not indexed)
+   */
+  @Nullable
+  public Map<String, Object> getMemberRecord(@NotNull String className, @NotNull String name) {
+    return get(className + "#" + name);
+  }
+
+  /**
+   * @param key The key of a class or member.
+   * @return True if the key is indexed.
+   */
+  public boolean contains(@NotNull String key) {
+    return find(key) != -1;
+  }
+
+  /**
+   * @return The offset of the key's slot. (-1 if not indexed)
+   */
+  private int find(@NotNull String key) {
+    final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+    final int hash = hash(bytes, bytes.length);
+    int slot = hash & (slotCount - 1);
+    for (int probes = 0; probes < slotCount; probes++) {
+      final int offset = HEADER_SIZE + slot * SLOT_SIZE;
+      final int keyOffset = buffer.getInt(offset + 4);
+      if (keyOffset == 0) return -1;
+      if (buffer.getInt(offset) == hash && matches(keyOffset, bytes)) return offset;
+      slot = (slot + 1) & (slotCount - 1);
+    }
+    return -1;
+  }
+
+  private boolean matches(int keyOffset, byte @NotNull [] key) {
+    checkRange(keyOffset, 2);
+    final int length = Short.toUnsignedInt(buffer.getShort(keyOffset));
+    if (length != key.length) return false;
+    checkRange(keyOffset + 2, length);
+    return buffer.slice(keyOffset + 2, length).equals(ByteBuffer.wrap(key));
+  }
+
+  /**
+   * @throws RosettaException If the range isn't inside the keys & records of the file.
+   */
+  private void checkRange(long offset, long length) {
+    if (offset < HEADER_SIZE + (long) slotCount * SLOT_SIZE
+        || length < 0
+        || offset + length > buffer.capacity()) {
+      throw new RosettaException("Malformed Rosetta index record: " + path);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @NotNull
+  private Map<String, Object> asMap(@Nullable Object value) {
+    if (!(value instanceof Map)) {
+      throw new RosettaException("Malformed Rosetta index record: " + path);
+    }
+    return (Map<String, Object>) value;
+  }
+
+  /**
+   * @return The amount of classes & members indexed.
+   */
+  public int size() {
+    return count;
+  }
+
+  @NotNull
+  public Path getPath() {
+    return path;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -1,17 +1,38 @@
 package com.asledgehammer.rosetta.java;
 
+import com.asledgehammer.rosetta.Rosetta;
 import com.asledgehammer.rosetta.RosettaLanguage;
+import com.asledgehammer.rosetta.RosettaStreamReader;
+import com.asledgehammer.rosetta.RosettaStreamWriter;
+import com.asledgehammer.rosetta.exception.ClassConflictException;
 import com.asledgehammer.rosetta.exception.MissingKeyException;
 import com.asledgehammer.rosetta.exception.RosettaException;
 import com.asledgehammer.rosetta.exception.TypeException;
 import com.asledgehammer.rosetta.exception.ValueTypeException;
+import com.asledgehammer.rosetta.java.classfile.ClassFile;
+import com.asledgehammer.rosetta.java.classfile.ClassFileLibrary;
+import com.asledgehammer.rosetta.java.classfile.JarScanSettings;
 import com.asledgehammer.rosetta.java.reference.ClassReference;
 import com.asledgehammer.rosetta.java.reference.SimpleTypeReference;
 import com.asledgehammer.rosetta.java.reference.TypeReference;
 import com.asledgehammer.rosetta.java.reference.UnionTypeReference;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class JavaLanguage
     implements RosettaLanguage<JavaSerializeSettings, JavaDeserializeSettings> {
@@ -98,7 +119,7 @@ public class JavaLanguage
     }
 
     JavaPackage javaPackage = new JavaPackage(this, parent, name);
-    this.packages.put(name, javaPackage);
+    this.packages.put(path, javaPackage);
     return javaPackage;
   }
 
@@ -132,6 +153,221 @@ public class JavaLanguage
     return javaClass;
   }
 
+  /**
+   * Discovers a bulk collection of classes, fanning the discovery of each class's members out over
+   * a {@link ForkJoinPool}.
+   *
+   * <p>The resulting package and enclosing-class tree is the same as invoking {@link
+   * JavaLanguage#of(JavaDiscoverySettings, Class)} for each class. Related classes exposed through
+   * {@link JavaDiscoverySettings.SuperPolicy#EXPOSE} and enclosing classes are gathered up-front so
+   * that each class is discovered exactly once, even when reached through several paths.
+   *
+   * <p>NOTE: The language must not be mutated by other threads while discovering.
+   *
+   * @param classes The classes to discover.
+   * @param settings The discovery settings to apply.
+   * @param parallelism The number of worker threads to discover with.
+   * @return The class definitions of the classes passed. (In iteration-order of the collection)
+   * @throws IllegalArgumentException If the parallelism is less than 1.
+   */
+  @NotNull
+  public List<JavaClass> discoverAll(
+      @NotNull Collection<Class<?>> classes,
+      @NotNull JavaDiscoverySettings settings,
+      int parallelism) {
+
+    if (parallelism < 1) {
+      throw new IllegalArgumentException(
+          "The parallelism must be at least 1. (Given: " + parallelism + ")");
+    }
+
+    final boolean exposeSupers =
+        settings.getSuperPolicy() == JavaDiscoverySettings.SuperPolicy.EXPOSE;
+
+    // Gather every class that the serial path would reach, ignoring duplicates & classes that are
+    // already discovered.
+    final Map<String, Class<?>> pending = new LinkedHashMap<>();
+    final Deque<Class<?>> queue = new ArrayDeque<>(classes);
+    while (!queue.isEmpty()) {
+      final Class<?> clazz = queue.poll();
+      final String qualifiedPath = clazz.getName();
+      if (this.classes.containsKey(qualifiedPath) || pending.containsKey(qualifiedPath)) {
+        continue;
+      }
+      pending.put(qualifiedPath, clazz);
+
+      if (exposeSupers) {
+        // Ignore Object.class super-class being self-referencing.
+        final Class<?> clazzSuper = clazz.getSuperclass();
+        if (clazzSuper != null && clazzSuper != clazz) {
+          queue.add(clazzSuper);
+        }
+        queue.addAll(Arrays.asList(clazz.getInterfaces()));
+      }
+
+      final Class<?> clazzEnclosing = clazz.getEnclosingClass();
+      if (clazzEnclosing != null) {
+        queue.add(clazzEnclosing);
+      }
+    }
+
+    // Create & cache the class definitions. (Packages are resolved here, on the calling thread)
+    final List<JavaClass> javaClasses = new ArrayList<>(pending.size());
+    for (Class<?> clazz : pending.values()) {
+      final JavaClass javaClass = new JavaClass(of(clazz.getPackage()), clazz);
+      javaClass.setReflectedObject(clazz);
+      this.classes.put(clazz.getName(), javaClass);
+      javaClasses.add(javaClass);
+    }
+
+    // Discover the members of each class concurrently. This is the expensive part of discovery.
+    final ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.invoke(new DiscoverTask(settings, javaClasses, 0, javaClasses.size()));
+    } finally {
+      pool.shutdown();
+    }
+
+    // Link the classes into their enclosing classes or packages.
+    for (JavaClass javaClass : javaClasses) {
+      final Class<?> clazzEnclosing = javaClass.getReflectionTarget().getEnclosingClass();
+      if (clazzEnclosing != null) {
+        this.classes.get(clazzEnclosing.getName()).addClass(javaClass);
+      } else {
+        javaClass.getPackage().addClass(javaClass);
+      }
+    }
+
+    final List<JavaClass> result = new ArrayList<>(classes.size());
+    for (Class<?> clazz : classes) {
+      result.add(this.classes.get(clazz.getName()));
+    }
+    return result;
+  }
+
+  /**
+   * Discovers a class from its class-file. The class is never loaded or initialized, so classes
+   * with missing dependencies can still be documented.
+   *
+   * @param settings The discovery settings to apply.
+   * @param library The library containing the class-file.
+   * @param name The binary name of the class. E.G: <code>java.util.Map$Entry</code>
+   * @return The class definition.
+   * @throws IllegalArgumentException If the class isn't in the library.
+   */
+  @NotNull
+  public JavaClass of(
+      @NotNull JavaDiscoverySettings settings,
+      @NotNull ClassFileLibrary library,
+      @NotNull String name) {
+
+    if (classes.containsKey(name)) {
+      return classes.get(name);
+    }
+
+    final ClassFile classFile = library.get(name);
+    if (classFile == null) {
+      throw new IllegalArgumentException("The class isn't in the library: " + name);
+    }
+    return of(settings, library, classFile);
+  }
+
+  @NotNull
+  private JavaClass of(
+      @NotNull JavaDiscoverySettings settings,
+      @NotNull ClassFileLibrary library,
+      @NotNull ClassFile classFile) {
+    final String name = classFile.getName();
+    if (classes.containsKey(name)) {
+      return classes.get(name);
+    }
+
+    // Create & cache the class definition.
+    JavaPackage javaPackage = ofInternalPackage(classFile.getPackageName());
+    JavaClass javaClass = new JavaClass(javaPackage, classFile);
+
+    classes.put(name, javaClass);
+
+    // IMPORTANT: Discover post-constructor to prevent null-referencing if self-referencing on
+    // discovery.
+    javaClass.discover(settings, library, classFile, this);
+
+    // If the class is enclosed, reference the class in there instead of the package to properly
+    // reflect its path. (Enclosing classes outside the library fall back to the package)
+    final String enclosingClassName = classFile.getEnclosingClassName();
+    if (enclosingClassName != null && library.contains(enclosingClassName)) {
+      of(settings, library, enclosingClassName).addClass(javaClass);
+    } else {
+      javaPackage.addClass(javaClass);
+    }
+
+    return javaClass;
+  }
+
+  /**
+   * Discovers every class in a library from their class-files. Local & anonymous classes are
+   * skipped.
+   *
+   * @param library The library of class-files to discover.
+   * @param settings The discovery settings to apply.
+   * @return The class definitions of the classes in the library. (In alphanumeric order)
+   */
+  @NotNull
+  public List<JavaClass> discoverAll(
+      @NotNull ClassFileLibrary library, @NotNull JavaDiscoverySettings settings) {
+    final List<JavaClass> javaClasses = new ArrayList<>();
+    for (String name : library.getClassNames()) {
+      final ClassFile classFile = library.get(name);
+      if (classFile == null || classFile.isLocal()) continue;
+      javaClasses.add(of(settings, library, name));
+    }
+    return javaClasses;
+  }
+
+  /**
+   * Discovers the classes of a jar from their class-files. The central directory of the jar is
+   * walked first and the class-files passing the package rules are then parsed & discovered in
+   * batches.
+   *
+   * <p>Related classes exposed through {@link JavaDiscoverySettings.SuperPolicy#EXPOSE} are only
+   * discovered if they pass the package rules.
+   *
+   * <p>NOTE: Batches are handed to discovery once parsed and aren't kept, so only the batches in
+   * flight are held in memory. (See {@link
+   * JarScanSettings#setExecutor(java.util.concurrent.Executor)} to parse them ahead concurrently)
+   *
+   * @param jar The path to the jar.
+   * @param scanSettings The package rules & batch size to apply.
+   * @param settings The discovery settings to apply.
+   * @return The class definitions of the classes in the jar. (In alphanumeric order)
+   * @throws IOException If the jar fails to read.
+   */
+  @NotNull
+  public List<JavaClass> discoverJar(
+      @NotNull Path jar,
+      @NotNull JarScanSettings scanSettings,
+      @NotNull JavaDiscoverySettings settings)
+      throws IOException {
+    final List<JavaClass> javaClasses = new ArrayList<>();
+    try (ClassFileLibrary library = new ClassFileLibrary()) {
+      library.addJar(jar, scanSettings);
+      try {
+        library.forEachBatch(
+            scanSettings.getBatchSize(),
+            scanSettings.getExecutor(),
+            batch -> {
+              for (ClassFile classFile : batch) {
+                if (classFile.isLocal()) continue;
+                javaClasses.add(of(settings, library, classFile));
+              }
+            });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+    return javaClasses;
+  }
+
   @NotNull
   public JavaMethod of(@NotNull JavaDiscoverySettings settings, @NotNull Method method) {
     return of(settings, method.getDeclaringClass()).getMethod(method);
@@ -155,37 +391,362 @@ public class JavaLanguage
     }
     final Map<String, Object> packages = (Map<String, Object>) oPackages;
 
-    final List<String> keys = new ArrayList<>(packages.keySet());
+    // Check for conflicts first, so that a conflicting load changes nothing.
+    for (String path : getDefinitions(raw)) {
+      if (isDefined(path)) throw new ClassConflictException(path);
+    }
+
+    // Build the types of the type-dictionary first, so references resolve to them. (If any)
+    final Object oTypes = raw.get("types");
+    if (oTypes != null) {
+      final Object oFormat = raw.get("types_format");
+      deserialize.onLoadTypes(id, oTypes, oFormat != null ? oFormat.toString() : null);
+    }
+
+    final SortedMap<String, Consumer<JavaPackage>> loaders = new TreeMap<>();
+    for (String key : packages.keySet()) {
+      final Map<String, Object> packageRaw = getPackageRaw(packages, key);
+      loaders.put(key, javaPackage -> javaPackage.onLoad(deserialize, packageRaw));
+    }
+    onLoadPackages(settings, loaders);
+  }
+
+  /**
+   * Lists the classes of the serialized packages & their sub-packages. (Malformed packages are
+   * reported when loaded)
+   */
+  @NotNull
+  @Override
+  public Collection<String> getDefinitions(@NotNull Map<String, Object> raw) {
+    final List<String> definitions = new ArrayList<>();
+    if (raw.get("packages") instanceof Map<?, ?> packages) {
+      for (Map.Entry<?, ?> entry : packages.entrySet()) {
+        addDefinitions(entry.getKey().toString(), entry.getValue(), definitions);
+      }
+    }
+    return definitions;
+  }
+
+  private static void addDefinitions(
+      @NotNull String path, @Nullable Object oPackage, @NotNull List<String> definitions) {
+    if (!(oPackage instanceof Map<?, ?> raw)) return;
+    if (raw.get("classes") instanceof Map<?, ?> classes) {
+      for (Object key : classes.keySet()) {
+        definitions.add(path + '.' + key);
+      }
+    }
+    if (raw.get("packages") instanceof Map<?, ?> packages) {
+      for (Map.Entry<?, ?> entry : packages.entrySet()) {
+        addDefinitions(path + '.' + entry.getKey(), entry.getValue(), definitions);
+      }
+    }
+  }
+
+  /** Lists the classes of the serialized packages as they're read, skipping each class. */
+  @NotNull
+  @Override
+  public Collection<String> getDefinitions(@NotNull RosettaStreamReader reader) {
+    final List<String> definitions = new ArrayList<>();
+    reader.beginMapping();
+    while (reader.hasNext()) {
+      if (reader.nextKey().equals("packages") && reader.isMapping()) {
+        reader.beginMapping();
+        while (reader.hasNext()) {
+          final String path = reader.nextKey();
+          readDefinitions(path, reader, definitions);
+        }
+        reader.endMapping();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endMapping();
+    return definitions;
+  }
+
+  private static void readDefinitions(
+      @NotNull String path,
+      @NotNull RosettaStreamReader reader,
+      @NotNull List<String> definitions) {
+    if (!reader.isMapping()) {
+      reader.skipValue();
+      return;
+    }
+    reader.beginMapping();
+    while (reader.hasNext()) {
+      final String key = reader.nextKey();
+      if (key.equals("classes") && reader.isMapping()) {
+        reader.beginMapping();
+        while (reader.hasNext()) {
+          definitions.add(path + '.' + reader.nextKey());
+          reader.skipValue();
+        }
+        reader.endMapping();
+      } else if (key.equals("packages") && reader.isMapping()) {
+        reader.beginMapping();
+        while (reader.hasNext()) {
+          final String name = reader.nextKey();
+          readDefinitions(path + '.' + name, reader, definitions);
+        }
+        reader.endMapping();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endMapping();
+  }
+
+  /**
+   * @param path The path of a class. E.G: <code>java.util.ArrayList</code>
+   * @return True if the class is defined. (Loaded or pending)
+   */
+  @Override
+  public boolean isDefined(@NotNull String path) {
+    final int index = path.lastIndexOf('.');
+    if (index == -1) return false;
+    final JavaPackage javaPackage = this.packages.get(path.substring(0, index));
+    return javaPackage != null && javaPackage.hasClazz(path.substring(index + 1));
+  }
+
+  /**
+   * Loads the language as its dictionary is read. Packages are read one at a time, and each class
+   * is held as a deferred slice of the stream. (See {@link RosettaStreamReader#readDeferred()})
+   * Classes are built from their slices once the type-dictionary, stored after the packages, is
+   * read. When loading lazily, each class is only skimmed & kept as its text until first accessed.
+   * (See {@link RosettaStreamReader#skimValue()}) Nothing is loaded until the whole dictionary is
+   * read, so a conflicting load changes nothing.
+   */
+  @Override
+  public void onLoad(
+      @NotNull JavaDeserializeSettings settings,
+      @NotNull String id,
+      @NotNull RosettaStreamReader reader) {
+
+    final JavaDeserializeInstance deserialize = new JavaDeserializeInstance(settings);
+    SortedMap<String, Consumer<JavaPackage>> loaders = null;
+    final List<String> definitions = new ArrayList<>();
+    Object oTypes = null;
+    Object oFormat = null;
+
+    reader.beginMapping();
+    while (reader.hasNext()) {
+      switch (reader.nextKey()) {
+        case "packages" -> {
+          if (!reader.isMapping()) {
+            throw new RosettaException(
+                "The property \"languages.java.packages\" is not a dictionary.");
+          }
+          loaders = new TreeMap<>();
+          reader.beginMapping();
+          while (reader.hasNext()) {
+            final String key = reader.nextKey();
+            loaders.put(key, readPackage(deserialize, key, reader, definitions));
+          }
+          reader.endMapping();
+        }
+        case "types" -> oTypes = reader.readValue();
+        case "types_format" -> oFormat = reader.readValue();
+        default -> reader.skipValue();
+      }
+    }
+    reader.endMapping();
+
+    // No Java packages? Return.
+    if (loaders == null) return;
+
+    // Check for conflicts first, so that a conflicting load changes nothing.
+    for (String path : definitions) {
+      if (isDefined(path)) throw new ClassConflictException(path);
+    }
+
+    if (oTypes != null) {
+      deserialize.onLoadTypes(id, oTypes, oFormat != null ? oFormat.toString() : null);
+    }
+    onLoadPackages(settings, loaders);
+  }
+
+  /**
+   * Reads a serialized package, keeping its classes as deferred slices.
+   *
+   * @param definitions The classes of the package & its sub-packages are added to the list. (See
+   *     {@link #getDefinitions(Map)})
+   * @return Loads the package read.
+   */
+  @NotNull
+  @SuppressWarnings({"unchecked"})
+  private static Consumer<JavaPackage> readPackage(
+      @NotNull JavaDeserializeInstance deserialize,
+      @NotNull String path,
+      @NotNull RosettaStreamReader reader,
+      @NotNull List<String> definitions) {
+    final String label = "languages.java.packages." + path;
+    if (!reader.isMapping()) {
+      throw new RosettaException("The property \"" + label + "\" is not a dictionary.");
+    }
+
+    final boolean lazy = deserialize.getSettings().isLazy();
+    final Map<String, Object> raw = new HashMap<>();
+    final Map<String, Supplier<Map<String, Object>>> classes = new LinkedHashMap<>();
+    reader.beginMapping();
+    while (reader.hasNext()) {
+      final String key = reader.nextKey();
+      if (!key.equals("classes") || !reader.isMapping()) {
+        // (Invalid classes are reported when the package loads)
+        raw.put(key, reader.readValue());
+        continue;
+      }
+      reader.beginMapping();
+      while (reader.hasNext()) {
+        final String name = reader.nextKey();
+        if (!reader.isMapping()) {
+          throw new RosettaException(
+              "The property \"" + label + ".classes." + name + "\" is not a dictionary.");
+        }
+        final Supplier<Object> slice = lazy ? reader.skimValue() : reader.readDeferred();
+        classes.put(name, () -> (Map<String, Object>) slice.get());
+        definitions.add(path + '.' + name);
+      }
+      reader.endMapping();
+    }
+    reader.endMapping();
+    addDefinitions(path, raw, definitions);
+
+    return javaPackage -> {
+      javaPackage.onLoad(deserialize, raw);
+      if (!classes.isEmpty()) {
+        javaPackage.onLoadClasses(deserialize, classes, lazy);
+      }
+    };
+  }
+
+  /**
+   * Loads packages in the order of their paths. With an executor, every package is linked serially,
+   * then the contents of each package load concurrently. Loading a package only touches its own
+   * subtree.
+   *
+   * @param loaders Loads each package, by path.
+   */
+  private void onLoadPackages(
+      @NotNull JavaDeserializeSettings settings,
+      @NotNull SortedMap<String, Consumer<JavaPackage>> loaders) {
+
+    final Executor executor = settings.getExecutor();
+    if (executor == null) {
+      for (Map.Entry<String, Consumer<JavaPackage>> entry : loaders.entrySet()) {
+        entry.getValue().accept(linkPackage(entry.getKey()));
+      }
+      return;
+    }
+
+    final List<JavaPackage> linked = new ArrayList<>(loaders.size());
+    for (String key : loaders.keySet()) {
+      linked.add(linkPackage(key));
+    }
+
+    final List<CompletableFuture<Void>> futures = new ArrayList<>(loaders.size());
+    int index = 0;
+    for (Consumer<JavaPackage> loader : loaders.values()) {
+      final JavaPackage javaPackage = linked.get(index++);
+      futures.add(CompletableFuture.runAsync(() -> loader.accept(javaPackage), executor));
+    }
+
+    // (Failures are thrown in package order, as loading serially would)
+    join(futures);
+  }
+
+  @NotNull
+  @SuppressWarnings({"unchecked"})
+  private static Map<String, Object> getPackageRaw(
+      @NotNull Map<String, Object> packages, @NotNull String key) {
+    final Object oPackage = packages.get(key);
+    if (!(oPackage instanceof Map)) {
+      throw new RosettaException(
+          "The property \"languages.java.packages." + key + "\" is not a dictionary.");
+    }
+    return (Map<String, Object>) oPackage;
+  }
+
+  /**
+   * Loads a package by its path. Parent packages are linked, or created if not yet defined.
+   *
+   * @param path The path of the package. E.G: <code>java.util</code>
+   * @param raw The serialized package.
+   * @return The loaded package.
+   */
+  @NotNull
+  private JavaPackage onLoadPackage(
+      @NotNull JavaDeserializeInstance deserialize,
+      @NotNull String path,
+      @NotNull Map<String, Object> raw) {
+    final JavaPackage javaPackage = linkPackage(path);
+    javaPackage.onLoad(deserialize, raw);
+    return javaPackage;
+  }
+
+  /**
+   * Creates & links a package to load by its path, without loading it.
+   *
+   * @param path The path of the package. E.G: <code>java.util</code>
+   * @return The package to load.
+   */
+  @NotNull
+  private JavaPackage linkPackage(@NotNull String path) {
+
+    // Packages created as parents are loaded in place.
+    final JavaPackage existing = this.packages.get(path);
+    if (existing != null) {
+      return existing;
+    }
+
+    JavaPackage parent = null;
+    String name = path;
+    final int index = path.lastIndexOf('.');
+    if (index != -1) {
+      parent = ofInternalPackage(path.substring(0, index));
+      name = path.substring(index + 1);
+    }
+
+    final JavaPackage javaPackage = new JavaPackage(this, parent, name);
+
+    // Attempt to resolve reflection before loading.
+    javaPackage.setReflectionTarget(JavaPackage.resolve(path));
+
+    this.packages.put(path, javaPackage);
+    return javaPackage;
+  }
+
+  /**
+   * Lists the packages with contents to save, flattened to prevent unnecessary nesting. Packages
+   * are listed depth-first & alphanumerically, which is the order of their paths.
+   */
+  @NotNull
+  private List<JavaPackage> getSavablePackages() {
+    final List<JavaPackage> savable = new ArrayList<>();
+    final List<String> keys = new ArrayList<>(this.packages.keySet());
     keys.sort(Comparator.naturalOrder());
     for (String key : keys) {
-      final Object oPackage = packages.get(key);
-      if (!(oPackage instanceof Map)) {
-        throw new RosettaException(
-            "The property \"languages.java.packages." + key + "\" is not a dictionary.");
+      final JavaPackage javaPackage = this.packages.get(key);
+      if (!javaPackage.hasParent()) {
+        addSavablePackages(savable, javaPackage);
       }
-      final JavaPackage javaPackage =
-          new JavaPackage(this, null, deserialize, key, (Map<String, Object>) oPackage);
-      packages.put(javaPackage.getName(), javaPackage);
     }
+    return savable;
   }
 
-  private void onSavePackageInternal(
-      @NotNull JavaSerializeInstance serialize,
-      @NotNull Map<String, Object> raw,
-      @NotNull JavaPackage javaPackage) {
+  private static void addSavablePackages(
+      @NotNull List<JavaPackage> savable, @NotNull JavaPackage javaPackage) {
 
     // Only save packages that contains contents.
     if (javaPackage.canSave()) {
-      raw.put(javaPackage.getPath(), javaPackage.onSave(false, serialize));
+      savable.add(javaPackage);
     }
 
-    // Use this to flatten packages to prevent unnecessary nesting.
     if (javaPackage.hasPackages()) {
       Map<String, JavaPackage> packages = javaPackage.getPackages();
       List<String> keys = new ArrayList<>(packages.keySet());
       keys.sort(Comparator.naturalOrder());
       for (String key : keys) {
-        onSavePackageInternal(serialize, raw, packages.get(key));
+        addSavablePackages(savable, packages.get(key));
       }
     }
   }
@@ -197,37 +758,336 @@ public class JavaLanguage
     final JavaSerializeInstance serialize = new JavaSerializeInstance(settings, id);
     final Map<String, Object> raw = new TreeMap<>();
 
-    if (hasPackages()) {
-      final Map<String, Object> packages = new TreeMap<>();
+    final Map<String, Object> packages = onSavePackages(settings, serialize);
+    if (!packages.isEmpty()) {
+      raw.put("packages", packages);
+    }
 
-      // Go through each package alphanumerically.
-      final List<String> keys = new ArrayList<>(this.packages.keySet());
-      keys.sort(Comparator.naturalOrder());
+    // If using a type-dictionary, render it last to let registrations happen first.
+    if (serialize.hasTypeDictionary()) {
+      final JavaTypeDictionary typeDictionary = serialize.getTypeDictionary();
+      raw.put("types", typeDictionary.render());
+      raw.put("types_format", settings.getTypeMode().getID());
+    }
 
-      for (String key : keys) {
-        final JavaPackage javaPackage = this.packages.get(key);
-        if (!javaPackage.hasParent()) {
-          onSavePackageInternal(serialize, packages, javaPackage);
-        }
+    return raw;
+  }
+
+  /**
+   * @return The serialized packages with contents, by path. (Serialized on the executor of the
+   *     settings, if any)
+   */
+  @NotNull
+  private Map<String, Object> onSavePackages(
+      @NotNull JavaSerializeSettings settings, @NotNull JavaSerializeInstance serialize) {
+    final List<JavaPackage> savable = getSavablePackages();
+    final Executor executor = settings.getExecutor();
+    final Map<String, Object> packages = new TreeMap<>();
+    if (executor != null && !savable.isEmpty() && settings.shouldShareTypeDictionary()) {
+      onSavePackagesShared(settings, serialize, savable, packages, executor);
+    } else if (executor != null && !savable.isEmpty()) {
+      onSavePackagesParallel(settings, serialize, savable, packages, executor);
+    } else {
+      for (JavaPackage javaPackage : savable) {
+        packages.put(javaPackage.getPath(), javaPackage.onSave(false, serialize));
       }
+    }
+
+    if (settings.shouldSortTypesByUsage() && serialize.hasTypeDictionary()) {
+      final JavaTypeDictionary typeDictionary = serialize.getTypeDictionary();
+      typeDictionary.countUsages(packages);
+      typeDictionary.remap(packages, typeDictionary.sortByUsage());
+    }
+    return packages;
+  }
+
+  /**
+   * Serializes each package on the executor with its own serialize instance. The partial
+   * type-dictionaries are then merged in package order, which is the order the serial path
+   * registers types, and the references of each package are remapped to the merged indices.
+   */
+  private static void onSavePackagesParallel(
+      @NotNull JavaSerializeSettings settings,
+      @NotNull JavaSerializeInstance serialize,
+      @NotNull List<JavaPackage> savable,
+      @NotNull Map<String, Object> packages,
+      @NotNull Executor executor) {
+
+    final String id = serialize.getId();
+    final List<JavaSerializeInstance> instances = new ArrayList<>(savable.size());
+    final List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>(savable.size());
+    for (JavaPackage javaPackage : savable) {
+      final JavaSerializeInstance instance = new JavaSerializeInstance(settings, id);
+      instances.add(instance);
+      futures.add(
+          CompletableFuture.supplyAsync(() -> javaPackage.onSave(false, instance), executor));
+    }
 
-      if (!packages.isEmpty()) {
-        raw.put("packages", packages);
+    final List<Map<String, Object>> results = join(futures);
+
+    if (serialize.hasTypeDictionary()) {
+      final JavaTypeDictionary typeDictionary = serialize.getTypeDictionary();
+      final List<CompletableFuture<Map<String, Object>>> remaps = new ArrayList<>(savable.size());
+      for (int i = 0; i < savable.size(); i++) {
+        final JavaTypeDictionary partial = instances.get(i).getTypeDictionary();
+        final int[] indices = typeDictionary.merge(partial);
+        final Map<String, Object> result = results.get(i);
+        remaps.add(
+            CompletableFuture.supplyAsync(
+                () -> {
+                  partial.remap(result, indices);
+                  return result;
+                },
+                executor));
+      }
+      join(remaps);
+    }
+
+    for (int i = 0; i < savable.size(); i++) {
+      packages.put(savable.get(i).getPath(), results.get(i));
+    }
+  }
+
+  /**
+   * Serializes each class on the executor with one serialize instance, sharing a {@link
+   * JavaConcurrentTypeDictionary}. Once every class is serialized, the dictionary is renumbered,
+   * the references of the classes are remapped & the dictionary is merged into the save's.
+   */
+  private static void onSavePackagesShared(
+      @NotNull JavaSerializeSettings settings,
+      @NotNull JavaSerializeInstance serialize,
+      @NotNull List<JavaPackage> savable,
+      @NotNull Map<String, Object> packages,
+      @NotNull Executor executor) {
+
+    final String id = serialize.getId();
+    final JavaConcurrentTypeDictionary typeDictionary =
+        serialize.hasTypeDictionary()
+            ? new JavaConcurrentTypeDictionary(settings.getTypeMode(), id)
+            : null;
+    final JavaSerializeInstance shared = new JavaSerializeInstance(settings, id, typeDictionary);
+
+    final List<String> names = new ArrayList<>();
+    final List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+    for (JavaPackage javaPackage : savable) {
+      for (JavaClass javaClass : javaPackage.getClasses().values()) {
+        names.add(javaClass.getName());
+        futures.add(CompletableFuture.supplyAsync(() -> javaClass.onSave(shared), executor));
+      }
+    }
+    final List<Map<String, Object>> results = join(futures);
+
+    int next = 0;
+    for (JavaPackage javaPackage : savable) {
+      final Map<String, Object> classes = new TreeMap<>();
+      for (int i = 0; i < javaPackage.getClasses().size(); i++, next++) {
+        classes.put(names.get(next), results.get(next));
+      }
+      packages.put(javaPackage.getPath(), javaPackage.onSave(false, shared, classes));
+    }
+
+    if (typeDictionary != null) {
+      typeDictionary.remap(packages, typeDictionary.renumber());
+      // Renumbered sub-types come first, so merging into the empty dictionary keeps the indices.
+      serialize
+          .getTypeDictionary()
+          .remap(packages, serialize.getTypeDictionary().merge(typeDictionary));
+    }
+  }
+
+  @NotNull
+  private static <T> List<T> join(@NotNull List<CompletableFuture<T>> futures) {
+    final List<T> results = new ArrayList<>(futures.size());
+    try {
+      for (CompletableFuture<T> future : futures) {
+        results.add(future.join());
       }
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) throw cause;
+      if (e.getCause() instanceof Error cause) throw cause;
+      throw e;
+    }
+    return results;
+  }
+
+  /**
+   * Streams the same document as {@link #onSave(JavaSerializeSettings, String)}. Only one class is
+   * held as a Map at a time. (Packages are serialized twice if types are sorted by usage)
+   */
+  @Override
+  public void onSave(
+      @NotNull JavaSerializeSettings settings,
+      @NotNull String id,
+      @NotNull RosettaStreamWriter writer) {
+
+    final List<JavaPackage> savable = getSavablePackages();
+    final JavaSerializeInstance serialize = new JavaSerializeInstance(settings, id);
+
+    // The first pass only counts references. The second pass finds every type already sorted.
+    if (settings.shouldSortTypesByUsage() && serialize.hasTypeDictionary()) {
+      final JavaTypeDictionary typeDictionary = serialize.getTypeDictionary();
+      for (JavaPackage javaPackage : savable) {
+        typeDictionary.countUsages(javaPackage.onSave(false, serialize));
+      }
+      typeDictionary.sortByUsage();
+    }
+
+    writer.beginMapping();
+    if (!savable.isEmpty()) {
+      writer.key("packages");
+      writer.beginMapping();
+      for (JavaPackage javaPackage : savable) {
+        writer.key(javaPackage.getPath());
+        javaPackage.onSave(serialize, writer);
+      }
+      writer.endMapping();
     }
 
     // If using a type-dictionary, render it last to let registrations happen first.
     if (serialize.hasTypeDictionary()) {
       final JavaTypeDictionary typeDictionary = serialize.getTypeDictionary();
-      raw.put("types", typeDictionary.render());
-      raw.put("types_format", settings.getTypeMode().getID());
+      writer.entry("types", typeDictionary.render());
+      writer.entry("types_format", settings.getTypeMode().getID());
     }
 
-    return raw;
+    writer.endMapping();
+  }
+
+  /**
+   * Saves each package with contents to its own file in the directory, along with a {@link
+   * JavaShardManifest} listing the shards, their hashes & the shared type-dictionary. Shards are
+   * written on the executor of the settings. (If any)
+   *
+   * @param directory The directory to write. (Created if missing)
+   * @return The manifest written.
+   * @throws IOException If a file fails to write.
+   */
+  @NotNull
+  public JavaShardManifest saveShards(
+      @NotNull JavaSerializeSettings settings, @NotNull String id, @NotNull Path directory)
+      throws IOException {
+
+    final JavaSerializeInstance serialize = new JavaSerializeInstance(settings, id);
+    final Map<String, Object> packages = onSavePackages(settings, serialize);
+    Files.createDirectories(directory);
+
+    final Executor executor = settings.getExecutor();
+    final Map<String, JavaShardManifest.Shard> shards = new TreeMap<>();
+    try {
+      final List<CompletableFuture<JavaShardManifest.Shard>> futures = new ArrayList<>();
+      for (Map.Entry<String, Object> entry : packages.entrySet()) {
+        final Supplier<JavaShardManifest.Shard> task =
+            () -> writeShard(directory, entry.getKey(), entry.getValue());
+        futures.add(
+            executor != null
+                ? CompletableFuture.supplyAsync(task, executor)
+                : CompletableFuture.completedFuture(task.get()));
+      }
+      for (JavaShardManifest.Shard shard : join(futures)) {
+        shards.put(shard.getPath(), shard);
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    // If using a type-dictionary, render it last to let registrations happen first.
+    Object types = null;
+    String typesFormat = null;
+    if (serialize.hasTypeDictionary()) {
+      types = serialize.getTypeDictionary().render();
+      typesFormat = settings.getTypeMode().getID();
+    }
+
+    final JavaShardManifest manifest = new JavaShardManifest(id, shards, types, typesFormat);
+    manifest.write(directory);
+    return manifest;
   }
 
-  private boolean hasPackages() {
-    return !this.packages.isEmpty();
+  @NotNull
+  private static JavaShardManifest.Shard writeShard(
+      @NotNull Path directory, @NotNull String path, @NotNull Object raw) {
+    final String file = JavaShardManifest.toFileName(path);
+    final byte[] bytes = Rosetta.getYamlWriter().dumpToString(raw).getBytes(StandardCharsets.UTF_8);
+    try {
+      Files.write(directory.resolve(file), bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new JavaShardManifest.Shard(path, file, JavaShardManifest.hash(bytes));
+  }
+
+  /**
+   * Loads only the requested packages from a directory written by {@link
+   * #saveShards(JavaSerializeSettings, String, Path)}. Other shards are never read.
+   *
+   * @param directory The shard directory.
+   * @param paths The paths of the packages to load. E.G: <code>java.util</code>
+   * @return The manifest of the directory.
+   * @throws IOException If a file fails to read.
+   * @throws RosettaException If a package has no shard, a shard is outside the directory or a shard
+   *     doesn't match its hash.
+   */
+  @NotNull
+  @SuppressWarnings("unchecked")
+  public JavaShardManifest loadShards(
+      @NotNull JavaDeserializeSettings settings,
+      @NotNull Path directory,
+      @NotNull Collection<String> paths)
+      throws IOException {
+
+    final JavaShardManifest manifest = JavaShardManifest.read(directory);
+    final JavaDeserializeInstance deserialize = new JavaDeserializeInstance(settings);
+    if (manifest.getTypes() != null) {
+      deserialize.onLoadTypes(manifest.getId(), manifest.getTypes(), manifest.getTypesFormat());
+    }
+
+    final Path root = directory.toAbsolutePath().normalize();
+    final List<String> keys = new ArrayList<>(new TreeSet<>(paths));
+    for (String key : keys) {
+      final JavaShardManifest.Shard shard = manifest.getShard(key);
+      if (shard == null) {
+        throw new RosettaException("The package \"" + key + "\" has no shard in: " + directory);
+      }
+
+      // The manifest is data. Never read files outside the directory. (E.G: "../file.yml")
+      final Path file = root.resolve(shard.getFile()).normalize();
+      if (!file.startsWith(root) || file.equals(root)) {
+        throw new RosettaException(
+            "The shard of package \"" + key + "\" is outside the directory: " + shard.getFile());
+      }
+
+      final byte[] bytes = Files.readAllBytes(file);
+      if (!JavaShardManifest.hash(bytes).equals(shard.getSha256())) {
+        throw new RosettaException(
+            "The shard of package \"" + key + "\" doesn't match its hash: " + shard.getFile());
+      }
+
+      final Object oPackage =
+          Rosetta.getYamlReader().loadFromString(new String(bytes, StandardCharsets.UTF_8));
+      if (!(oPackage instanceof Map)) {
+        throw new RosettaException("The shard of package \"" + key + "\" is not a dictionary.");
+      }
+      onLoadPackage(deserialize, key, (Map<String, Object>) oPackage);
+    }
+
+    return manifest;
+  }
+
+  /**
+   * @param path The path of the package. E.G: <code>java.util</code>
+   * @return The package. (Null if not defined)
+   */
+  @Nullable
+  public JavaPackage getPackage(@NotNull String path) {
+    return this.packages.get(path);
+  }
+
+  /**
+   * @return A read-only map of all packages, by path.
+   */
+  @NotNull
+  public Map<String, JavaPackage> getPackages() {
+    return Collections.unmodifiableMap(this.packages);
   }
 
   @NotNull
@@ -237,13 +1097,32 @@ public class JavaLanguage
   }
 
   /**
-   * Resolves a TypeReference from Rosetta-defined data.
+   * Resolves a TypeReference from Rosetta-defined data. Strings are parsed, while Maps are built
+   * directly from their keys. (See {@link #serializeType(JavaSerializeInstance, TypeReference,
+   * ClassReference, Class)})
    *
    * @param oType Either a String or a Map.
    * @return A built type-reference.
    */
-  @SuppressWarnings("unchecked")
   public static TypeReference resolveType(@NotNull Object oType) {
+    return resolveType(oType, oReference -> null);
+  }
+
+  /**
+   * @param oType The serialized type.
+   * @param references Resolves references to a type-dictionary. (Null for other values. See {@link
+   *     JavaDeserializeInstance#resolveType(Object)})
+   * @return The type.
+   */
+  @NotNull
+  @SuppressWarnings({"unchecked"})
+  static TypeReference resolveType(
+      @NotNull Object oType, @NotNull Function<Object, TypeReference> references) {
+
+    final TypeReference reference = references.apply(oType);
+    if (reference != null) {
+      return reference;
+    }
 
     if (oType instanceof String) {
       return TypeReference.of((String) oType);
@@ -251,36 +1130,91 @@ public class JavaLanguage
       throw new TypeException("type", oType.getClass(), String.class, Map.class);
     }
 
-    Map<String, Object> map = (Map<String, Object>) oType;
-
-    // Retrieve the base string.
-    Object oBase = map.get("base");
-    if (oBase == null) {
+    // The type is built from its structure in one pass. (The base is never parsed or resolved)
+    String base = null;
+    boolean generic = false;
+    boolean array = false;
+    Object oArrayDepth = null;
+    List<?> oParameters = null;
+    List<?> oBounds = null;
+    Object oBoundsType = "extends";
+    for (Map.Entry<String, Object> entry : ((Map<String, Object>) oType).entrySet()) {
+      final Object value = entry.getValue();
+      switch (entry.getKey()) {
+        case "base" -> {
+          if (!(value instanceof String)) {
+            throw new ValueTypeException("type", "base", getValueClass(value), String.class);
+          }
+          base = (String) value;
+        }
+        case "generic", "wildcard" -> generic |= getTypeFlag(entry.getKey(), value);
+        case "array" -> array = getTypeFlag("array", value);
+        case "array_depth" -> oArrayDepth = value;
+        case "parameters" -> oParameters = getTypeList("parameters", value);
+        case "bounds" -> oBounds = getTypeList("bounds", value);
+        case "bounds_type" -> oBoundsType = value;
+        default -> {}
+      }
+    }
+    if (base == null) {
       throw new MissingKeyException("type", "base");
-    } else if (!(oBase instanceof String)) {
-      throw new ValueTypeException("type", "base", oBase.getClass(), String.class);
     }
 
-    String full = (String) oBase;
-    // Retrieve any parameters defined.
-    if (map.containsKey("parameters")) {
-      Object oParameters = map.get("parameters");
-      if (!(oParameters instanceof List)) {
-        throw new ValueTypeException("type", "parameters", oParameters.getClass(), List.class);
+    if (oBounds != null) {
+      if (oParameters != null || oArrayDepth != null) {
+        throw new RosettaException(
+            "Bounded types cannot have type arguments or array dimensions: " + base);
+      }
+      final TypeReference[] bounds = new TypeReference[oBounds.size()];
+      for (int i = 0; i < bounds.length; i++) {
+        bounds[i] = resolveType(oBounds.get(i), references);
       }
 
-      StringBuilder sub = new StringBuilder();
-      for (Object oParameter : (List<?>) oParameters) {
-        if (sub.isEmpty()) {
-          sub.append(resolveType(oParameter).getBase());
-        } else {
-          sub.append(", ").append(resolveType(oParameter).getBase());
-        }
+      if ("extends".equals(oBoundsType)) {
+        return TypeReference.ofBounded(base, true, bounds, generic);
+      } else if ("super".equals(oBoundsType)) {
+        return TypeReference.ofBounded(base, false, bounds, generic);
+      }
+      throw new RosettaException("Unknown bounds_type: " + oBoundsType);
+    }
+
+    List<TypeReference> parameters = null;
+    if (oParameters != null) {
+      parameters = new ArrayList<>(oParameters.size());
+      for (Object oParameter : oParameters) {
+        parameters.add(resolveType(oParameter, references));
+      }
+    }
+
+    int arrayDepth = array ? 1 : 0;
+    if (oArrayDepth != null) {
+      if (!(oArrayDepth instanceof Number)) {
+        throw new ValueTypeException("type", "array_depth", oArrayDepth.getClass(), Integer.class);
       }
-      full += "<" + sub + ">";
+      arrayDepth = ((Number) oArrayDepth).intValue();
+    }
+
+    return TypeReference.ofSimple(base, parameters, arrayDepth, generic);
+  }
+
+  private static boolean getTypeFlag(@NotNull String key, @Nullable Object value) {
+    if (!(value instanceof Boolean)) {
+      throw new ValueTypeException("type", key, getValueClass(value), Boolean.class);
+    }
+    return (Boolean) value;
+  }
+
+  @NotNull
+  private static List<?> getTypeList(@NotNull String key, @Nullable Object value) {
+    if (!(value instanceof List)) {
+      throw new ValueTypeException("type", key, getValueClass(value), List.class);
     }
+    return (List<?>) value;
+  }
 
-    return TypeReference.of(full);
+  @NotNull
+  private static Class<?> getValueClass(@Nullable Object value) {
+    return value != null ? value.getClass() : Object.class;
   }
 
   /**
@@ -292,8 +1226,8 @@ public class JavaLanguage
   public static Object serializeType(
       @NotNull JavaSerializeInstance serialize,
       @NotNull TypeReference type,
-      @NotNull ClassReference reference,
-      @NotNull Class<?> deCl) {
+      @Nullable ClassReference reference,
+      @Nullable Class<?> deCl) {
     Map<String, Object> raw;
     if (type instanceof SimpleTypeReference simple) {
 
@@ -481,4 +1415,42 @@ public class JavaLanguage
   public static boolean isNative(int modifiers) {
     return Modifier.isNative(modifiers);
   }
+
+  /** Splits the discovery of class members across the workers of a {@link ForkJoinPool}. */
+  private static class DiscoverTask extends RecursiveAction {
+
+    /** The amount of classes to discover before splitting the task. */
+    private static final int THRESHOLD = 8;
+
+    private final JavaDiscoverySettings settings;
+    private final List<JavaClass> javaClasses;
+    private final int from;
+    private final int to;
+
+    DiscoverTask(
+        @NotNull JavaDiscoverySettings settings,
+        @NotNull List<JavaClass> javaClasses,
+        int from,
+        int to) {
+      this.settings = settings;
+      this.javaClasses = javaClasses;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= THRESHOLD) {
+        for (int index = from; index < to; index++) {
+          final JavaClass javaClass = javaClasses.get(index);
+          javaClass.discover(settings, javaClass.getReflectionTarget());
+        }
+        return;
+      }
+      final int middle = (from + to) >>> 1;
+      invokeAll(
+          new DiscoverTask(settings, javaClasses, from, middle),
+          new DiscoverTask(settings, javaClasses, middle, to));
+    }
+  }
 }
@@ -2,6 +2,7 @@ package com.asledgehammer.rosetta.java;
 
 import com.asledgehammer.rosetta.Taggable;
 import com.asledgehammer.rosetta.java.reference.ClassReference;
+import com.asledgehammer.rosetta.java.reference.TypeReference;
 import java.lang.reflect.Method;
 import java.util.*;
 import org.jetbrains.annotations.NotNull;
@@ -11,32 +12,50 @@ public class JavaMethod extends JavaExecutable<Method> implements Taggable {
 
   @Nullable private JavaReturn returns;
 
-  private final List<String> tags = new ArrayList<>();
+  /** Assigned by each constructor. (Loading runs in the super constructor, before initializers) */
+  private List<String> tags;
 
   JavaMethod(@NotNull Method method) {
     super(method);
+    this.tags = new ArrayList<>();
 
     // TODO: Implement discovery.
     this.returns = new JavaReturn(method.getGenericReturnType());
   }
 
-  JavaMethod(@NotNull String name, @NotNull Map<String, Object> raw) {
-    super(name, raw);
+  JavaMethod(
+      @NotNull String name,
+      int modifiers,
+      @NotNull List<TypeReference> typeParameters,
+      @NotNull List<JavaParameter> parameters,
+      @NotNull TypeReference returnType) {
+    super(name, modifiers, typeParameters, parameters);
+    this.tags = new ArrayList<>();
+
+    this.returns = new JavaReturn(returnType);
+  }
+
+  JavaMethod(
+      @NotNull JavaDeserializeInstance deserialize,
+      @NotNull String name,
+      @NotNull Map<String, Object> raw) {
+    super(deserialize, name, raw);
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  protected void onLoad(@NotNull Map<String, Object> raw) {
+  protected void onLoad(
+      @NotNull JavaDeserializeInstance deserialize, @NotNull Map<String, Object> raw) {
 
     // Load all general executable data.
-    super.onLoad(raw);
+    super.onLoad(deserialize, raw);
 
     final String label = this.name;
 
     // Load return data. (If present)
     Map<String, Object> oReturns = getOptionalDictionary(raw, label, "return");
     if (oReturns != null) {
-      this.returns = new JavaReturn(oReturns);
+      this.returns = new JavaReturn(deserialize, oReturns);
     } else {
       // Null definitions are void.
       this.returns = new JavaReturn(void.class);
@@ -44,14 +63,12 @@ public class JavaMethod extends JavaExecutable<Method> implements Taggable {
 
     // Load tags. (If any)
     List<String> tags = getOptionalStringList(raw, label, "tags");
-    if (tags != null) {
-      this.tags.addAll(tags);
-    }
+    this.tags = tags != null ? new ArrayList<>(tags) : new ArrayList<>();
   }
 
   @NotNull
   protected Map<String, Object> onSave(
-      @NotNull JavaSerializeInstance serialize, @NotNull ClassReference reference) {
+      @NotNull JavaSerializeInstance serialize, @Nullable ClassReference reference) {
 
     // Save the general executable definitions info first.
     Map<String, Object> raw = super.onSave(serialize, reference);
@@ -60,9 +77,9 @@ public class JavaMethod extends JavaExecutable<Method> implements Taggable {
 
     // Save the returns definition if qualified.
     if (returns != null && returns.shouldSave()) {
-      raw.put(
-          "return",
-          returns.onSave(serialize, reference, getReflectionTarget().getDeclaringClass()));
+      final Method target = getReflectionTarget();
+      final Class<?> deCl = target != null ? target.getDeclaringClass() : null;
+      raw.put("return", returns.onSave(serialize, reference, deCl));
     }
 
     if (hasTags()) {
@@ -72,6 +89,23 @@ public class JavaMethod extends JavaExecutable<Method> implements Taggable {
     return raw;
   }
 
+  @Override
+  void stamp(@NotNull JavaFragmentCache.Stamp stamp) {
+    super.stamp(stamp);
+    if (returns != null) stamp.add(returns);
+  }
+
+  @Override
+  void digest(@NotNull JavaFragmentCache.Digest digest, @Nullable ClassReference reference) {
+    super.digest(digest, reference);
+    digest.add(tags);
+    digest.add(returns != null);
+    if (returns != null) {
+      final Method target = getReflectionTarget();
+      returns.digest(digest, reference, target != null ? target.getDeclaringClass() : null);
+    }
+  }
+
   @Nullable
   public JavaReturn getReturns() {
     return this.returns;
@@ -87,6 +121,7 @@ public class JavaMethod extends JavaExecutable<Method> implements Taggable {
     }
 
     this.returns = returns;
+    onModified();
   }
 
   @Override
@@ -122,6 +157,7 @@ public class JavaMethod extends JavaExecutable<Method> implements Taggable {
       throw new IllegalArgumentException("The tag is already applied: " + tag);
     }
     this.tags.add(tag);
+    onModified();
   }
 
   @Override
@@ -133,6 +169,7 @@ public class JavaMethod extends JavaExecutable<Method> implements Taggable {
       throw new IllegalArgumentException("The tag is not applied: " + tag);
     }
     tags.remove(tag);
+    onModified();
   }
 
   @NotNull
@@ -143,6 +180,7 @@ public class JavaMethod extends JavaExecutable<Method> implements Taggable {
     }
     List<String> tagsRemoved = Collections.unmodifiableList(tags);
     tags.clear();
+    onModified();
     return tagsRemoved;
   }
 }
@@ -1,7 +1,9 @@
 package com.asledgehammer.rosetta.java;
 
 import com.asledgehammer.rosetta.*;
+import com.asledgehammer.rosetta.exception.ClassConflictException;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -16,6 +18,12 @@ public class JavaPackage extends RosettaObject
   /** Stores class definitions in the package. */
   private final Map<String, JavaClass> classes = new HashMap<>();
 
+  /**
+   * Serialized classes to build on first access, by name. (See {@link
+   * JavaDeserializeSettings#setLazy(boolean)})
+   */
+  @Nullable private volatile Map<String, PendingClass> pendingClasses = null;
+
   /** Stores sub-package definitions. */
   private final Map<String, JavaPackage> packages = new HashMap<>();
 
@@ -103,7 +111,8 @@ public class JavaPackage extends RosettaObject
     onLoad(deserialize, raw);
   }
 
-  protected void onLoad(@NotNull JavaDeserializeInstance deserialize, @NotNull Map<String, Object> raw) {
+  protected void onLoad(
+      @NotNull JavaDeserializeInstance deserialize, @NotNull Map<String, Object> raw) {
 
     final String label = this.name;
 
@@ -117,14 +126,16 @@ public class JavaPackage extends RosettaObject
       }
     }
 
-    // Load classes. (If any)
+    // Load classes. (If any) The dictionary is already parsed, so they are built right away.
     final Map<String, Object> classes = getOptionalDictionary(raw, label, "classes");
     if (classes != null && !classes.isEmpty()) {
+      final Map<String, Supplier<Map<String, Object>>> deferred = new LinkedHashMap<>();
       for (final String key : classes.keySet()) {
         final Map<String, Object> classRaw =
             getExpectedDictionary(classes, label + "classes[\"" + key + "\"]", key);
-        this.classes.put(key, new JavaClass(this, deserialize, key, classRaw));
+        deferred.put(key, () -> classRaw);
       }
+      onLoadClasses(deserialize, deferred, false);
     }
 
     // Load notes. (if any)
@@ -137,8 +148,129 @@ public class JavaPackage extends RosettaObject
     }
   }
 
+  /**
+   * Builds the serialized classes, or holds them until first access when loading lazily. (See
+   * {@link JavaDeserializeSettings#setLazy(boolean)})
+   *
+   * @param classes The serialized classes, by name. (E.G: Deferred slices of a stream)
+   * @param lazy True to hold the classes until first access.
+   */
+  void onLoadClasses(
+      @NotNull JavaDeserializeInstance deserialize,
+      @NotNull Map<String, Supplier<Map<String, Object>>> classes,
+      boolean lazy) {
+    if (lazy) {
+      synchronized (this) {
+        Map<String, PendingClass> pending = this.pendingClasses;
+        if (pending == null) pending = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<Map<String, Object>>> entry : classes.entrySet()) {
+          final String key = entry.getKey();
+          if (this.classes.containsKey(key) || pending.containsKey(key)) {
+            throw new ClassConflictException(this.path + "." + key);
+          }
+          // Each load carries its own type references. (E.G: A type-dictionary per file)
+          pending.put(key, new PendingClass(deserialize, entry.getValue()));
+        }
+        this.pendingClasses = pending;
+      }
+    } else {
+      for (Map.Entry<String, Supplier<Map<String, Object>>> entry : classes.entrySet()) {
+        final String key = entry.getKey();
+        if (this.classes.containsKey(key)) {
+          throw new ClassConflictException(this.path + "." + key);
+        }
+        this.classes.put(key, new JavaClass(this, deserialize, key, entry.getValue().get()));
+      }
+    }
+  }
+
+  /**
+   * Builds the classes pending from a lazy load. (If any) Only the first caller builds them, other
+   * callers wait for them.
+   */
+  private void loadClasses() {
+    if (this.pendingClasses == null) return;
+    synchronized (this) {
+      final Map<String, PendingClass> pending = this.pendingClasses;
+      if (pending == null) return;
+      // (Removed before building, in case a build asks for a class of the package)
+      for (final String key : new ArrayList<>(pending.keySet())) {
+        final PendingClass pendingClass = pending.remove(key);
+        if (pendingClass != null) this.classes.put(key, pendingClass.build(this, key));
+      }
+      this.pendingClasses = null;
+    }
+  }
+
+  /**
+   * Builds one class pending from a lazy load. (If pending) The other pending classes stay
+   * serialized.
+   *
+   * @param clazzName The name of the class. (Case-Sensitive)
+   * @return The class definition. (Null if the package doesn't have the class)
+   */
+  @Nullable
+  private JavaClass loadClass(@NotNull String clazzName) {
+    if (this.pendingClasses == null) return this.classes.get(clazzName);
+    synchronized (this) {
+      final Map<String, PendingClass> pending = this.pendingClasses;
+      if (pending != null) {
+        final PendingClass pendingClass = pending.remove(clazzName);
+        if (pendingClass != null) {
+          this.classes.put(clazzName, pendingClass.build(this, clazzName));
+        }
+        if (pending.isEmpty()) this.pendingClasses = null;
+      }
+      return this.classes.get(clazzName);
+    }
+  }
+
+  /**
+   * @return True if the classes of the package are built. (False while classes of a lazy load are
+   *     pending. See {@link JavaDeserializeSettings#setLazy(boolean)})
+   */
+  public boolean isLoaded() {
+    return this.pendingClasses == null;
+  }
+
+  /**
+   * @param clazzName The name of the class. (Case-Sensitive)
+   * @return True if the class isn't pending from a lazy load. (See {@link
+   *     JavaDeserializeSettings#setLazy(boolean)})
+   */
+  public boolean isLoaded(@NotNull String clazzName) {
+    if (this.pendingClasses == null) return true;
+    synchronized (this) {
+      final Map<String, PendingClass> pending = this.pendingClasses;
+      return pending == null || !pending.containsKey(clazzName);
+    }
+  }
+
   @NotNull
   protected Map<String, Object> onSave(boolean deep, @NotNull JavaSerializeInstance serialize) {
+    loadClasses();
+    final Map<String, Object> classes = new TreeMap<>();
+
+    // Go through each class alphanumerically.
+    final List<String> keys = new ArrayList<>(this.classes.keySet());
+    keys.sort(Comparator.naturalOrder());
+
+    for (String key : keys) {
+      JavaClass javaClass = this.classes.get(key);
+      classes.put(key, javaClass.onSave(serialize));
+    }
+
+    return onSave(deep, serialize, classes);
+  }
+
+  /**
+   * @param classes The serialized classes of the package, by name. (E.G: Serialized concurrently)
+   */
+  @NotNull
+  Map<String, Object> onSave(
+      boolean deep,
+      @NotNull JavaSerializeInstance serialize,
+      @NotNull Map<String, Object> classes) {
     final Map<String, Object> raw = new TreeMap<>();
 
     if (hasNotes()) {
@@ -151,7 +283,7 @@ public class JavaPackage extends RosettaObject
 
     // Save sub-packages. (If any & deeply storing)
     if (deep && hasPackages()) {
-      final Map<String, Object> packages = new HashMap<>();
+      final Map<String, Object> packages = new TreeMap<>();
 
       // Go through each package alphanumerically.
       final List<String> keys = new ArrayList<>(this.packages.keySet());
@@ -165,25 +297,50 @@ public class JavaPackage extends RosettaObject
       raw.put("packages", packages);
     }
 
+    if (!classes.isEmpty()) {
+      raw.put("classes", classes);
+    }
+
+    return raw;
+  }
+
+  /**
+   * Streams the package without its sub-packages. Keys are written in the same order as {@link
+   * #onSave(boolean, JavaSerializeInstance)} stores them.
+   */
+  protected void onSave(
+      @NotNull JavaSerializeInstance serialize, @NotNull RosettaStreamWriter writer) {
+    loadClasses();
+    writer.beginMapping();
+
     if (hasClasses()) {
-      final Map<String, Object> classes = new HashMap<>();
+      writer.key("classes");
+      writer.beginMapping();
 
       // Go through each class alphanumerically.
       final List<String> keys = new ArrayList<>(this.classes.keySet());
       keys.sort(Comparator.naturalOrder());
 
       for (String key : keys) {
-        JavaClass javaClass = this.classes.get(key);
-        classes.put(key, javaClass.onSave(serialize));
+        writer.entry(key, this.classes.get(key).onSave(serialize));
       }
 
-      raw.put("classes", classes);
+      writer.endMapping();
     }
 
-    return raw;
+    if (hasNotes()) {
+      writer.entry("notes", getNotes());
+    }
+
+    if (hasTags()) {
+      writer.entry("tags", getTags());
+    }
+
+    writer.endMapping();
   }
 
   private boolean hasClasses() {
+    loadClasses();
     return !this.classes.isEmpty();
   }
 
@@ -196,6 +353,7 @@ public class JavaPackage extends RosettaObject
    */
   @NotNull
   public Map<String, JavaClass> getClasses() {
+    loadClasses();
     return Collections.unmodifiableMap(classes);
   }
 
@@ -281,6 +439,7 @@ public class JavaPackage extends RosettaObject
    * @return True if the class definition exists AND is registered.
    */
   public boolean hasClazz(@NotNull JavaClass clazz) {
+    loadClasses();
     return this.classes.containsKey(clazz.getName());
   }
 
@@ -289,6 +448,13 @@ public class JavaPackage extends RosettaObject
    * @return True if a class definition with the name exists AND is registered.
    */
   public boolean hasClazz(@NotNull String clazzName) {
+    if (this.pendingClasses != null) {
+      synchronized (this) {
+        final Map<String, PendingClass> pending = this.pendingClasses;
+        if (pending != null && pending.containsKey(clazzName)) return true;
+        return this.classes.containsKey(clazzName);
+      }
+    }
     return this.classes.containsKey(clazzName);
   }
 
@@ -299,11 +465,12 @@ public class JavaPackage extends RosettaObject
    */
   @NotNull
   public JavaClass getClazz(@NotNull String clazzName) {
-    if (!this.classes.containsKey(clazzName)) {
+    final JavaClass clazz = loadClass(clazzName);
+    if (clazz == null) {
       throw new NullPointerException(
           "Package \"" + this.name + "\" doesn't have the class: \"" + clazzName + "\"");
     }
-    return this.classes.get(clazzName);
+    return clazz;
   }
 
   /**
@@ -311,6 +478,7 @@ public class JavaPackage extends RosettaObject
    * @throws IllegalArgumentException If the class definition is already registered.
    */
   public void addClass(@NotNull JavaClass clazz) {
+    loadClasses();
     String clazzName = clazz.getName();
     if (this.classes.containsKey(clazzName)) {
       throw new IllegalArgumentException(
@@ -324,6 +492,7 @@ public class JavaPackage extends RosettaObject
    * @throws IllegalArgumentException If the class definition is NOT registered.
    */
   public void removeClazz(@NotNull JavaClass clazz) {
+    loadClasses();
     String clazzName = clazz.getName();
     if (!this.classes.containsKey(clazzName)) {
       throw new IllegalArgumentException(
@@ -338,6 +507,7 @@ public class JavaPackage extends RosettaObject
    * @throws IllegalArgumentException If the class definition is NOT registered.
    */
   public JavaClass removeClazz(@NotNull String clazzName) {
+    loadClasses();
     if (!this.classes.containsKey(clazzName)) {
       throw new IllegalArgumentException(
           "The package \"" + this.name + "\" doesn't contain class: \"" + clazzName + "\"");
@@ -430,6 +600,24 @@ public class JavaPackage extends RosettaObject
     this.target = target;
   }
 
+  /** A serialized class with the deserialize instance of the load it came from. */
+  private static final class PendingClass {
+
+    private final JavaDeserializeInstance deserialize;
+    private final Supplier<Map<String, Object>> raw;
+
+    private PendingClass(
+        @NotNull JavaDeserializeInstance deserialize, @NotNull Supplier<Map<String, Object>> raw) {
+      this.deserialize = deserialize;
+      this.raw = raw;
+    }
+
+    @NotNull
+    private JavaClass build(@NotNull JavaPackage pkg, @NotNull String name) {
+      return new JavaClass(pkg, deserialize, name, raw.get());
+    }
+  }
+
   @Override
   public String toString() {
     return "JavaPackage \"" + getPath() + "\"";
@@ -37,12 +37,22 @@ public class JavaParameter extends RosettaObject
     this.nullable = !this.type.isPrimitive();
   }
 
-  public JavaParameter(@NotNull Map<String, Object> raw) {
+  public JavaParameter(@NotNull String name, @NotNull TypeReference type) {
+    super();
+    this.target = null;
+    this.name = name;
+    this.type = type;
+    this.nullable = !this.type.isPrimitive();
+  }
+
+  public JavaParameter(
+      @NotNull JavaDeserializeInstance deserialize, @NotNull Map<String, Object> raw) {
     this.target = null;
-    onLoad(raw);
+    onLoad(deserialize, raw);
   }
 
-  protected void onLoad(@NotNull Map<String, Object> raw) {
+  protected void onLoad(
+      @NotNull JavaDeserializeInstance deserialize, @NotNull Map<String, Object> raw) {
 
     // Grab the name.
     this.name = getExpectedValue(raw, "field", "name", String.class);
@@ -50,7 +60,7 @@ public class JavaParameter extends RosettaObject
 
     // Resolve the type.
     final Object oType = getExpectedValue(raw, label, "type", Map.class, String.class);
-    this.type = JavaLanguage.resolveType(oType);
+    this.type = deserialize.resolveType(oType);
 
     this.nullable = getOptionalValue(raw, label, "nullable", !type.isPrimitive(), boolean.class);
 
@@ -61,8 +71,8 @@ public class JavaParameter extends RosettaObject
   @NotNull
   protected Map<String, Object> onSave(
       @NotNull JavaSerializeInstance serialize,
-      @NotNull ClassReference reference,
-      @NotNull Class<?> deCl) {
+      @Nullable ClassReference reference,
+      @Nullable Class<?> deCl) {
     Map<String, Object> raw = new HashMap<>();
     raw.put("name", getName());
     if (hasNotes()) {
@@ -80,7 +90,18 @@ public class JavaParameter extends RosettaObject
     return raw;
   }
 
-  @NotNull
+  /** Hashes the content of the parameter. (See {@link JavaClass#digest}) */
+  void digest(
+      @NotNull JavaFragmentCache.Digest digest,
+      @Nullable ClassReference reference,
+      @Nullable Class<?> deCl) {
+    digest.add(name);
+    digest.add(notes);
+    digest.add(nullable);
+    digest.add(type, reference, deCl);
+  }
+
+  @Nullable
   @Override
   public Parameter getReflectionTarget() {
     return this.target;
@@ -108,6 +129,7 @@ public class JavaParameter extends RosettaObject
     if (Objects.equals(this.name, name)) return;
 
     this.name = name;
+    onModified();
   }
 
   @NotNull
@@ -119,6 +141,7 @@ public class JavaParameter extends RosettaObject
   @Override
   public void setType(@NotNull TypeReference type) {
     this.type = type;
+    onModified();
   }
 
   @Override
@@ -138,6 +161,7 @@ public class JavaParameter extends RosettaObject
   @Override
   public void setNotes(@Nullable String notes) {
     this.notes = notes == null || notes.isEmpty() ? null : notes;
+    onModified();
   }
 
   public boolean isNullable() {
@@ -146,6 +170,7 @@ public class JavaParameter extends RosettaObject
 
   public void setNullable(boolean nullable) {
     this.nullable = nullable;
+    onModified();
   }
 
   @Override
@@ -2,7 +2,6 @@ package com.asledgehammer.rosetta.java;
 
 import com.asledgehammer.rosetta.Notable;
 import com.asledgehammer.rosetta.RosettaObject;
-import com.asledgehammer.rosetta.exception.MissingKeyException;
 import com.asledgehammer.rosetta.java.reference.ClassReference;
 import com.asledgehammer.rosetta.java.reference.TypeReference;
 import java.lang.reflect.Type;
@@ -23,18 +22,26 @@ public class JavaReturn extends RosettaObject implements Notable {
     this.nullable = !this.type.isPrimitive();
   }
 
-  public JavaReturn(@NotNull Map<String, Object> raw) {
+  public JavaReturn(@NotNull TypeReference type) {
     super();
-    onLoad(raw);
+    this.type = type;
+    this.nullable = !this.type.isPrimitive();
   }
 
-  protected void onLoad(@NotNull Map<String, Object> raw) {
+  public JavaReturn(
+      @NotNull JavaDeserializeInstance deserialize, @NotNull Map<String, Object> raw) {
+    super();
+    onLoad(deserialize, raw);
+  }
+
+  protected void onLoad(
+      @NotNull JavaDeserializeInstance deserialize, @NotNull Map<String, Object> raw) {
 
     final String label = "parameter";
 
     // Resolve the type.
     final Object oType = getExpectedValue(raw, label, "type", Map.class, String.class);
-    this.type = JavaLanguage.resolveType(oType);
+    this.type = deserialize.resolveType(oType);
 
     // If defined, set the nullable flag.
     this.nullable = getOptionalValue(raw, label, "nullable", !type.isPrimitive(), Boolean.class);
@@ -46,8 +53,8 @@ public class JavaReturn extends RosettaObject implements Notable {
   @NotNull
   protected Map<String, Object> onSave(
       @NotNull JavaSerializeInstance serialize,
-      @NotNull ClassReference reference,
-      @NotNull Class<?> deCl) {
+      @Nullable ClassReference reference,
+      @Nullable Class<?> deCl) {
     final Map<String, Object> raw = new HashMap<>();
 
     if (hasNotes()) {
@@ -68,6 +75,17 @@ public class JavaReturn extends RosettaObject implements Notable {
     return raw;
   }
 
+  /** Hashes the content of the return. (See {@link JavaClass#digest}) */
+  void digest(
+      @NotNull JavaFragmentCache.Digest digest,
+      @Nullable ClassReference reference,
+      @Nullable Class<?> deCl) {
+    digest.add(shouldSave());
+    digest.add(notes);
+    digest.add(nullable);
+    digest.add(type, reference, deCl);
+  }
+
   @NotNull
   public TypeReference getType() {
     return this.type;
@@ -75,6 +93,7 @@ public class JavaReturn extends RosettaObject implements Notable {
 
   public void setType(@NotNull TypeReference type) {
     this.type = type;
+    onModified();
   }
 
   @Override
@@ -94,6 +113,7 @@ public class JavaReturn extends RosettaObject implements Notable {
   @Override
   public void setNotes(@Nullable String notes) {
     this.notes = notes == null || notes.isEmpty() ? null : notes;
+    onModified();
   }
 
   public boolean isNullable() {
@@ -102,6 +122,7 @@ public class JavaReturn extends RosettaObject implements Notable {
 
   public void setNullable(boolean nullable) {
     this.nullable = nullable;
+    onModified();
   }
 
   /**
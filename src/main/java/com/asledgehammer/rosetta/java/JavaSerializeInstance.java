@@ -1,6 +1,7 @@
 package com.asledgehammer.rosetta.java;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class JavaSerializeInstance {
   @NotNull private final JavaSerializeSettings settings;
@@ -19,6 +20,18 @@ public class JavaSerializeInstance {
     }
   }
 
+  /**
+   * @param typeDictionary The type-dictionary to register types in. (E.G: A concurrent one)
+   */
+  JavaSerializeInstance(
+      @NotNull JavaSerializeSettings settings,
+      @NotNull String id,
+      @Nullable JavaTypeDictionary typeDictionary) {
+    this.id = id;
+    this.settings = settings;
+    this.typeDictionary = typeDictionary;
+  }
+
   @NotNull
   public TypeDictionaryMode getTypeMode() {
     return settings.getTypeMode();
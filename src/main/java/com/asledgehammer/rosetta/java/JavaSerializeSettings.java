@@ -2,7 +2,9 @@ package com.asledgehammer.rosetta.java;
 
 import com.asledgehammer.rosetta.RosettaSerializeSettings;
 import com.asledgehammer.rosetta.exception.ReadOnlyException;
+import java.util.concurrent.Executor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class JavaSerializeSettings implements RosettaSerializeSettings {
 
@@ -17,6 +19,14 @@ public class JavaSerializeSettings implements RosettaSerializeSettings {
 
   private boolean nestPackages = false;
 
+  private boolean sortTypesByUsage = false;
+
+  private boolean shareTypeDictionary = false;
+
+  @Nullable private Executor executor = null;
+
+  @Nullable private JavaFragmentCache fragmentCache = null;
+
   public boolean isWriteFullType() {
     return writeFullType;
   }
@@ -51,6 +61,93 @@ public class JavaSerializeSettings implements RosettaSerializeSettings {
     return this;
   }
 
+  /**
+   * @return The executor to serialize packages concurrently. (Null if serialized serially)
+   */
+  @Nullable
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Serializes packages concurrently on the executor. Each package uses its own type-dictionary,
+   * merged in package order afterward, so the output is identical to serializing serially.
+   *
+   * <p>NOTE: Streamed saves are always serial.
+   *
+   * @param executor The executor to serialize packages. (Null to serialize serially)
+   */
+  @NotNull
+  public JavaSerializeSettings setExecutor(@Nullable Executor executor) {
+    checkReadOnlyStatus();
+    this.executor = executor;
+    return this;
+  }
+
+  /**
+   * @return The cache of serialized classes. (Null if classes are always serialized)
+   */
+  @Nullable
+  public JavaFragmentCache getFragmentCache() {
+    return fragmentCache;
+  }
+
+  /**
+   * Serializes classes through the cache, so classes unchanged since the last save with the cache
+   * aren't serialized again. The output is identical to saving without the cache.
+   *
+   * @param fragmentCache The cache of serialized classes. (Null to always serialize classes)
+   */
+  @NotNull
+  public JavaSerializeSettings setFragmentCache(@Nullable JavaFragmentCache fragmentCache) {
+    checkReadOnlyStatus();
+    this.fragmentCache = fragmentCache;
+    return this;
+  }
+
+  public boolean shouldShareTypeDictionary() {
+    return shareTypeDictionary;
+  }
+
+  /**
+   * Serializes each class as its own task on the executor, registering types in one thread-safe
+   * type-dictionary instead of merging a dictionary per package. The indices are renumbered in
+   * compiled type order afterward, so the output doesn't depend on thread scheduling. It differs
+   * from the first-seen order of serial saves though.
+   *
+   * <p>NOTE: Only used if an executor is set. (See {@link #setExecutor(Executor)})
+   *
+   * @param flag True to share one type-dictionary between the tasks.
+   */
+  @NotNull
+  public JavaSerializeSettings setShareTypeDictionary(boolean flag) {
+    checkReadOnlyStatus();
+    this.shareTypeDictionary = flag;
+    return this;
+  }
+
+  public boolean shouldSortTypesByUsage() {
+    return sortTypesByUsage;
+  }
+
+  /**
+   * Assigns the smallest type-dictionary indices to the most referenced types. Types are counted
+   * after every package is serialized, then renumbered before anything is written. Streamed saves
+   * serialize the packages twice to do so.
+   *
+   * <p>Frequent references get shorter, which saves about 0.5% of an uncompressed YAML save.
+   * Loading is not measurably faster. (See JavaLoadBenchmark)
+   *
+   * @param flag True to order the type-dictionary by usage. (False keeps the order types are first
+   *     seen)
+   */
+  @NotNull
+  public JavaSerializeSettings setSortTypesByUsage(boolean flag) {
+    checkReadOnlyStatus();
+    this.sortTypesByUsage = flag;
+    return this;
+  }
+
   public TypeDictionaryMode getTypeMode() {
     return typeMode;
   }
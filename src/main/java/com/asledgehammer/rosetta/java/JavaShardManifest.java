@@ -0,0 +1,225 @@
+package com.asledgehammer.rosetta.java;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaObject;
+import com.asledgehammer.rosetta.exception.RosettaException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * JavaShardManifest lists the shards of a sharded {@link JavaLanguage} save. (See {@link
+ * JavaLanguage#saveShards(JavaSerializeSettings, String, Path)})
+ *
+ * <p>Each package with contents is stored in its own file, named after its path. The manifest
+ * stores the SHA-256 hash of each shard and the type-dictionary shared by all shards.
+ */
+public class JavaShardManifest extends RosettaObject {
+
+  /** The name of the manifest file in a shard directory. */
+  public static final String FILE_NAME = "manifest.yml";
+
+  private static final String VERSION = "1.2";
+
+  private final String id;
+  private final Map<String, Shard> shards;
+  @Nullable private final Object types;
+  @Nullable private final String typesFormat;
+
+  JavaShardManifest(
+      @NotNull String id,
+      @NotNull Map<String, Shard> shards,
+      @Nullable Object types,
+      @Nullable String typesFormat) {
+    this.id = id;
+    this.shards = Collections.unmodifiableMap(shards);
+    this.types = types;
+    this.typesFormat = typesFormat;
+  }
+
+  /** Loading constructor. */
+  private JavaShardManifest(@NotNull Map<String, Object> raw) {
+    final String label = FILE_NAME;
+
+    final String version = getExpectedValue(raw, label, "version", String.class);
+    if (!version.equals(VERSION)) {
+      throw new RosettaException("Unknown shard manifest version: " + version);
+    }
+    this.id = getExpectedValue(raw, label, "id", String.class);
+
+    final Map<String, Shard> shards = new TreeMap<>();
+    final Map<String, Object> oShards = getOptionalDictionary(raw, label, "shards");
+    if (oShards != null) {
+      for (String path : oShards.keySet()) {
+        final String labelShard = label + ".shards[\"" + path + "\"]";
+        final Map<String, Object> oShard = getExpectedDictionary(oShards, labelShard, path);
+        shards.put(
+            path,
+            new Shard(
+                path,
+                getExpectedValue(oShard, labelShard, "file", String.class),
+                getExpectedValue(oShard, labelShard, "sha256", String.class)));
+      }
+    }
+    this.shards = Collections.unmodifiableMap(shards);
+
+    this.types = raw.get("types");
+    this.typesFormat = getOptionalValue(raw, label, "types_format", String.class);
+  }
+
+  /**
+   * @param directory The shard directory.
+   * @return The manifest of the directory.
+   * @throws IOException If the manifest fails to read.
+   * @throws RosettaException If the manifest is malformed.
+   */
+  @NotNull
+  @SuppressWarnings("unchecked")
+  public static JavaShardManifest read(@NotNull Path directory) throws IOException {
+    final Object oRaw =
+        Rosetta.getYamlReader().loadFromString(Files.readString(directory.resolve(FILE_NAME)));
+    if (!(oRaw instanceof Map)) {
+      throw new RosettaException("The shard manifest is not a dictionary: " + directory);
+    }
+    return new JavaShardManifest((Map<String, Object>) oRaw);
+  }
+
+  /**
+   * @param directory The shard directory.
+   * @throws IOException If the manifest fails to write.
+   */
+  void write(@NotNull Path directory) throws IOException {
+    final Map<String, Object> raw = new TreeMap<>();
+    raw.put("id", id);
+    raw.put("version", VERSION);
+
+    final Map<String, Object> oShards = new TreeMap<>();
+    for (Shard shard : shards.values()) {
+      final Map<String, Object> oShard = new TreeMap<>();
+      oShard.put("file", shard.file);
+      oShard.put("sha256", shard.sha256);
+      oShards.put(shard.path, oShard);
+    }
+    raw.put("shards", oShards);
+
+    if (types != null) {
+      raw.put("types", types);
+      raw.put("types_format", typesFormat);
+    }
+
+    Files.writeString(directory.resolve(FILE_NAME), Rosetta.getYamlWriter().dumpToString(raw));
+  }
+
+  /**
+   * @param bytes The contents of a shard.
+   * @return The SHA-256 hash of the contents, in lower-case hexadecimal.
+   */
+  @NotNull
+  static String hash(byte @NotNull [] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @param path The path of the package. E.G: <code>java.util</code>
+   * @return The file name of the package's shard.
+   */
+  @NotNull
+  static String toFileName(@NotNull String path) {
+    return path + ".yml";
+  }
+
+  /**
+   * @return The ID of the saved collection. (Used by type-dictionary references)
+   */
+  @NotNull
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * @return The shards, by package path.
+   */
+  @NotNull
+  public Map<String, Shard> getShards() {
+    return shards;
+  }
+
+  /**
+   * @param path The path of the package. E.G: <code>java.util</code>
+   * @return The shard of the package. (Null if the package isn't saved)
+   */
+  @Nullable
+  public Shard getShard(@NotNull String path) {
+    return shards.get(path);
+  }
+
+  /**
+   * @return The rendered type-dictionary shared by all shards. (Null if not using a
+   *     type-dictionary)
+   */
+  @Nullable
+  public Object getTypes() {
+    return types;
+  }
+
+  /**
+   * @return The format of the type-dictionary. (Null if not using a type-dictionary)
+   */
+  @Nullable
+  public String getTypesFormat() {
+    return typesFormat;
+  }
+
+  /** A package stored in its own file. */
+  public static class Shard {
+
+    private final String path;
+    private final String file;
+    private final String sha256;
+
+    Shard(@NotNull String path, @NotNull String file, @NotNull String sha256) {
+      this.path = path;
+      this.file = file;
+      this.sha256 = sha256;
+    }
+
+    /**
+     * @return The path of the package. E.G: <code>java.util</code>
+     */
+    @NotNull
+    public String getPath() {
+      return path;
+    }
+
+    /**
+     * @return The file name of the shard, relative to the shard directory.
+     */
+    @NotNull
+    public String getFile() {
+      return file;
+    }
+
+    /**
+     * @return The SHA-256 hash of the shard's contents, in lower-case hexadecimal.
+     */
+    @NotNull
+    public String getSha256() {
+      return sha256;
+    }
+
+    @Override
+    public String toString() {
+      return "JavaShardManifest.Shard \"" + path + "\"";
+    }
+  }
+}
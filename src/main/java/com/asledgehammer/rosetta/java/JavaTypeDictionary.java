@@ -3,15 +3,48 @@ package com.asledgehammer.rosetta.java;
 import com.asledgehammer.rosetta.java.reference.ClassReference;
 import com.asledgehammer.rosetta.java.reference.TypeReference;
 import java.util.*;
+import java.util.function.IntConsumer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+/**
+ * JavaTypeDictionary assigns indices to the types of a save, referenced as <code>$id:n</code>.
+ *
+ * <p>Registrations are looked up by their structure first: the canonical type instance, (See {@link
+ * TypeReference#equals(Object)}) the class it is invoked from & its declaring class. Only the first
+ * registration of each structure compiles the type to find equal types registered from other
+ * classes. Entries are rendered once & appended in index order, along with their reference strings,
+ * so a repeated registration allocates nothing.
+ */
 public class JavaTypeDictionary {
 
-  private final Map<Integer, Object> mapRendered = new HashMap<>();
-  private final Map<String, Integer> mapReference = new HashMap<>();
+  /**
+   * The keys of type-reference positions in serialized values. Other strings (E.G: notes & tags)
+   * are never references, even if they look like one.
+   */
+  private static final Set<String> TYPE_KEYS =
+      Set.of("type", "extends", "implements", "parameters", "bounds", "returns");
+
   private final String id;
   private final TypeDictionaryMode mode;
 
+  /** Rendered types, by index. */
+  private Object[] rendered = new Object[64];
+
+  /** Compiled types, by index. */
+  private String[] keys = new String[64];
+
+  /** Reference strings, by index. */
+  private String[] references = new String[64];
+
+  private int size = 0;
+
+  private final KeyTable keyTable = new KeyTable();
+  private final UsageTable usageTable = new UsageTable();
+
+  /** References counted for {@link #sortByUsage()}, by index. */
+  private int[] usages = new int[0];
+
   /**
    * @param id The ID of the container file to reference.
    */
@@ -24,44 +57,276 @@ public class JavaTypeDictionary {
    * Registers a chain reference of instance-specific type.
    *
    * @param type The type.
-   * @param classReference The class the type is invoked.
-   * @param deCl The declaring class of the type.
+   * @param classReference The class the type is invoked. (Null if discovered without reflection)
+   * @param deCl The declaring class of the type. (Null if discovered without reflection)
    */
   public String register(
       @NotNull JavaSerializeInstance serialize,
       @NotNull TypeReference type,
-      @NotNull ClassReference classReference,
-      @NotNull Class<?> deCl) {
+      @Nullable ClassReference classReference,
+      @Nullable Class<?> deCl) {
+
+    int index = usageTable.get(type, classReference, deCl);
+    if (index != -1) return references[index];
+
+    final String key = type.compile(classReference, deCl);
+    index = keyTable.get(key);
+    if (index == -1) {
+      // Sub-types register while rendering, so they receive the smaller indices.
+      index = append(key, JavaLanguage.serializeType(serialize, type, classReference, deCl));
+    }
+    usageTable.put(type, classReference, deCl, index);
+    return references[index];
+  }
+
+  private int append(@NotNull String key, @NotNull Object value) {
+    if (size == rendered.length) {
+      final int capacity = size * 2;
+      rendered = Arrays.copyOf(rendered, capacity);
+      keys = Arrays.copyOf(keys, capacity);
+      references = Arrays.copyOf(references, capacity);
+    }
+    final int index = size++;
+    rendered[index] = value;
+    keys[index] = key;
+    references[index] = "$" + id + ":" + index;
+    keyTable.put(key, index);
+    return index;
+  }
+
+  /**
+   * Merges a dictionary registered separately (E.G: on another thread) into this one. Types are
+   * added in the order the other dictionary registered them, so merging partial dictionaries in
+   * serial order assigns the same indices as registering everything in this dictionary.
+   *
+   * @param other The dictionary to merge. (Must share the ID of this dictionary)
+   * @return The indices in this dictionary, by the indices in the other dictionary. (See {@link
+   *     #remap(Object, int[])})
+   */
+  int @NotNull [] merge(@NotNull JavaTypeDictionary other) {
+    // Sub-types register before the types using them, so their indices are always mapped first.
+    final int[] indices = new int[other.size];
+    for (int i = 0; i < other.size; i++) {
+      final int existing = keyTable.get(other.keys[i]);
+      if (existing != -1) {
+        indices[i] = existing;
+        continue;
+      }
+      // The other dictionary is left untouched. (E.G: Cached fragments are merged repeatedly)
+      indices[i] = append(other.keys[i], remap(copy(other.rendered[i]), indices));
+    }
+    return indices;
+  }
+
+  /**
+   * Replaces the references of a serialized value with the indices given by {@link
+   * #merge(JavaTypeDictionary)}. Maps & lists are modified in place. Only strings in type-reference
+   * positions are replaced. (See {@link #TYPE_KEYS})
+   *
+   * @param value The serialized value.
+   * @param indices The new indices, by the old indices.
+   * @return The value with its references replaced.
+   */
+  Object remap(Object value, int @NotNull [] indices) {
+    return remap(value, false, indices);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object remap(Object value, boolean typed, int @NotNull [] indices) {
+    if (value instanceof String string) {
+      if (!typed) return value;
+      final int index = toIndex(string);
+      if (index < 0 || index >= indices.length || indices[index] == index) return value;
+      return "$" + id + ":" + indices[index];
+    } else if (value instanceof Map<?, ?> map) {
+      for (Map.Entry<?, Object> entry : ((Map<?, Object>) map).entrySet()) {
+        final Object oValue = entry.getValue();
+        final Object remapped = remap(oValue, isTypeKey(entry.getKey()), indices);
+        if (remapped != oValue) entry.setValue(remapped);
+      }
+    } else if (value instanceof List<?> list) {
+      final ListIterator<Object> iterator = ((List<Object>) list).listIterator();
+      while (iterator.hasNext()) {
+        final Object oValue = iterator.next();
+        final Object remapped = remap(oValue, typed, indices);
+        if (remapped != oValue) iterator.set(remapped);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Counts the references of a serialized value. (See {@link #sortByUsage()})
+   *
+   * @param value The serialized value.
+   */
+  void countUsages(Object value) {
+    if (usages.length < size) {
+      usages = Arrays.copyOf(usages, size);
+    }
+    count(value, usages);
+  }
+
+  private void count(Object value, int @NotNull [] counts) {
+    forEachReference(
+        value,
+        index -> {
+          if (index < counts.length) counts[index]++;
+        });
+  }
+
+  /**
+   * @param value The serialized value.
+   * @param action The action to invoke with the index of each reference, in order. (Only strings in
+   *     type-reference positions are references. See {@link #TYPE_KEYS})
+   */
+  void forEachReference(Object value, @NotNull IntConsumer action) {
+    forEachReference(value, false, action);
+  }
 
-    final String fKey = type.compile(classReference, deCl);
-    if (mapReference.containsKey(fKey)) {
-      return "$" + id + ":" + mapReference.get(fKey);
+  private void forEachReference(Object value, boolean typed, @NotNull IntConsumer action) {
+    if (value instanceof String string) {
+      if (!typed) return;
+      final int index = toIndex(string);
+      if (index >= 0) action.accept(index);
+    } else if (value instanceof Map<?, ?> map) {
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        forEachReference(entry.getValue(), isTypeKey(entry.getKey()), action);
+      }
+    } else if (value instanceof List<?> list) {
+      for (Object oValue : list) forEachReference(oValue, typed, action);
     }
+  }
+
+  private static boolean isTypeKey(Object key) {
+    return key instanceof String string && TYPE_KEYS.contains(string);
+  }
+
+  /**
+   * Renumbers the types by usage, most used first. Usages are the references counted with {@link
+   * #countUsages(Object)} plus the references of types to each other. Types used equally keep the
+   * order they registered in, so the order is deterministic for a model.
+   *
+   * @return The new indices, by the old indices. (See {@link #remap(Object, int[])})
+   */
+  int @NotNull [] sortByUsage() {
+    final int[] counts = Arrays.copyOf(usages, size);
+    usages = new int[0];
+    for (int i = 0; i < size; i++) count(rendered[i], counts);
 
-    Object value = JavaLanguage.serializeType(serialize, type, classReference, deCl);
-    int iKey = mapRendered.size();
-    mapRendered.put(iKey, value);
-    mapReference.put(fKey, iKey);
-    return "$" + id + ":" + iKey;
+    final Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++) order[i] = i;
+    Arrays.sort(order, (a, b) -> counts[a] != counts[b] ? counts[b] - counts[a] : a - b);
+
+    final int[] indices = new int[size];
+    for (int i = 0; i < size; i++) indices[order[i]] = i;
+
+    final Object[] oldRendered = rendered;
+    final String[] oldKeys = keys;
+    final int oldSize = size;
+    rendered = new Object[oldRendered.length];
+    keys = new String[oldKeys.length];
+    references = new String[oldKeys.length];
+    size = 0;
+    keyTable.clear();
+    usageTable.clear();
+    for (int i = 0; i < oldSize; i++) {
+      final int old = order[i];
+      append(oldKeys[old], remap(oldRendered[old], indices));
+    }
+    return indices;
+  }
+
+  /**
+   * @return The index of a reference to this dictionary. (-1 if the string isn't a reference)
+   */
+  private int toIndex(@NotNull String string) {
+    final String prefix = "$" + id + ":";
+    if (!string.startsWith(prefix)) return -1;
+    try {
+      return Integer.parseInt(string, prefix.length(), string.length(), 10);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Copies the maps & lists of a serialized value, so it can be remapped without modifying the
+   * original. Maps keep their order.
+   *
+   * @param value The serialized value.
+   * @return The copied value.
+   */
+  static Object copy(Object value) {
+    if (value instanceof Map<?, ?> map) {
+      final Map<Object, Object> copy = new LinkedHashMap<>();
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        copy.put(entry.getKey(), copy(entry.getValue()));
+      }
+      return copy;
+    } else if (value instanceof List<?> list) {
+      final List<Object> copy = new ArrayList<>(list.size());
+      for (Object entry : list) copy.add(copy(entry));
+      return copy;
+    }
+    return value;
+  }
+
+  /**
+   * @return The compiled types registered, by index.
+   */
+  @NotNull
+  String[] getKeys() {
+    return Arrays.copyOf(keys, size);
+  }
+
+  /**
+   * @param index The index of the type.
+   * @return The rendered type.
+   */
+  Object getRendered(int index) {
+    return rendered[index];
+  }
+
+  /**
+   * Adds a type rendered by another dictionary of the same ID, at the next index.
+   *
+   * @param key The compiled type. (See {@link #getKeys()})
+   * @param rendered The rendered type.
+   */
+  void add(@NotNull String key, @NotNull Object rendered) {
+    append(key, rendered);
+  }
+
+  /**
+   * @return The amount of types registered.
+   */
+  public int size() {
+    return size;
   }
 
   @NotNull
   public Object render() {
     if (mode == TypeDictionaryMode.DICTIONARY) {
-      Map<String, Object> raw = new TreeMap<>();
-      List<Integer> keys = new ArrayList<>(mapRendered.keySet());
-      keys.sort(Integer::compare);
-      for (int key : keys) raw.put("" + key, mapRendered.get(key));
+      // Keys are ordered as strings. ("0", "1", "10", "11", ..., "2") Walking the indices as a
+      // decimal trie gives that order directly.
+      final Map<String, Object> raw = new LinkedHashMap<>();
+      if (size > 0) raw.put("0", rendered[0]);
+      for (int digit = 1; digit <= 9; digit++) renderDecimal(raw, digit);
       return raw;
     } else {
-      List<Object> raw = new ArrayList<>();
-      List<Integer> keys = new ArrayList<>(mapRendered.keySet());
-      keys.sort(Integer::compare);
-      for (int key : keys) raw.add(mapRendered.get(key));
-      return raw;
+      return new ArrayList<>(Arrays.asList(rendered).subList(0, size));
     }
   }
 
+  private void renderDecimal(@NotNull Map<String, Object> raw, int index) {
+    if (index >= size) return;
+    raw.put(Integer.toString(index), rendered[index]);
+    // Guard the overflow of the next decimal place.
+    if (index > (Integer.MAX_VALUE - 9) / 10) return;
+    for (int digit = 0; digit <= 9; digit++) renderDecimal(raw, index * 10 + digit);
+  }
+
   @NotNull
   public String getId() {
     return id;
@@ -72,8 +337,147 @@ public class JavaTypeDictionary {
   }
 
   public void clear() {
-    mapReference.clear();
-    mapRendered.clear();
+    Arrays.fill(rendered, 0, size, null);
+    Arrays.fill(keys, 0, size, null);
+    Arrays.fill(references, 0, size, null);
+    size = 0;
+    usages = new int[0];
+    keyTable.clear();
+    usageTable.clear();
   }
 
+  /** Open-addressing map of compiled types to indices. */
+  private static final class KeyTable {
+
+    private String[] keys = new String[128];
+    private int[] values = new int[128];
+    private int count = 0;
+
+    int get(@NotNull String key) {
+      final int mask = keys.length - 1;
+      for (int slot = mix(key.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+        final String existing = keys[slot];
+        if (existing == null) return -1;
+        if (existing.equals(key)) return values[slot];
+      }
+    }
+
+    void put(@NotNull String key, int value) {
+      if ((count + 1) * 2 > keys.length) grow();
+      final int mask = keys.length - 1;
+      int slot = mix(key.hashCode()) & mask;
+      while (keys[slot] != null) {
+        if (keys[slot].equals(key)) {
+          values[slot] = value;
+          return;
+        }
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = value;
+      count++;
+    }
+
+    private void grow() {
+      final String[] oldKeys = keys;
+      final int[] oldValues = values;
+      keys = new String[oldKeys.length * 2];
+      values = new int[oldKeys.length * 2];
+      count = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != null) put(oldKeys[i], oldValues[i]);
+      }
+    }
+
+    void clear() {
+      Arrays.fill(keys, null);
+      count = 0;
+    }
+  }
+
+  /**
+   * Open-addressing map of registrations to indices. A registration is the type, the class it is
+   * invoked from & its declaring class. Classes are compared by identity.
+   */
+  private static final class UsageTable {
+
+    private TypeReference[] types = new TypeReference[256];
+    private ClassReference[] references = new ClassReference[256];
+    private Class<?>[] deCls = new Class<?>[256];
+    private int[] values = new int[256];
+    private int count = 0;
+
+    int get(
+        @NotNull TypeReference type, @Nullable ClassReference reference, @Nullable Class<?> deCl) {
+      final int mask = types.length - 1;
+      for (int slot = hash(type, reference, deCl) & mask; ; slot = (slot + 1) & mask) {
+        final TypeReference existing = types[slot];
+        if (existing == null) return -1;
+        if (references[slot] == reference
+            && deCls[slot] == deCl
+            && (existing == type || existing.equals(type))) {
+          return values[slot];
+        }
+      }
+    }
+
+    void put(
+        @NotNull TypeReference type,
+        @Nullable ClassReference reference,
+        @Nullable Class<?> deCl,
+        int value) {
+      if ((count + 1) * 2 > types.length) grow();
+      final int mask = types.length - 1;
+      int slot = hash(type, reference, deCl) & mask;
+      while (types[slot] != null) {
+        if (references[slot] == reference && deCls[slot] == deCl && types[slot].equals(type)) {
+          values[slot] = value;
+          return;
+        }
+        slot = (slot + 1) & mask;
+      }
+      types[slot] = type;
+      references[slot] = reference;
+      deCls[slot] = deCl;
+      values[slot] = value;
+      count++;
+    }
+
+    private void grow() {
+      final TypeReference[] oldTypes = types;
+      final ClassReference[] oldReferences = references;
+      final Class<?>[] oldDeCls = deCls;
+      final int[] oldValues = values;
+      final int capacity = oldTypes.length * 2;
+      types = new TypeReference[capacity];
+      references = new ClassReference[capacity];
+      deCls = new Class<?>[capacity];
+      values = new int[capacity];
+      count = 0;
+      for (int i = 0; i < oldTypes.length; i++) {
+        if (oldTypes[i] != null) put(oldTypes[i], oldReferences[i], oldDeCls[i], oldValues[i]);
+      }
+    }
+
+    void clear() {
+      Arrays.fill(types, null);
+      Arrays.fill(references, null);
+      Arrays.fill(deCls, null);
+      count = 0;
+    }
+
+    private static int hash(
+        @NotNull TypeReference type, @Nullable ClassReference reference, @Nullable Class<?> deCl) {
+      int hash = type.hashCode();
+      hash = hash * 31 + System.identityHashCode(reference);
+      hash = hash * 31 + System.identityHashCode(deCl);
+      return mix(hash);
+    }
+  }
+
+  /** Spreads the high bits of a hash over the low bits used by the tables. */
+  private static int mix(int hash) {
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
 }
@@ -1,5 +1,6 @@
 package com.asledgehammer.rosetta.java;
 
+import com.asledgehammer.rosetta.RosettaObject;
 import com.asledgehammer.rosetta.java.reference.ClassReference;
 import com.asledgehammer.rosetta.java.reference.TypeReference;
 import java.util.HashMap;
@@ -7,7 +8,7 @@ import java.util.Map;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-public class JavaTypeParameter {
+public class JavaTypeParameter extends RosettaObject {
 
   private TypeReference type;
   private String notes;
@@ -22,6 +23,7 @@ public class JavaTypeParameter {
 
   public void setType(TypeReference type) {
     this.type = type;
+    onModified();
   }
 
   public boolean hasNotes() {
@@ -36,13 +38,23 @@ public class JavaTypeParameter {
 
   public void setNotes(@Nullable String notes) {
     this.notes = notes;
+    onModified();
+  }
+
+  /** Hashes the content of the type parameter. (See {@link JavaClass#digest}) */
+  void digest(
+      @NotNull JavaFragmentCache.Digest digest,
+      @Nullable ClassReference reference,
+      @Nullable Class<?> deCl) {
+    digest.add(type, reference, deCl);
+    digest.add(notes);
   }
 
   @NotNull
   public Map<String, Object> onSave(
       @NotNull JavaSerializeInstance serialize,
-      @NotNull ClassReference reference,
-      @NotNull Class<?> deCl) {
+      @Nullable ClassReference reference,
+      @Nullable Class<?> deCl) {
 
     Map<String, Object> raw = new HashMap<>();
 
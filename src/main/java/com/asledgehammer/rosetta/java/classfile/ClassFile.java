@@ -0,0 +1,147 @@
+package com.asledgehammer.rosetta.java.classfile;
+
+import com.asledgehammer.rosetta.NamedEntity;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * ClassFile stores the declaration of a class read directly from its class-file bytes. No class is
+ * loaded or initialized to create one. (See {@link ClassFileReader})
+ */
+public class ClassFile implements NamedEntity {
+
+  /** The access flag for interfaces. (Not exposed by {@link Modifier} as a public constant) */
+  private static final int ACC_INTERFACE = 0x0200;
+
+  private final int accessFlags;
+  private final String name;
+  private final String simpleName;
+  @Nullable private final String superName;
+  private final List<String> interfaceNames;
+  @Nullable private final String signature;
+  @Nullable private final String enclosingClassName;
+  private final boolean local;
+  private final List<ClassFileField> fields;
+  private final List<ClassFileMethod> methods;
+
+  ClassFile(
+      int accessFlags,
+      @NotNull String name,
+      @NotNull String simpleName,
+      @Nullable String superName,
+      @NotNull List<String> interfaceNames,
+      @Nullable String signature,
+      @Nullable String enclosingClassName,
+      boolean local,
+      @NotNull List<ClassFileField> fields,
+      @NotNull List<ClassFileMethod> methods) {
+    this.accessFlags = accessFlags;
+    this.name = name;
+    this.simpleName = simpleName;
+    this.superName = superName;
+    this.interfaceNames = interfaceNames;
+    this.signature = signature;
+    this.enclosingClassName = enclosingClassName;
+    this.local = local;
+    this.fields = fields;
+    this.methods = methods;
+  }
+
+  /**
+   * @return The access flags of the class. For nested classes, these are the flags declared in the
+   *     source. (Matches {@link Class#getModifiers()})
+   */
+  public int getAccessFlags() {
+    return accessFlags;
+  }
+
+  /**
+   * @return The binary name of the class. E.G: <code>java.util.Map$Entry</code>
+   */
+  @NotNull
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return The simple name of the class. (Empty for anonymous classes. Matches {@link
+   *     Class#getSimpleName()})
+   */
+  @NotNull
+  public String getSimpleName() {
+    return simpleName;
+  }
+
+  /**
+   * @return The package path of the class. (Empty for the unnamed package)
+   */
+  @NotNull
+  public String getPackageName() {
+    final int index = name.lastIndexOf('.');
+    return index == -1 ? "" : name.substring(0, index);
+  }
+
+  /**
+   * @return The binary name of the super-class. (Null for {@link Object} and interfaces)
+   */
+  @Nullable
+  public String getSuperName() {
+    return superName;
+  }
+
+  /**
+   * @return The binary names of the super-interfaces.
+   */
+  @NotNull
+  public List<String> getInterfaceNames() {
+    return interfaceNames;
+  }
+
+  /**
+   * @return The generic signature of the class. (If defined)
+   */
+  @Nullable
+  public String getSignature() {
+    return signature;
+  }
+
+  /**
+   * @return The binary name of the enclosing class. (If the class is nested, local or anonymous)
+   */
+  @Nullable
+  public String getEnclosingClassName() {
+    return enclosingClassName;
+  }
+
+  /**
+   * @return True if the class is declared inside a method or is anonymous.
+   */
+  public boolean isLocal() {
+    return local;
+  }
+
+  @NotNull
+  public List<ClassFileField> getFields() {
+    return fields;
+  }
+
+  /**
+   * @return All declared methods, including constructors and static initializers.
+   */
+  @NotNull
+  public List<ClassFileMethod> getMethods() {
+    return methods;
+  }
+
+  public boolean isInterface() {
+    return (accessFlags & ACC_INTERFACE) != 0;
+  }
+
+  @Override
+  public String toString() {
+    return "ClassFile \"" + name + "\"";
+  }
+}
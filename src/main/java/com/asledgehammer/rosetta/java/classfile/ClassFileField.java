@@ -0,0 +1,59 @@
+package com.asledgehammer.rosetta.java.classfile;
+
+import com.asledgehammer.rosetta.NamedEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/** ClassFileField stores the declaration of a field read from a class-file. */
+public class ClassFileField implements NamedEntity {
+
+  private final int accessFlags;
+  private final String name;
+  private final String descriptor;
+  @Nullable private final String signature;
+
+  ClassFileField(
+      int accessFlags,
+      @NotNull String name,
+      @NotNull String descriptor,
+      @Nullable String signature) {
+    this.accessFlags = accessFlags;
+    this.name = name;
+    this.descriptor = descriptor;
+    this.signature = signature;
+  }
+
+  /**
+   * @return The access flags of the field. (Compatible with {@link java.lang.reflect.Modifier})
+   */
+  public int getAccessFlags() {
+    return accessFlags;
+  }
+
+  @NotNull
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return The erased type descriptor of the field. E.G: <code>Ljava/util/List;</code>
+   */
+  @NotNull
+  public String getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * @return The generic signature of the field. (If defined)
+   */
+  @Nullable
+  public String getSignature() {
+    return signature;
+  }
+
+  @Override
+  public String toString() {
+    return "ClassFileField \"" + name + "\"";
+  }
+}
@@ -0,0 +1,278 @@
+package com.asledgehammer.rosetta.java.classfile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * ClassFileLibrary indexes the class-files of jars and directories by their binary names. The
+ * class-files are only read and parsed when requested and are never loaded as classes.
+ *
+ * <p>If the same class is found more than once, the first one added is used. (Like a classpath)
+ */
+public class ClassFileLibrary implements Closeable {
+
+  /** The default amount of parsed class-files kept by {@link #get(String)}. */
+  public static final int DEFAULT_CACHE_SIZE = 1024;
+
+  private final Map<String, ClassSource> sources = new TreeMap<>();
+  private final Map<String, ClassFile> classFiles;
+  private final List<Closeable> closeables = new ArrayList<>();
+
+  public ClassFileLibrary() {
+    this(DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * @param cacheSize The amount of parsed class-files to keep. The least recently requested
+   *     class-files are evicted past it, and parsed again if requested again.
+   * @throws IllegalArgumentException If the cache size is less than 1.
+   */
+  public ClassFileLibrary(int cacheSize) {
+    if (cacheSize < 1) {
+      throw new IllegalArgumentException(
+          "The cache size must be at least 1. (Given: " + cacheSize + ")");
+    }
+    this.classFiles =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, ClassFile> eldest) {
+            return size() > cacheSize;
+          }
+        };
+  }
+
+  /**
+   * Indexes every class-file in a jar.
+   *
+   * @param path The path to the jar.
+   * @throws IOException If the jar fails to open.
+   */
+  public void addJar(@NotNull Path path) throws IOException {
+    addJar(path, new JarScanSettings());
+  }
+
+  /**
+   * Indexes the class-files in a jar that pass the package rules. Only the central directory of the
+   * jar is read here. (See {@link JarScanner})
+   *
+   * @param path The path to the jar.
+   * @param settings The package rules to apply.
+   * @throws IOException If the jar fails to open.
+   */
+  public void addJar(@NotNull Path path, @NotNull JarScanSettings settings) throws IOException {
+    final JarScanner scanner = new JarScanner(path);
+    closeables.add(scanner);
+    for (JarScanner.Entry entry : scanner.getEntries(settings)) {
+      sources.putIfAbsent(entry.getClassName(), () -> scanner.read(entry));
+    }
+  }
+
+  /**
+   * Indexes every class-file in a directory and its sub-directories.
+   *
+   * @param path The root of the directory. (The unnamed package)
+   * @throws IOException If the directory fails to walk.
+   */
+  public void addDirectory(@NotNull Path path) throws IOException {
+    final List<Path> files;
+    try (Stream<Path> stream = Files.walk(path)) {
+      files = stream.filter(Files::isRegularFile).toList();
+    }
+    for (Path file : files) {
+      final String name = toClassName(path.relativize(file).toString().replace('\\', '/'));
+      if (name == null) continue;
+      sources.putIfAbsent(name, () -> Files.readAllBytes(file));
+    }
+  }
+
+  /**
+   * Adds an already-read class-file.
+   *
+   * @param bytes The class-file bytes.
+   * @return The parsed class-file.
+   */
+  @NotNull
+  public ClassFile addClass(byte @NotNull [] bytes) {
+    final ClassFile classFile = ClassFileReader.read(bytes);
+    if (!sources.containsKey(classFile.getName())) {
+      sources.put(classFile.getName(), () -> bytes);
+      classFiles.put(classFile.getName(), classFile);
+    }
+    return classFile;
+  }
+
+  /**
+   * @return The binary names of all classes indexed, in alphanumeric order.
+   */
+  @NotNull
+  public Set<String> getClassNames() {
+    return Collections.unmodifiableSet(sources.keySet());
+  }
+
+  /**
+   * @param name The binary name of the class. E.G: <code>java.util.Map$Entry</code>
+   * @return True if the class is indexed.
+   */
+  public boolean contains(@NotNull String name) {
+    return sources.containsKey(name);
+  }
+
+  /**
+   * Returns a parsed class-file, parsing it on first request. Only the most recently requested
+   * class-files are kept. (See {@link #ClassFileLibrary(int)})
+   *
+   * @param name The binary name of the class. E.G: <code>java.util.Map$Entry</code>
+   * @return The parsed class-file. (If indexed)
+   * @throws UncheckedIOException If the class-file fails to read.
+   * @throws com.asledgehammer.rosetta.exception.ClassFileFormatException If the class-file is
+   *     malformed.
+   */
+  @Nullable
+  public ClassFile get(@NotNull String name) {
+    ClassFile classFile = classFiles.get(name);
+    if (classFile != null) return classFile;
+
+    final ClassSource source = sources.get(name);
+    if (source == null) return null;
+
+    classFile = read(name, source);
+    classFiles.put(name, classFile);
+    return classFile;
+  }
+
+  /**
+   * Reads and parses every indexed class-file, handing them over in batches. (In alphanumeric
+   * order)
+   *
+   * @param batchSize The amount of class-files in each batch.
+   * @param consumer The consumer of each batch.
+   * @throws UncheckedIOException If a class-file fails to read.
+   */
+  public void forEachBatch(int batchSize, @NotNull Consumer<List<ClassFile>> consumer) {
+    forEachBatch(batchSize, null, consumer);
+  }
+
+  /**
+   * Reads and parses every indexed class-file, handing them over in batches. (In alphanumeric
+   * order)
+   *
+   * <p>The class-files handed over aren't kept by the library, so only the batches in flight are
+   * held in memory. With an executor, the batches that follow are read & parsed on it while the
+   * consumer works. The consumer is always invoked on the calling thread, one batch at a time.
+   *
+   * @param batchSize The amount of class-files in each batch.
+   * @param executor The executor to read & parse batches on. (If null, they are read on the calling
+   *     thread)
+   * @param consumer The consumer of each batch.
+   * @throws UncheckedIOException If a class-file fails to read.
+   */
+  public void forEachBatch(
+      int batchSize, @Nullable Executor executor, @NotNull Consumer<List<ClassFile>> consumer) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException(
+          "The batch size must be at least 1. (Given: " + batchSize + ")");
+    }
+    final List<Map.Entry<String, ClassSource>> entries = new ArrayList<>(sources.entrySet());
+
+    if (executor == null) {
+      for (int from = 0; from < entries.size(); from += batchSize) {
+        consumer.accept(readBatch(entries, from, Math.min(entries.size(), from + batchSize)));
+      }
+      return;
+    }
+
+    // Bound the batches read ahead so that a large library is never held in memory at once.
+    final int window = Math.max(2, Runtime.getRuntime().availableProcessors());
+    final Deque<CompletableFuture<List<ClassFile>>> pending = new ArrayDeque<>();
+    int next = 0;
+    try {
+      while (next < entries.size() || !pending.isEmpty()) {
+        while (next < entries.size() && pending.size() < window) {
+          final int from = next;
+          final int to = Math.min(entries.size(), from + batchSize);
+          pending.add(CompletableFuture.supplyAsync(() -> readBatch(entries, from, to), executor));
+          next = to;
+        }
+        final List<ClassFile> batch;
+        try {
+          batch = pending.removeFirst().join();
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof RuntimeException cause) throw cause;
+          if (e.getCause() instanceof Error cause) throw cause;
+          throw e;
+        }
+        consumer.accept(batch);
+      }
+    } finally {
+      for (CompletableFuture<List<ClassFile>> future : pending) {
+        future.cancel(false);
+      }
+    }
+  }
+
+  @NotNull
+  private static List<ClassFile> readBatch(
+      @NotNull List<Map.Entry<String, ClassSource>> entries, int from, int to) {
+    final List<ClassFile> batch = new ArrayList<>(to - from);
+    for (Map.Entry<String, ClassSource> entry : entries.subList(from, to)) {
+      batch.add(read(entry.getKey(), entry.getValue()));
+    }
+    return batch;
+  }
+
+  @NotNull
+  private static ClassFile read(@NotNull String name, @NotNull ClassSource source) {
+    try {
+      return ClassFileReader.read(source.read());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read class-file: " + name, e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException exception = null;
+    for (Closeable closeable : closeables) {
+      try {
+        closeable.close();
+      } catch (IOException e) {
+        if (exception == null) exception = e;
+        else exception.addSuppressed(e);
+      }
+    }
+    closeables.clear();
+    if (exception != null) throw exception;
+  }
+
+  /**
+   * @param entryName The path of a file relative to its jar or directory.
+   * @return The binary name of the class. (Null if the file isn't a documentable class-file)
+   */
+  @Nullable
+  static String toClassName(@NotNull String entryName) {
+    // Multi-release & module descriptors aren't part of the class hierarchy.
+    if (entryName.startsWith("META-INF/")) return null;
+    final String name = ClassFileReader.fromEntryName(entryName);
+    if (name == null || name.endsWith("module-info") || name.endsWith("package-info")) {
+      return null;
+    }
+    return name;
+  }
+
+  /** Reads the bytes of an indexed class-file on demand. */
+  @FunctionalInterface
+  private interface ClassSource {
+    byte[] read() throws IOException;
+  }
+}
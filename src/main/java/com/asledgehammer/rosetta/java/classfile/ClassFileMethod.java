@@ -0,0 +1,106 @@
+package com.asledgehammer.rosetta.java.classfile;
+
+import com.asledgehammer.rosetta.NamedEntity;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/** ClassFileMethod stores the declaration of a method or constructor read from a class-file. */
+public class ClassFileMethod implements NamedEntity {
+
+  private static final int ACC_SYNTHETIC = 0x1000;
+  private static final int ACC_MANDATED = 0x8000;
+
+  private final int accessFlags;
+  private final String name;
+  private final String descriptor;
+  @Nullable private final String signature;
+  @Nullable private final List<String> parameterNames;
+  private final int @Nullable [] parameterAccessFlags;
+
+  ClassFileMethod(
+      int accessFlags,
+      @NotNull String name,
+      @NotNull String descriptor,
+      @Nullable String signature,
+      @Nullable List<String> parameterNames,
+      int @Nullable [] parameterAccessFlags) {
+    this.accessFlags = accessFlags;
+    this.name = name;
+    this.descriptor = descriptor;
+    this.signature = signature;
+    this.parameterNames = parameterNames;
+    this.parameterAccessFlags = parameterAccessFlags;
+  }
+
+  /**
+   * @return The access flags of the method. (Compatible with {@link java.lang.reflect.Modifier})
+   */
+  public int getAccessFlags() {
+    return accessFlags;
+  }
+
+  /**
+   * @return The name of the method. Constructors are named <code>&lt;init&gt;</code>.
+   */
+  @NotNull
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return The erased descriptor of the method. E.G: <code>(ILjava/lang/String;)V</code>
+   */
+  @NotNull
+  public String getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * @return The generic signature of the method. (If defined)
+   */
+  @Nullable
+  public String getSignature() {
+    return signature;
+  }
+
+  /**
+   * @return The formal names of the parameters. (Only defined if the class is compiled with the
+   *     <code>-parameters</code> flag)
+   */
+  @Nullable
+  public List<String> getParameterNames() {
+    return parameterNames;
+  }
+
+  /**
+   * @param index The index of the parameter.
+   * @return True if the parameter is synthetic or mandated, and is therefore absent from the
+   *     generic signature. (E.G: The outer instance of an inner class's constructor)
+   */
+  public boolean isParameterImplicit(int index) {
+    if (parameterAccessFlags == null || index >= parameterAccessFlags.length) return false;
+    return (parameterAccessFlags[index] & (ACC_SYNTHETIC | ACC_MANDATED)) != 0;
+  }
+
+  /**
+   * @return True if the parameters are described by a <code>MethodParameters</code> attribute.
+   */
+  public boolean hasParameterData() {
+    return parameterAccessFlags != null;
+  }
+
+  public boolean isConstructor() {
+    return name.equals("<init>");
+  }
+
+  public boolean isStaticInitializer() {
+    return name.equals("<clinit>");
+  }
+
+  @Override
+  public String toString() {
+    return "ClassFileMethod \"" + name + descriptor + "\"";
+  }
+}
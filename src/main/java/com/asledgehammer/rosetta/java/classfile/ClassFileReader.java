@@ -0,0 +1,360 @@
+package com.asledgehammer.rosetta.java.classfile;
+
+import com.asledgehammer.rosetta.exception.ClassFileFormatException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * ClassFileReader parses the declarations of a class directly from its class-file bytes. Only the
+ * constant-pool and the attributes needed for documentation are read. (<code>Signature</code>,
+ * <code>InnerClasses</code>, <code>EnclosingMethod</code> and <code>MethodParameters</code>)
+ */
+public final class ClassFileReader {
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_FLOAT = 4;
+  private static final int CONSTANT_LONG = 5;
+  private static final int CONSTANT_DOUBLE = 6;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_STRING = 8;
+  private static final int CONSTANT_FIELD_REF = 9;
+  private static final int CONSTANT_METHOD_REF = 10;
+  private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+  private static final int CONSTANT_METHOD_HANDLE = 15;
+  private static final int CONSTANT_METHOD_TYPE = 16;
+  private static final int CONSTANT_DYNAMIC = 17;
+  private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+  private static final int CONSTANT_MODULE = 19;
+  private static final int CONSTANT_PACKAGE = 20;
+
+  private final byte[] bytes;
+  private int position;
+
+  /** The byte offsets of each constant-pool entry. (Past the tag byte) */
+  private int[] offsets;
+
+  /** Decoded UTF-8 constants. (Decoded lazily) */
+  private String[] strings;
+
+  private ClassFileReader(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  /**
+   * @param stream The stream transmitting the class-file bytes.
+   * @return The parsed class-file.
+   * @throws IOException If the stream fails to read.
+   * @throws ClassFileFormatException If the class-file is malformed.
+   */
+  @NotNull
+  public static ClassFile read(@NotNull InputStream stream) throws IOException {
+    return read(stream.readAllBytes());
+  }
+
+  /**
+   * @param bytes The class-file bytes.
+   * @return The parsed class-file.
+   * @throws ClassFileFormatException If the class-file is malformed.
+   */
+  @NotNull
+  public static ClassFile read(byte @NotNull [] bytes) {
+    try {
+      return new ClassFileReader(bytes).readClassFile();
+    } catch (IndexOutOfBoundsException e) {
+      throw new ClassFileFormatException("Truncated class-file.", e);
+    }
+  }
+
+  @NotNull
+  private ClassFile readClassFile() {
+
+    if (readInt() != MAGIC) {
+      throw new ClassFileFormatException("Not a class-file. (Bad magic number)");
+    }
+
+    // Skip minor & major versions.
+    position += 4;
+
+    readConstantPool();
+
+    int accessFlags = readUnsignedShort();
+    final String name = toBinaryName(readClassName(readUnsignedShort()));
+    final int superIndex = readUnsignedShort();
+    final String superName = superIndex != 0 ? toBinaryName(readClassName(superIndex)) : null;
+
+    final int interfaceCount = readUnsignedShort();
+    final List<String> interfaceNames = new ArrayList<>(interfaceCount);
+    for (int i = 0; i < interfaceCount; i++) {
+      interfaceNames.add(toBinaryName(readClassName(readUnsignedShort())));
+    }
+
+    final int fieldCount = readUnsignedShort();
+    final List<ClassFileField> fields = new ArrayList<>(fieldCount);
+    for (int i = 0; i < fieldCount; i++) {
+      fields.add(readField());
+    }
+
+    final int methodCount = readUnsignedShort();
+    final List<ClassFileMethod> methods = new ArrayList<>(methodCount);
+    for (int i = 0; i < methodCount; i++) {
+      methods.add(readMethod());
+    }
+
+    String signature = null;
+    String enclosingClassName = null;
+    String simpleName = null;
+    boolean local = false;
+
+    final int attributeCount = readUnsignedShort();
+    for (int i = 0; i < attributeCount; i++) {
+      final String attributeName = readUtf8(readUnsignedShort());
+      final int length = readInt();
+      final int end = position + length;
+      switch (attributeName) {
+        case "Signature" -> signature = readUtf8(readUnsignedShort());
+        case "EnclosingMethod" -> {
+          // Local & anonymous classes.
+          if (enclosingClassName == null) {
+            enclosingClassName = toBinaryName(readClassName(readUnsignedShort()));
+          }
+        }
+        case "InnerClasses" -> {
+          final int classCount = readUnsignedShort();
+          for (int j = 0; j < classCount; j++) {
+            final int innerIndex = readUnsignedShort();
+            final int outerIndex = readUnsignedShort();
+            final int innerNameIndex = readUnsignedShort();
+            final int innerAccessFlags = readUnsignedShort();
+            if (innerIndex == 0 || !toBinaryName(readClassName(innerIndex)).equals(name)) {
+              continue;
+            }
+            // The entry describing this class. The source-level flags replace the class-file's.
+            accessFlags = innerAccessFlags;
+            simpleName = innerNameIndex != 0 ? readUtf8(innerNameIndex) : "";
+            if (outerIndex != 0) {
+              enclosingClassName = toBinaryName(readClassName(outerIndex));
+            } else {
+              // Local & anonymous classes have no declaring class.
+              local = true;
+            }
+          }
+        }
+        default -> {}
+      }
+      position = end;
+    }
+
+    if (simpleName == null) {
+      simpleName = name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    return new ClassFile(
+        accessFlags,
+        name,
+        simpleName,
+        superName,
+        Collections.unmodifiableList(interfaceNames),
+        signature,
+        enclosingClassName,
+        local,
+        Collections.unmodifiableList(fields),
+        Collections.unmodifiableList(methods));
+  }
+
+  private void readConstantPool() {
+    final int count = readUnsignedShort();
+    this.offsets = new int[count];
+    this.strings = new String[count];
+    for (int index = 1; index < count; index++) {
+      final int tag = bytes[position++] & 0xFF;
+      offsets[index] = position;
+      switch (tag) {
+        case CONSTANT_UTF8 -> position += 2 + readUnsignedShort(position);
+        case CONSTANT_CLASS,
+                CONSTANT_STRING,
+                CONSTANT_METHOD_TYPE,
+                CONSTANT_MODULE,
+                CONSTANT_PACKAGE ->
+            position += 2;
+        case CONSTANT_METHOD_HANDLE -> position += 3;
+        case CONSTANT_INTEGER,
+                CONSTANT_FLOAT,
+                CONSTANT_FIELD_REF,
+                CONSTANT_METHOD_REF,
+                CONSTANT_INTERFACE_METHOD_REF,
+                CONSTANT_NAME_AND_TYPE,
+                CONSTANT_DYNAMIC,
+                CONSTANT_INVOKE_DYNAMIC ->
+            position += 4;
+        case CONSTANT_LONG, CONSTANT_DOUBLE -> {
+          // 8-byte constants take up two entries in the pool.
+          position += 8;
+          index++;
+        }
+        default ->
+            throw new ClassFileFormatException(
+                "Unknown constant-pool tag: " + tag + " (index: " + index + ")");
+      }
+    }
+  }
+
+  @NotNull
+  private ClassFileField readField() {
+    final int accessFlags = readUnsignedShort();
+    final String name = readUtf8(readUnsignedShort());
+    final String descriptor = readUtf8(readUnsignedShort());
+    String signature = null;
+    final int attributeCount = readUnsignedShort();
+    for (int i = 0; i < attributeCount; i++) {
+      final String attributeName = readUtf8(readUnsignedShort());
+      final int length = readInt();
+      final int end = position + length;
+      if (attributeName.equals("Signature")) {
+        signature = readUtf8(readUnsignedShort());
+      }
+      position = end;
+    }
+    return new ClassFileField(accessFlags, name, descriptor, signature);
+  }
+
+  @NotNull
+  private ClassFileMethod readMethod() {
+    final int accessFlags = readUnsignedShort();
+    final String name = readUtf8(readUnsignedShort());
+    final String descriptor = readUtf8(readUnsignedShort());
+    String signature = null;
+    List<String> parameterNames = null;
+    int[] parameterAccessFlags = null;
+    final int attributeCount = readUnsignedShort();
+    for (int i = 0; i < attributeCount; i++) {
+      final String attributeName = readUtf8(readUnsignedShort());
+      final int length = readInt();
+      final int end = position + length;
+      if (attributeName.equals("Signature")) {
+        signature = readUtf8(readUnsignedShort());
+      } else if (attributeName.equals("MethodParameters")) {
+        final int parameterCount = bytes[position++] & 0xFF;
+        final List<String> names = new ArrayList<>(parameterCount);
+        parameterAccessFlags = new int[parameterCount];
+        for (int j = 0; j < parameterCount; j++) {
+          final int nameIndex = readUnsignedShort();
+          parameterAccessFlags[j] = readUnsignedShort();
+          names.add(nameIndex != 0 ? readUtf8(nameIndex) : "arg" + j);
+        }
+        parameterNames = Collections.unmodifiableList(names);
+      }
+      position = end;
+    }
+    return new ClassFileMethod(
+        accessFlags, name, descriptor, signature, parameterNames, parameterAccessFlags);
+  }
+
+  @NotNull
+  private String readClassName(int index) {
+    checkConstant(index, CONSTANT_CLASS);
+    return readUtf8(readUnsignedShort(offsets[index]));
+  }
+
+  @NotNull
+  private String readUtf8(int index) {
+    checkConstant(index, CONSTANT_UTF8);
+    String string = strings[index];
+    if (string == null) {
+      string = decodeUtf8(offsets[index]);
+      strings[index] = string;
+    }
+    return string;
+  }
+
+  private void checkConstant(int index, int tag) {
+    if (index <= 0 || index >= offsets.length || offsets[index] == 0) {
+      throw new ClassFileFormatException("Invalid constant-pool index: " + index);
+    }
+    final int actual = bytes[offsets[index] - 1] & 0xFF;
+    if (actual != tag) {
+      throw new ClassFileFormatException(
+          "Constant-pool entry " + index + " has tag " + actual + ". (Expected: " + tag + ")");
+    }
+  }
+
+  /** Decodes the modified UTF-8 encoding used by class-files. */
+  @NotNull
+  private String decodeUtf8(int offset) {
+    final int length = readUnsignedShort(offset);
+    final int start = offset + 2;
+    final int end = start + length;
+    final char[] chars = new char[length];
+    int count = 0;
+    int index = start;
+    while (index < end) {
+      final int b = bytes[index++] & 0xFF;
+      if (b < 0x80) {
+        chars[count++] = (char) b;
+      } else if ((b & 0xE0) == 0xC0) {
+        chars[count++] = (char) (((b & 0x1F) << 6) | (bytes[index++] & 0x3F));
+      } else {
+        final int b2 = bytes[index++] & 0x3F;
+        final int b3 = bytes[index++] & 0x3F;
+        chars[count++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+      }
+    }
+    return new String(chars, 0, count);
+  }
+
+  private int readUnsignedShort() {
+    final int value = readUnsignedShort(position);
+    position += 2;
+    return value;
+  }
+
+  private int readUnsignedShort(int offset) {
+    return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+  }
+
+  private int readInt() {
+    final int value =
+        ((bytes[position] & 0xFF) << 24)
+            | ((bytes[position + 1] & 0xFF) << 16)
+            | ((bytes[position + 2] & 0xFF) << 8)
+            | (bytes[position + 3] & 0xFF);
+    position += 4;
+    return value;
+  }
+
+  /**
+   * @param internalName The internal name of a class. E.G: <code>java/util/Map$Entry</code>
+   * @return The binary name of the class. E.G: <code>java.util.Map$Entry</code>
+   */
+  @NotNull
+  public static String toBinaryName(@NotNull String internalName) {
+    return internalName.replace('/', '.');
+  }
+
+  /**
+   * @param binaryName The binary name of a class. E.G: <code>java.util.Map$Entry</code>
+   * @return The class-file's entry path. E.G: <code>java/util/Map$Entry.class</code>
+   */
+  @NotNull
+  public static String toEntryName(@NotNull String binaryName) {
+    return binaryName.replace('.', '/') + ".class";
+  }
+
+  /**
+   * @param entryName The class-file's entry path. E.G: <code>java/util/Map$Entry.class</code>
+   * @return The binary name of the class. E.G: <code>java.util.Map$Entry</code>
+   */
+  @Nullable
+  public static String fromEntryName(@NotNull String entryName) {
+    if (!entryName.endsWith(".class")) return null;
+    return toBinaryName(entryName.substring(0, entryName.length() - ".class".length()));
+  }
+}
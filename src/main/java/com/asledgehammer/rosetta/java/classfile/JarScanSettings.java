@@ -0,0 +1,137 @@
+package com.asledgehammer.rosetta.java.classfile;
+
+import com.asledgehammer.rosetta.exception.ReadOnlyException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * JarScanSettings selects the classes scanned from jars. Package rules are applied to the names in
+ * the central directory, before any class-file bytes are read.
+ *
+ * <p>Packages include their sub-packages. Excluded packages take priority over included ones. If no
+ * packages are included, every package not excluded is scanned.
+ */
+public class JarScanSettings {
+
+  private final List<String> includes = new ArrayList<>();
+  private final List<String> excludes = new ArrayList<>();
+  private int batchSize = 256;
+  @Nullable private Executor executor = null;
+  private boolean readOnly = false;
+
+  public JarScanSettings() {}
+
+  /**
+   * @param path The path of the package to include. E.G: <code>java.util</code>
+   */
+  @NotNull
+  public JarScanSettings include(@NotNull String path) {
+    checkReadOnlyStatus();
+    this.includes.add(path);
+    return this;
+  }
+
+  /**
+   * @param path The path of the package to exclude. E.G: <code>java.util.concurrent</code>
+   */
+  @NotNull
+  public JarScanSettings exclude(@NotNull String path) {
+    checkReadOnlyStatus();
+    this.excludes.add(path);
+    return this;
+  }
+
+  /**
+   * @param batchSize The amount of class-files parsed before they are handed to discovery.
+   * @throws IllegalArgumentException If the batch size is less than 1.
+   */
+  @NotNull
+  public JarScanSettings setBatchSize(int batchSize) {
+    checkReadOnlyStatus();
+    if (batchSize < 1) {
+      throw new IllegalArgumentException(
+          "The batch size must be at least 1. (Given: " + batchSize + ")");
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * Reads & parses the batches that follow on the executor while a batch is discovered. Discovery
+   * itself stays on the calling thread, so the classes discovered are identical to scanning
+   * serially.
+   *
+   * @param executor The executor to read & parse batches. (Null to read serially)
+   */
+  @NotNull
+  public JarScanSettings setExecutor(@Nullable Executor executor) {
+    checkReadOnlyStatus();
+    this.executor = executor;
+    return this;
+  }
+
+  @NotNull
+  public JarScanSettings build() {
+    checkReadOnlyStatus();
+    this.readOnly = true;
+    return this;
+  }
+
+  private void checkReadOnlyStatus() {
+    if (readOnly) {
+      throw new ReadOnlyException("The JarScanSettings is already built.");
+    }
+  }
+
+  /**
+   * @param className The binary name of the class. E.G: <code>java.util.Map$Entry</code>
+   * @return True if the class passes the package rules.
+   */
+  public boolean accepts(@NotNull String className) {
+    for (String exclude : excludes) {
+      if (isInPackage(className, exclude)) return false;
+    }
+    if (includes.isEmpty()) return true;
+    for (String include : includes) {
+      if (isInPackage(className, include)) return true;
+    }
+    return false;
+  }
+
+  private static boolean isInPackage(@NotNull String className, @NotNull String path) {
+    if (path.isEmpty()) return true;
+    return className.length() > path.length()
+        && className.charAt(path.length()) == '.'
+        && className.startsWith(path);
+  }
+
+  @NotNull
+  public List<String> getIncludes() {
+    return Collections.unmodifiableList(includes);
+  }
+
+  @NotNull
+  public List<String> getExcludes() {
+    return Collections.unmodifiableList(excludes);
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * @return The executor to read & parse batches. (Null if read serially)
+   */
+  @Nullable
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+}
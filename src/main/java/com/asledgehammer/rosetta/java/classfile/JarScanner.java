@@ -0,0 +1,282 @@
+package com.asledgehammer.rosetta.java.classfile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * JarScanner lists and reads the class-files of a jar by walking its zip central directory. Entries
+ * are filtered by name before any of their bytes are read, and only the class-files requested are
+ * read & inflated. The jar is read with positional reads, so nothing outlives {@link #close()}.
+ *
+ * <p>NOTE: ZIP64 archives are not supported.
+ */
+public class JarScanner implements Closeable {
+
+  private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+  private static final int CENTRAL_DIRECTORY_HEADER = 0x02014b50;
+  private static final int LOCAL_FILE_HEADER = 0x04034b50;
+
+  private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+  private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+  private static final int LOCAL_FILE_HEADER_SIZE = 30;
+  private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+  private static final int METHOD_STORED = 0;
+  private static final int METHOD_DEFLATED = 8;
+
+  private static final byte[] CLASS_SUFFIX = ".class".getBytes(StandardCharsets.US_ASCII);
+
+  private final Path path;
+  private final FileChannel channel;
+  private final List<Entry> entries;
+
+  /**
+   * @param path The path to the jar.
+   * @throws IOException If the jar fails to open.
+   * @throws ZipException If the jar is malformed or unsupported.
+   */
+  public JarScanner(@NotNull Path path) throws IOException {
+    this.path = path;
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      this.entries = readCentralDirectory();
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  @NotNull
+  private List<Entry> readCentralDirectory() throws IOException {
+    final long size = channel.size();
+    final int tailLength = (int) Math.min(size, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_LENGTH);
+    final ByteBuffer tail = read(size - tailLength, tailLength);
+    final int end = findEndOfCentralDirectory(tail);
+    final int count = Short.toUnsignedInt(tail.getShort(end + 10));
+    final long directorySize = Integer.toUnsignedLong(tail.getInt(end + 12));
+    final long directoryOffset = Integer.toUnsignedLong(tail.getInt(end + 16));
+    if (count == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+      throw new ZipException("ZIP64 jars are not supported: " + path);
+    }
+    if (directoryOffset + directorySize > size - tailLength + end) {
+      throw new ZipException("Invalid central directory offset: " + path);
+    }
+
+    // (Only the central directory is held while it is walked)
+    final ByteBuffer buffer = read(directoryOffset, (int) directorySize);
+    final List<Entry> entries = new ArrayList<>();
+    int position = 0;
+    for (int i = 0; i < count; i++) {
+      if (position + CENTRAL_DIRECTORY_HEADER_SIZE > buffer.limit()
+          || buffer.getInt(position) != CENTRAL_DIRECTORY_HEADER) {
+        throw new ZipException(
+            "Invalid central directory header. (offset: " + (directoryOffset + position) + ")");
+      }
+      final int method = Short.toUnsignedInt(buffer.getShort(position + 10));
+      final long compressedSize = Integer.toUnsignedLong(buffer.getInt(position + 20));
+      final long inflatedSize = Integer.toUnsignedLong(buffer.getInt(position + 24));
+      final int nameLength = Short.toUnsignedInt(buffer.getShort(position + 28));
+      final int extraLength = Short.toUnsignedInt(buffer.getShort(position + 30));
+      final int commentLength = Short.toUnsignedInt(buffer.getShort(position + 32));
+      final long localHeaderOffset = Integer.toUnsignedLong(buffer.getInt(position + 42));
+      final int nameOffset = position + CENTRAL_DIRECTORY_HEADER_SIZE;
+
+      // Only decode the names of class-files.
+      if (endsWith(buffer, nameOffset, nameLength, CLASS_SUFFIX)) {
+        final byte[] nameBytes = new byte[nameLength];
+        buffer.get(nameOffset, nameBytes);
+        final String className =
+            ClassFileLibrary.toClassName(new String(nameBytes, StandardCharsets.UTF_8));
+        if (className != null) {
+          if (compressedSize > Integer.MAX_VALUE || inflatedSize > Integer.MAX_VALUE) {
+            throw new ZipException("Class-file larger than 2GB: " + className);
+          }
+          entries.add(
+              new Entry(
+                  className, method, (int) compressedSize, (int) inflatedSize, localHeaderOffset));
+        }
+      }
+
+      position = nameOffset + nameLength + extraLength + commentLength;
+    }
+    return Collections.unmodifiableList(entries);
+  }
+
+  private int findEndOfCentralDirectory(@NotNull ByteBuffer tail) throws ZipException {
+    for (int position = tail.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; position >= 0; position--) {
+      if (tail.getInt(position) == END_OF_CENTRAL_DIRECTORY) {
+        return position;
+      }
+    }
+    throw new ZipException("No end of central directory found. (Not a jar?): " + path);
+  }
+
+  private static boolean endsWith(
+      @NotNull ByteBuffer buffer, int offset, int length, byte @NotNull [] suffix) {
+    if (length < suffix.length) return false;
+    final int start = offset + length - suffix.length;
+    for (int i = 0; i < suffix.length; i++) {
+      if (buffer.get(start + i) != suffix[i]) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Reads a range of the jar. (Positional reads are safe to invoke concurrently)
+   *
+   * @return The bytes read. (Little-endian)
+   * @throws ZipException If the jar ends before the range does.
+   */
+  @NotNull
+  private ByteBuffer read(long position, int length) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new ZipException("Unexpected end of jar: " + path);
+      }
+    }
+    return buffer.flip();
+  }
+
+  /**
+   * @return All class-file entries in the jar, in central directory order.
+   */
+  @NotNull
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  /**
+   * @param settings The package rules to apply.
+   * @return The class-file entries passing the package rules, in central directory order.
+   */
+  @NotNull
+  public List<Entry> getEntries(@NotNull JarScanSettings settings) {
+    final List<Entry> accepted = new ArrayList<>();
+    for (Entry entry : entries) {
+      if (settings.accepts(entry.getClassName())) {
+        accepted.add(entry);
+      }
+    }
+    return accepted;
+  }
+
+  /**
+   * Reads and inflates the bytes of a class-file entry.
+   *
+   * <p>NOTE: This is safe to invoke concurrently.
+   *
+   * @param entry The entry to read.
+   * @return The class-file bytes.
+   * @throws IOException If the jar fails to read.
+   * @throws ZipException If the entry is malformed or uses an unsupported compression method.
+   */
+  public byte @NotNull [] read(@NotNull Entry entry) throws IOException {
+    final ByteBuffer header = read(entry.localHeaderOffset, LOCAL_FILE_HEADER_SIZE);
+    if (header.getInt(0) != LOCAL_FILE_HEADER) {
+      throw new ZipException("Invalid local file header for entry: " + entry.getClassName());
+    }
+    final int nameLength = Short.toUnsignedInt(header.getShort(26));
+    final int extraLength = Short.toUnsignedInt(header.getShort(28));
+    final long dataOffset =
+        entry.localHeaderOffset + LOCAL_FILE_HEADER_SIZE + nameLength + extraLength;
+
+    final ByteBuffer data = read(dataOffset, entry.compressedSize);
+    final byte[] bytes = new byte[entry.size];
+    switch (entry.method) {
+      case METHOD_STORED -> data.get(bytes);
+      case METHOD_DEFLATED -> {
+        final Inflater inflater = new Inflater(true);
+        try {
+          inflater.setInput(data);
+          int offset = 0;
+          while (offset < bytes.length) {
+            final int inflated = inflater.inflate(bytes, offset, bytes.length - offset);
+            if (inflated == 0
+                && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+              throw new ZipException("Truncated entry: " + entry.getClassName());
+            }
+            offset += inflated;
+          }
+        } catch (DataFormatException e) {
+          throw new ZipException("Malformed entry: " + entry.getClassName() + " " + e.getMessage());
+        } finally {
+          inflater.end();
+        }
+      }
+      default ->
+          throw new ZipException(
+              "Unsupported compression method "
+                  + entry.method
+                  + " for entry: "
+                  + entry.getClassName());
+    }
+    return bytes;
+  }
+
+  @NotNull
+  public Path getPath() {
+    return path;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /** A class-file entry listed in the central directory of a jar. */
+  public static class Entry {
+
+    private final String className;
+    private final int method;
+    private final int compressedSize;
+    private final int size;
+    private final long localHeaderOffset;
+
+    Entry(
+        @NotNull String className,
+        int method,
+        int compressedSize,
+        int size,
+        long localHeaderOffset) {
+      this.className = className;
+      this.method = method;
+      this.compressedSize = compressedSize;
+      this.size = size;
+      this.localHeaderOffset = localHeaderOffset;
+    }
+
+    /**
+     * @return The binary name of the class. E.G: <code>java.util.Map$Entry</code>
+     */
+    @NotNull
+    public String getClassName() {
+      return className;
+    }
+
+    /**
+     * @return The inflated size of the class-file in bytes.
+     */
+    public int getSize() {
+      return size;
+    }
+
+    @Override
+    public String toString() {
+      return "JarScanner.Entry \"" + className + "\"";
+    }
+  }
+}
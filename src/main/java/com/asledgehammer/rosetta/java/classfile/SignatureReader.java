@@ -0,0 +1,319 @@
+package com.asledgehammer.rosetta.java.classfile;
+
+import com.asledgehammer.rosetta.exception.ClassFileFormatException;
+import com.asledgehammer.rosetta.java.reference.TypeReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * SignatureReader parses the descriptors and generic signatures of class-files into {@link
+ * TypeReference TypeReferences}. The references are built structurally and never resolve classes
+ * through a {@link ClassLoader}.
+ *
+ * <p>The references produced match the ones built through reflection. (E.G: {@link
+ * TypeReference#of(java.lang.reflect.Type)})
+ */
+public final class SignatureReader {
+
+  private static final TypeReference OBJECT_TYPE =
+      TypeReference.ofSimple("java.lang.Object", null, 0, false);
+
+  private final String signature;
+  private int position;
+
+  private SignatureReader(@NotNull String signature) {
+    this.signature = signature;
+  }
+
+  /**
+   * @param signature A field descriptor or field signature. E.G: <code>Ljava/util/List&lt;TT;&gt;;
+   *     </code>
+   * @return The type of the field.
+   * @throws ClassFileFormatException If the signature is malformed.
+   */
+  @NotNull
+  public static TypeReference readFieldType(@NotNull String signature) {
+    final SignatureReader reader = new SignatureReader(signature);
+    try {
+      final TypeReference type = reader.readType();
+      reader.expectEnd();
+      return type;
+    } catch (IndexOutOfBoundsException e) {
+      throw reader.malformed(e);
+    }
+  }
+
+  /**
+   * @param signature A class signature. E.G: <code>&lt;T:Ljava/lang/Object;&gt;Ljava/lang/Object;
+   *     </code>
+   * @return The type parameters, super-class and super-interfaces of the class.
+   * @throws ClassFileFormatException If the signature is malformed.
+   */
+  @NotNull
+  public static ClassSignature readClassSignature(@NotNull String signature) {
+    final SignatureReader reader = new SignatureReader(signature);
+    try {
+      final List<TypeReference> typeParameters = reader.readTypeParameters();
+      final TypeReference superClass = reader.readType();
+      final List<TypeReference> interfaces = new ArrayList<>();
+      while (!reader.isEnd()) {
+        interfaces.add(reader.readType());
+      }
+      return new ClassSignature(
+          typeParameters, superClass, Collections.unmodifiableList(interfaces));
+    } catch (IndexOutOfBoundsException e) {
+      throw reader.malformed(e);
+    }
+  }
+
+  /**
+   * @param signature A method descriptor or method signature. E.G: <code>
+   *     &lt;T:Ljava/lang/Object;&gt;(TT;I)V</code>
+   * @return The type parameters, parameter types and return type of the method.
+   * @throws ClassFileFormatException If the signature is malformed.
+   */
+  @NotNull
+  public static MethodSignature readMethodSignature(@NotNull String signature) {
+    final SignatureReader reader = new SignatureReader(signature);
+    try {
+      final List<TypeReference> typeParameters = reader.readTypeParameters();
+      reader.expect('(');
+      final List<TypeReference> parameters = new ArrayList<>();
+      while (reader.peek() != ')') {
+        parameters.add(reader.readType());
+      }
+      reader.position++;
+      final TypeReference returnType = reader.readType();
+      // Thrown types are not documented.
+      return new MethodSignature(
+          typeParameters, Collections.unmodifiableList(parameters), returnType);
+    } catch (IndexOutOfBoundsException e) {
+      throw reader.malformed(e);
+    }
+  }
+
+  @NotNull
+  private List<TypeReference> readTypeParameters() {
+    if (isEnd() || peek() != '<') return Collections.emptyList();
+    position++;
+
+    final List<TypeReference> typeParameters = new ArrayList<>();
+    while (peek() != '>') {
+      final int indexOfColon = signature.indexOf(':', position);
+      if (indexOfColon == -1) throw malformed(null);
+      final String name = signature.substring(position, indexOfColon);
+      position = indexOfColon + 1;
+
+      final List<TypeReference> bounds = new ArrayList<>();
+
+      // The class bound is optional. (Empty for interface-only bounds)
+      final char next = peek();
+      if (next == 'L' || next == 'T' || next == '[') {
+        bounds.add(readType());
+      }
+
+      // Interface bounds.
+      while (peek() == ':') {
+        position++;
+        bounds.add(readType());
+      }
+
+      if (bounds.isEmpty()) bounds.add(OBJECT_TYPE);
+      typeParameters.add(TypeReference.ofVariable(name, bounds.toArray(new TypeReference[0])));
+    }
+    position++;
+
+    return Collections.unmodifiableList(typeParameters);
+  }
+
+  @NotNull
+  private TypeReference readType() {
+    int arrayDepth = 0;
+    while (peek() == '[') {
+      arrayDepth++;
+      position++;
+    }
+
+    final char c = signature.charAt(position++);
+    return switch (c) {
+      case 'Z' -> primitive("boolean", arrayDepth);
+      case 'B' -> primitive("byte", arrayDepth);
+      case 'S' -> primitive("short", arrayDepth);
+      case 'C' -> primitive("char", arrayDepth);
+      case 'I' -> primitive("int", arrayDepth);
+      case 'J' -> primitive("long", arrayDepth);
+      case 'F' -> primitive("float", arrayDepth);
+      case 'D' -> primitive("double", arrayDepth);
+      case 'V' -> primitive("void", arrayDepth);
+      case 'T' -> {
+        final int indexOfEnd = signature.indexOf(';', position);
+        if (indexOfEnd == -1) throw malformed(null);
+        final String name = signature.substring(position, indexOfEnd);
+        position = indexOfEnd + 1;
+        yield TypeReference.ofSimple(name, null, arrayDepth, true);
+      }
+      case 'L' -> readClassType(arrayDepth);
+      default -> {
+        position--;
+        throw malformed(null);
+      }
+    };
+  }
+
+  @NotNull
+  private TypeReference readClassType(int arrayDepth) {
+    final StringBuilder name = new StringBuilder();
+    List<TypeReference> typeArguments = null;
+    while (true) {
+      final int start = position;
+      char c = peek();
+      while (c != '<' && c != '.' && c != ';') {
+        position++;
+        c = peek();
+      }
+      name.append(signature, start, position);
+
+      typeArguments = null;
+      if (c == '<') {
+        position++;
+        typeArguments = new ArrayList<>();
+        while (peek() != '>') {
+          typeArguments.add(readTypeArgument());
+        }
+        position++;
+        c = peek();
+      }
+
+      if (c == ';') {
+        position++;
+        break;
+      }
+
+      // Inner class of a parameterized class. Only the arguments of the innermost class are kept.
+      expect('.');
+      name.append('$');
+    }
+
+    return TypeReference.ofSimple(
+        ClassFileReader.toBinaryName(name.toString()),
+        typeArguments != null ? Collections.unmodifiableList(typeArguments) : null,
+        arrayDepth,
+        false);
+  }
+
+  @NotNull
+  private TypeReference readTypeArgument() {
+    return switch (peek()) {
+      case '*' -> {
+        position++;
+        yield TypeReference.ofSimple("?", null, 0, true);
+      }
+      case '+' -> {
+        position++;
+        yield TypeReference.ofWildcard(true, new TypeReference[] {readType()});
+      }
+      case '-' -> {
+        position++;
+        yield TypeReference.ofWildcard(false, new TypeReference[] {readType()});
+      }
+      default -> readType();
+    };
+  }
+
+  @NotNull
+  private static TypeReference primitive(@NotNull String name, int arrayDepth) {
+    return TypeReference.ofSimple(name, null, arrayDepth, false);
+  }
+
+  private char peek() {
+    return signature.charAt(position);
+  }
+
+  private boolean isEnd() {
+    return position >= signature.length();
+  }
+
+  private void expect(char c) {
+    if (peek() != c) throw malformed(null);
+    position++;
+  }
+
+  private void expectEnd() {
+    if (!isEnd()) throw malformed(null);
+  }
+
+  @NotNull
+  private ClassFileFormatException malformed(@Nullable Throwable cause) {
+    final String message = "Malformed signature: \"" + signature + "\" (index: " + position + ")";
+    return cause != null
+        ? new ClassFileFormatException(message, cause)
+        : new ClassFileFormatException(message);
+  }
+
+  /** The generic declaration of a class. (Or its erasure if no signature is defined) */
+  public static class ClassSignature {
+
+    private final List<TypeReference> typeParameters;
+    private final TypeReference superClass;
+    private final List<TypeReference> interfaces;
+
+    ClassSignature(
+        @NotNull List<TypeReference> typeParameters,
+        @NotNull TypeReference superClass,
+        @NotNull List<TypeReference> interfaces) {
+      this.typeParameters = typeParameters;
+      this.superClass = superClass;
+      this.interfaces = interfaces;
+    }
+
+    @NotNull
+    public List<TypeReference> getTypeParameters() {
+      return typeParameters;
+    }
+
+    @NotNull
+    public TypeReference getSuperClass() {
+      return superClass;
+    }
+
+    @NotNull
+    public List<TypeReference> getInterfaces() {
+      return interfaces;
+    }
+  }
+
+  /** The generic declaration of a method or constructor. (Or its erasure) */
+  public static class MethodSignature {
+
+    private final List<TypeReference> typeParameters;
+    private final List<TypeReference> parameters;
+    private final TypeReference returnType;
+
+    MethodSignature(
+        @NotNull List<TypeReference> typeParameters,
+        @NotNull List<TypeReference> parameters,
+        @NotNull TypeReference returnType) {
+      this.typeParameters = typeParameters;
+      this.parameters = parameters;
+      this.returnType = returnType;
+    }
+
+    @NotNull
+    public List<TypeReference> getTypeParameters() {
+      return typeParameters;
+    }
+
+    @NotNull
+    public List<TypeReference> getParameters() {
+      return parameters;
+    }
+
+    @NotNull
+    public TypeReference getReturnType() {
+      return returnType;
+    }
+  }
+}
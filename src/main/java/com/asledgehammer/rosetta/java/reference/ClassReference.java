@@ -2,15 +2,31 @@ package com.asledgehammer.rosetta.java.reference;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.jetbrains.annotations.NotNull;
 
 @SuppressWarnings("unused")
 public class ClassReference {
 
-  private static final Map<Class<?>, ClassReference> CACHE = new HashMap<>();
+  /**
+   * One reference per class. Entries live with their class, so classes of discarded class-loaders
+   * stay collectable. (Replaced to clear the cache)
+   */
+  private static volatile ClassValue<ClassReference> CACHE = createCache();
+
+  private static final LongAdder LOOKUPS = new LongAdder();
+  private static final LongAdder MISSES = new LongAdder();
+  private static final LongAdder MEMBER_RESOLUTIONS = new LongAdder();
 
   private final Map<Class<?>, Map<String, TypeReference>> assignedSuperVariables = new HashMap<>();
 
+  /**
+   * The type variables of every super-class & super-interface, mapped to their resolved types in
+   * this class. (Ancestor class -> variable name -> resolved type)
+   */
+  private final Map<Class<?>, Map<String, TypeReference>> bindings = new HashMap<>();
+
   // Reflection
   private final Class<?> clazz;
 
@@ -19,9 +35,13 @@ public class ClassReference {
   private final ClassReference[] superInterfazeReferences;
 
   private final Map<String, TypeReference> genericTypesMap = new HashMap<>();
-  private final Map<Field, FieldReference> fieldReferenceMap = new HashMap<>();
-  private final Map<Method, MethodReference> methodReferenceMap = new HashMap<>();
-  private final Map<Constructor<?>, ConstructorReference> constructorReferenceMap = new HashMap<>();
+
+  // Members are resolved on first use. (Only members of the hierarchy, so each map is bounded by
+  // the members of the class & its ancestors)
+  private final Map<Field, FieldReference> fieldReferenceMap = new ConcurrentHashMap<>();
+  private final Map<Method, MethodReference> methodReferenceMap = new ConcurrentHashMap<>();
+  private final Map<Constructor<?>, ConstructorReference> constructorReferenceMap =
+      new ConcurrentHashMap<>();
 
   private ClassReference(@NotNull Class<?> clazz) {
     this.clazz = clazz;
@@ -56,75 +76,147 @@ public class ClassReference {
       }
     }
 
-    // Fields
-    Field[] fields = clazz.getFields();
-    for (Field field : fields) {
-      FieldReference fieldReference = new FieldReference(this, field);
-      fieldReferenceMap.put(field, fieldReference);
+    // Flatten the bindings of the hierarchy. The super-class route is preferred, then the
+    // interfaces in order.
+    if (superClazzReference != null) {
+      bindSuper(superClazzReference);
     }
-    fields = clazz.getDeclaredFields();
-    for (Field field : fields) {
-      if (!fieldReferenceMap.containsKey(field)) {
-        FieldReference fieldReference = new FieldReference(this, field);
-        fieldReferenceMap.put(field, fieldReference);
-      }
+    for (ClassReference interfazeReference : superInterfazeReferences) {
+      bindSuper(interfazeReference);
     }
+  }
+
+  private void bindSuper(@NotNull ClassReference superReference) {
+    final Map<String, TypeReference> assigned = assignedSuperVariables.get(superReference.clazz);
 
-    // Methods
-    Method[] methods = clazz.getMethods();
-    for (Method method : methods) {
-      MethodReference methodReference = new MethodReference(this, method);
-      methodReferenceMap.put(method, methodReference);
+    // The variables of the super-type itself.
+    final Map<String, TypeReference> direct = new HashMap<>();
+    for (Map.Entry<String, TypeReference> entry : assigned.entrySet()) {
+      direct.put(entry.getKey(), bind(entry.getValue(), entry.getValue().bounds()));
     }
-    methods = clazz.getDeclaredMethods();
-    for (Method method : methods) {
-      if (!methodReferenceMap.containsKey(method)) {
-        MethodReference methodReference = new MethodReference(this, method);
-        methodReferenceMap.put(method, methodReference);
+    bindings.putIfAbsent(superReference.clazz, direct);
+
+    // The variables of its ancestors, already resolved in terms of the super-type.
+    for (Map.Entry<Class<?>, Map<String, TypeReference>> entry :
+        superReference.bindings.entrySet()) {
+      if (bindings.containsKey(entry.getKey())) continue;
+      final Map<String, TypeReference> table = new HashMap<>();
+      for (Map.Entry<String, TypeReference> binding : entry.getValue().entrySet()) {
+        TypeReference type = binding.getValue();
+        if (isVariable(type)) {
+          final TypeReference assignedType = assigned.get(type.getBase());
+          if (assignedType != null) {
+            type = bind(assignedType, type.bounds());
+          }
+        } else {
+          type = substitute(type, assigned);
+        }
+        table.put(binding.getKey(), type);
       }
-    }
-
-    // Constructors
-    Constructor<?>[] constructors = clazz.getDeclaredConstructors();
-    for (Constructor<?> constructor : constructors) {
-      ConstructorReference constructorReference = new ConstructorReference(this, constructor);
-      constructorReferenceMap.put(constructor, constructorReference);
+      bindings.put(entry.getKey(), table);
     }
   }
 
-  public Stack<ClassReference> resolveChain(@NotNull Class<?> baseClazz) {
-    return resolveChain(baseClazz, new Stack<>());
+  /**
+   * @param type The type assigned in this class.
+   * @param bounds The bounds to use if the type isn't a variable of this class.
+   * @return The type as resolved by this class. (Variables become unions with their bounds)
+   */
+  @NotNull
+  private TypeReference bind(@NotNull TypeReference type, @NotNull TypeReference[] bounds) {
+    if (!isVariable(type)) return type;
+    final TypeReference declaration = genericTypesMap.get(type.getBase());
+    if (declaration != null) bounds = declaration.bounds();
+    return TypeReference.intern(new UnionTypeReference(type.getBase(), true, bounds, true));
   }
 
-  public Stack<ClassReference> resolveChain(
-      @NotNull Class<?> baseClazz, Stack<ClassReference> stack) {
-
-    // Found it.
-    if (this.clazz == baseClazz) {
-      stack.push(this);
-      return stack;
+  /**
+   * Substitutes the type variables used inside a type: As type arguments, wildcard bounds and array
+   * components, at any depth.
+   *
+   * @param type The type to substitute.
+   * @param table The types assigned to the variables. (Variable name -> assigned type)
+   * @return The substituted type. (The same instance if none of its variables are assigned)
+   */
+  @NotNull
+  private static TypeReference substitute(
+      @NotNull TypeReference type, @NotNull Map<String, TypeReference> table) {
+    if (isVariable(type)) {
+      final TypeReference assigned = table.get(type.getBase());
+      return assigned != null ? asArgument(assigned) : type;
     }
 
-    // Try super-class route first. (if exists)
-    if (this.superClazzReference != null) {
-      stack.push(this);
-      this.superClazzReference.resolveChain(baseClazz, stack);
-      if (stack.peek().clazz != baseClazz) {
-        stack.pop();
+    if (type instanceof SimpleTypeReference simple) {
+      // Arrays of variables. (E.G: E[])
+      if (simple.isArray() && simple.isGeneric() && !simple.hasSubTypes()) {
+        final TypeReference assigned = table.get(simple.getBase());
+        if (!(assigned != null && asArgument(assigned) instanceof SimpleTypeReference component)) {
+          return type;
+        }
+        return TypeReference.ofSimple(
+            component.getBase(),
+            component.hasSubTypes() ? component.getSubTypes() : null,
+            component.getArrayDepth() + simple.getArrayDepth(),
+            component.isGeneric());
+      }
+      if (!simple.hasSubTypes()) return type;
+
+      final List<TypeReference> subTypes = simple.getSubTypes();
+      List<TypeReference> substituted = null;
+      for (int i = 0; i < subTypes.size(); i++) {
+        final TypeReference subType = subTypes.get(i);
+        final TypeReference substitutedSubType = substitute(subType, table);
+        if (substituted == null && substitutedSubType != subType) {
+          substituted = new ArrayList<>(subTypes.subList(0, i));
+        }
+        if (substituted != null) substituted.add(substitutedSubType);
       }
+      if (substituted == null) return type;
+      return TypeReference.ofSimple(
+          simple.getBase(), substituted, simple.getArrayDepth(), simple.isGeneric());
     }
 
-    // Try interface(s) next. (if exists)
-    for (ClassReference interfazeReference : this.superInterfazeReferences) {
-      stack.push(this);
-      interfazeReference.resolveChain(baseClazz, stack);
-      if (stack.peek().clazz == baseClazz) {
-        break;
+    // Bounded wildcards. (E.G: ? extends E)
+    if (type instanceof UnionTypeReference union && union.bounds() != null) {
+      final TypeReference[] bounds = union.bounds();
+      TypeReference[] substituted = null;
+      for (int i = 0; i < bounds.length; i++) {
+        final TypeReference bound = substitute(bounds[i], table);
+        if (substituted == null && bound != bounds[i]) {
+          substituted = bounds.clone();
+        }
+        if (substituted != null) substituted[i] = bound;
       }
-      stack.pop();
+      if (substituted == null) return type;
+      return TypeReference.ofBounded(
+          union.getBase(), union.isExtendsOrSuper(), substituted, union.isGeneric());
     }
+    return type;
+  }
 
-    return stack;
+  /**
+   * @param type The type bound to a variable.
+   * @return The type as used inside another type. (Variables are used without their bounds)
+   */
+  @NotNull
+  private static TypeReference asArgument(@NotNull TypeReference type) {
+    if (type instanceof UnionTypeReference && isVariable(type)) {
+      return TypeReference.ofSimple(type.getBase(), null, 0, true);
+    }
+    return type;
+  }
+
+  /**
+   * Type variables are generic types that aren't wildcards or primitives: Plain uses without type
+   * arguments or array dimensions, and bounded declarations. (E.G: <code>T</code> and <code>
+   * T extends java.lang.Number</code>, which is a {@link UnionTypeReference})
+   */
+  private static boolean isVariable(@NotNull TypeReference type) {
+    if (!type.isGeneric() || type.isWildcard() || type.isPrimitive()) return false;
+    if (type instanceof SimpleTypeReference simple) {
+      return !simple.isArray() && !simple.hasSubTypes();
+    }
+    return type instanceof UnionTypeReference;
   }
 
   public TypeReference resolveType(@NotNull String type, @NotNull Class<?> deCl) {
@@ -135,38 +227,25 @@ public class ClassReference {
     return resolveType(TypeReference.of(type), deCl);
   }
 
+  /**
+   * Resolves a type used by a member of this class or one of its ancestors. Type variables of the
+   * ancestor are replaced by the types assigned to them through the hierarchy, wherever they are
+   * used in the type. (E.G: <code>java.util.Map&lt;K, java.util.List&lt;V&gt;&gt;</code>)
+   *
+   * @param type The type used by the member.
+   * @param deCl The declaring class of the member.
+   * @return The resolved type.
+   */
   public TypeReference resolveType(@NotNull TypeReference type, @NotNull Class<?> deCl) {
-    String rawType = type.getBase();
-    TypeReference resolvedType = type;
-    TypeReference[] bounds = resolvedType.getBounds();
-    Stack<ClassReference> chain = resolveChain(deCl);
-
-    // Here we resolve the hierarchy as a stack to traverse backwards.
-    List<ClassReference> stackRef = new ArrayList<>(chain);
-
-    ClassReference sup = stackRef.removeLast();
-    while (!stackRef.isEmpty()) {
-      ClassReference refNext = stackRef.removeLast();
-      if (refNext.assignedSuperVariables.containsKey(sup.clazz)) {
-        Map<String, TypeReference> vars = refNext.assignedSuperVariables.get(sup.clazz);
-        if (vars.containsKey(rawType)) {
-          // The class contains an entry of the var name as generic so transform it to the
-          // applied type.
-          resolvedType = vars.get(rawType);
-          if (resolvedType.isGeneric()) {
-            TypeReference o = refNext.genericTypesMap.get(resolvedType.getBase());
-            if (o != null) bounds = o.getBounds();
-          }
-        }
-      }
-      sup = refNext;
+    final Map<String, TypeReference> table = deCl != clazz ? bindings.get(deCl) : null;
+    if (!isVariable(type)) {
+      return table != null ? substitute(type, table) : type;
     }
-
-    if (!resolvedType.isPrimitive() && resolvedType.isGeneric()) {
-      return new UnionTypeReference(resolvedType.getBase(), true, bounds);
+    if (table != null) {
+      final TypeReference bound = table.get(type.getBase());
+      if (bound != null) return bound;
     }
-
-    return resolvedType;
+    return TypeReference.intern(new UnionTypeReference(type.getBase(), true, type.bounds(), true));
   }
 
   @Override
@@ -174,35 +253,68 @@ public class ClassReference {
     return "ClassReference(" + this.clazz + ")";
   }
 
+  /**
+   * @param constructor The constructor of the class.
+   * @return The reference of the constructor. (Built on first use)
+   * @throws IllegalArgumentException If the constructor isn't declared by the class or one of its
+   *     ancestors.
+   */
   @NotNull
-  public ConstructorReference getConstructorReference(Constructor<?> constructor) {
-    if (!constructorReferenceMap.containsKey(constructor)) {
-      // FIXME: This is probably not a bug but a hidden Reflection issue with AbstractCollections..
-      return new ConstructorReference(this, constructor);
-      // throw new RuntimeException("No constructor exists in class: " + this.clazz + " -> " +
-      // constructor);
-    }
-    return constructorReferenceMap.get(constructor);
+  public ConstructorReference getConstructorReference(@NotNull Constructor<?> constructor) {
+    final ConstructorReference cached = constructorReferenceMap.get(constructor);
+    if (cached != null) return cached;
+    checkMember(constructor);
+    return constructorReferenceMap.computeIfAbsent(
+        constructor,
+        key -> {
+          MEMBER_RESOLUTIONS.increment();
+          return new ConstructorReference(this, key);
+        });
   }
 
+  /**
+   * @param method The method of the class or one of its ancestors.
+   * @return The reference of the method. (Built on first use)
+   * @throws IllegalArgumentException If the method isn't declared by the class or one of its
+   *     ancestors.
+   */
   @NotNull
   public MethodReference getMethodReference(@NotNull Method method) {
-    if (!methodReferenceMap.containsKey(method)) {
-      // FIXME: This is probably not a bug but a hidden Reflection issue with AbstractCollections..
-      return new MethodReference(this, method);
-      // throw new RuntimeException("No method exists in class: " + this.clazz + " -> " + method);
-    }
-    return methodReferenceMap.get(method);
+    final MethodReference cached = methodReferenceMap.get(method);
+    if (cached != null) return cached;
+    checkMember(method);
+    return methodReferenceMap.computeIfAbsent(
+        method,
+        key -> {
+          MEMBER_RESOLUTIONS.increment();
+          return new MethodReference(this, key);
+        });
   }
 
+  /**
+   * @param field The field of the class or one of its ancestors.
+   * @return The reference of the field. (Built on first use)
+   * @throws IllegalArgumentException If the field isn't declared by the class or one of its
+   *     ancestors.
+   */
   @NotNull
   public FieldReference getFieldReference(@NotNull Field field) {
-    if (!fieldReferenceMap.containsKey(field)) {
-      // FIXME: This is probably not a bug but a hidden Reflection issue with AbstractCollections..
-      return new FieldReference(this, field);
-      // throw new RuntimeException("No field exists in class: " + this.clazz + " -> " + field);
+    final FieldReference cached = fieldReferenceMap.get(field);
+    if (cached != null) return cached;
+    checkMember(field);
+    return fieldReferenceMap.computeIfAbsent(
+        field,
+        key -> {
+          MEMBER_RESOLUTIONS.increment();
+          return new FieldReference(this, key);
+        });
+  }
+
+  private void checkMember(@NotNull Member member) {
+    if (!member.getDeclaringClass().isAssignableFrom(clazz)) {
+      throw new IllegalArgumentException(
+          "The member isn't declared by " + clazz.getName() + " or its ancestors: " + member);
     }
-    return fieldReferenceMap.get(field);
   }
 
   @NotNull
@@ -212,59 +324,70 @@ public class ClassReference {
 
   @NotNull
   public static ClassReference of(@NotNull Class<?> clazz) {
-    if (CACHE.containsKey(clazz)) return CACHE.get(clazz);
-    return new ClassReference(clazz);
+    LOOKUPS.increment();
+    return CACHE.get(clazz);
+  }
+
+  @NotNull
+  private static ClassValue<ClassReference> createCache() {
+    return new ClassValue<>() {
+      @Override
+      protected ClassReference computeValue(Class<?> clazz) {
+        MISSES.increment();
+        return new ClassReference(clazz);
+      }
+    };
   }
 
   /**
-   * @param superClazz The super-class or super-interface.
+   * @return The amount of lookups served from the cache since it was last cleared.
+   */
+  public static long getCacheHits() {
+    return LOOKUPS.sum() - MISSES.sum();
+  }
+
+  /**
+   * @return The amount of references built since the cache was last cleared.
+   */
+  public static long getCacheMisses() {
+    return MISSES.sum();
+  }
+
+  /**
+   * @return The amount of field, method & constructor references built since the cache was last
+   *     cleared.
+   */
+  public static long getMemberResolutions() {
+    return MEMBER_RESOLUTIONS.sum();
+  }
+
+  /**
+   * @param superClazzClazz The class of the super-class or super-interface.
+   * @param superClazz The generic super-class or super-interface.
    * @return The map of resolved generic types.
    */
   @NotNull
   public static Map<String, TypeReference> createTypeMap(
       @NotNull Class<?> superClazzClazz, @NotNull Type superClazz) {
-    Type[] types = superClazzClazz.getTypeParameters();
-    String rawSuperClazzName = superClazz.getTypeName();
-
-    int height = 0;
-    List<TypeReference> vars = new ArrayList<>();
-    StringBuilder var = new StringBuilder();
-    for (int x = 0; x < rawSuperClazzName.length(); x++) {
-      char curr = rawSuperClazzName.charAt(x);
-      if (curr == '<') {
-        height++;
-        if (height > 1) {
-          var.append(curr);
-        }
-      } else if (curr == '>') {
-        height--;
-        if (height > 0) {
-          var.append(curr);
-        } else {
-          break;
-        }
-      } else if (curr == ',' && height == 1) {
-        vars.add(TypeReference.of(var.toString()));
-        var = new StringBuilder();
-      } else if (height != 0) {
-        var.append(curr);
-      }
-    }
+    Map<String, TypeReference> map = new HashMap<>();
 
-    if (!var.isEmpty()) {
-      vars.add(TypeReference.of(var.toString()));
-    }
+    // Raw super-types assign none of their type variables.
+    if (!(superClazz instanceof ParameterizedType parameterizedType)) return map;
 
-    Map<String, TypeReference> map = new HashMap<>();
-    for (int x = 0; x < types.length; x++) {
-      map.put(types[x].getTypeName(), vars.get(x));
+    TypeVariable<?>[] vars = superClazzClazz.getTypeParameters();
+    Type[] arguments = parameterizedType.getActualTypeArguments();
+    for (int i = 0; i < vars.length; i++) {
+      map.put(vars[i].getName(), TypeReference.of(arguments[i]));
     }
 
     return map;
   }
 
   public static void clearCache() {
-    CACHE.clear();
+    CACHE = createCache();
+    LOOKUPS.reset();
+    MISSES.reset();
+    MEMBER_RESOLUTIONS.reset();
   }
 
   static class Bar {}
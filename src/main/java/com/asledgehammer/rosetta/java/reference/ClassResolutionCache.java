@@ -0,0 +1,112 @@
+package com.asledgehammer.rosetta.java.reference;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * ClassResolutionCache remembers whether names resolve to classes, per class-loader. Both hits and
+ * misses are cached, so the exception thrown for a type variable like <code>T</code> is only paid
+ * once per loader.
+ *
+ * <p>Class-loaders are weakly keyed so that discarded loaders stay collectable. The names of each
+ * loader are kept in a bounded LRU map.
+ */
+public class ClassResolutionCache {
+
+  /** The cache used to detect generic types. (See {@link TypeReference#isResolvable(String)}) */
+  static final ClassResolutionCache SHARED = new ClassResolutionCache(4096);
+
+  private final Map<ClassLoader, Map<String, Boolean>> loaders = new WeakHashMap<>();
+  private final int maximumSize;
+
+  /**
+   * @param maximumSize The maximum amount of names cached per class-loader.
+   * @throws IllegalArgumentException If the maximum size is less than 1.
+   */
+  public ClassResolutionCache(int maximumSize) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException(
+          "The maximum size must be at least 1. (Given: " + maximumSize + ")");
+    }
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * Checks if a name resolves to a class without initializing it.
+   *
+   * @param loader The class-loader to resolve with. (Null for the bootstrap class-loader)
+   * @param name The binary name of the class. E.G: <code>java.util.Map$Entry</code>
+   * @return True if the class exists.
+   */
+  public boolean isResolvable(@Nullable ClassLoader loader, @NotNull String name) {
+    final Map<String, Boolean> names = getNames(loader);
+    synchronized (names) {
+      final Boolean cached = names.get(name);
+      if (cached != null) return cached;
+    }
+
+    // Resolve outside the lock. Loading can take a while and can recurse into this cache.
+    boolean resolvable;
+    try {
+      Class.forName(name, false, loader);
+      resolvable = true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      resolvable = false;
+    }
+
+    synchronized (names) {
+      names.put(name, resolvable);
+    }
+    return resolvable;
+  }
+
+  /**
+   * @param loader The class-loader. (Null for the bootstrap class-loader)
+   * @return The amount of names cached for the class-loader.
+   */
+  public int size(@Nullable ClassLoader loader) {
+    final Map<String, Boolean> names;
+    synchronized (loaders) {
+      names = loaders.get(loader);
+    }
+    if (names == null) return 0;
+    synchronized (names) {
+      return names.size();
+    }
+  }
+
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  public void clear() {
+    synchronized (loaders) {
+      loaders.clear();
+    }
+  }
+
+  @NotNull
+  private Map<String, Boolean> getNames(@Nullable ClassLoader loader) {
+    synchronized (loaders) {
+      return loaders.computeIfAbsent(loader, k -> new LruMap<>(maximumSize));
+    }
+  }
+
+  private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+    private final int maximumSize;
+
+    LruMap(int maximumSize) {
+      super(16, 0.75f, true);
+      this.maximumSize = maximumSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+      return size() > maximumSize;
+    }
+  }
+}
@@ -1,8 +1,11 @@
 package com.asledgehammer.rosetta.java.reference;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class SimpleTypeReference extends TypeReference {
 
@@ -20,72 +23,65 @@ public class SimpleTypeReference extends TypeReference {
   private final boolean array;
   private final int arrayDepth;
   private final TypeReference[] bounds;
+  private final int hash;
 
-  SimpleTypeReference(@NotNull String raw) {
-    raw = raw.trim();
+  /**
+   * Structural constructor. The base is never resolved, so the caller decides whether it is
+   * generic.
+   */
+  SimpleTypeReference(
+      @NotNull String base,
+      @Nullable List<TypeReference> subTypes,
+      int arrayDepth,
+      boolean generic) {
+    this.base = base;
+    this.subTypes = subTypes != null ? Collections.unmodifiableList(subTypes) : null;
+    this.array = arrayDepth > 0;
+    this.arrayDepth = arrayDepth;
+    this.wildcard = base.equals("?");
+    this.primitive = PRIMITIVE_TYPES.contains(base);
+    this.generic = generic || this.wildcard;
+    this.bounds = this.generic ? OBJECT_BOUNDS : new TypeReference[] {this};
+    this.hash = computeHash();
+  }
 
-    // If the type is an array, parse out the syntax and calculate its depth.
-    if (raw.endsWith("[]")) {
-      this.array = true;
-      int arrayDepth = 0;
-      while (raw.endsWith("[]")) {
-        arrayDepth++;
-        raw = raw.substring(0, raw.length() - 2);
-      }
-      this.arrayDepth = arrayDepth;
-    } else {
-      this.array = false;
-      this.arrayDepth = 0;
-    }
+  private int computeHash() {
+    // Same as Objects.hash(base, subTypes, arrayDepth, generic), without boxing.
+    int result = 31 + base.hashCode();
+    result = 31 * result + (subTypes != null ? subTypes.hashCode() : 0);
+    result = 31 * result + arrayDepth;
+    return 31 * result + Boolean.hashCode(generic);
+  }
 
-    final int firstIndexOfExtends = raw.indexOf(" extends ");
-    final int firstIndexOfSuper = raw.indexOf(" super ");
-    final int firstIndexOfSubTypes = raw.indexOf("<");
-
-    // Check if the subtypes are defined for the main type provided, not a subtype that follows
-    // 'extends' or
-    // 'super of' rules.
-    if (firstIndexOfSubTypes != -1
-        && (firstIndexOfExtends == -1 || firstIndexOfSubTypes < firstIndexOfExtends)
-        && (firstIndexOfSuper == -1 || firstIndexOfSubTypes < firstIndexOfSuper)) {
-      this.base = raw.substring(0, raw.indexOf('<'));
-      List<String> subTypesStr = getGenericTypes(raw);
-      subTypes = new ArrayList<>();
-      for (String subTypeStr : subTypesStr) {
-        subTypes.add(TypeReference.of(subTypeStr));
-      }
-    } else {
-      String base = raw.trim();
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof SimpleTypeReference other) || hash != other.hash) return false;
+    return arrayDepth == other.arrayDepth
+        && generic == other.generic
+        && base.equals(other.base)
+        && Objects.equals(subTypes, other.subTypes);
+  }
 
-      if (firstIndexOfExtends != -1 && firstIndexOfSuper != 1) {
-        if (firstIndexOfExtends < firstIndexOfSuper) {
-          this.base = base.split(" extends ")[0];
-        } else {
-          this.base = base.split(" super ")[0];
-        }
-      } else if (firstIndexOfExtends != -1) {
-        this.base = base.split(" extends ")[0];
-      } else if (firstIndexOfSuper != -1) {
-        this.base = base.split(" super ")[0];
-      } else {
-        this.base = base;
-      }
-      this.subTypes = null;
-    }
+  @Override
+  public int hashCode() {
+    return hash;
+  }
 
-    this.wildcard = this.base.equals("?");
-    this.primitive = PRIMITIVE_TYPES.contains(this.base);
-    boolean generic = this.wildcard;
-    if (!generic && !this.primitive) {
-      // Attempt to resolve the path. if it doesn't exist then it's considered generic.
-      try {
-        Class.forName(this.base, false, ClassLoader.getSystemClassLoader());
-      } catch (Exception e) {
-        generic = true;
+  @NotNull
+  @Override
+  SimpleTypeReference internParts(@NotNull Caches caches) {
+    if (subTypes == null) return this;
+    List<TypeReference> interned = null;
+    for (int i = 0; i < subTypes.size(); i++) {
+      final TypeReference subType = subTypes.get(i);
+      final TypeReference canonical = intern(caches, subType);
+      if (interned == null && canonical != subType) {
+        interned = new ArrayList<>(subTypes.subList(0, i));
       }
+      if (interned != null) interned.add(canonical);
     }
-    this.generic = generic;
-    this.bounds = this.generic ? OBJECT_BOUNDS : new TypeReference[] {this};
+    return interned != null ? new SimpleTypeReference(base, interned, arrayDepth, generic) : this;
   }
 
   @NotNull
@@ -102,11 +98,11 @@ public class SimpleTypeReference extends TypeReference {
       }
       compiled += '<' + subTypeStr.toString() + '>';
     }
-    return compiled;
+    return compiled + "[]".repeat(arrayDepth);
   }
 
   @NotNull
-  public String compile(@NotNull ClassReference reference, @NotNull Class<?> deCl) {
+  public String compile(@Nullable ClassReference reference, @Nullable Class<?> deCl) {
     String compiled = this.base;
     if (subTypes != null) {
       StringBuilder subTypeStr = new StringBuilder();
@@ -119,7 +115,7 @@ public class SimpleTypeReference extends TypeReference {
       }
       compiled += '<' + subTypeStr.toString() + '>';
     }
-    return compiled;
+    return compiled + "[]".repeat(arrayDepth);
   }
 
   @Override
@@ -153,6 +149,12 @@ public class SimpleTypeReference extends TypeReference {
   @NotNull
   @Override
   public TypeReference[] getBounds() {
+    return bounds.clone();
+  }
+
+  @NotNull
+  @Override
+  TypeReference[] bounds() {
     return bounds;
   }
 
@@ -172,37 +174,4 @@ public class SimpleTypeReference extends TypeReference {
     }
     return subTypes;
   }
-
-  public static List<String> getGenericTypes(String raw) {
-    int level = 0;
-    final List<String> vars = new ArrayList<>();
-    StringBuilder var = new StringBuilder();
-    for (int x = 0; x < raw.length(); x++) {
-      char curr = raw.charAt(x);
-      if (curr == '<') {
-        level++;
-        if (level > 1) {
-          var.append(curr);
-        }
-      } else if (curr == '>') {
-        level--;
-        if (level > 0) {
-          var.append(curr);
-        } else {
-          break;
-        }
-      } else if (curr == ',' && level == 1) {
-        vars.add(var.toString().trim());
-        var = new StringBuilder();
-      } else if (level != 0) {
-        var.append(curr);
-      }
-    }
-
-    if (!var.isEmpty()) {
-      vars.add(var.toString().trim());
-    }
-
-    return vars;
-  }
 }
@@ -0,0 +1,189 @@
+package com.asledgehammer.rosetta.java.reference;
+
+import com.asledgehammer.rosetta.exception.TypeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * TypeParser builds type references from type strings in a single pass. Names are read as offsets
+ * into the source and only copied once per name.
+ *
+ * <p>Grammar:
+ *
+ * <pre>
+ * type      := name arguments? dimension* bounds?
+ * arguments := '&lt;' type (',' type)* '&gt;'
+ * dimension := '[' ']'
+ * bounds    := ('extends' | 'super') type ('&amp;' type)*
+ * </pre>
+ *
+ * Bounds are only allowed on names without arguments or dimensions, and not on the types of other
+ * bounds. Whitespace is allowed between any two tokens.
+ */
+final class TypeParser {
+
+  private final CharSequence source;
+  private int index;
+
+  private TypeParser(@NotNull CharSequence source) {
+    this.source = source;
+  }
+
+  /**
+   * @param source The type string. E.G: <code>java.util.Map&lt;K, java.util.List&lt;? extends
+   *     V&gt;&gt;</code>
+   * @return The type reference.
+   * @throws TypeParseException If the type string is malformed.
+   */
+  @NotNull
+  static TypeReference parse(@NotNull CharSequence source) {
+    final TypeParser parser = new TypeParser(source);
+    final TypeReference type = parser.readType(true);
+    parser.skipWhitespace();
+    if (parser.index != source.length()) {
+      throw parser.error("Unexpected character '" + source.charAt(parser.index) + "'");
+    }
+    return type;
+  }
+
+  @NotNull
+  private TypeReference readType(boolean allowBounds) {
+    skipWhitespace();
+    final int start = index;
+    final String name = readName();
+
+    List<TypeReference> arguments = null;
+    skipWhitespace();
+    if (peek('<')) {
+      arguments = readArguments();
+      skipWhitespace();
+    }
+
+    int arrayDepth = 0;
+    while (peek('[')) {
+      index++;
+      skipWhitespace();
+      expect(']');
+      skipWhitespace();
+      arrayDepth++;
+    }
+
+    final boolean wildcard = name.equals("?");
+    final boolean extendsBounds = allowBounds && readKeyword("extends");
+    if (extendsBounds || (allowBounds && readKeyword("super"))) {
+      if (arguments != null || arrayDepth != 0) {
+        throw error("Bounded types cannot have type arguments or array dimensions", start);
+      }
+      final TypeReference[] bounds = readBounds();
+      if (wildcard) {
+        return TypeReference.ofWildcard(extendsBounds, bounds);
+      }
+      return TypeReference.ofBounded(name, extendsBounds, bounds, isGeneric(name));
+    }
+
+    if (wildcard && (arguments != null || arrayDepth != 0)) {
+      throw error("Wildcards cannot have type arguments or array dimensions", start);
+    }
+    return TypeReference.ofSimple(name, arguments, arrayDepth, wildcard || isGeneric(name));
+  }
+
+  @NotNull
+  private List<TypeReference> readArguments() {
+    // Skip '<'.
+    index++;
+    final List<TypeReference> arguments = new ArrayList<>(2);
+    while (true) {
+      arguments.add(readType(true));
+      skipWhitespace();
+      if (peek(',')) {
+        index++;
+      } else {
+        expect('>');
+        return arguments;
+      }
+    }
+  }
+
+  @NotNull
+  private TypeReference[] readBounds() {
+    final List<TypeReference> bounds = new ArrayList<>(1);
+    while (true) {
+      bounds.add(readType(false));
+      skipWhitespace();
+      if (peek('&')) {
+        index++;
+      } else {
+        return bounds.toArray(new TypeReference[0]);
+      }
+    }
+  }
+
+  @NotNull
+  private String readName() {
+    final int start = index;
+    if (peek('?')) {
+      index++;
+      return "?";
+    }
+    while (index < source.length()) {
+      final char c = source.charAt(index);
+      if (c == '.' || Character.isJavaIdentifierPart(c)) {
+        index++;
+      } else {
+        break;
+      }
+    }
+    if (index == start) {
+      if (index == source.length()) throw error("Expected a type name but reached the end");
+      throw error("Expected a type name but found '" + source.charAt(index) + "'");
+    }
+    return source.subSequence(start, index).toString();
+  }
+
+  /** Reads the keyword if it is next and not the start of a longer name. */
+  private boolean readKeyword(@NotNull String keyword) {
+    final int end = index + keyword.length();
+    if (end > source.length()) return false;
+    for (int i = 0; i < keyword.length(); i++) {
+      if (source.charAt(index + i) != keyword.charAt(i)) return false;
+    }
+    if (end < source.length() && Character.isJavaIdentifierPart(source.charAt(end))) return false;
+    index = end;
+    return true;
+  }
+
+  private boolean peek(char c) {
+    return index < source.length() && source.charAt(index) == c;
+  }
+
+  private void expect(char c) {
+    if (index == source.length()) {
+      throw error("Expected '" + c + "' but reached the end");
+    } else if (source.charAt(index) != c) {
+      throw error("Expected '" + c + "' but found '" + source.charAt(index) + "'");
+    }
+    index++;
+  }
+
+  private void skipWhitespace() {
+    while (index < source.length() && Character.isWhitespace(source.charAt(index))) {
+      index++;
+    }
+  }
+
+  @NotNull
+  private TypeParseException error(@NotNull String message) {
+    return error(message, index);
+  }
+
+  @NotNull
+  private TypeParseException error(@NotNull String message, int index) {
+    return new TypeParseException(message, source.toString(), index);
+  }
+
+  /** Names that are neither primitives nor resolvable classes are type variables. */
+  private static boolean isGeneric(@NotNull String name) {
+    return !TypeReference.PRIMITIVE_TYPES.contains(name) && !TypeReference.isResolvable(name);
+  }
+}
@@ -1,25 +1,34 @@
 package com.asledgehammer.rosetta.java.reference;
 
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 @SuppressWarnings("unused")
 public abstract class TypeReference {
 
-  private static final Map<Type, TypeReference> CACHE = new HashMap<>();
+  /** The caches of canonical instances. (Replaced when cleared) */
+  private static volatile Caches caches = new Caches();
 
-  static final List<String> PRIMITIVE_TYPES;
+  /** The caches that the instance is canonical in. (Null if it never was) */
+  @Nullable volatile Caches internedIn;
+
+  static final Set<String> PRIMITIVE_TYPES;
   static final TypeReference OBJECT_TYPE;
 
   //  static final TypeReference[] OBJECT_TYPE_MAP;
 
   static {
-    PRIMITIVE_TYPES = new ArrayList<>();
+    PRIMITIVE_TYPES = new HashSet<>();
     PRIMITIVE_TYPES.add("void");
     PRIMITIVE_TYPES.add("boolean");
     PRIMITIVE_TYPES.add("byte");
@@ -46,7 +55,7 @@ public abstract class TypeReference {
   public abstract String compile();
 
   @NotNull
-  public abstract String compile(@NotNull ClassReference reference, @NotNull Class<?> deCl);
+  public abstract String compile(@Nullable ClassReference reference, @Nullable Class<?> deCl);
 
   public abstract boolean isGeneric();
 
@@ -54,171 +63,306 @@ public abstract class TypeReference {
 
   public abstract boolean isPrimitive();
 
+  /**
+   * @return A copy of the bounds of the type.
+   */
   @NotNull
   public abstract TypeReference[] getBounds();
 
+  /**
+   * NOTE: The array is shared by the canonical instance and must not be modified.
+   *
+   * @return The bounds of the type.
+   */
+  abstract TypeReference[] bounds();
+
+  /**
+   * Type references are compared structurally. Every factory returns canonical instances, so equal
+   * references from the factories are also the same instance.
+   */
+  @Override
+  public abstract boolean equals(Object o);
+
+  @Override
+  public abstract int hashCode();
+
+  /**
+   * @param reference The type reference. (Its sub-types and bounds must already be interned)
+   * @return The canonical instance that is structurally equal to the reference.
+   */
   @NotNull
-  public static TypeReference of(@NotNull TypeVariable<?> type) {
-    if (CACHE.containsKey(type)) return CACHE.get(type);
-    Type[] bounds = type.getBounds();
-    TypeReference[] trBounds = new TypeReference[bounds.length];
-    for (int i = 0; i < bounds.length; i++) {
-      trBounds[i] = of(bounds[i]);
+  @SuppressWarnings("unchecked")
+  static <T extends TypeReference> T intern(@NotNull T reference) {
+    return intern(caches, reference);
+  }
+
+  /**
+   * @param caches The caches to intern in.
+   * @param reference The type reference.
+   * @return The instance that is canonical in the caches.
+   */
+  @NotNull
+  @SuppressWarnings("unchecked")
+  static <T extends TypeReference> T intern(@NotNull Caches caches, @NotNull T reference) {
+    // Canonical instances are interned again when building the types that contain them.
+    if (reference.internedIn == caches) return reference;
+    // Most references are already interned. (Lookups don't lock)
+    TypeReference interned = caches.interned.get(reference);
+    if (interned == null) {
+      // Types built before the caches were cleared can hold parts that aren't canonical anymore.
+      final TypeReference canonical = reference.internParts(caches);
+      interned = caches.interned.intern(canonical);
+      if (interned == canonical) canonical.internedIn = caches;
     }
-    TypeReference reference = new UnionTypeReference(type.getTypeName(), true, trBounds);
-    CACHE.put(type, reference);
-    return reference;
+    return (T) interned;
+  }
+
+  /**
+   * @param caches The caches to intern in.
+   * @return The reference, or a copy of it whose sub-types & bounds are canonical in the caches.
+   *     (Of the same class)
+   */
+  @NotNull
+  abstract TypeReference internParts(@NotNull Caches caches);
+
+  /**
+   * @param name The binary name of a type.
+   * @return True if the name resolves to a class. (Otherwise it is a type variable)
+   */
+  static boolean isResolvable(@NotNull String name) {
+    return ClassResolutionCache.SHARED.isResolvable(ClassLoader.getSystemClassLoader(), name);
   }
 
+  @NotNull
+  private static TypeReference[] internAll(@NotNull TypeReference[] references) {
+    final TypeReference[] interned = new TypeReference[references.length];
+    for (int i = 0; i < references.length; i++) {
+      interned[i] = intern(references[i]);
+    }
+    return interned;
+  }
+
+  /**
+   * @param type The type variable declaration.
+   * @return The type variable with its bounds. (E.G: <code>T extends java.lang.Number</code>)
+   */
+  @NotNull
+  public static TypeReference of(@NotNull TypeVariable<?> type) {
+    return ofVariable(type.getName(), ofAll(type.getBounds()));
+  }
+
+  /**
+   * Converts the type tree directly, without parsing its type name. Type variables are converted as
+   * uses of the variable. (See {@link #of(TypeVariable)} for declarations)
+   *
+   * @param type The type to convert.
+   * @return The type reference.
+   */
   @NotNull
   public static TypeReference of(@NotNull Type type) {
-    if (CACHE.containsKey(type)) return CACHE.get(type);
-    TypeReference reference = of(type.getTypeName());
-    CACHE.put(type, reference);
-    return reference;
+    if (type instanceof Class<?> clazz) return of(clazz);
+    return convert(type);
   }
 
   @NotNull
   public static TypeReference of(@NotNull Class<?> clazz) {
-    if (CACHE.containsKey(clazz)) {
-      return CACHE.get(clazz);
+    final Caches current = caches;
+    final TypeReference cached = current.classes.get(clazz.getName());
+    if (cached != null) return cached;
+    int arrayDepth = 0;
+    Class<?> component = clazz;
+    while (component.isArray()) {
+      arrayDepth++;
+      component = component.getComponentType();
     }
-    TypeReference reference = of(clazz.getTypeName());
-    CACHE.put(clazz, reference);
+    TypeReference reference = ofSimple(component.getName(), null, arrayDepth, false);
+    current.classes.putIfAbsent(clazz.getName(), reference);
     return reference;
   }
 
   @NotNull
-  public static TypeReference ofOld(@NotNull String rawType) {
-    // No need to iterate.
-    if (!rawType.contains("&") && !rawType.contains(" extends ") && !rawType.contains(" super ")) {
-      TypeReference reference = new SimpleTypeReference(rawType);
-      if (reference.isGeneric()) {
-        reference = new UnionTypeReference(rawType, true, null);
+  private static TypeReference convert(@NotNull Type type) {
+    if (type instanceof ParameterizedType parameterizedType) {
+      // Owner types are part of the binary name. (Only the arguments of the type itself are kept)
+      final Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+      final Type[] arguments = parameterizedType.getActualTypeArguments();
+      // Inner classes of generic owners are parameterized without arguments of their own.
+      return ofSimple(
+          rawType.getName(), arguments.length != 0 ? List.of(ofAll(arguments)) : null, 0, false);
+    } else if (type instanceof WildcardType wildcardType) {
+      final Type[] lowerBounds = wildcardType.getLowerBounds();
+      if (lowerBounds.length != 0) {
+        return ofWildcard(false, ofAll(lowerBounds));
       }
-      return reference;
-    }
-
-    String base;
-    String sub;
-    boolean extendsOrSuper = rawType.contains(" extends ");
-    if (extendsOrSuper) {
-      base = rawType.substring(0, rawType.indexOf(" extends ") - 1);
-      sub = rawType.substring(rawType.indexOf(" extends ") + " extends ".length());
-    } else {
-      base = rawType.substring(0, rawType.indexOf(" super ") - 1);
-      sub = rawType.substring(rawType.indexOf(" super ") + " super ".length());
+      final Type[] upperBounds = wildcardType.getUpperBounds();
+      if (upperBounds.length == 0 || (upperBounds.length == 1 && upperBounds[0] == Object.class)) {
+        return ofSimple("?", null, 0, true);
+      }
+      return ofWildcard(true, ofAll(upperBounds));
+    } else if (type instanceof GenericArrayType arrayType) {
+      // Only classes, parameterized types & type variables can be array components.
+      final SimpleTypeReference component =
+          (SimpleTypeReference) of(arrayType.getGenericComponentType());
+      return ofSimple(
+          component.getBase(),
+          component.hasSubTypes() ? component.getSubTypes() : null,
+          component.getArrayDepth() + 1,
+          component.isGeneric());
+    } else if (type instanceof TypeVariable<?> variable) {
+      return ofSimple(variable.getName(), null, 0, true);
     }
+    // Unknown implementation of Type.
+    return of(type.getTypeName());
+  }
 
-    List<String> list = getStrings(sub);
-
-    TypeReference[] typeAliases = new TypeReference[list.size()];
-    for (int i = 0; i < typeAliases.length; i++) {
-      typeAliases[i] = ofOld(list.get(i));
+  @NotNull
+  private static TypeReference[] ofAll(@NotNull Type[] types) {
+    final TypeReference[] references = new TypeReference[types.length];
+    for (int i = 0; i < types.length; i++) {
+      references[i] = of(types[i]);
     }
-
-    return new UnionTypeReference(base, extendsOrSuper, typeAliases);
+    return references;
   }
 
+  /**
+   * Builds a simple type structurally, without parsing or resolving any class.
+   *
+   * @param base The binary name of the type, a primitive, a type variable or <code>?</code>.
+   * @param subTypes The type arguments of the type. (If any)
+   * @param arrayDepth The array dimensions of the type.
+   * @param generic True if the base is a type variable or wildcard.
+   * @return The type reference.
+   */
   @NotNull
-  public static TypeReference of(@NotNull String rawType) {
-
-    final int firstIndexOfSpace = rawType.indexOf(" ");
-    final int firstIndexOfSubTypes = rawType.indexOf("<");
-    final int firstIndexOfUnionTypes = rawType.indexOf("&");
-    final int firstIndexOfExtends = rawType.indexOf(" extends ");
-    final int firstIndexOfSuper = rawType.indexOf(" super ");
-
-    String base;
-    boolean extendsOrSuper;
-
-    boolean isSimpleType = firstIndexOfSpace == -1 && firstIndexOfSubTypes == -1;
-    if (isSimpleType) {
-      return new SimpleTypeReference(rawType);
+  public static TypeReference ofSimple(
+      @NotNull String base,
+      @Nullable List<TypeReference> subTypes,
+      int arrayDepth,
+      boolean generic) {
+    if (subTypes == null && arrayDepth == 0) {
+      final Caches current = caches;
+      final WeakValueMap<String, TypeReference> leaves =
+          generic ? current.genericLeaves : current.leaves;
+      final TypeReference cached = leaves.get(base);
+      if (cached != null) return cached;
+      final TypeReference leaf = intern(new SimpleTypeReference(base, null, 0, generic));
+      leaves.putIfAbsent(base, leaf);
+      return leaf;
     }
-
-    boolean spaceBeforeSubType =
-        firstIndexOfSpace != -1
-            && (firstIndexOfSubTypes == -1 || firstIndexOfSpace < firstIndexOfSubTypes);
-
-    // If we don't have subTypes, don't mess with parse-checking them.
-    // No need to worry about '<..,..>' here.
-    if (spaceBeforeSubType) {
-
-      // '&' is used.
-      final boolean isUnionType = (firstIndexOfUnionTypes != -1);
-
-      TypeReference[] typeAliases = null;
-      if (isUnionType) {
-        String sub = null;
-        extendsOrSuper = rawType.contains(" extends ");
-        if (firstIndexOfExtends != -1) {
-          base = rawType.substring(0, rawType.indexOf(" extends "));
-          sub = rawType.substring(firstIndexOfExtends + (" extends ".length()));
-        } else if (firstIndexOfSuper != -1) {
-          base = rawType.substring(0, rawType.indexOf(" super "));
-          sub = rawType.substring(firstIndexOfSuper + (" super ".length()));
-        } else {
-          base = rawType.trim();
-          extendsOrSuper = true;
-        }
-
-        if (sub != null) {
-          List<String> list = getStrings(sub);
-          typeAliases = new TypeReference[list.size()];
-          for (int i = 0; i < typeAliases.length; i++) {
-            typeAliases[i] = of(list.get(i));
-          }
-        }
-      } else {
-        // No need to worry about '<..,..>' here.
-        base = rawType.trim().split(" ")[0];
-
-        String sub;
-        extendsOrSuper = rawType.contains(" extends ");
-        if (firstIndexOfExtends != -1) {
-          sub = rawType.substring(firstIndexOfExtends + (" extends ".length()));
-          typeAliases = new TypeReference[] {of(sub)};
-        } else if (firstIndexOfSuper != -1) {
-          sub = rawType.substring(firstIndexOfSuper + (" super ".length()));
-          typeAliases = new TypeReference[] {of(sub)};
-        } else {
-          base = rawType.trim();
-          extendsOrSuper = true;
-        }
+    List<TypeReference> internedSubTypes = null;
+    if (subTypes != null) {
+      internedSubTypes = new ArrayList<>(subTypes.size());
+      for (TypeReference subType : subTypes) {
+        internedSubTypes.add(intern(subType));
       }
-      return new UnionTypeReference(base, extendsOrSuper, typeAliases);
     }
+    return intern(new SimpleTypeReference(base, internedSubTypes, arrayDepth, generic));
+  }
 
-    return new SimpleTypeReference(rawType);
+  /**
+   * Builds a bounded wildcard structurally. (E.G: <code>? extends java.lang.Number</code>)
+   *
+   * @param extendsOrSuper True for <code>extends</code> bounds, false for <code>super</code>
+   *     bounds.
+   * @param bounds The bounds of the wildcard.
+   * @return The type reference.
+   */
+  @NotNull
+  public static TypeReference ofWildcard(boolean extendsOrSuper, @NotNull TypeReference[] bounds) {
+    return intern(new UnionTypeReference("?", extendsOrSuper, internAll(bounds), true));
   }
 
+  /**
+   * Builds a type variable declaration structurally. (E.G: <code>T extends java.lang.Number
+   * </code>)
+   *
+   * @param name The name of the type variable.
+   * @param bounds The bounds of the type variable.
+   * @return The type reference.
+   */
   @NotNull
-  private static List<String> getStrings(@NotNull String sub) {
-    List<String> list = new ArrayList<>();
-    int level = 0;
-    StringBuilder current = new StringBuilder();
-    for (int index = 0; index < sub.length(); index++) {
-      char curr = sub.charAt(index);
-      if (curr == '<') {
-        level++;
-      } else if (curr == '>') {
-        level--;
-      } else if (curr == '&' && level == 0) {
-        list.add(current.toString().trim());
-        current = new StringBuilder();
-        continue;
-      }
-      current.append(curr);
-    }
-    if (!current.isEmpty()) {
-      list.add(current.toString().trim());
-    }
-    return list;
+  public static TypeReference ofVariable(@NotNull String name, @NotNull TypeReference[] bounds) {
+    return intern(new UnionTypeReference(name, true, internAll(bounds), true));
+  }
+
+  /**
+   * Builds a bounded type structurally. (E.G: <code>? super java.lang.Integer</code>)
+   *
+   * @param base The name of the bounded type. (A type variable or <code>?</code>)
+   * @param extendsOrSuper True for <code>extends</code> bounds, false for <code>super</code>
+   *     bounds.
+   * @param bounds The bounds of the type.
+   * @param generic True if the base is a type variable or wildcard.
+   * @return The type reference.
+   */
+  @NotNull
+  public static TypeReference ofBounded(
+      @NotNull String base,
+      boolean extendsOrSuper,
+      @NotNull TypeReference[] bounds,
+      boolean generic) {
+    return intern(new UnionTypeReference(base, extendsOrSuper, internAll(bounds), generic));
+  }
+
+  /**
+   * @param rawType The type string. E.G: <code>java.util.Map&lt;K, java.util.List&lt;? extends
+   *     V&gt;&gt;</code>
+   * @return The type reference.
+   * @throws com.asledgehammer.rosetta.exception.TypeParseException If the type string is malformed.
+   */
+  @NotNull
+  public static TypeReference of(@NotNull String rawType) {
+    final Caches current = caches;
+    final TypeReference cached = current.strings.get(rawType);
+    if (cached != null) return cached;
+    final TypeReference reference = TypeParser.parse(rawType);
+    current.strings.putIfAbsent(rawType, reference);
+    return reference;
   }
 
+  /**
+   * Replaces the caches. Types built while clearing are only cached in the caches they started
+   * with, so they never leave stale instances in the new caches. (Older canonical instances are
+   * interned again when used)
+   */
   public static void clearCache() {
-    CACHE.clear();
+    final Caches cleared = new Caches();
+    // Keep the shared object bounds canonical.
+    intern(cleared, OBJECT_TYPE);
+    caches = cleared;
+    ClassResolutionCache.SHARED.clear();
+  }
+
+  /**
+   * Caches holds the canonical instances of one generation. Instances are weakly held, so the
+   * caches never keep types alive that nothing else uses. (Those are built again when needed)
+   */
+  static final class Caches {
+
+    /**
+     * Classes by binary name, so that the classes of discarded class-loaders stay collectable.
+     * (References only store names) Other reflected types aren't cached: Reflection builds them
+     * again on each call, so they would never be found again.
+     */
+    private final WeakValueMap<String, TypeReference> classes = new WeakValueMap<>();
+
+    /**
+     * The canonical instance of every structurally distinct type. (See {@link
+     * TypeReference#intern(TypeReference)})
+     */
+    private final WeakInterner<TypeReference> interned = new WeakInterner<>();
+
+    /**
+     * Canonical simple types without type arguments or array dimensions, by base. These are most of
+     * the types built, so they are found without building the type first. (Generic and non-generic
+     * bases are kept apart)
+     */
+    private final WeakValueMap<String, TypeReference> leaves = new WeakValueMap<>();
+
+    private final WeakValueMap<String, TypeReference> genericLeaves = new WeakValueMap<>();
+
+    /** Parsed type strings, mapped to their canonical instances. */
+    private final WeakValueMap<String, TypeReference> strings = new WeakValueMap<>();
   }
 
   private static class TestType<J, K extends Map<J, String>> extends ArrayList<K> {}
@@ -13,97 +13,58 @@ public class UnionTypeReference extends TypeReference implements BoundReference
   private final boolean wildcard;
   private final boolean primitive;
   private final boolean generic;
+  private final int hash;
 
-  private static final Map<String, Boolean> MAP_CHECKED_GENERIC = new HashMap<>();
-
-  private static boolean isGeneric(String base) {
-    if (MAP_CHECKED_GENERIC.containsKey(base)) {
-      return MAP_CHECKED_GENERIC.get(base);
-    }
+  /**
+   * Structural constructor. The base is never resolved, so the caller decides whether it is
+   * generic.
+   */
+  UnionTypeReference(
+      @NotNull String base,
+      boolean extendsOrSuper,
+      @Nullable TypeReference[] bounds,
+      boolean generic) {
+    this.base = base;
+    this.extendsOrSuper = extendsOrSuper;
+    this.bounds = bounds;
+    this.wildcard = base.equals("?");
+    this.primitive = PRIMITIVE_TYPES.contains(base);
+    this.generic = generic || this.wildcard;
+    this.hash = computeHash();
+  }
 
-    boolean result = false;
-    // Attempt to resolve the path. if it doesn't exist then it's considered generic.
-    try {
-      Class.forName(base, false, ClassLoader.getSystemClassLoader());
-    } catch (Exception e) {
-      result = true;
-    }
+  private int computeHash() {
+    return Objects.hash(base, extendsOrSuper, Arrays.hashCode(bounds), generic);
+  }
 
-    MAP_CHECKED_GENERIC.put(base, result);
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof UnionTypeReference other) || hash != other.hash) return false;
+    return extendsOrSuper == other.extendsOrSuper
+        && generic == other.generic
+        && base.equals(other.base)
+        && Arrays.equals(bounds, other.bounds);
+  }
 
-    return result;
+  @Override
+  public int hashCode() {
+    return hash;
   }
 
-  UnionTypeReference(
-      @NotNull String base, boolean extendsOrSuper, @Nullable TypeReference[] bounds) {
-
-    //    System.out.println(
-    //        "new UnionTypeReference(base = \""
-    //            + base
-    //            + "\", extendsOrSuper="
-    //            + extendsOrSuper
-    //            + ", bounds = "
-    //            + Arrays.toString(bounds)
-    //            + ")");
-
-    base = base.trim();
-    this.wildcard = base.startsWith("?");
-    if (this.wildcard) {
-      this.base = "?";
-      this.primitive = false;
-      this.generic = true;
-      this.extendsOrSuper = base.contains("? extends ");
-
-      // We parse the types because they are preserved in runtime here, otherwise we'd only see
-      // Object.
-      if (!base.equals("?")) {
-        String sub;
-        if (this.extendsOrSuper) {
-          sub = base.substring("? extends ".length());
-        } else {
-          sub = base.substring("? super ".length());
-        }
-
-        StringBuilder currSub = new StringBuilder();
-        List<TypeReference> subs = new ArrayList<>();
-        int level = 0;
-        for (int i = 0; i < sub.length(); i++) {
-          char curr = sub.charAt(i);
-          if (curr == '<') {
-            level++;
-          } else if (curr == '>') {
-            level--;
-          } else if (curr == '&' && level == 0) {
-            subs.add(TypeReference.of(currSub.toString().trim()));
-            currSub = new StringBuilder();
-            continue;
-          }
-          currSub.append(curr);
-        }
-        if (!currSub.isEmpty()) {
-          subs.add(TypeReference.of(currSub.toString().trim()));
-        }
-        bounds = new TypeReference[subs.size()];
-        for (int i = 0; i < bounds.length; i++) {
-          bounds[i] = subs.get(i);
-        }
-        this.bounds = bounds;
-      } else {
-        // Normal wildcard that allows any type of object.
-        this.bounds = null;
-      }
-    } else {
-      this.base = base.trim();
-      this.extendsOrSuper = extendsOrSuper;
-      this.bounds = bounds;
-      String adjustedBase = this.base.replace("[]", "");
-      this.primitive = PRIMITIVE_TYPES.contains(adjustedBase);
-      boolean generic = false;
-      if (!this.primitive) {
-        generic = isGeneric(adjustedBase);
-      }
-      this.generic = generic;
+  @NotNull
+  @Override
+  UnionTypeReference internParts(@NotNull Caches caches) {
+    if (bounds == null) return this;
+    TypeReference[] interned = null;
+    for (int i = 0; i < bounds.length; i++) {
+      final TypeReference canonical = intern(caches, bounds[i]);
+      if (interned == null && canonical != bounds[i]) interned = bounds.clone();
+      if (interned != null) interned[i] = canonical;
     }
+    return interned != null
+        ? new UnionTypeReference(base, extendsOrSuper, interned, generic)
+        : this;
   }
 
   @NotNull
@@ -128,7 +89,7 @@ public class UnionTypeReference extends TypeReference implements BoundReference
 
   @NotNull
   @Override
-  public String compile(@NotNull ClassReference clazzReference, @NotNull Class<?> deCl) {
+  public String compile(@Nullable ClassReference clazzReference, @Nullable Class<?> deCl) {
 
     if (this.bounds == null) return this.base;
 
@@ -170,6 +131,11 @@ public class UnionTypeReference extends TypeReference implements BoundReference
   @NotNull
   @Override
   public TypeReference[] getBounds() {
+    return bounds != null ? bounds.clone() : null;
+  }
+
+  @Override
+  TypeReference[] bounds() {
     return bounds;
   }
 
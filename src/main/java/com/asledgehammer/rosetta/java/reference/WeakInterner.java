@@ -0,0 +1,104 @@
+package com.asledgehammer.rosetta.java.reference;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * WeakInterner holds the canonical instance of structurally equal values without keeping them
+ * alive. A collected instance can't be compared to anymore, so no two live equal values are ever
+ * canonical at once.
+ */
+final class WeakInterner<T> {
+
+  /**
+   * Entries are keyed by themselves. Lookups use a {@link Lookup} key instead, which the map
+   * compares to the entries. (ConcurrentHashMap always calls <code>equals</code> on the given key)
+   */
+  private final Map<Object, Entry<T>> map = new ConcurrentHashMap<>();
+
+  private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+  /**
+   * @param value The value to look up.
+   * @return The canonical instance equal to the value. (Null if none is live)
+   */
+  @Nullable
+  T get(@NotNull T value) {
+    final Entry<T> entry = map.get(new Lookup(value));
+    return entry != null ? entry.get() : null;
+  }
+
+  /**
+   * @param value The value to make canonical if no equal instance is.
+   * @return The canonical instance equal to the value.
+   */
+  @NotNull
+  T intern(@NotNull T value) {
+    expunge();
+    final Entry<T> entry = new Entry<>(value, queue);
+    while (true) {
+      final Entry<T> existing = map.putIfAbsent(entry, entry);
+      if (existing == null) return value;
+      final T current = existing.get();
+      if (current != null) return current;
+      // Collected, but not removed yet. (Entries without a referent only equal themselves)
+      map.remove(existing, existing);
+    }
+  }
+
+  private void expunge() {
+    Reference<? extends T> reference;
+    while ((reference = queue.poll()) != null) {
+      map.remove(reference, reference);
+    }
+  }
+
+  private static final class Entry<T> extends WeakReference<T> {
+
+    private final int hash;
+
+    Entry(@NotNull T value, @NotNull ReferenceQueue<T> queue) {
+      super(value, queue);
+      this.hash = value.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Entry<?> other) || hash != other.hash) return false;
+      final T value = get();
+      return value != null && value.equals(other.get());
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class Lookup {
+
+    private final Object value;
+
+    Lookup(@NotNull Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Entry<?> entry
+          && entry.hash == value.hashCode()
+          && value.equals(entry.get());
+    }
+
+    @Override
+    public int hashCode() {
+      return value.hashCode();
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.asledgehammer.rosetta.java.reference;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * WeakValueMap maps keys to weakly referenced values, so that caching a value never keeps it alive.
+ * The entries of collected values are removed on the next write.
+ */
+final class WeakValueMap<K, V> {
+
+  private final Map<K, Entry<K, V>> map = new ConcurrentHashMap<>();
+  private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+
+  /**
+   * @param key The key.
+   * @return The value. (Null if not mapped or collected)
+   */
+  @Nullable
+  V get(@NotNull K key) {
+    final Entry<K, V> entry = map.get(key);
+    return entry != null ? entry.get() : null;
+  }
+
+  /**
+   * @param key The key.
+   * @param value The value to map if the key isn't mapped to a live value.
+   * @return The live value mapped before, or the given value.
+   */
+  @NotNull
+  V putIfAbsent(@NotNull K key, @NotNull V value) {
+    expunge();
+    final Entry<K, V> entry = new Entry<>(key, value, queue);
+    while (true) {
+      final Entry<K, V> existing = map.putIfAbsent(key, entry);
+      if (existing == null) return value;
+      final V current = existing.get();
+      if (current != null) return current;
+      // Collected, but not removed yet.
+      if (map.replace(key, existing, entry)) return value;
+    }
+  }
+
+  private void expunge() {
+    Reference<? extends V> reference;
+    while ((reference = queue.poll()) != null) {
+      final Entry<?, ?> entry = (Entry<?, ?>) reference;
+      // The key can be mapped again since.
+      map.remove(entry.key, entry);
+    }
+  }
+
+  private static final class Entry<K, V> extends WeakReference<V> {
+
+    private final K key;
+
+    Entry(@NotNull K key, @NotNull V value, @NotNull ReferenceQueue<V> queue) {
+      super(value, queue);
+      this.key = key;
+    }
+  }
+}
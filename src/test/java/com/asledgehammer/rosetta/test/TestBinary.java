@@ -0,0 +1,97 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaBinary;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.exception.RosettaException;
+import com.asledgehammer.rosetta.java.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+public class TestBinary {
+
+  @Test
+  public void test() throws Exception {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+
+    JavaLanguage language = new JavaLanguage();
+    language.of(settings, ArrayList.class);
+    language.of(settings, ConcurrentHashMap.class);
+
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+
+    for (TypeDictionaryMode mode : TypeDictionaryMode.values()) {
+      JavaSerializeSettings serializeSettings = new JavaSerializeSettings().setTypeMode(mode);
+      String yaml =
+          collection.save(
+              "test",
+              (id, app) -> Map.of(),
+              (id, lang) -> ((JavaLanguage) lang).onSave(serializeSettings, id));
+
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      collection.saveBinary(
+          "test",
+          (id, app) -> Map.of(),
+          (id, lang) -> ((JavaLanguage) lang).onSave(serializeSettings, id),
+          stream);
+      byte[] bytes = stream.toByteArray();
+      assert bytes.length < yaml.length();
+
+      // The loaded data is identical to loading the YAML.
+      List<Map<String, Object>> fromYaml = new ArrayList<>();
+      Rosetta.createCollection()
+          .load((id, app, raw) -> {}, (id, lang, raw) -> fromYaml.add(raw), new StringReader(yaml));
+      List<Map<String, Object>> fromBinary = new ArrayList<>();
+      Rosetta.createCollection()
+          .loadBinary(
+              (id, app, raw) -> {},
+              (id, lang, raw) -> fromBinary.add(raw),
+              new ByteArrayInputStream(bytes));
+      assert fromBinary.equals(fromYaml) : mode;
+
+      // The round-trip is lossless, including the order of keys.
+      Object decoded = RosettaBinary.read(bytes);
+      assert Rosetta.getYamlWriter().dumpToString(decoded).equals(yaml) : mode;
+    }
+
+    // Scalars & strings resembling references.
+    List<Object> scalars =
+        Arrays.asList(
+            null, true, -1, Long.MIN_VALUE, 1.5, "$test:12", "$test:012", "$:1", "$a:b:3", "");
+    assert RosettaBinary.read(RosettaBinary.write(scalars)).equals(scalars);
+
+    byte[] bytes = RosettaBinary.write(Map.of("key", "value"));
+    bytes[4] = 2;
+    try {
+      RosettaBinary.read(bytes);
+      assert false;
+    } catch (RosettaException ignored) {
+    }
+
+    // Nesting is capped instead of overflowing the stack.
+    Object nested = "leaf";
+    for (int i = 0; i < RosettaBinary.MAX_DEPTH; i++) {
+      nested = i % 2 == 0 ? List.of(nested) : Map.of("key", nested);
+    }
+    assert RosettaBinary.read(RosettaBinary.write(nested)).equals(nested);
+
+    ByteArrayOutputStream deep = new ByteArrayOutputStream();
+    deep.writeBytes(new byte[] {'R', 'B', 'I', 'N', 1, 0});
+    for (int i = 0; i < 100_000; i++) {
+      deep.writeBytes(new byte[] {9, 1});
+    }
+    deep.write(0);
+    try {
+      RosettaBinary.read(deep.toByteArray());
+      assert false;
+    } catch (RosettaException ignored) {
+    }
+  }
+}
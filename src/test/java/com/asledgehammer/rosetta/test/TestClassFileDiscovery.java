@@ -0,0 +1,109 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.java.*;
+import com.asledgehammer.rosetta.java.classfile.ClassFile;
+import com.asledgehammer.rosetta.java.classfile.ClassFileLibrary;
+import com.asledgehammer.rosetta.java.classfile.SignatureReader;
+import com.asledgehammer.rosetta.java.reference.SimpleTypeReference;
+import com.asledgehammer.rosetta.java.reference.UnionTypeReference;
+import java.nio.file.Path;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+public class TestClassFileDiscovery {
+
+  @SuppressWarnings("unused")
+  static class Sample<T extends Number> extends ArrayList<T> implements Comparable<Sample<T>> {
+
+    public static final int CONSTANT = 1;
+    protected transient Map<String, List<T>> map;
+    private volatile T[] values;
+    int[][] grid;
+
+    public Sample() {}
+
+    protected Sample(List<T> list, String name) {}
+
+    public <E extends Comparable<E>> E max(List<E> list) {
+      return null;
+    }
+
+    public static void main(String[] args) {}
+
+    @Override
+    public int compareTo(Sample<T> o) {
+      return 0;
+    }
+
+    class Inner {
+      Inner(List<T> list) {}
+    }
+
+    enum Kind {
+      A,
+      B
+    }
+  }
+
+  @Test
+  public void test() throws Exception {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    JavaSerializeSettings serializeSettings = new JavaSerializeSettings();
+
+    Path classes =
+        Path.of(
+            TestClassFileDiscovery.class
+                .getProtectionDomain()
+                .getCodeSource()
+                .getLocation()
+                .toURI());
+
+    List<Class<?>> samples = List.of(Sample.class, Sample.Inner.class, Sample.Kind.class);
+
+    JavaLanguage reflected = new JavaLanguage();
+    for (Class<?> clazz : samples) {
+      reflected.of(settings, clazz);
+    }
+
+    JavaLanguage classFiles = new JavaLanguage();
+    try (ClassFileLibrary library = new ClassFileLibrary()) {
+      library.addDirectory(classes);
+      for (Class<?> clazz : samples) {
+        classFiles.of(settings, library, clazz.getName());
+      }
+    }
+
+    // The class-file backend documents the same definitions as reflection.
+    assert reflected
+        .onSave(serializeSettings, "test")
+        .equals(classFiles.onSave(serializeSettings, "test"));
+
+    // A library keeping a single class-file documents the same definitions.
+    JavaLanguage bounded = new JavaLanguage();
+    try (ClassFileLibrary library = new ClassFileLibrary(1)) {
+      library.addDirectory(classes);
+      for (Class<?> clazz : samples) {
+        bounded.of(settings, library, clazz.getName());
+      }
+
+      // Only the most recently requested class-files are kept.
+      ClassFile sample = library.get(Sample.class.getName());
+      assert library.get(Sample.class.getName()) == sample;
+      library.get(Sample.Kind.class.getName());
+      assert library.get(Sample.class.getName()) != sample;
+    }
+    assert bounded
+        .onSave(serializeSettings, "test")
+        .equals(classFiles.onSave(serializeSettings, "test"));
+
+    // Wildcard bounds are read from the signature.
+    SimpleTypeReference type =
+        (SimpleTypeReference)
+            SignatureReader.readFieldType("Ljava/util/List<+Ljava/lang/Number;>;");
+    UnionTypeReference wildcard = (UnionTypeReference) type.getSubTypes().get(0);
+    assert type.getBase().equals("java.util.List");
+    assert wildcard.isWildcard() && wildcard.isExtendsOrSuper();
+    assert wildcard.getBounds()[0].getBase().equals("java.lang.Number");
+  }
+}
@@ -0,0 +1,85 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.java.reference.ClassReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+public class TestClassReferenceCache {
+
+  @SuppressWarnings("unused")
+  public static class Plugin extends ArrayList<String> {
+    public Map<String, List<Integer>> map;
+
+    public <T extends Number> T get(T value) {
+      return value;
+    }
+  }
+
+  @Test
+  public void test() throws Exception {
+
+    ClassReference.clearCache();
+
+    // The super-classes are built along with the first reference.
+    ClassReference reference = ClassReference.of(ArrayList.class);
+    long misses = ClassReference.getCacheMisses();
+    long hits = ClassReference.getCacheHits();
+    assert misses > 1;
+
+    assert ClassReference.of(ArrayList.class) == reference;
+    assert ClassReference.of(AbstractList.class) == ClassReference.of(AbstractList.class);
+    assert ClassReference.getCacheMisses() == misses;
+    assert ClassReference.getCacheHits() == hits + 3;
+
+    // Members are resolved once, on first use.
+    Method get = ArrayList.class.getMethod("get", int.class);
+    Method forEach = Iterable.class.getMethod("forEach", Consumer.class);
+    long resolutions = ClassReference.getMemberResolutions();
+    for (int i = 0; i < 3; i++) {
+      reference.getMethodReference(get);
+      reference.getMethodReference(forEach);
+      reference.getFieldReference(AbstractList.class.getDeclaredField("modCount"));
+      reference.getConstructorReference(ArrayList.class.getConstructor());
+    }
+    assert ClassReference.getMemberResolutions() == resolutions + 4;
+
+    // Members outside the hierarchy are refused, so they are never cached.
+    try {
+      reference.getMethodReference(HashMap.class.getMethod("size"));
+      assert false;
+    } catch (IllegalArgumentException ignored) {
+    }
+    assert ClassReference.getMemberResolutions() == resolutions + 4;
+
+    // Clearing the cache drops the member references with their class references.
+    ClassReference.clearCache();
+    assert ClassReference.getMemberResolutions() == 0;
+    assert ClassReference.of(ArrayList.class).getMethodReference(get)
+        != reference.getMethodReference(get);
+    assert ClassReference.getMemberResolutions() == 1;
+
+    // References of classes from a discarded class-loader are collectable.
+    WeakReference<ClassLoader> loader = loadPlugin();
+    for (int i = 0; i < 50 && loader.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assert loader.get() == null;
+  }
+
+  private static WeakReference<ClassLoader> loadPlugin() throws Exception {
+    URL classes = TestClassReferenceCache.class.getProtectionDomain().getCodeSource().getLocation();
+    URLClassLoader loader =
+        new URLClassLoader(new URL[] {classes}, ClassLoader.getPlatformClassLoader());
+    Class<?> clazz = loader.loadClass(Plugin.class.getName());
+    assert clazz != Plugin.class;
+    assert ClassReference.of(clazz).getClazz() == clazz;
+    loader.close();
+    return new WeakReference<>(loader);
+  }
+}
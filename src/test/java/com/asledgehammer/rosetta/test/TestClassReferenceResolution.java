@@ -0,0 +1,120 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.java.reference.ClassReference;
+import com.asledgehammer.rosetta.java.reference.TypeReference;
+import com.asledgehammer.rosetta.java.reference.UnionTypeReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class TestClassReferenceResolution {
+
+  @SuppressWarnings("unused")
+  public static class Base<E> {
+    public E value;
+
+    public E get() {
+      return value;
+    }
+  }
+
+  public static class Middle<Y extends Number> extends Base<Y> {}
+
+  public static class Renamed<X extends Integer> extends Middle<X> {}
+
+  public static class Concrete extends Renamed<Integer> {}
+
+  public static class Strings extends ArrayList<String> {}
+
+  @SuppressWarnings("unused")
+  public static class Pairs<K, V> {
+    public Map<K, List<V>> map;
+    public List<? extends V> bounded;
+    public List<V>[] lists;
+    public V[][] grid;
+  }
+
+  public static class Named<T extends Number> extends Pairs<String, T> {}
+
+  public static class Counts extends Named<Integer> {}
+
+  public static class Wrapped<W> extends Base<List<W>> {}
+
+  public static class WrappedStrings extends Wrapped<String> {}
+
+  @Test
+  public void test() throws Exception {
+
+    // Variables renamed through the hierarchy resolve to the assigned type.
+    ClassReference concrete = ClassReference.of(Concrete.class);
+    TypeReference value = concrete.getFieldReference(Base.class.getField("value")).getType();
+    assert value == TypeReference.of(Integer.class);
+    // Member references are built once, on first use.
+    assert concrete.getFieldReference(Base.class.getField("value"))
+        == concrete.getFieldReference(Base.class.getField("value"));
+    assert concrete
+            .getMethodReference(Base.class.getMethod("get"))
+            .getReturnReference()
+            .getResolvedType()
+        == value;
+
+    // Unassigned variables keep the bounds of the class that declares them last.
+    ClassReference renamed = ClassReference.of(Renamed.class);
+    UnionTypeReference variable =
+        (UnionTypeReference) renamed.resolveType(TypeReference.of("E"), Base.class);
+    assert variable.getBase().equals("X");
+    assert variable.getBounds()[0] == TypeReference.of(Integer.class);
+
+    // Interfaces of the hierarchy are bound too.
+    ClassReference strings = ClassReference.of(Strings.class);
+    assert strings.resolveType(TypeReference.of("E"), List.class) == TypeReference.of(String.class);
+    assert strings.resolveType(TypeReference.of("T"), Iterable.class)
+        == TypeReference.of(String.class);
+
+    // Variables are substituted inside type arguments, wildcard bounds and array components.
+    TypeReference list = TypeReference.of("java.util.List<E>");
+    assert strings.resolveType(list, List.class)
+        == TypeReference.of("java.util.List<java.lang.String>");
+    ClassReference counts = ClassReference.of(Counts.class);
+    assert counts.getFieldReference(Pairs.class.getField("map")).getType()
+        == TypeReference.of("java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>");
+    assert counts.getFieldReference(Pairs.class.getField("bounded")).getType()
+        == TypeReference.of("java.util.List<? extends java.lang.Integer>");
+    assert counts.getFieldReference(Pairs.class.getField("lists")).getType()
+        == TypeReference.of("java.util.List<java.lang.Integer>[]");
+    assert counts.getFieldReference(Pairs.class.getField("grid")).getType()
+        == TypeReference.of("java.lang.Integer[][]");
+
+    // Unassigned variables inside types are used without their bounds.
+    ClassReference named = ClassReference.of(Named.class);
+    assert named
+        .getFieldReference(Pairs.class.getField("map"))
+        .getType()
+        .compile()
+        .equals("java.util.Map<java.lang.String, java.util.List<T>>");
+    assert named
+        .getFieldReference(Pairs.class.getField("grid"))
+        .getType()
+        .compile()
+        .equals("T[][]");
+
+    // Types assigned through the hierarchy are substituted too.
+    ClassReference wrapped = ClassReference.of(WrappedStrings.class);
+    assert wrapped.getFieldReference(Base.class.getField("value")).getType()
+        == TypeReference.of("java.util.List<java.lang.String>");
+
+    // Bounded variables resolve like plain ones. Wildcards with variable bounds aren't variables.
+    TypeReference boundedV = TypeReference.of("V extends java.lang.Object");
+    assert boundedV instanceof UnionTypeReference;
+    assert counts.resolveType(boundedV, Pairs.class) == TypeReference.of(Integer.class);
+    assert strings.resolveType(TypeReference.of("E extends java.lang.Object"), List.class)
+        == TypeReference.of(String.class);
+    assert counts.resolveType(TypeReference.of("? extends V"), Pairs.class)
+        == TypeReference.of("? extends java.lang.Integer");
+
+    // Types without variables are untouched.
+    TypeReference strings2D = TypeReference.of("java.lang.String[][]");
+    assert counts.resolveType(strings2D, Pairs.class) == strings2D;
+  }
+}
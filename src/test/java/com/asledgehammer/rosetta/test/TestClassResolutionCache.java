@@ -0,0 +1,43 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.java.reference.ClassResolutionCache;
+import java.net.URL;
+import java.net.URLClassLoader;
+import org.junit.jupiter.api.Test;
+
+public class TestClassResolutionCache {
+
+  @Test
+  public void test() throws Exception {
+
+    ClassResolutionCache cache = new ClassResolutionCache(2);
+    ClassLoader system = ClassLoader.getSystemClassLoader();
+
+    assert cache.isResolvable(system, "java.util.Map$Entry");
+    assert !cache.isResolvable(system, "T");
+    assert cache.size(system) == 2;
+
+    // Misses are remembered too.
+    assert !cache.isResolvable(system, "T");
+    assert cache.size(system) == 2;
+
+    // The least recently used name is evicted.
+    assert cache.isResolvable(system, "java.lang.String");
+    assert cache.size(system) == 2;
+
+    // Class-loaders are cached apart.
+    String name = TestClassResolutionCache.class.getName();
+    URL classes =
+        TestClassResolutionCache.class.getProtectionDomain().getCodeSource().getLocation();
+    try (URLClassLoader loader =
+        new URLClassLoader(new URL[] {classes}, ClassLoader.getPlatformClassLoader())) {
+      assert cache.isResolvable(loader, name);
+      assert !cache.isResolvable(ClassLoader.getPlatformClassLoader(), name);
+      assert cache.isResolvable(null, "java.lang.Object");
+      assert cache.size(loader) == 1;
+    }
+
+    cache.clear();
+    assert cache.size(system) == 0;
+  }
+}
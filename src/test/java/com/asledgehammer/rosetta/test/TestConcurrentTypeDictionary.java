@@ -0,0 +1,263 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.java.*;
+import com.asledgehammer.rosetta.java.reference.TypeReference;
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+public class TestConcurrentTypeDictionary {
+
+  private static final Pattern REFERENCE = Pattern.compile("\\$test:(\\d+)");
+
+  @Test
+  public void test() throws Exception {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+
+    // Classes of several packages, sharing most of their types. (Many more classes than threads)
+    JavaLanguage language = new JavaLanguage();
+    for (Class<?> clazz :
+        List.of(
+            ArrayList.class,
+            LinkedList.class,
+            ArrayDeque.class,
+            PriorityQueue.class,
+            HashMap.class,
+            LinkedHashMap.class,
+            TreeMap.class,
+            HashSet.class,
+            TreeSet.class,
+            EnumMap.class,
+            Optional.class,
+            Collections.class,
+            Arrays.class,
+            Objects.class,
+            ConcurrentHashMap.class,
+            ConcurrentSkipListMap.class,
+            ConcurrentLinkedQueue.class,
+            CopyOnWriteArrayList.class,
+            LinkedBlockingQueue.class,
+            CompletableFuture.class,
+            ExecutorService.class,
+            ThreadPoolExecutor.class,
+            Function.class,
+            BiFunction.class,
+            Supplier.class,
+            Consumer.class,
+            BiConsumer.class,
+            Predicate.class,
+            UnaryOperator.class,
+            BinaryOperator.class,
+            Reader.class,
+            Writer.class,
+            InputStream.class,
+            OutputStream.class,
+            BufferedReader.class,
+            String.class,
+            StringBuilder.class,
+            Integer.class,
+            Long.class,
+            Thread.class)) {
+      language.of(settings, clazz);
+    }
+
+    // Notes & tags that look like references are never renumbered.
+    JavaMethod method =
+        language
+            .getPackage("java.util.function")
+            .getClazz("Function")
+            .getMethods()
+            .get("andThen")
+            .getExecutables()
+            .get(0);
+    method.setNotes("$test:3");
+    method.addTag("$test:1");
+
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+
+    ExecutorService single = Executors.newSingleThreadExecutor();
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      for (TypeDictionaryMode mode : TypeDictionaryMode.values()) {
+        String expected = save(collection, mode, single);
+        assert expected.contains("notes: $test:3\n") && expected.contains("- $test:1\n") : mode;
+
+        // The shared dictionary loads the same model as a serial save without one.
+        String serial = save(collection, new JavaSerializeSettings().setTypeMode(mode));
+        assert expand(serial).equals(expand(expected)) : mode;
+
+        // The output never depends on scheduling.
+        for (int i = 0; i < 8; i++) {
+          assert expected.equals(save(collection, mode, pool)) : mode;
+        }
+
+        if (mode != TypeDictionaryMode.LIST) continue;
+
+        // Every type is rendered once, after its sub-types.
+        Object root = Rosetta.getYamlReader().loadFromString(expected);
+        List<Object> types = get(get(get(root, "languages"), "java"), "types");
+        assert new HashSet<>(types).size() == types.size();
+        for (int i = 0; i < types.size(); i++) {
+          Matcher matcher = REFERENCE.matcher(String.valueOf(types.get(i)));
+          while (matcher.find()) {
+            assert Integer.parseInt(matcher.group(1)) < i;
+          }
+        }
+      }
+    } finally {
+      single.shutdown();
+      pool.shutdown();
+    }
+
+    // Threads registering overlapping types at once get one index per type & renumber the same.
+    List<TypeReference> types = new ArrayList<>();
+    for (String arg :
+        List.of(
+            "java.lang.String",
+            "java.lang.Integer",
+            "java.lang.Long",
+            "java.lang.Number",
+            "java.lang.Object",
+            "java.lang.CharSequence",
+            "java.lang.Thread",
+            "java.util.List<java.lang.String>")) {
+      for (String type :
+          List.of(
+              "java.util.List<%s>",
+              "java.util.Set<%s>",
+              "java.util.Optional<%s>",
+              "java.util.Map<java.lang.String, %s>",
+              "java.util.Map<%1$s, java.util.List<%1$s>>",
+              "java.util.function.Function<? super %1$s, ? extends %1$s>",
+              "%s[]")) {
+        types.add(TypeReference.of(String.format(type, arg)));
+      }
+    }
+    for (TypeDictionaryMode mode :
+        List.of(TypeDictionaryMode.LIST, TypeDictionaryMode.DICTIONARY)) {
+      Object expected = registerConcurrently(types, mode, 1, 0);
+      for (int round = 1; round <= 4; round++) {
+        assert expected.equals(registerConcurrently(types, mode, 32, round)) : mode;
+      }
+    }
+  }
+
+  /**
+   * Registers every type from each thread in a different order, starting all threads at once.
+   *
+   * @return The rendered dictionary, once renumbered.
+   */
+  private static Object registerConcurrently(
+      List<TypeReference> types, TypeDictionaryMode mode, int threads, long seed) throws Exception {
+    // The concurrent dictionary is internal to saves.
+    Constructor<?> dictionaryConstructor =
+        Class.forName("com.asledgehammer.rosetta.java.JavaConcurrentTypeDictionary")
+            .getDeclaredConstructor(TypeDictionaryMode.class, String.class);
+    dictionaryConstructor.setAccessible(true);
+    JavaTypeDictionary dictionary =
+        (JavaTypeDictionary) dictionaryConstructor.newInstance(mode, "test");
+    Constructor<JavaSerializeInstance> serializeConstructor =
+        JavaSerializeInstance.class.getDeclaredConstructor(
+            JavaSerializeSettings.class, String.class, JavaTypeDictionary.class);
+    serializeConstructor.setAccessible(true);
+    JavaSerializeInstance serialize =
+        serializeConstructor.newInstance(
+            new JavaSerializeSettings().setTypeMode(mode), "test", dictionary);
+    Method renumber = dictionary.getClass().getDeclaredMethod("renumber");
+    renumber.setAccessible(true);
+
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<Map<String, String>>> futures = new ArrayList<>();
+    try {
+      for (int t = 0; t < threads; t++) {
+        List<TypeReference> order = new ArrayList<>(types);
+        Collections.shuffle(order, new Random(seed * threads + t));
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  Map<String, String> references = new HashMap<>();
+                  for (TypeReference type : order) {
+                    references.put(
+                        type.compile(), dictionary.register(serialize, type, null, null));
+                  }
+                  return references;
+                }));
+      }
+      start.countDown();
+
+      // Every thread got the same reference for each type.
+      Map<String, String> references = futures.get(0).get();
+      for (Future<Map<String, String>> future : futures) {
+        assert future.get().equals(references);
+      }
+      assert new HashSet<>(references.values()).size() == references.size();
+
+      // Provisional indices have no gaps, and renumbering maps them to the same dense range.
+      int size = dictionary.size();
+      assert size >= references.size();
+      Set<Integer> provisional = new HashSet<>();
+      for (String reference : references.values()) {
+        Matcher matcher = REFERENCE.matcher(reference);
+        assert matcher.matches() && Integer.parseInt(matcher.group(1)) < size;
+        provisional.add(Integer.parseInt(matcher.group(1)));
+      }
+      assert provisional.size() == references.size();
+      int[] indices = (int[]) renumber.invoke(dictionary);
+      assert indices.length == size && dictionary.size() == size;
+      int[] sorted = indices.clone();
+      Arrays.sort(sorted);
+      for (int i = 0; i < size; i++) assert sorted[i] == i;
+      return dictionary.render();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * @return The save loaded & saved again without a type-dictionary.
+   */
+  private static String expand(String yaml) {
+    JavaDeserializeSettings settings = new JavaDeserializeSettings();
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.load(
+        (id, app, raw) -> {},
+        (id, lang, raw) -> ((JavaLanguage) lang).onLoad(settings, id, raw),
+        yaml);
+    JavaSerializeSettings none = new JavaSerializeSettings();
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(none, id));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T get(Object map, String key) {
+    return (T) ((Map<String, Object>) map).get(key);
+  }
+
+  private static String save(
+      RosettaCollection collection, TypeDictionaryMode mode, Executor executor) {
+    return save(
+        collection,
+        new JavaSerializeSettings()
+            .setTypeMode(mode)
+            .setExecutor(executor)
+            .setShareTypeDictionary(true));
+  }
+
+  private static String save(RosettaCollection collection, JavaSerializeSettings settings) {
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(settings, id));
+  }
+}
@@ -0,0 +1,193 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.exception.ClassConflictException;
+import com.asledgehammer.rosetta.exception.RosettaException;
+import com.asledgehammer.rosetta.java.*;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+public class TestDirectoryLoad {
+
+  private static final JavaSerializeSettings SERIALIZE = new JavaSerializeSettings().build();
+
+  @Test
+  public void test() throws Exception {
+
+    Path directory = Files.createTempDirectory("rosetta-directory");
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      // One module per file, in each format & in sub-directories.
+      Files.writeString(directory.resolve("a.yml"), save(ArrayList.class, HashMap.class));
+      Files.createDirectories(directory.resolve("mods/b"));
+      try (Writer writer = Files.newBufferedWriter(directory.resolve("mods/b/b.json"))) {
+        collection(ConcurrentHashMap.class)
+            .saveJson(
+                "test",
+                (id, app, w) -> w.value(Map.of()),
+                (id, lang, w) -> ((JavaLanguage) lang).onSave(SERIALIZE, id, w),
+                writer,
+                true);
+      }
+      try (OutputStream stream = Files.newOutputStream(directory.resolve("mods/c.rbin"))) {
+        collection(Function.class, String.class)
+            .saveBinary(
+                "test",
+                (id, app) -> Map.of(),
+                (id, lang) -> ((JavaLanguage) lang).onSave(SERIALIZE, id),
+                stream);
+      }
+      Files.writeString(directory.resolve("notes.txt"), "Not a rosetta file.");
+
+      // The merged collection is identical to the collection of every module.
+      String expected =
+          save(
+              load(
+                  save(
+                      ArrayList.class,
+                      HashMap.class,
+                      ConcurrentHashMap.class,
+                      Function.class,
+                      String.class)));
+      for (int i = 0; i < 4; i++) {
+        assert expected.equals(save(loadDirectory(Rosetta.createCollection(), directory, pool)));
+      }
+
+      // Fragments cached in the directory are never loaded as collections.
+      JavaFragmentCache cache = new JavaFragmentCache(directory.resolve("cache"));
+      collection(Thread.class)
+          .save(
+              "test",
+              (id, app) -> Map.of(),
+              (id, lang) ->
+                  ((JavaLanguage) lang)
+                      .onSave(new JavaSerializeSettings().setFragmentCache(cache), id));
+      try (Stream<Path> cached = Files.list(directory.resolve("cache"))) {
+        assert cached.findAny().isPresent();
+      }
+      assert expected.equals(save(loadDirectory(Rosetta.createCollection(), directory, pool)));
+
+      // Classes already in the collection conflict before anything is merged.
+      RosettaCollection existing = load(save(Thread.class, HashMap.class));
+      String before = save(existing);
+      try {
+        loadDirectory(existing, directory, pool);
+        assert false;
+      } catch (RosettaException e) {
+        assert e.getMessage().contains("\"a.yml\"") : e.getMessage();
+        assert e.getCause() instanceof ClassConflictException conflict
+            && conflict.getPath().equals("java.util.HashMap");
+      }
+      assert before.equals(save(existing));
+
+      // Files must share the locale of the first file, checked before anything is merged.
+      Files.writeString(
+          directory.resolve("m.yml"), save(Thread.class).replace("locale: EN_US", "locale: DE_DE"));
+      RosettaCollection localized = Rosetta.createCollection();
+      try {
+        loadDirectory(localized, directory, pool);
+        assert false;
+      } catch (RosettaException e) {
+        assert e.getMessage().contains("\"m.yml\"") : e.getMessage();
+        assert e.getCause().getMessage().contains("DE_DE") : e.getCause().getMessage();
+      }
+      assert !localized.hasLanguage("java");
+      Files.writeString(directory.resolve("m.yml"), save(Thread.class));
+      assert loadDirectory(Rosetta.createCollection(), directory, pool).getLocale().equals("EN_US");
+
+      // Files that fail to parse are reported before anything is merged.
+      Files.writeString(directory.resolve("m.yml"), save(Thread.class) + "\n: [");
+      RosettaCollection broken = Rosetta.createCollection();
+      try {
+        loadDirectory(broken, directory, pool);
+        assert false;
+      } catch (RosettaException e) {
+        assert e.getMessage().contains("\"m.yml\"") : e.getMessage();
+      }
+      assert !broken.hasLanguage("java");
+      Files.delete(directory.resolve("m.yml"));
+
+      // Conflicts are reported by the first file in order to define the class again.
+      Files.writeString(directory.resolve("mods/d.yml"), save(ArrayList.class));
+      Files.writeString(directory.resolve("z.yml"), save(String.class));
+      for (int i = 0; i < 4; i++) {
+        RosettaCollection collection = Rosetta.createCollection();
+        try {
+          loadDirectory(collection, directory, pool);
+          assert false;
+        } catch (RosettaException e) {
+          assert e.getMessage().contains("\"mods/d.yml\"") : e.getMessage();
+          assert e.getCause() instanceof ClassConflictException conflict
+              && conflict.getPath().equals("java.util.ArrayList");
+        }
+        // (Nothing was merged)
+        assert !collection.hasLanguage("java");
+      }
+
+      // A conflicting load leaves the language unchanged.
+      JavaLanguage language = (JavaLanguage) existing.getLanguage("java");
+      Map<String, Object> conflicting =
+          ((JavaLanguage) collection(ArrayList.class, Thread.class).getLanguage("java"))
+              .onSave(SERIALIZE, "test");
+      try {
+        language.onLoad(new JavaDeserializeSettings(), "test", conflicting);
+        assert false;
+      } catch (ClassConflictException conflict) {
+        assert conflict.getPath().equals("java.lang.Thread");
+      }
+      assert !language.getPackage("java.util").hasClazz("ArrayList");
+    } finally {
+      pool.shutdown();
+      try (Stream<Path> files = Files.walk(directory)) {
+        for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+      }
+    }
+  }
+
+  private static RosettaCollection collection(Class<?>... classes) {
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+    JavaLanguage language = new JavaLanguage();
+    for (Class<?> clazz : classes) language.of(settings, clazz);
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+    return collection;
+  }
+
+  private static String save(Class<?>... classes) {
+    return save(collection(classes));
+  }
+
+  private static String save(RosettaCollection collection) {
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(SERIALIZE, id));
+  }
+
+  private static RosettaCollection load(String yaml) {
+    JavaDeserializeSettings settings = new JavaDeserializeSettings();
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.load(
+        (id, app, raw) -> {},
+        (id, lang, raw) -> ((JavaLanguage) lang).onLoad(settings, id, raw),
+        yaml);
+    return collection;
+  }
+
+  private static RosettaCollection loadDirectory(
+      RosettaCollection collection, Path directory, Executor executor) throws IOException {
+    JavaDeserializeSettings settings = new JavaDeserializeSettings();
+    collection.loadDirectory(
+        (id, app, raw) -> {},
+        (id, lang, raw) -> ((JavaLanguage) lang).onLoad(settings, id, raw),
+        directory,
+        executor);
+    return collection;
+  }
+}
@@ -0,0 +1,91 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.java.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+public class TestFragmentCache {
+
+  @Test
+  public void test() throws Exception {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+
+    JavaLanguage language = new JavaLanguage();
+    JavaClass arrayList = language.of(settings, ArrayList.class);
+    JavaClass hashMap = language.of(settings, HashMap.class);
+    language.of(settings, Optional.class);
+
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+
+    JavaMethod add = arrayList.getMethod(ArrayList.class.getMethod("add", Object.class));
+
+    // Notes that look like references are never remapped when fragments are merged.
+    hashMap.getMethod(HashMap.class.getMethod("get", Object.class)).setNotes("$test:0");
+
+    Path directory = Files.createTempDirectory("rosetta-fragments");
+    try {
+      for (TypeDictionaryMode mode : TypeDictionaryMode.values()) {
+        JavaSerializeSettings uncached = new JavaSerializeSettings().setTypeMode(mode);
+        JavaFragmentCache cache = new JavaFragmentCache(directory);
+        JavaSerializeSettings cached =
+            new JavaSerializeSettings().setTypeMode(mode).setFragmentCache(cache);
+
+        // The first save fills the cache. The second one serializes nothing.
+        String expected = save(collection, uncached);
+        assert expected.contains("notes: $test:0\n") : mode;
+        assert save(collection, cached).equals(expected) : mode;
+        long misses = cache.getMisses();
+        assert misses == 3 : mode;
+        assert save(collection, cached).equals(expected) : mode;
+        assert cache.getMisses() == misses : mode;
+
+        // Modifying a member only serializes its class again.
+        add.setNotes("Notes for " + mode + ".");
+        expected = save(collection, uncached);
+        assert save(collection, cached).equals(expected) : mode;
+        assert cache.getMisses() == misses + 1 : mode;
+
+        // Writes to the maps of a class are detected, even when no definition is added or removed.
+        Map<String, JavaExecutableCollection<JavaMethod>> methods = hashMap.getMethods();
+        long revision = hashMap.getRevision();
+        methods.put("put", methods.put("get", methods.get("put")));
+        assert hashMap.getRevision() == revision + 2 : mode;
+        String swapped = save(collection, uncached);
+        assert !swapped.equals(expected) : mode;
+        assert save(collection, cached).equals(swapped) : mode;
+        assert cache.getMisses() == misses + 2 : mode;
+        // (Swapped back, the content is that of a stored fragment again)
+        methods.put("put", methods.put("get", methods.get("put")));
+        assert save(collection, cached).equals(expected) : mode;
+        assert cache.getMisses() == misses + 2 : mode;
+
+        // Stored fragments serve a new cache.
+        JavaFragmentCache restored = new JavaFragmentCache(directory);
+        assert save(
+                    collection,
+                    new JavaSerializeSettings().setTypeMode(mode).setFragmentCache(restored))
+                .equals(expected)
+            : mode;
+        assert restored.getMisses() == 0 && restored.getHits() == 3 : mode;
+      }
+    } finally {
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path file : files.toList()) Files.delete(file);
+      }
+      Files.delete(directory);
+    }
+  }
+
+  private static String save(RosettaCollection collection, JavaSerializeSettings settings) {
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(settings, id));
+  }
+}
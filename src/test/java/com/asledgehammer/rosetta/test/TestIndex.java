@@ -0,0 +1,106 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.RosettaBinary;
+import com.asledgehammer.rosetta.exception.RosettaException;
+import com.asledgehammer.rosetta.java.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+public class TestIndex {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void test() throws Exception {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+
+    JavaLanguage language = new JavaLanguage();
+    language.of(settings, ArrayList.class);
+    language.of(settings, ConcurrentHashMap.class);
+    language.of(settings, Map.Entry.class);
+
+    JavaSerializeSettings serializeSettings = new JavaSerializeSettings();
+    Map<String, Object> packages =
+        (Map<String, Object>) language.onSave(serializeSettings, "test").get("packages");
+    Map<String, Object> classes =
+        (Map<String, Object>) ((Map<String, Object>) packages.get("java.util")).get("classes");
+    Object arrayList = RosettaBinary.read(RosettaBinary.write(classes.get("ArrayList")));
+
+    Path path = Files.createTempFile("rosetta", ".ridx");
+    try {
+      JavaIndex.write(language, serializeSettings, path);
+      try (JavaIndex index = JavaIndex.open(path)) {
+        assert arrayList.equals(index.getClassRecord("java.util.ArrayList"));
+
+        // Members are looked up without their class.
+        Map<String, Object> add = index.getMemberRecord("java.util.ArrayList", "add");
+        assert add != null && ((List<?>) add.get("methods")).size() > 1;
+        Map<String, Object> size = index.get("java.util.ArrayList#size");
+        assert size != null && size.containsKey("methods");
+        assert index.getMemberRecord("java.util.ArrayList", JavaIndex.CONSTRUCTOR) != null;
+        Map<String, Object> treeBin = index.get("java.util.concurrent.ConcurrentHashMap#TREEBIN");
+        assert treeBin != null && treeBin.containsKey("field");
+
+        // Nested classes are keyed by their binary names.
+        assert index.contains("java.util.Map$Entry");
+        assert index.get("java.util.Map$Entry#getKey") != null;
+
+        assert index.get("java.util.LinkedList") == null;
+        assert index.get("java.util.ArrayList#missing") == null;
+      }
+
+      // Records outside of the file are refused.
+      byte[] bytes = Files.readAllBytes(path);
+      int slotCount = ByteBuffer.wrap(bytes).getInt(12);
+      Files.write(path, Arrays.copyOf(bytes, 16 + slotCount * 16));
+      try (JavaIndex index = JavaIndex.open(path)) {
+        index.get("java.util.ArrayList");
+        assert false;
+      } catch (RosettaException ignored) {
+      }
+
+      // Corrupt offsets & lengths in the table are refused.
+      ByteBuffer corrupt = ByteBuffer.wrap(bytes.clone());
+      for (int slot = 0; slot < slotCount; slot++) {
+        int offset = 16 + slot * 16;
+        if (corrupt.getInt(offset + 4) != 0) corrupt.putInt(offset + 12, Integer.MAX_VALUE);
+      }
+      Files.write(path, corrupt.array());
+      try (JavaIndex index = JavaIndex.open(path)) {
+        index.get("java.util.ArrayList");
+        assert false;
+      } catch (RosettaException ignored) {
+      }
+      for (int slot = 0; slot < slotCount; slot++) {
+        int offset = 16 + slot * 16;
+        if (corrupt.getInt(offset + 4) != 0) corrupt.putInt(offset + 4, bytes.length + 1);
+      }
+      Files.write(path, corrupt.array());
+      try (JavaIndex index = JavaIndex.open(path)) {
+        index.contains("java.util.ArrayList");
+        assert false;
+      } catch (RosettaException ignored) {
+      }
+
+      // Keys longer than their 2-byte length prefix are refused.
+      Map<String, Object> raw = language.onSave(serializeSettings, "test");
+      Map<String, Object> renamed = new HashMap<>((Map<String, Object>) raw.get("packages"));
+      renamed.put("x".repeat(0x10000), renamed.remove("java.util"));
+      raw.put("packages", renamed);
+      JavaLanguage longKeys = new JavaLanguage();
+      longKeys.onLoad(new JavaDeserializeSettings().build(), "test", raw);
+      try {
+        JavaIndex.write(longKeys, serializeSettings, path);
+        assert false;
+      } catch (RosettaException ignored) {
+      }
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.java.*;
+import com.asledgehammer.rosetta.java.classfile.ClassFileLibrary;
+import com.asledgehammer.rosetta.java.classfile.JarScanSettings;
+import com.asledgehammer.rosetta.java.classfile.JarScanner;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import org.junit.jupiter.api.Test;
+
+public class TestJarScanner {
+
+  @Test
+  public void test() throws Exception {
+
+    Path classes =
+        Path.of(TestJarScanner.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    List<Class<?>> samples =
+        List.of(
+            TestClassFileDiscovery.class,
+            TestClassFileDiscovery.Sample.class,
+            TestClassFileDiscovery.Sample.Inner.class,
+            TestClassFileDiscovery.Sample.Kind.class);
+
+    Path jar = Files.createTempFile("rosetta", ".jar");
+    try {
+      try (JarOutputStream stream = new JarOutputStream(Files.newOutputStream(jar))) {
+        for (int i = 0; i < samples.size(); i++) {
+          String entryName = samples.get(i).getName().replace('.', '/') + ".class";
+          byte[] bytes = Files.readAllBytes(classes.resolve(entryName));
+          JarEntry entry = new JarEntry(entryName);
+          // Mix stored & deflated entries.
+          if (i % 2 == 0) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(bytes.length);
+            entry.setCrc(crc.getValue());
+          }
+          stream.putNextEntry(entry);
+          stream.write(bytes);
+          stream.closeEntry();
+        }
+        stream.putNextEntry(new JarEntry("com/asledgehammer/rosetta/test/data.txt"));
+        stream.write("Not a class.".getBytes());
+        stream.closeEntry();
+      }
+
+      try (JarScanner scanner = new JarScanner(jar)) {
+        // Resources are never listed.
+        assert scanner.getEntries().size() == samples.size();
+
+        for (JarScanner.Entry entry : scanner.getEntries()) {
+          byte[] expected =
+              Files.readAllBytes(
+                  classes.resolve(entry.getClassName().replace('.', '/') + ".class"));
+          assert Arrays.equals(scanner.read(entry), expected);
+        }
+
+        JarScanSettings excluded = new JarScanSettings().exclude("com.asledgehammer").build();
+        assert scanner.getEntries(excluded).isEmpty();
+
+        JarScanSettings included = new JarScanSettings().include("com.asledgehammer").build();
+        assert scanner.getEntries(included).size() == samples.size();
+
+        // Entries read concurrently are identical.
+        List<byte[]> concurrent =
+            scanner.getEntries().parallelStream()
+                .map(
+                    entry -> {
+                      try {
+                        return scanner.read(entry);
+                      } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                      }
+                    })
+                .toList();
+        for (int i = 0; i < concurrent.size(); i++) {
+          assert Arrays.equals(concurrent.get(i), scanner.read(scanner.getEntries().get(i)));
+        }
+
+        // Nothing of the jar is readable once closed.
+        scanner.close();
+        try {
+          scanner.read(scanner.getEntries().get(0));
+          assert false;
+        } catch (ClosedChannelException expected) {
+        }
+      }
+
+      // Discovering the jar matches discovering the same class-files from a directory.
+      JavaDiscoverySettings settings = new JavaDiscoverySettings();
+      JavaLanguage fromJar = new JavaLanguage();
+      List<JavaClass> javaClasses =
+          fromJar.discoverJar(jar, new JarScanSettings().setBatchSize(3), settings);
+      assert javaClasses.size() == samples.size();
+
+      JavaLanguage fromDirectory = new JavaLanguage();
+      try (ClassFileLibrary library = new ClassFileLibrary()) {
+        library.addDirectory(classes);
+        for (Class<?> clazz : samples) {
+          fromDirectory.of(settings, library, clazz.getName());
+        }
+      }
+
+      JavaSerializeSettings serializeSettings = new JavaSerializeSettings();
+      assert fromJar
+          .onSave(serializeSettings, "test")
+          .equals(fromDirectory.onSave(serializeSettings, "test"));
+
+      // Batches parsed ahead concurrently discover the same classes, in the same order.
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+        JavaLanguage fromPool = new JavaLanguage();
+        List<JavaClass> pooled =
+            fromPool.discoverJar(
+                jar, new JarScanSettings().setBatchSize(1).setExecutor(executor), settings);
+        assert pooled.stream()
+            .map(JavaClass::getName)
+            .toList()
+            .equals(javaClasses.stream().map(JavaClass::getName).toList());
+        assert fromPool
+            .onSave(serializeSettings, "test")
+            .equals(fromJar.onSave(serializeSettings, "test"));
+      } finally {
+        executor.shutdown();
+      }
+    } finally {
+      Files.deleteIfExists(jar);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.JsonStreamReader;
+import com.asledgehammer.rosetta.JsonStreamWriter;
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.exception.RosettaException;
+import com.asledgehammer.rosetta.java.*;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+public class TestJson {
+
+  @Test
+  public void test() throws Exception {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+
+    JavaLanguage language = new JavaLanguage();
+    language.of(settings, ArrayList.class);
+    language.of(settings, Map.Entry.class);
+
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+    JavaSerializeSettings serializeSettings =
+        new JavaSerializeSettings().setTypeMode(TypeDictionaryMode.LIST);
+
+    String yaml =
+        collection.save(
+            "test",
+            (id, app) -> Map.of(),
+            (id, lang) -> ((JavaLanguage) lang).onSave(serializeSettings, id));
+    List<Map<String, Object>> fromYaml = new ArrayList<>();
+    Rosetta.createCollection()
+        .load((id, app, raw) -> {}, (id, lang, raw) -> fromYaml.add(raw), new StringReader(yaml));
+
+    for (boolean pretty : new boolean[] {true, false}) {
+      StringWriter writer = new StringWriter();
+      collection.saveJson(
+          "test",
+          (id, app, w) -> w.value(Map.of()),
+          (id, lang, w) -> ((JavaLanguage) lang).onSave(serializeSettings, id, w),
+          writer,
+          pretty);
+      String json = writer.toString();
+      assert pretty == json.contains("\n");
+
+      // The loaded data is identical to loading the YAML.
+      List<Object> fromJson = new ArrayList<>();
+      Rosetta.createCollection()
+          .loadJson(
+              (id, app, raw) -> {},
+              (id, lang, reader) -> fromJson.add(reader.readValue()),
+              new StringReader(json));
+      assert fromJson.equals(fromYaml);
+
+      // Languages streamed from JSON load the same as from YAML.
+      for (boolean lazy : new boolean[] {false, true}) {
+        JavaDeserializeSettings deserialize = new JavaDeserializeSettings().setLazy(lazy).build();
+        RosettaCollection streamed = Rosetta.createCollection();
+        streamed.loadJson(
+            (id, app, raw) -> {},
+            (id, lang, reader) -> ((JavaLanguage) lang).onLoad(deserialize, id, reader),
+            new StringReader(json));
+        RosettaCollection loaded = Rosetta.createCollection();
+        loaded.load(
+            (id, app, raw) -> {},
+            (id, lang, raw) -> ((JavaLanguage) lang).onLoad(deserialize, id, raw),
+            yaml);
+        assert save(streamed, serializeSettings).equals(save(loaded, serializeSettings));
+      }
+    }
+
+    // Scalars, escapes & nesting.
+    Map<String, Object> values = new LinkedHashMap<>();
+    values.put("string", "\"quoted\"\n\ttabbed \\ \u0001 \u00e9");
+    values.put("numbers", Arrays.asList(0, -12, 3_000_000_000L, 1.5, -2.5E-8));
+    values.put("literals", Arrays.asList(true, false, null));
+    values.put("empty", Map.of());
+    values.put("nested", List.of(List.of(), Map.of("a", List.of(1))));
+    for (boolean pretty : new boolean[] {true, false}) {
+      StringWriter writer = new StringWriter();
+      JsonStreamWriter json = new JsonStreamWriter(writer, pretty);
+      json.value(values);
+      json.finish();
+      assert values.equals(new JsonStreamReader(new StringReader(writer.toString())).readValue());
+    }
+
+    // Deferred values are identical to values read, and skipped values leave the reader in step.
+    // (The long string spans several buffers)
+    values.put("long", List.of("x".repeat(20_000) + "\\\"", Map.of("k", "y".repeat(9_000))));
+    values.put("last", "end");
+    StringWriter document = new StringWriter();
+    JsonStreamWriter documentWriter = new JsonStreamWriter(document, true);
+    documentWriter.value(values);
+    documentWriter.finish();
+    Map<String, Supplier<Object>> deferred = new LinkedHashMap<>();
+    JsonStreamReader stream = new JsonStreamReader(new StringReader(document.toString()));
+    stream.beginObject();
+    boolean skip = true;
+    while (stream.hasNext()) {
+      String key = stream.nextName();
+      if (skip) {
+        stream.skipValue();
+      } else {
+        deferred.put(key, stream.readDeferred());
+      }
+      skip = !skip;
+    }
+    stream.endObject();
+    assert stream.peek() == JsonStreamReader.Token.END_DOCUMENT;
+    assert deferred.keySet().equals(Set.of("numbers", "empty", "long"));
+    for (Map.Entry<String, Supplier<Object>> entry : deferred.entrySet()) {
+      assert values.get(entry.getKey()).equals(entry.getValue().get());
+    }
+    Object nested = deferred.get("long").get();
+    assert nested != deferred.get("long").get();
+
+    StringWriter compact = new StringWriter();
+    JsonStreamWriter json = new JsonStreamWriter(compact, false);
+    json.value(Map.of("a", List.of(1, Map.of())));
+    json.finish();
+    assert compact.toString().equals("{\"a\":[1,{}]}");
+
+    for (String malformed :
+        List.of("{\"a\":1,}", "[1 2]", "{\"a\" 1}", "[01]", "\"open", "{} {}")) {
+      try {
+        JsonStreamReader reader = new JsonStreamReader(new StringReader(malformed));
+        reader.readValue();
+        reader.peek();
+        assert false : malformed;
+      } catch (RosettaException ignored) {
+      }
+      try {
+        JsonStreamReader reader = new JsonStreamReader(new StringReader(malformed));
+        reader.skipValue();
+        reader.peek();
+        assert false : malformed;
+      } catch (RosettaException ignored) {
+      }
+    }
+  }
+
+  private static String save(RosettaCollection collection, JavaSerializeSettings settings) {
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(settings, id));
+  }
+}
@@ -0,0 +1,127 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.java.*;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+public class TestLazyLoad {
+
+  @Test
+  public void test() throws Exception {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+
+    JavaLanguage language = new JavaLanguage();
+    language.of(settings, ArrayList.class);
+    language.of(settings, HashMap.class);
+    language.of(settings, Map.Entry.class);
+    language.of(settings, ConcurrentHashMap.class);
+
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+    String yaml = save(collection);
+
+    JavaDeserializeSettings eager = new JavaDeserializeSettings().build();
+    JavaDeserializeSettings lazy = new JavaDeserializeSettings().setLazy(true).build();
+
+    // Loading eagerly or lazily, from the document or from its events, gives the same model.
+    String expected = save(load(eager, yaml, false));
+    assert expected.equals(save(load(lazy, yaml, false)));
+    assert expected.equals(save(load(eager, yaml, true)));
+    assert expected.equals(save(load(lazy, yaml, true)));
+
+    // Each class is built on its first access.
+    RosettaCollection loaded = load(lazy, yaml, true);
+    JavaPackage util = ((JavaLanguage) loaded.getLanguage("java")).getPackage("java.util");
+    JavaPackage concurrent =
+        ((JavaLanguage) loaded.getLanguage("java")).getPackage("java.util.concurrent");
+    assert !util.isLoaded() && !concurrent.isLoaded();
+    assert util.hasClazz("HashMap") && !util.isLoaded("HashMap");
+    assert util.getClazz("ArrayList").getMethods().containsKey("add");
+    assert util.isLoaded("ArrayList") && !util.isLoaded("HashMap") && !concurrent.isLoaded();
+
+    // Concurrent first accesses build the classes once.
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<JavaClass>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(pool.submit(() -> concurrent.getClazz("ConcurrentHashMap")));
+      }
+      JavaClass first = futures.get(0).get();
+      for (Future<JavaClass> future : futures) {
+        assert future.get() == first;
+      }
+    } finally {
+      pool.shutdown();
+    }
+    assert expected.equals(save(loaded));
+
+    // Classes of one package from files with their own type-dictionaries.
+    JavaSerializeSettings dictionary =
+        new JavaSerializeSettings().setTypeMode(TypeDictionaryMode.LIST).build();
+    Path directory = Files.createTempDirectory("rosetta-lazy");
+    try {
+      Files.writeString(directory.resolve("a.yml"), save(collection(ArrayList.class), dictionary));
+      Files.writeString(directory.resolve("b.yml"), save(collection(HashMap.class), dictionary));
+      RosettaCollection merged = Rosetta.createCollection();
+      merged.loadDirectory(
+          (id, app, raw) -> {},
+          (id, lang, raw) -> ((JavaLanguage) lang).onLoad(lazy, id, raw),
+          directory,
+          Runnable::run);
+      util = ((JavaLanguage) merged.getLanguage("java")).getPackage("java.util");
+      assert util.getClazz("ArrayList").getMethods().containsKey("add");
+      assert util.getClazz("HashMap").getMethods().containsKey("put");
+      String both = save(collection(ArrayList.class, HashMap.class));
+      assert save(load(eager, both, false)).equals(save(merged));
+    } finally {
+      try (Stream<Path> files = Files.walk(directory)) {
+        for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+      }
+    }
+  }
+
+  private static RosettaCollection collection(Class<?>... classes) {
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+    JavaLanguage language = new JavaLanguage();
+    for (Class<?> clazz : classes) language.of(settings, clazz);
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+    return collection;
+  }
+
+  private static RosettaCollection load(
+      JavaDeserializeSettings settings, String yaml, boolean stream) {
+    RosettaCollection collection = Rosetta.createCollection();
+    if (stream) {
+      collection.loadStream(
+          (id, app, raw) -> {},
+          (id, lang, raw) -> ((JavaLanguage) lang).onLoad(settings, id, raw),
+          new StringReader(yaml));
+    } else {
+      collection.load(
+          (id, app, raw) -> {},
+          (id, lang, raw) -> ((JavaLanguage) lang).onLoad(settings, id, raw),
+          yaml);
+    }
+    return collection;
+  }
+
+  private static String save(RosettaCollection collection) {
+    return save(collection, new JavaSerializeSettings());
+  }
+
+  private static String save(RosettaCollection collection, JavaSerializeSettings settings) {
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(settings, id));
+  }
+}
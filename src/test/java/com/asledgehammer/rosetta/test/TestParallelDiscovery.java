@@ -0,0 +1,45 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.java.*;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+public class TestParallelDiscovery {
+
+  static class MyArrayList extends ArrayList<String> {
+    static class Inner {}
+  }
+
+  @Test
+  public void test() {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.EXPOSE);
+
+    List<Class<?>> classes =
+        List.of(
+            MyArrayList.class,
+            MyArrayList.Inner.class,
+            HashMap.class,
+            LinkedList.class,
+            TreeMap.class,
+            ArrayDeque.class);
+
+    JavaLanguage serial = new JavaLanguage();
+    for (Class<?> clazz : classes) {
+      serial.of(settings, clazz);
+    }
+
+    JavaLanguage parallel = new JavaLanguage();
+    List<JavaClass> javaClasses = parallel.discoverAll(classes, settings, 4);
+    assert javaClasses.size() == classes.size();
+
+    JavaSerializeSettings serializeSettings = new JavaSerializeSettings();
+    Map<String, Object> rawSerial = serial.onSave(serializeSettings, "test");
+    Map<String, Object> rawParallel = parallel.onSave(serializeSettings, "test");
+    assert rawSerial.equals(rawParallel);
+
+    // Re-discovering the same classes is a no-op.
+    assert parallel.discoverAll(classes, settings, 4).equals(javaClasses);
+  }
+}
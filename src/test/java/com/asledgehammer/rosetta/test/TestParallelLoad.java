@@ -0,0 +1,96 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.exception.RosettaException;
+import com.asledgehammer.rosetta.java.*;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import org.junit.jupiter.api.Test;
+
+public class TestParallelLoad {
+
+  @Test
+  public void test() {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+
+    // Classes of several packages, including nested packages.
+    JavaLanguage language = new JavaLanguage();
+    for (Class<?> clazz :
+        List.of(
+            ArrayList.class,
+            HashMap.class,
+            ConcurrentHashMap.class,
+            Function.class,
+            Reader.class,
+            String.class,
+            Thread.class)) {
+      language.of(settings, clazz);
+    }
+
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      for (boolean nest : new boolean[] {false, true}) {
+        String yaml = save(collection, new JavaSerializeSettings().setNestPackages(nest));
+        String expected = save(load(new JavaDeserializeSettings(), yaml));
+
+        for (int i = 0; i < 4; i++) {
+          assert expected.equals(save(load(new JavaDeserializeSettings().setExecutor(pool), yaml)));
+          assert expected.equals(
+              save(load(new JavaDeserializeSettings().setExecutor(pool).setLazy(true), yaml)));
+        }
+      }
+
+      // Failures are thrown in package order.
+      String broken =
+          "id: test\n"
+              + "version: '1.2'\n"
+              + "languages:\n"
+              + "  java:\n"
+              + "    packages:\n"
+              + "      a: {classes: {A: {tags: 1}}}\n"
+              + "      b: {classes: {B: {tags: 2}}}\n";
+      String serial = failure(new JavaDeserializeSettings(), broken);
+      assert serial != null && serial.contains("A");
+      for (int i = 0; i < 4; i++) {
+        assert serial.equals(failure(new JavaDeserializeSettings().setExecutor(pool), broken));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static String failure(JavaDeserializeSettings settings, String yaml) {
+    try {
+      load(settings, yaml);
+    } catch (RosettaException e) {
+      return e.getMessage();
+    }
+    return null;
+  }
+
+  private static RosettaCollection load(JavaDeserializeSettings settings, String yaml) {
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.load(
+        (id, app, raw) -> {},
+        (id, lang, raw) -> ((JavaLanguage) lang).onLoad(settings, id, raw),
+        yaml);
+    return collection;
+  }
+
+  private static String save(RosettaCollection collection, JavaSerializeSettings settings) {
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(settings, id));
+  }
+
+  private static String save(RosettaCollection collection) {
+    return save(collection, new JavaSerializeSettings());
+  }
+}
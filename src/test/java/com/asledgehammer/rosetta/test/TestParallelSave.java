@@ -0,0 +1,61 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.java.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+public class TestParallelSave {
+
+  @Test
+  public void test() {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+
+    JavaLanguage language = new JavaLanguage();
+    language.of(settings, ArrayList.class);
+    language.of(settings, ConcurrentHashMap.class);
+    language.of(settings, Function.class);
+    language.of(settings, Optional.class);
+
+    // Notes & tags that look like references are never remapped.
+    JavaMethod method =
+        language
+            .getPackage("java.util.function")
+            .getClazz("Function")
+            .getMethods()
+            .get("andThen")
+            .getExecutables()
+            .get(0);
+    method.setNotes("$test:0");
+    method.addTag("$test:1");
+
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (TypeDictionaryMode mode : TypeDictionaryMode.values()) {
+        JavaSerializeSettings serial = new JavaSerializeSettings().setTypeMode(mode);
+        JavaSerializeSettings parallel =
+            new JavaSerializeSettings().setTypeMode(mode).setExecutor(pool);
+
+        // The indices of the type-dictionary & key order are identical.
+        String expected = save(collection, serial);
+        assert expected.equals(save(collection, parallel)) : mode;
+        assert expected.contains("notes: $test:0\n") && expected.contains("- $test:1\n") : mode;
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static String save(RosettaCollection collection, JavaSerializeSettings settings) {
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(settings, id));
+  }
+}
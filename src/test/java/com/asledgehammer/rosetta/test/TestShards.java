@@ -0,0 +1,103 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.exception.RosettaException;
+import com.asledgehammer.rosetta.java.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+public class TestShards {
+
+  @Test
+  public void test() throws Exception {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+
+    JavaLanguage language = new JavaLanguage();
+    language.of(settings, ArrayList.class);
+    language.of(settings, ConcurrentHashMap.class);
+    language.of(settings, Function.class);
+
+    Path directory = Files.createTempDirectory("rosetta-shards");
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      JavaSerializeSettings serializeSettings =
+          new JavaSerializeSettings().setTypeMode(TypeDictionaryMode.LIST).setExecutor(pool);
+      JavaShardManifest manifest = language.saveShards(serializeSettings, "test", directory);
+
+      assert manifest
+          .getShards()
+          .keySet()
+          .equals(Set.of("java.util", "java.util.concurrent", "java.util.function"));
+      assert manifest.getTypes() instanceof List<?> types && !types.isEmpty();
+
+      // The manifest reads back as written.
+      JavaShardManifest read = JavaShardManifest.read(directory);
+      assert read.getId().equals("test");
+      for (JavaShardManifest.Shard shard : manifest.getShards().values()) {
+        assert read.getShard(shard.getPath()).getSha256().equals(shard.getSha256());
+      }
+
+      // Only the requested shard is loaded. (Its types resolved from the shared dictionary)
+      JavaLanguage loaded = new JavaLanguage();
+      loaded.loadShards(new JavaDeserializeSettings(), directory, List.of("java.util.concurrent"));
+      JavaPackage concurrent = loaded.getPackage("java.util.concurrent");
+      assert concurrent != null && concurrent.getClasses().containsKey("ConcurrentHashMap");
+      assert loaded.getPackage("java.util").getClasses().isEmpty();
+      assert loaded.getPackage("java.util.function") == null;
+
+      // Every shard loads the same as the unsharded save.
+      JavaLanguage all = new JavaLanguage();
+      all.loadShards(new JavaDeserializeSettings(), directory, manifest.getShards().keySet());
+      JavaLanguage unsharded = new JavaLanguage();
+      unsharded.onLoad(
+          new JavaDeserializeSettings(), "test", language.onSave(serializeSettings, "test"));
+      JavaSerializeSettings plain = new JavaSerializeSettings();
+      assert all.onSave(plain, "test").equals(unsharded.onSave(plain, "test"));
+
+      // Shards outside the directory are refused, even if their hash matches.
+      Path outside = directory.resolveSibling(directory.getFileName() + "-outside.yml");
+      Files.copy(directory.resolve("java.util.function.yml"), outside);
+      Path manifestFile = directory.resolve(JavaShardManifest.FILE_NAME);
+      String original = Files.readString(manifestFile);
+      Files.writeString(
+          manifestFile,
+          original.replace(
+              "file: java.util.function.yml", "file: ../" + outside.getFileName().toString()));
+      try {
+        new JavaLanguage()
+            .loadShards(new JavaDeserializeSettings(), directory, List.of("java.util.function"));
+        assert false;
+      } catch (RosettaException ignored) {
+      } finally {
+        Files.delete(outside);
+        Files.writeString(manifestFile, original);
+      }
+
+      // Missing & modified shards are refused.
+      try {
+        loaded.loadShards(new JavaDeserializeSettings(), directory, List.of("java.lang"));
+        assert false;
+      } catch (RosettaException ignored) {
+      }
+      Files.writeString(directory.resolve("java.util.function.yml"), "{}\n");
+      try {
+        loaded.loadShards(new JavaDeserializeSettings(), directory, List.of("java.util.function"));
+        assert false;
+      } catch (RosettaException ignored) {
+      }
+    } finally {
+      pool.shutdown();
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path file : files.toList()) Files.delete(file);
+      }
+      Files.delete(directory);
+    }
+  }
+}
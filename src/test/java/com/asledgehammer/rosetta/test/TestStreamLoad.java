@@ -0,0 +1,213 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.YamlStreamReader;
+import com.asledgehammer.rosetta.exception.ClassConflictException;
+import com.asledgehammer.rosetta.java.*;
+import java.io.StringReader;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+public class TestStreamLoad {
+
+  private static final String VALUES =
+      """
+      plain: text
+      quoted: '1'
+      tagged: !!str 2
+      number: 3
+      decimal: 4.5
+      flag: true
+      empty: null
+      list: [a, 1, {b: ~}]
+      nested:
+        anchored: &shared {key: [x, y]}
+        alias: *shared
+        scalar: &name value
+        again: *name
+        deep: {a: {b: {c: [[1, 2], [3]]}}}
+      last: end
+      """;
+
+  /** Values whose text is indented, spans lines or follows characters beyond the BMP. */
+  private static final String INDENTED =
+      """
+      root:
+        unicode: "\uD83D\uDE00 text"
+        block:
+          literal: |
+            # not a comment
+              indented
+          # a comment
+      # a less indented comment
+          folded: >-
+            two
+            lines
+        flow: {a: 1,
+          b: [2, 3]}
+        sequence:
+        - item
+        - {key: &anchor value, again: *anchor}
+        tagged: !!map {c: 4}
+        last: end
+      """;
+
+  @Test
+  public void test() {
+
+    // Deferred & skimmed values are identical to values read, and skipped values leave the reader
+    // in step.
+    Map<String, Object> expected = new LinkedHashMap<>();
+    try (YamlStreamReader reader = new YamlStreamReader(new StringReader(VALUES))) {
+      reader.beginMapping();
+      while (reader.hasNext()) expected.put(reader.nextKey(), reader.readValue());
+      reader.endMapping();
+      reader.endDocument();
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    for (boolean skim : new boolean[] {false, true}) {
+      Map<String, Supplier<Object>> deferred = new LinkedHashMap<>();
+      try (YamlStreamReader reader = new YamlStreamReader(new StringReader(VALUES))) {
+        reader.beginMapping();
+        boolean skip = false;
+        while (reader.hasNext()) {
+          String key = reader.nextKey();
+          if (skip) {
+            reader.skipValue();
+          } else {
+            deferred.put(key, skim ? reader.skimValue() : reader.readDeferred());
+          }
+          skip = !skip;
+        }
+        reader.endMapping();
+        reader.endDocument();
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+      assert deferred.keySet().equals(Set.of("plain", "tagged", "decimal", "empty", "nested"));
+      for (Map.Entry<String, Supplier<Object>> entry : deferred.entrySet()) {
+        assert Objects.equals(expected.get(entry.getKey()), entry.getValue().get());
+      }
+      assert expected.containsKey("empty") && deferred.get("empty").get() == null;
+      assert "2".equals(deferred.get("tagged").get());
+
+      // Each call builds the value again.
+      Object nested = deferred.get("nested").get();
+      assert nested.equals(deferred.get("nested").get()) && nested != deferred.get("nested").get();
+    }
+
+    // Skimmed values parse from their own text, with any line breaks.
+    for (String text : List.of(INDENTED, INDENTED.replace("\n", "\r\n"))) {
+      Map<String, Object> read = new LinkedHashMap<>();
+      Map<String, Object> skimmed = new LinkedHashMap<>();
+      for (boolean skim : new boolean[] {false, true}) {
+        try (YamlStreamReader reader = new YamlStreamReader(new StringReader(text))) {
+          reader.beginMapping();
+          reader.nextKey();
+          reader.beginMapping();
+          while (reader.hasNext()) {
+            String key = reader.nextKey();
+            if (skim) {
+              skimmed.put(key, reader.skimValue().get());
+            } else {
+              read.put(key, reader.readValue());
+            }
+          }
+          reader.endMapping();
+          reader.endMapping();
+          reader.endDocument();
+        } catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
+      assert skimmed.equals(read) && read.size() == 6;
+      assert "# not a comment\n  indented\n".equals(((Map<?, ?>) read.get("block")).get("literal"));
+    }
+
+    // A language read before the ID of the document loads the same way.
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+    JavaLanguage language = new JavaLanguage();
+    language.of(settings, ArrayList.class);
+    language.of(settings, ConcurrentHashMap.class);
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+    String yaml = save(collection);
+    assert yaml.startsWith("id: test\n") && yaml.contains("\nversion: '1.2'");
+
+    String languages = yaml.substring(yaml.indexOf("languages:"), yaml.indexOf("locale:"));
+    String idLast =
+        yaml.replace(languages, "").replace("id: test\n", "") + languages + "id: test\n";
+    assert !idLast.equals(yaml);
+    for (boolean lazy : new boolean[] {false, true}) {
+      JavaDeserializeSettings deserialize = new JavaDeserializeSettings().setLazy(lazy).build();
+      String first = save(loadStream(deserialize, yaml));
+      assert first.equals(save(loadStream(deserialize, idLast)));
+      assert first.equals(save(load(deserialize, yaml)));
+    }
+
+    // A conflicting load changes nothing, even when the conflict is in a later package.
+    JavaLanguage target = new JavaLanguage();
+    target.of(settings, ConcurrentHashMap.class);
+    RosettaCollection targetCollection = Rosetta.createCollection();
+    targetCollection.addLanguage(target);
+    String before = save(targetCollection);
+    try {
+      Rosetta.createCollection()
+          .loadStream(
+              (id, app, raw) -> {},
+              (id, lang, reader) ->
+                  target.onLoad(new JavaDeserializeSettings().build(), id, reader),
+              new StringReader(yaml));
+      assert false;
+    } catch (ClassConflictException e) {
+      assert e.getMessage().contains("java.util.concurrent.ConcurrentHashMap");
+    }
+    assert !target.isDefined("java.util.ArrayList");
+    assert save(targetCollection).equals(before);
+
+    // Languages are loaded in the order of the document, streamed or not.
+    String unsorted = "id: test\nversion: '1.2'\nlanguages:\n  lua: {}\n  java: {}\n";
+    List<String> mapOrder = new ArrayList<>();
+    Rosetta.createCollection()
+        .load((id, app, raw) -> {}, (id, lang, raw) -> mapOrder.add(lang.getID()), unsorted);
+    List<String> streamOrder = new ArrayList<>();
+    Rosetta.createCollection()
+        .loadStream(
+            (id, app, raw) -> {},
+            (id, lang, reader) -> {
+              streamOrder.add(lang.getID());
+              reader.skipValue();
+            },
+            new StringReader(unsorted));
+    assert mapOrder.equals(List.of("lua", "java")) && streamOrder.equals(mapOrder);
+  }
+
+  private static RosettaCollection loadStream(JavaDeserializeSettings settings, String yaml) {
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.loadStream(
+        (id, app, raw) -> {},
+        (id, lang, reader) -> ((JavaLanguage) lang).onLoad(settings, id, reader),
+        new StringReader(yaml));
+    return collection;
+  }
+
+  private static RosettaCollection load(JavaDeserializeSettings settings, String yaml) {
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.load(
+        (id, app, raw) -> {},
+        (id, lang, raw) -> ((JavaLanguage) lang).onLoad(settings, id, raw),
+        yaml);
+    return collection;
+  }
+
+  private static String save(RosettaCollection collection) {
+    JavaSerializeSettings settings = new JavaSerializeSettings();
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(settings, id));
+  }
+}
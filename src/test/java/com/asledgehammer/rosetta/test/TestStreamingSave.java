@@ -0,0 +1,47 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.java.*;
+import java.io.StringWriter;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+public class TestStreamingSave {
+
+  @Test
+  public void test() throws Exception {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+
+    JavaLanguage language = new JavaLanguage();
+    language.of(settings, ArrayList.class);
+    language.of(settings, HashMap.class);
+    language.of(settings, Map.Entry.class);
+    language.of(settings, String.class);
+
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+
+    for (TypeDictionaryMode mode : TypeDictionaryMode.values()) {
+      final JavaSerializeSettings serializeSettings = new JavaSerializeSettings();
+      serializeSettings.setTypeMode(mode);
+
+      String expected =
+          collection.save(
+              "test",
+              (id, app) -> Map.of(),
+              (id, lang) -> ((JavaLanguage) lang).onSave(serializeSettings, id));
+
+      StringWriter writer = new StringWriter();
+      collection.save(
+          "test",
+          (id, app, w) -> w.value(Map.of()),
+          (id, lang, w) -> ((JavaLanguage) lang).onSave(serializeSettings, id, w),
+          writer);
+
+      assert expected.equals(writer.toString()) : mode;
+    }
+  }
+}
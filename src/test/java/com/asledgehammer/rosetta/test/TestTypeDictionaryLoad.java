@@ -0,0 +1,73 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.java.*;
+import com.asledgehammer.rosetta.java.reference.TypeReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+public class TestTypeDictionaryLoad {
+
+  @Test
+  public void test() {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+
+    JavaLanguage language = new JavaLanguage();
+    language.of(settings, ArrayList.class);
+    language.of(settings, HashMap.class);
+    language.of(settings, ConcurrentHashMap.class);
+
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+
+    JavaSerializeSettings none = new JavaSerializeSettings();
+    String expected = save(load(save(collection, none)), none);
+
+    List<JavaSerializeSettings> encodings =
+        List.of(
+            new JavaSerializeSettings().setTypeMode(TypeDictionaryMode.LIST),
+            new JavaSerializeSettings().setTypeMode(TypeDictionaryMode.DICTIONARY),
+            new JavaSerializeSettings()
+                .setTypeMode(TypeDictionaryMode.LIST)
+                .setSortTypesByUsage(true),
+            new JavaSerializeSettings()
+                .setTypeMode(TypeDictionaryMode.DICTIONARY)
+                .setSortTypesByUsage(true));
+    for (JavaSerializeSettings encoding : encodings) {
+      String yaml = save(collection, encoding);
+      assert yaml.contains("$test:") : encoding.getTypeMode();
+
+      // A dictionary-encoded file loads the same model as the expanded form.
+      RosettaCollection loaded = load(yaml);
+      assert expected.equals(save(loaded, none)) : encoding.getTypeMode();
+
+      // References to the same entry resolve to the same instance.
+      JavaClass arrayList =
+          ((JavaLanguage) loaded.getLanguage("java")).getPackage("java.util").getClazz("ArrayList");
+      List<TypeReference> collections = new ArrayList<>();
+      for (JavaMethod method : arrayList.getMethods().get("addAll").getExecutables()) {
+        collections.add(method.getParameters().get(method.getParameters().size() - 1).getType());
+      }
+      assert collections.size() == 2 && collections.get(0) == collections.get(1);
+    }
+  }
+
+  private static RosettaCollection load(String yaml) {
+    JavaDeserializeSettings settings = new JavaDeserializeSettings();
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.load(
+        (id, app, raw) -> {},
+        (id, lang, raw) -> ((JavaLanguage) lang).onLoad(settings, id, raw),
+        yaml);
+    return collection;
+  }
+
+  private static String save(RosettaCollection collection, JavaSerializeSettings settings) {
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(settings, id));
+  }
+}
@@ -0,0 +1,71 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.java.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+public class TestTypeMapLoad {
+
+  @Test
+  public void test() {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+    settings.setSuperPolicy(JavaDiscoverySettings.SuperPolicy.IGNORE);
+
+    // Nested generics, bounded wildcards, type variables & arrays.
+    JavaLanguage language = new JavaLanguage();
+    language.of(settings, TreeMap.class);
+    language.of(settings, ConcurrentHashMap.class);
+    language.of(settings, Collections.class);
+
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+
+    JavaSerializeSettings none = new JavaSerializeSettings();
+    String expected = save(load(save(collection, none)), none);
+
+    for (TypeDictionaryMode mode : TypeDictionaryMode.values()) {
+      RosettaCollection loaded =
+          load(save(collection, new JavaSerializeSettings().setTypeMode(mode)));
+      assert expected.equals(save(loaded, none)) : mode;
+
+      // Every type is built back as the same interned type.
+      for (String name : List.of("TreeMap", "Collections")) {
+        JavaClass original = language.getPackage("java.util").getClazz(name);
+        JavaClass clazz =
+            ((JavaLanguage) loaded.getLanguage("java")).getPackage("java.util").getClazz(name);
+        for (String methodName : original.getMethods().keySet()) {
+          List<JavaMethod> methods = original.getMethods().get(methodName).getExecutables();
+          List<JavaMethod> actual = clazz.getMethods().get(methodName).getExecutables();
+          for (int i = 0; i < methods.size(); i++) {
+            assert methods.get(i).getReturns().getType() == actual.get(i).getReturns().getType()
+                : mode + " " + name + "." + methodName;
+            for (int j = 0; j < methods.get(i).getParameters().size(); j++) {
+              assert methods.get(i).getParameters().get(j).getType()
+                      == actual.get(i).getParameters().get(j).getType()
+                  : mode + " " + name + "." + methodName;
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static RosettaCollection load(String yaml) {
+    JavaDeserializeSettings settings = new JavaDeserializeSettings();
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.load(
+        (id, app, raw) -> {},
+        (id, lang, raw) -> ((JavaLanguage) lang).onLoad(settings, id, raw),
+        yaml);
+    return collection;
+  }
+
+  private static String save(RosettaCollection collection, JavaSerializeSettings settings) {
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(settings, id));
+  }
+}
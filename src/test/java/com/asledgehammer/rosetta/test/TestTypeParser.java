@@ -0,0 +1,54 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.exception.TypeParseException;
+import com.asledgehammer.rosetta.java.reference.SimpleTypeReference;
+import com.asledgehammer.rosetta.java.reference.TypeReference;
+import com.asledgehammer.rosetta.java.reference.UnionTypeReference;
+import org.junit.jupiter.api.Test;
+
+public class TestTypeParser {
+
+  @Test
+  public void test() {
+
+    String nested = "java.util.Map<K, java.util.List<? extends java.lang.Comparable<? super T>>>";
+    SimpleTypeReference map = (SimpleTypeReference) TypeReference.of(nested);
+    assert map.getBase().equals("java.util.Map");
+    assert map.getSubTypes().get(0).isGeneric();
+    SimpleTypeReference list = (SimpleTypeReference) map.getSubTypes().get(1);
+    UnionTypeReference comparable = (UnionTypeReference) list.getSubTypes().get(0);
+    assert comparable.isWildcard() && comparable.isExtendsOrSuper();
+    SimpleTypeReference bound = (SimpleTypeReference) comparable.getBounds()[0];
+    UnionTypeReference superT = (UnionTypeReference) bound.getSubTypes().get(0);
+    assert !superT.isExtendsOrSuper();
+    assert superT.getBounds()[0].getBase().equals("T");
+    assert map.compile().equals(nested);
+
+    // Whitespace is insignificant & arrays survive compiling.
+    TypeReference arrays = TypeReference.of("java.util.List< java.lang.String > [ ] []");
+    assert arrays.compile().equals("java.util.List<java.lang.String>[][]");
+    assert TypeReference.of(arrays.compile()) == arrays;
+    assert ((SimpleTypeReference) TypeReference.of("int[]")).isPrimitive();
+
+    UnionTypeReference variable =
+        (UnionTypeReference)
+            TypeReference.of("T extends java.lang.Number & java.lang.Comparable<T>");
+    assert variable.getBase().equals("T") && variable.isGeneric();
+    assert variable.getBounds().length == 2;
+
+    assertError("java.util.List<java.lang.String", 31);
+    assertError("java.util.Map<K,>", 16);
+    assertError("java.util.List<T>>", 17);
+    assertError("java.util.List<T> extends java.lang.Object", 0);
+  }
+
+  private static void assertError(String type, int index) {
+    try {
+      TypeReference.of(type);
+      assert false : "Parsed malformed type: " + type;
+    } catch (TypeParseException e) {
+      assert e.getIndex() == index : e.getMessage();
+      assert e.getSource().equals(type);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.java.reference.SimpleTypeReference;
+import com.asledgehammer.rosetta.java.reference.TypeReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+public class TestTypeReferenceInterning {
+
+  Map<String, List<Integer>> map;
+
+  @Test
+  public void test() throws Exception {
+
+    TypeReference string = TypeReference.of("java.lang.String");
+    assert TypeReference.of("java.lang.String") == string;
+    assert TypeReference.of(String.class) == string;
+    assert TypeReference.ofSimple("java.lang.String", null, 0, false) == string;
+
+    // Reflected, parsed & structurally built types share the same instances.
+    Field field = getClass().getDeclaredField("map");
+    TypeReference reflected = TypeReference.of(field.getGenericType());
+    TypeReference parsed =
+        TypeReference.of("java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>");
+    TypeReference built =
+        TypeReference.ofSimple(
+            "java.util.Map",
+            List.of(
+                TypeReference.of("java.lang.String"),
+                TypeReference.ofSimple(
+                    "java.util.List", List.of(TypeReference.of(Integer.class)), 0, false)),
+            0,
+            false);
+    assert reflected == parsed;
+    assert built == parsed;
+    assert ((SimpleTypeReference) parsed).getSubTypes().get(0) == string;
+
+    // Sub-types of canonical instances are immutable.
+    try {
+      ((SimpleTypeReference) parsed).getSubTypes().clear();
+      assert false;
+    } catch (UnsupportedOperationException ignored) {
+    }
+
+    // Structurally different types stay apart.
+    assert TypeReference.ofSimple("java.lang.String", null, 1, false) != string;
+    TypeReference extendsNumber =
+        TypeReference.ofWildcard(true, new TypeReference[] {TypeReference.of(Number.class)});
+    TypeReference superNumber =
+        TypeReference.ofWildcard(false, new TypeReference[] {TypeReference.of(Number.class)});
+    assert extendsNumber != superNumber;
+    assert !extendsNumber.equals(superNumber);
+    assert extendsNumber
+        == TypeReference.ofWildcard(true, new TypeReference[] {TypeReference.of(Number.class)});
+
+    // Bounds are copied, so the canonical instance can't be modified.
+    extendsNumber.getBounds()[0] = string;
+    assert extendsNumber.getBounds()[0] == TypeReference.of(Number.class);
+    assert string.getBounds()[0] == string;
+
+    // The caches don't keep types alive that nothing else uses.
+    WeakReference<TypeReference> unused =
+        new WeakReference<>(TypeReference.of("java.util.List<test.Unused>"));
+    for (int i = 0; i < 100 && unused.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assert unused.get() == null;
+    TypeReference used = TypeReference.of("java.util.List<test.Unused>");
+    assert TypeReference.of("java.util.List<test.Unused>") == used;
+
+    // Cleared instances are still equal to the new canonical instances.
+    TypeReference.clearCache();
+    TypeReference reparsed =
+        TypeReference.of("java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>");
+    assert reparsed != parsed;
+    assert reparsed.equals(parsed) && reparsed.hashCode() == parsed.hashCode();
+    assert TypeReference.of(Object.class) == TypeReference.of("java.lang.Object");
+
+    // Types built while the caches are cleared never leave stale instances in the new caches.
+    // (Unresolvable names parse as type variables)
+    int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (int round = 0; round < 20; round++) {
+        AtomicBoolean done = new AtomicBoolean();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 256; i++) names.add("test.Round" + round + "$Type" + i);
+        List<Future<?>> builders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+          builders.add(
+              executor.submit(
+                  () -> {
+                    for (String name : names) {
+                      TypeReference.ofSimple(name, null, 0, true);
+                      TypeReference.of("java.util.List<" + name + ">");
+                      if (done.get()) break;
+                    }
+                  }));
+        }
+        while (!builders.stream().allMatch(Future::isDone)) TypeReference.clearCache();
+        done.set(true);
+        for (Future<?> builder : builders) builder.get();
+
+        for (String name : names) {
+          TypeReference leaf = TypeReference.ofSimple(name, null, 0, true);
+          assert TypeReference.of(name) == leaf : name;
+          SimpleTypeReference list =
+              (SimpleTypeReference) TypeReference.of("java.util.List<" + name + ">");
+          assert list.getSubTypes().get(0) == leaf : name;
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
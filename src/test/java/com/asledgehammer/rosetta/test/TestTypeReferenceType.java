@@ -2,17 +2,22 @@ package com.asledgehammer.rosetta.test;
 
 import com.asledgehammer.rosetta.java.reference.SimpleTypeReference;
 import com.asledgehammer.rosetta.java.reference.TypeReference;
+import com.asledgehammer.rosetta.java.reference.UnionTypeReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 
 public class TestTypeReferenceType {
 
   ArrayList<String> list;
+  Map<String, List<? extends Number>> wildcards;
+  List<String>[][] arrays;
 
   @Test
-  public void test() {
+  public void test() throws Exception {
     Type type = null;
     try {
       Field field = getClass().getDeclaredField("list");
@@ -33,5 +38,28 @@ public class TestTypeReferenceType {
 
     System.out.println(typeReference.getBase());
     System.out.println(((SimpleTypeReference) typeReference).getSubTypes());
+
+    // Nested wildcard bounds are kept.
+    SimpleTypeReference wildcards = (SimpleTypeReference) of("wildcards");
+    SimpleTypeReference list = (SimpleTypeReference) wildcards.getSubTypes().get(1);
+    assert list.getBase().equals("java.util.List");
+    UnionTypeReference wildcard = (UnionTypeReference) list.getSubTypes().get(0);
+    assert wildcard.isWildcard() && wildcard.isExtendsOrSuper();
+    assert wildcard.getBounds()[0] == TypeReference.of(Number.class);
+
+    // Generic arrays keep their component type.
+    SimpleTypeReference arrays = (SimpleTypeReference) of("arrays");
+    assert arrays.getBase().equals("java.util.List");
+    assert arrays.getArrayDepth() == 2;
+    assert arrays.getSubTypes().get(0) == TypeReference.of(String.class);
+
+    // Primitive arrays & nested classes use their binary names.
+    SimpleTypeReference ints = (SimpleTypeReference) TypeReference.of(int[].class);
+    assert ints.isPrimitive() && ints.getArrayDepth() == 1;
+    assert TypeReference.of(Map.Entry.class).getBase().equals("java.util.Map$Entry");
+  }
+
+  private TypeReference of(String fieldName) throws NoSuchFieldException {
+    return TypeReference.of(getClass().getDeclaredField(fieldName).getGenericType());
   }
 }
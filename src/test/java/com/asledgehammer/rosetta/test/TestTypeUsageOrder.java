@@ -0,0 +1,95 @@
+package com.asledgehammer.rosetta.test;
+
+import com.asledgehammer.rosetta.Rosetta;
+import com.asledgehammer.rosetta.RosettaCollection;
+import com.asledgehammer.rosetta.java.*;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+public class TestTypeUsageOrder {
+
+  private static final Pattern REFERENCE = Pattern.compile("\\$test:(\\d+)");
+  private static final String NOTE = "$test:3";
+
+  @Test
+  public void test() throws Exception {
+
+    JavaDiscoverySettings settings = new JavaDiscoverySettings();
+
+    JavaLanguage language = new JavaLanguage();
+    language.of(settings, ArrayList.class);
+    language.of(settings, HashMap.class);
+    language.of(settings, String.class);
+
+    // Notes that look like references are neither counted nor renumbered.
+    language
+        .getPackage("java.util")
+        .getClazz("ArrayList")
+        .getMethods()
+        .get("add")
+        .getExecutables()
+        .get(0)
+        .setNotes(NOTE);
+
+    RosettaCollection collection = Rosetta.createCollection();
+    collection.addLanguage(language);
+
+    for (TypeDictionaryMode mode :
+        List.of(TypeDictionaryMode.LIST, TypeDictionaryMode.DICTIONARY)) {
+      JavaSerializeSettings firstSeen = new JavaSerializeSettings().setTypeMode(mode);
+      JavaSerializeSettings byUsage =
+          new JavaSerializeSettings().setTypeMode(mode).setSortTypesByUsage(true);
+
+      String unsorted = save(collection, firstSeen);
+      String sorted = save(collection, byUsage);
+      assert unsorted.contains("notes: " + NOTE + "\n") : mode;
+      assert sorted.contains("notes: " + NOTE + "\n") : mode;
+
+      // The most referenced types have the smallest indices.
+      int[] counts = count(sorted);
+      for (int i = 1; i < counts.length; i++) {
+        assert counts[i - 1] >= counts[i] : mode + " " + i;
+      }
+      assert Arrays.equals(
+          Arrays.stream(counts).sorted().toArray(),
+          Arrays.stream(count(unsorted)).sorted().toArray());
+      assert sorted.length() <= unsorted.length() : mode;
+
+      // The order is deterministic & identical when parallel or streamed.
+      assert sorted.equals(save(collection, byUsage)) : mode;
+      JavaSerializeSettings parallel =
+          new JavaSerializeSettings()
+              .setTypeMode(mode)
+              .setSortTypesByUsage(true)
+              .setExecutor(Runnable::run);
+      assert sorted.equals(save(collection, parallel)) : mode;
+
+      StringWriter writer = new StringWriter();
+      collection.save(
+          "test",
+          (id, app, w) -> w.value(Map.of()),
+          (id, lang, w) -> ((JavaLanguage) lang).onSave(byUsage, id, w),
+          writer);
+      assert sorted.equals(writer.toString()) : mode;
+    }
+  }
+
+  private static int[] count(String yaml) {
+    List<Integer> counts = new ArrayList<>();
+    Matcher matcher = REFERENCE.matcher(yaml.replace("notes: " + NOTE + "\n", ""));
+    while (matcher.find()) {
+      int index = Integer.parseInt(matcher.group(1));
+      while (counts.size() <= index) counts.add(0);
+      counts.set(index, counts.get(index) + 1);
+    }
+    return counts.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static String save(RosettaCollection collection, JavaSerializeSettings settings) {
+    return collection.save(
+        "test", (id, app) -> Map.of(), (id, lang) -> ((JavaLanguage) lang).onSave(settings, id));
+  }
+}